@@ -12,6 +12,7 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.joda.convert.FromString;
 import org.joda.convert.ToString;
@@ -47,6 +48,10 @@ public final class Currency
    * The matcher for the code.
    */
   static final CharMatcher CODE_MATCHER = CharMatcher.inRange('A', 'Z');
+  /**
+   * The source of ordinals, which must be initialized before any instance is created.
+   */
+  private static final AtomicInteger ORDINALS = new AtomicInteger();
   /**
    * The configured instances.
    */
@@ -277,6 +282,10 @@ public final class Currency
    * The cached hash code.
    */
   private final transient int cachedHashCode;
+  /**
+   * The ordinal, unique to this instance within the JVM.
+   */
+  private final transient int ordinal;
 
   //-------------------------------------------------------------------------
   /**
@@ -354,6 +363,7 @@ public final class Currency
     this.triangulationCurrency = triangulationCurrency;
     // total universe is (26 * 26 * 26) codes, which can provide a unique hash code
     this.cachedHashCode = ((code.charAt(0) - 64) << 16) + ((code.charAt(1) - 64) << 8) + (code.charAt(2) - 64);
+    this.ordinal = ORDINALS.getAndIncrement();
   }
 
   /**
@@ -403,6 +413,20 @@ public final class Currency
     return Currency.of(triangulationCurrency);
   }
 
+  /**
+   * Gets the ordinal of the currency.
+   * <p>
+   * Each currency is a singleton, and each is allocated a dense, zero-based ordinal when it is created.
+   * This allows a currency to be used as an index into an array, avoiding a hash lookup.
+   * The ordinal depends on the order in which currencies are created, thus it is only
+   * meaningful within the running JVM and must not be stored or sent elsewhere.
+   * 
+   * @return the ordinal, zero or greater
+   */
+  public int getOrdinal() {
+    return ordinal;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Rounds the specified amount according to the minor units.
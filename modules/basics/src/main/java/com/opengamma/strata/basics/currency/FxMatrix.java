@@ -7,6 +7,7 @@ package com.opengamma.strata.basics.currency;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.function.BiConsumer;
@@ -21,6 +22,7 @@ import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableConstructor;
 import org.joda.beans.gen.PropertyDefinition;
 import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
@@ -32,6 +34,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.tuple.Pair;
 
@@ -44,7 +47,7 @@ import com.opengamma.strata.collect.tuple.Pair;
  * <p>
  * This class is immutable and thread-safe.
  */
-@BeanDefinition(builderScope = "private", constructorScope = "package")
+@BeanDefinition(builderScope = "private")
 public final class FxMatrix
     implements FxRateProvider, ImmutableBean, Serializable {
 
@@ -82,6 +85,11 @@ public final class FxMatrix
    */
   @PropertyDefinition(validate = "notNull")
   private final DoubleMatrix rates;
+  /**
+   * The position of each currency within the {@code rates} array, indexed by the currency ordinal.
+   * Currencies not in the matrix have the position -1.
+   */
+  private final transient int[] ordinalIndex;  // derived, not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -172,6 +180,29 @@ public final class FxMatrix
         FxMatrixBuilder::build);
   }
 
+  /**
+   * Creates an instance.
+   *
+   * @param currencies  the map of currency to position within the rates
+   * @param rates  the matrix of rates
+   */
+  @ImmutableConstructor
+  FxMatrix(Map<Currency, Integer> currencies, DoubleMatrix rates) {
+    JodaBeanUtils.notNull(currencies, "currencies");
+    JodaBeanUtils.notNull(rates, "rates");
+    this.currencies = ImmutableMap.copyOf(currencies);
+    this.rates = rates;
+    int maxOrdinal = currencies.keySet().stream().mapToInt(Currency::getOrdinal).max().orElse(-1);
+    this.ordinalIndex = new int[maxOrdinal + 1];
+    Arrays.fill(ordinalIndex, -1);
+    currencies.forEach((ccy, index) -> ordinalIndex[ccy.getOrdinal()] = index);
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new FxMatrix(currencies, rates);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Returns the set of currencies held within this matrix.
@@ -199,9 +230,9 @@ public final class FxMatrix
     if (baseCurrency.equals(counterCurrency)) {
       return 1d;
     }
-    Integer index1 = currencies.get(baseCurrency);
-    Integer index2 = currencies.get(counterCurrency);
-    if (index1 != null && index2 != null) {
+    int index1 = index(baseCurrency);
+    int index2 = index(counterCurrency);
+    if (index1 >= 0 && index2 >= 0) {
       return rates.get(index1, index2);
     } else {
       throw new IllegalArgumentException(Messages.format(
@@ -209,6 +240,12 @@ public final class FxMatrix
     }
   }
 
+  // finds the position of the currency within the rates, -1 if not found
+  private int index(Currency currency) {
+    int ordinal = currency.getOrdinal();
+    return ordinal < ordinalIndex.length ? ordinalIndex[ordinal] : -1;
+  }
+
   /**
    * Converts a {@code CurrencyAmount} into an amount in the specified
    * currency using the rates in this matrix.
@@ -249,6 +286,39 @@ public final class FxMatrix
     return CurrencyAmount.of(targetCurrency, total);
   }
 
+  /**
+   * Converts a column of amounts, each in its own currency, into the specified currency
+   * using the rates in this matrix.
+   * <p>
+   * The amount at each index is expressed in the currency at the same index.
+   * This is equivalent to converting each amount individually, but avoids creating
+   * a {@code CurrencyAmount} for each element.
+   *
+   * @param amounts  the amounts to be converted
+   * @param currencies  the currency of each amount
+   * @param targetCurrency  the currency to convert all amounts to
+   * @return the amounts converted to the requested currency
+   * @throws IllegalArgumentException if the sizes differ or no FX rate could be found
+   */
+  public DoubleArray convert(DoubleArray amounts, List<Currency> currencies, Currency targetCurrency) {
+    ArgChecker.notNull(amounts, "amounts");
+    ArgChecker.notNull(currencies, "currencies");
+    ArgChecker.notNull(targetCurrency, "targetCurrency");
+    ArgChecker.isTrue(amounts.size() == currencies.size(), "Amounts and currencies must have the same size");
+    int targetIndex = index(targetCurrency);
+    double[] converted = new double[amounts.size()];
+    for (int i = 0; i < converted.length; i++) {
+      Currency currency = currencies.get(i);
+      int index = index(currency);
+      if (index >= 0 && targetIndex >= 0) {
+        converted[i] = amounts.get(i) * rates.get(index, targetIndex);
+      } else {
+        converted[i] = amounts.get(i) * fxRate(currency, targetCurrency);
+      }
+    }
+    return DoubleArray.ofUnsafe(converted);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Merges the entries from the other matrix into this one.
@@ -304,20 +374,6 @@ public final class FxMatrix
    */
   private static final long serialVersionUID = 1L;
 
-  /**
-   * Creates an instance.
-   * @param currencies  the value of the property, not null
-   * @param rates  the value of the property, not null
-   */
-  FxMatrix(
-      Map<Currency, Integer> currencies,
-      DoubleMatrix rates) {
-    JodaBeanUtils.notNull(currencies, "currencies");
-    JodaBeanUtils.notNull(rates, "rates");
-    this.currencies = ImmutableMap.copyOf(currencies);
-    this.rates = rates;
-  }
-
   @Override
   public FxMatrix.Meta metaBean() {
     return FxMatrix.Meta.INSTANCE;
@@ -150,6 +150,18 @@ public class CurrencyTest {
     assertEquals(Currency.of("CAD").getTriangulationCurrency(), Currency.USD);
   }
 
+  //-----------------------------------------------------------------------
+  public void test_ordinal() {
+    Currency dynamic = Currency.of("AAB");
+    assertEquals(Currency.of("USD").getOrdinal(), Currency.USD.getOrdinal());
+    assertEquals(Currency.of("AAB").getOrdinal(), dynamic.getOrdinal());
+    assertEquals(Currency.getAvailableCurrencies().stream().mapToInt(Currency::getOrdinal).distinct().count(),
+        Currency.getAvailableCurrencies().size());
+    assertTrue(Currency.USD.getOrdinal() >= 0);
+    assertTrue(Currency.USD.getOrdinal() != Currency.EUR.getOrdinal());
+    assertTrue(dynamic.getOrdinal() != Currency.USD.getOrdinal());
+  }
+
   //-----------------------------------------------------------------------
   public void test_roundMinorUnits_double() {
     assertEquals(Currency.USD.roundMinorUnits(63.347d), 63.35d, 0d);
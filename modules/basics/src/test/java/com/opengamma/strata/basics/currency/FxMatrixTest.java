@@ -25,6 +25,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.offset;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.assertj.core.data.Offset;
@@ -32,7 +33,9 @@ import org.joda.beans.Bean;
 import org.joda.beans.ser.JodaBeanSer;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.tuple.Pair;
 
 @Test
@@ -394,6 +397,24 @@ public class FxMatrixTest {
         .hasAmount(2240);
   }
 
+  public void convertColumn() {
+    FxMatrix matrix = FxMatrix.builder()
+        .addRate(GBP, EUR, 1.4)
+        .addRate(GBP, USD, 1.6)
+        .build();
+    DoubleArray amounts = DoubleArray.of(1600, 1400, 1000, 10);
+    List<Currency> currencies = ImmutableList.of(GBP, EUR, USD, CAD);
+
+    assertThat(matrix.convert(amounts.subArray(0, 3), currencies.subList(0, 3), USD).toArray())
+        .containsExactly(new double[] {2560, 1600, 1000}, TOL);
+    assertThat(matrix.convert(amounts.subArray(0, 3), currencies.subList(0, 3), GBP).toArray())
+        .containsExactly(new double[] {1600, 1000, 625}, TOL);
+    assertThat(matrix.convert(DoubleArray.of(10), ImmutableList.of(CAD), CAD)).isEqualTo(DoubleArray.of(10));
+    assertThrowsIllegalArg(() -> matrix.convert(amounts, currencies, USD));
+    assertThrowsIllegalArg(() -> matrix.convert(amounts.subArray(0, 3), currencies.subList(0, 3), CAD));
+    assertThrowsIllegalArg(() -> matrix.convert(amounts, currencies.subList(0, 3), USD));
+  }
+
   public void convertMultipleCurrencyAmountWithNoEntries() {
 
     FxMatrix matrix = FxMatrix.builder()
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.marketdata.BuiltMarketData;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.runner.CalculationListener;
+import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * A session that performs the same calculations repeatedly as the market data changes.
+ * <p>
+ * A typical calculation resolves the targets into tasks, determines the market data requirements,
+ * builds the market data and then runs the tasks. When the same targets and columns are calculated
+ * many times, for example in an intraday revaluation loop, most of that work is identical each time.
+ * <p>
+ * The session performs the one-off work when it is created, resolving the tasks and merging
+ * the market data requirements. Each call to {@link #calculate(MarketData)} then builds the market data
+ * and runs the tasks. The market data built by the previous call is retained, and only the market data
+ * that depends on supplied values that have changed is rebuilt.
+ * See {@link MarketDataFactory#createIncremental} for details.
+ * <p>
+ * The session retains state between calls, and the methods that build market data are synchronized.
+ * The session does not manage the life-cycle of the task runner.
+ */
+public final class CalculationSession {
+
+  /**
+   * The underlying task runner.
+   */
+  private final CalculationTaskRunner taskRunner;
+  /**
+   * The factory used to build market data.
+   */
+  private final MarketDataFactory marketDataFactory;
+  /**
+   * The configuration used to build market data.
+   */
+  private final MarketDataConfig marketDataConfig;
+  /**
+   * The reference data.
+   */
+  private final ReferenceData refData;
+  /**
+   * The resolved calculation tasks.
+   */
+  private final CalculationTasks tasks;
+  /**
+   * The market data requirements of the tasks.
+   */
+  private final MarketDataRequirements requirements;
+  /**
+   * The market data supplied to the last build, null until market data is first built.
+   */
+  private MarketData suppliedData;
+  /**
+   * The market data produced by the last build, null until market data is first built.
+   */
+  private BuiltMarketData builtData;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a session, resolving the targets and columns into tasks.
+   * <p>
+   * The task runner is obtained from the calculation runner.
+   * It is the callers responsibility to manage the life-cycle of the calculation runner.
+   *
+   * @param runner  the calculation runner
+   * @param marketDataFactory  the factory used to build market data
+   * @param calculationRules  the rules defining how the calculation is performed
+   * @param targets  the targets for which values of the measures will be calculated
+   * @param columns  the configuration for the columns that will be calculated,
+   *   including the measure and any column-specific overrides
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param refData  the reference data to be used in the calculations
+   * @return the session
+   * @throws UnsupportedOperationException if the runner does not provide access to the task runner
+   */
+  public static CalculationSession of(
+      CalculationRunner runner,
+      MarketDataFactory marketDataFactory,
+      CalculationRules calculationRules,
+      List<? extends CalculationTarget> targets,
+      List<Column> columns,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData) {
+
+    ArgChecker.notNull(runner, "runner");
+    CalculationTasks tasks = CalculationTasks.of(calculationRules, targets, columns, refData);
+    return new CalculationSession(runner.getTaskRunner(), marketDataFactory, tasks, marketDataConfig, refData);
+  }
+
+  /**
+   * Obtains a session for a set of tasks that have already been resolved.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the task runner.
+   *
+   * @param taskRunner  the calculation task runner
+   * @param marketDataFactory  the factory used to build market data
+   * @param tasks  the calculation tasks to invoke
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param refData  the reference data to be used in the calculations
+   * @return the session
+   */
+  public static CalculationSession of(
+      CalculationTaskRunner taskRunner,
+      MarketDataFactory marketDataFactory,
+      CalculationTasks tasks,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData) {
+
+    return new CalculationSession(taskRunner, marketDataFactory, tasks, marketDataConfig, refData);
+  }
+
+  // restricted constructor
+  private CalculationSession(
+      CalculationTaskRunner taskRunner,
+      MarketDataFactory marketDataFactory,
+      CalculationTasks tasks,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData) {
+
+    this.taskRunner = ArgChecker.notNull(taskRunner, "taskRunner");
+    this.marketDataFactory = ArgChecker.notNull(marketDataFactory, "marketDataFactory");
+    this.tasks = ArgChecker.notNull(tasks, "tasks");
+    this.marketDataConfig = ArgChecker.notNull(marketDataConfig, "marketDataConfig");
+    this.refData = ArgChecker.notNull(refData, "refData");
+    this.requirements = tasks.requirements(refData);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the resolved calculation tasks.
+   *
+   * @return the tasks
+   */
+  public CalculationTasks getTasks() {
+    return tasks;
+  }
+
+  /**
+   * Gets the market data requirements of the tasks.
+   *
+   * @return the requirements
+   */
+  public MarketDataRequirements getRequirements() {
+    return requirements;
+  }
+
+  /**
+   * Gets the market data built by the most recent calculation, empty if no market data has been built.
+   *
+   * @return the market data built by the most recent calculation
+   */
+  public synchronized Optional<BuiltMarketData> getMarketData() {
+    return Optional.ofNullable(builtData);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builds the market data for the tasks, reusing market data from the previous build where possible.
+   * <p>
+   * The supplied market data is compared to that of the previous build.
+   * Only the market data that depends on supplied values that have changed is rebuilt.
+   *
+   * @param suppliedData  market data supplied by the user
+   * @return the market data required by the calculations plus details of any data that could not be built
+   */
+  public synchronized BuiltMarketData buildMarketData(MarketData suppliedData) {
+    ArgChecker.notNull(suppliedData, "suppliedData");
+    if (builtData == null) {
+      builtData = marketDataFactory.create(requirements, marketDataConfig, suppliedData, refData);
+    } else {
+      Set<MarketDataId<?>> changedIds = changedIds(this.suppliedData, suppliedData);
+      builtData = marketDataFactory.createIncremental(
+          requirements, marketDataConfig, suppliedData, refData, builtData, changedIds);
+    }
+    this.suppliedData = suppliedData;
+    return builtData;
+  }
+
+  // finds the identifiers of the values and time-series that differ between the two sets of market data
+  private static Set<MarketDataId<?>> changedIds(MarketData previous, MarketData current) {
+    Set<MarketDataId<?>> changedIds = new HashSet<>();
+    for (MarketDataId<?> id : previous.getIds()) {
+      if (!current.containsValue(id)) {
+        changedIds.add(id);
+      }
+    }
+    for (MarketDataId<?> id : current.getIds()) {
+      Optional<?> previousValue = previous.findValue(id);
+      if (!previousValue.isPresent() || !Objects.equals(previousValue.get(), current.getValue(id))) {
+        changedIds.add(id);
+      }
+    }
+    for (ObservableId id : previous.getTimeSeriesIds()) {
+      if (current.getTimeSeries(id).isEmpty()) {
+        changedIds.add(id);
+      }
+    }
+    for (ObservableId id : current.getTimeSeriesIds()) {
+      if (!previous.getTimeSeries(id).equals(current.getTimeSeries(id))) {
+        changedIds.add(id);
+      }
+    }
+    return changedIds;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Performs the calculations using the specified market data.
+   * <p>
+   * The market data is built as described in {@link #buildMarketData(MarketData)}.
+   * This returns a grid of results with a row for each target and a column for each measure.
+   *
+   * @param suppliedData  market data supplied by the user
+   * @return the grid of calculation results, based on the tasks and market data
+   */
+  public Results calculate(MarketData suppliedData) {
+    BuiltMarketData marketData = buildMarketData(suppliedData);
+    return taskRunner.calculate(tasks, marketData, refData);
+  }
+
+  /**
+   * Performs the calculations asynchronously using the specified market data,
+   * invoking a listener as each calculation completes.
+   * <p>
+   * The market data is built as described in {@link #buildMarketData(MarketData)}
+   * before this method returns.
+   *
+   * @param suppliedData  market data supplied by the user
+   * @param listener  listener that is invoked when individual results are calculated
+   */
+  public void calculateAsync(MarketData suppliedData, CalculationListener listener) {
+    BuiltMarketData marketData = buildMarketData(suppliedData);
+    taskRunner.calculateAsync(tasks, marketData, refData, listener);
+  }
+
+}
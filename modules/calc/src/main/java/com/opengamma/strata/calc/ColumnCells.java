@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * The values of the successful results in a single column of {@link ColumnarResults}.
+ * <p>
+ * The storage is chosen based on the type of the values, avoiding an object per cell where possible.
+ * Values of type {@code Double} are stored in a primitive array, and values of type {@code CurrencyAmount}
+ * are stored as a primitive array of amounts and an array of references to the shared currency instances.
+ * Other values are stored in an object array.
+ * <p>
+ * Instances are mutable while the results are being built, and are never mutated once built.
+ */
+abstract class ColumnCells {
+
+  /**
+   * Creates storage suitable for the specified value.
+   *
+   * @param value  the first value to be stored
+   * @param rowCount  the number of rows
+   * @return the storage
+   */
+  static ColumnCells of(Object value, int rowCount) {
+    if (value instanceof Double) {
+      return new DoubleCells(rowCount);
+    }
+    if (value instanceof CurrencyAmount) {
+      return new CurrencyAmountCells(rowCount);
+    }
+    return new ObjectCells(rowCount);
+  }
+
+  /**
+   * Checks if the value can be stored.
+   *
+   * @param value  the value
+   * @return true if the value can be stored
+   */
+  abstract boolean accepts(Object value);
+
+  /**
+   * Stores the value for a row.
+   * <p>
+   * The value must be accepted by {@link #accepts(Object)}.
+   *
+   * @param rowIndex  the row index
+   * @param value  the value
+   */
+  abstract void set(int rowIndex, Object value);
+
+  /**
+   * Gets the value for a row, only valid if the value has been set.
+   *
+   * @param rowIndex  the row index
+   * @return the value
+   */
+  abstract Object get(int rowIndex);
+
+  /**
+   * Gets the values as primitive doubles, only supported for numeric columns.
+   * <p>
+   * Rows with no value are returned as NaN.
+   *
+   * @return the values
+   * @throws IllegalArgumentException if the values are not numeric
+   */
+  abstract DoubleArray toDoubleArray();
+
+  /**
+   * Gets the currencies of the values, only supported for currency amount columns.
+   * <p>
+   * Rows with no value are returned as null.
+   *
+   * @return the currencies
+   * @throws IllegalArgumentException if the values are not currency amounts
+   */
+  List<Currency> toCurrencyList() {
+    throw new IllegalArgumentException("Column does not contain currency amounts");
+  }
+
+  /**
+   * Converts this storage to one that can store any value.
+   *
+   * @param populated  the rows that have a value
+   * @param rowCount  the number of rows
+   * @return the storage that can store any value
+   */
+  ColumnCells toObjectCells(BitSet populated, int rowCount) {
+    ObjectCells cells = new ObjectCells(rowCount);
+    for (int i = populated.nextSetBit(0); i >= 0; i = populated.nextSetBit(i + 1)) {
+      cells.set(i, get(i));
+    }
+    return cells;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Storage for values of type {@code Double}.
+   */
+  static final class DoubleCells extends ColumnCells {
+    private final double[] values;
+
+    DoubleCells(int rowCount) {
+      this.values = new double[rowCount];
+      Arrays.fill(values, Double.NaN);
+    }
+
+    @Override
+    boolean accepts(Object value) {
+      return value instanceof Double;
+    }
+
+    @Override
+    void set(int rowIndex, Object value) {
+      values[rowIndex] = (Double) value;
+    }
+
+    @Override
+    Object get(int rowIndex) {
+      return values[rowIndex];
+    }
+
+    @Override
+    DoubleArray toDoubleArray() {
+      return DoubleArray.copyOf(values);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Storage for values of type {@code CurrencyAmount}.
+   */
+  static final class CurrencyAmountCells extends ColumnCells {
+    private final double[] amounts;
+    private final Currency[] currencies;
+
+    CurrencyAmountCells(int rowCount) {
+      this.amounts = new double[rowCount];
+      this.currencies = new Currency[rowCount];
+      Arrays.fill(amounts, Double.NaN);
+    }
+
+    @Override
+    boolean accepts(Object value) {
+      return value instanceof CurrencyAmount;
+    }
+
+    @Override
+    void set(int rowIndex, Object value) {
+      CurrencyAmount amount = (CurrencyAmount) value;
+      amounts[rowIndex] = amount.getAmount();
+      currencies[rowIndex] = amount.getCurrency();
+    }
+
+    @Override
+    Object get(int rowIndex) {
+      return CurrencyAmount.of(currencies[rowIndex], amounts[rowIndex]);
+    }
+
+    @Override
+    DoubleArray toDoubleArray() {
+      return DoubleArray.copyOf(amounts);
+    }
+
+    @Override
+    List<Currency> toCurrencyList() {
+      return Collections.unmodifiableList(Arrays.asList(currencies.clone()));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Storage for values of any type.
+   */
+  static final class ObjectCells extends ColumnCells {
+    private final Object[] values;
+
+    ObjectCells(int rowCount) {
+      this.values = new Object[rowCount];
+    }
+
+    @Override
+    boolean accepts(Object value) {
+      return true;
+    }
+
+    @Override
+    void set(int rowIndex, Object value) {
+      values[rowIndex] = value;
+    }
+
+    @Override
+    Object get(int rowIndex) {
+      return values[rowIndex];
+    }
+
+    @Override
+    DoubleArray toDoubleArray() {
+      throw new IllegalArgumentException("Column does not contain numeric values");
+    }
+
+    @Override
+    ColumnCells toObjectCells(BitSet populated, int rowCount) {
+      return this;
+    }
+  }
+
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Failure;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * Calculation results stored in a compact columnar form.
+ * <p>
+ * This defines the same grid of results as {@link Results}, with a row for each target and a column for each measure.
+ * Rather than holding a {@link Result} object for each cell, the successful values of each column are stored
+ * together, and failures are stored separately in a sparse map.
+ * <p>
+ * Columns where every value is a {@code Double} are stored as a primitive {@code double} array.
+ * Columns where every value is a {@code CurrencyAmount} are stored as a primitive {@code double} array
+ * of amounts and an array of currencies. Columns containing other values, such as multi-scenario values,
+ * are stored as an array of objects. The {@code Result} objects are created on demand when queried.
+ * <p>
+ * Instances are typically created using {@code ColumnarResultsListener} or {@link #of(Results)}.
+ * This class is immutable and thread-safe.
+ */
+public final class ColumnarResults {
+
+  /**
+   * The column headers.
+   */
+  private final ImmutableList<ColumnHeader> columns;
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The successful values, one element for each column, null if the column has no successful values.
+   */
+  private final ColumnCells[] cells;
+  /**
+   * The rows with a successful value, one element for each column.
+   */
+  private final BitSet[] populated;
+  /**
+   * The failures, keyed by the cell index, which is {@code (rowIndex * columnCount) + columnIndex}.
+   */
+  private final ImmutableMap<Integer, Failure> failures;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a set of results.
+   *
+   * @param results  the results
+   * @return the columnar results
+   */
+  public static ColumnarResults of(Results results) {
+    ColumnarResultsBuilder builder = builder(results.getColumns(), results.getRowCount());
+    for (int rowIndex = 0; rowIndex < results.getRowCount(); rowIndex++) {
+      for (int columnIndex = 0; columnIndex < results.getColumnCount(); columnIndex++) {
+        builder.set(rowIndex, columnIndex, results.get(rowIndex, columnIndex));
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns a builder used to create the results a cell at a time.
+   *
+   * @param columns  the column headers
+   * @param rowCount  the number of rows
+   * @return the builder
+   */
+  public static ColumnarResultsBuilder builder(List<ColumnHeader> columns, int rowCount) {
+    return new ColumnarResultsBuilder(columns, rowCount);
+  }
+
+  // creates an instance, invoked by the builder
+  ColumnarResults(
+      ImmutableList<ColumnHeader> columns,
+      int rowCount,
+      ColumnCells[] cells,
+      BitSet[] populated,
+      ImmutableMap<Integer, Failure> failures) {
+
+    this.columns = columns;
+    this.rowCount = rowCount;
+    this.cells = cells;
+    this.populated = populated;
+    this.failures = failures;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the column headers.
+   *
+   * @return the column headers
+   */
+  public ImmutableList<ColumnHeader> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Gets the number of rows in the results.
+   * <p>
+   * The number of rows equals the number of targets input to the calculation.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns in the results.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  /**
+   * Gets the number of cells that contain a failure.
+   *
+   * @return the number of failures
+   */
+  public int getFailureCount() {
+    return failures.size();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the results for a target and column index.
+   * <p>
+   * The result may be a single value or a multi-scenario value.
+   * A multi-scenario value will implement {@link ScenarioArray} unless it has been aggregated.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the result for the specified row and column for a set of scenarios
+   * @throws IllegalArgumentException if the row or column index is invalid
+   */
+  public Result<?> get(int rowIndex, int columnIndex) {
+    validateIndices(rowIndex, columnIndex);
+    if (populated[columnIndex].get(rowIndex)) {
+      return Result.success(cells[columnIndex].get(rowIndex));
+    }
+    Failure failure = failures.get((rowIndex * columns.size()) + columnIndex);
+    if (failure != null) {
+      return Result.failure(failure);
+    }
+    return Result.failure(
+        FailureReason.MISSING_DATA, "No result was calculated for row {} and column {}", rowIndex, columnIndex);
+  }
+
+  /**
+   * Returns the results for a target and column index, casting the result to a known type.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param <T>  the result type
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @param type  the result type
+   * @return the result for the specified row and column for a set of scenarios, cast to the specified type
+   * @throws IllegalArgumentException if the row or column index is invalid
+   * @throws ClassCastException if the result is not of the specified type
+   */
+  public <T> Result<T> get(int rowIndex, int columnIndex, Class<T> type) {
+    return cast(get(rowIndex, columnIndex), type);
+  }
+
+  /**
+   * Returns the results for a target and column name.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnName  the name of the column
+   * @return the result for the specified row and column for a set of scenarios
+   * @throws IllegalArgumentException if the row index or column name is invalid
+   */
+  public Result<?> get(int rowIndex, ColumnName columnName) {
+    return get(rowIndex, columnIndex(columnName));
+  }
+
+  /**
+   * Returns the results for a target and column name, casting the result to a known type.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param <T>  the result type
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnName  the name of the column
+   * @param type  the result type
+   * @return the result for the specified row and column for a set of scenarios, cast to the specified type
+   * @throws IllegalArgumentException if the row index or column name is invalid
+   * @throws ClassCastException if the result is not of the specified type
+   */
+  public <T> Result<T> get(int rowIndex, ColumnName columnName, Class<T> type) {
+    return cast(get(rowIndex, columnName), type);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Result<T> cast(Result<?> result, Class<T> type) {
+    // cannot use result.map() as we want the exception to be thrown
+    if (result.isFailure() || type.isInstance(result.getValue())) {
+      return (Result<T>) result;
+    }
+    throw new ClassCastException(Messages.format(
+        "Result queried with type '{}' but was '{}'", type.getName(), result.getValue().getClass().getName()));
+  }
+
+  // finds the index of the column
+  private int columnIndex(ColumnName columnName) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i).getName().equals(columnName)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(Messages.format("Column name not found: {}", columnName));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the successful values of a numeric column as primitive doubles.
+   * <p>
+   * This is supported when every successful value in the column is a {@code Double} or a {@code CurrencyAmount}.
+   * For a {@code CurrencyAmount} column, the amounts are returned, with the matching currencies
+   * available from {@link #getCurrencyColumn(int)}.
+   * Rows that do not have a successful value are returned as NaN.
+   *
+   * @param columnIndex  the index of the column
+   * @return the values of the column
+   * @throws IllegalArgumentException if the column index is invalid or the column is not numeric
+   */
+  public DoubleArray getDoubleColumn(int columnIndex) {
+    validateColumnIndex(columnIndex);
+    if (cells[columnIndex] == null) {
+      return DoubleArray.filled(rowCount, Double.NaN);
+    }
+    return cells[columnIndex].toDoubleArray();
+  }
+
+  /**
+   * Returns the currencies of the successful values of a currency amount column.
+   * <p>
+   * This is supported when every successful value in the column is a {@code CurrencyAmount}.
+   * The element at each index is the currency of the amount at the same index in {@link #getDoubleColumn(int)}.
+   * Rows that do not have a successful value are returned as null.
+   *
+   * @param columnIndex  the index of the column
+   * @return the currencies of the column, unmodifiable
+   * @throws IllegalArgumentException if the column index is invalid or the column does not contain currency amounts
+   */
+  public List<Currency> getCurrencyColumn(int columnIndex) {
+    validateColumnIndex(columnIndex);
+    if (cells[columnIndex] == null) {
+      return Collections.nCopies(rowCount, null);
+    }
+    return cells[columnIndex].toCurrencyList();
+  }
+
+  // checks the row and column index
+  private void validateIndices(int rowIndex, int columnIndex) {
+    if (rowIndex < 0 || rowIndex >= rowCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Row index must be greater than or equal to zero and less than the row count ({}), but it was {}",
+          rowCount,
+          rowIndex));
+    }
+    validateColumnIndex(columnIndex);
+  }
+
+  // checks the column index
+  private void validateColumnIndex(int columnIndex) {
+    if (columnIndex < 0 || columnIndex >= columns.size()) {
+      throw new IllegalArgumentException(Messages.format(
+          "Column index must be greater than or equal to zero and less than the column count ({}), but it was {}",
+          columns.size(),
+          columnIndex));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Converts these results to a standard {@link Results} instance.
+   * <p>
+   * This creates a {@code Result} object for each cell.
+   *
+   * @return the results
+   */
+  public Results toResults() {
+    List<Result<?>> resultCells = new ArrayList<>(rowCount * columns.size());
+    for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++) {
+        resultCells.add(get(rowIndex, columnIndex));
+      }
+    }
+    return Results.of(columns, resultCells);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ColumnarResults other = (ColumnarResults) obj;
+      if (!columns.equals(other.columns) || rowCount != other.rowCount || !failures.equals(other.failures)) {
+        return false;
+      }
+      for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++) {
+        if (!populated[columnIndex].equals(other.populated[columnIndex])) {
+          return false;
+        }
+        BitSet rows = populated[columnIndex];
+        for (int rowIndex = rows.nextSetBit(0); rowIndex >= 0; rowIndex = rows.nextSetBit(rowIndex + 1)) {
+          if (!cells[columnIndex].get(rowIndex).equals(other.cells[columnIndex].get(rowIndex))) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + columns.hashCode();
+    hash = hash * 31 + rowCount;
+    hash = hash * 31 + failures.hashCode();
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    Map<String, Object> fields = ImmutableMap.of("columns", columns, "rowCount", rowCount, "failures", failures.size());
+    return "ColumnarResults" + fields;
+  }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.Failure;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Builder for {@link ColumnarResults}.
+ * <p>
+ * Results are added a cell at a time, in any order.
+ * The storage for each column is chosen from the first successful value in the column, and is
+ * widened to object storage if a later value in the column is of a different type.
+ * <p>
+ * This builder is not thread-safe.
+ */
+public final class ColumnarResultsBuilder {
+
+  /**
+   * The column headers.
+   */
+  private final ImmutableList<ColumnHeader> columns;
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The successful values, one element for each column, null until a successful value is added.
+   */
+  private final ColumnCells[] cells;
+  /**
+   * The rows with a successful value, one element for each column.
+   */
+  private final BitSet[] populated;
+  /**
+   * The failures, keyed by the cell index.
+   */
+  private final Map<Integer, Failure> failures = new HashMap<>();
+
+  // creates an instance
+  ColumnarResultsBuilder(List<ColumnHeader> columns, int rowCount) {
+    this.columns = ImmutableList.copyOf(ArgChecker.notNull(columns, "columns"));
+    this.rowCount = ArgChecker.notNegative(rowCount, "rowCount");
+    this.cells = new ColumnCells[columns.size()];
+    this.populated = new BitSet[columns.size()];
+    for (int i = 0; i < populated.length; i++) {
+      populated[i] = new BitSet(rowCount);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets the result for a cell.
+   * <p>
+   * Any result previously set for the cell is replaced.
+   *
+   * @param rowIndex  the row index
+   * @param columnIndex  the column index
+   * @param result  the result
+   * @return this builder
+   * @throws IllegalArgumentException if the row or column index is invalid
+   */
+  public ColumnarResultsBuilder set(int rowIndex, int columnIndex, Result<?> result) {
+    ArgChecker.inRange(rowIndex, 0, rowCount, "rowIndex");
+    ArgChecker.inRange(columnIndex, 0, columns.size(), "columnIndex");
+    ArgChecker.notNull(result, "result");
+    int index = (rowIndex * columns.size()) + columnIndex;
+    if (result.isFailure()) {
+      failures.put(index, result.getFailure());
+      populated[columnIndex].clear(rowIndex);
+      return this;
+    }
+    Object value = result.getValue();
+    ColumnCells columnCells = cells[columnIndex];
+    if (columnCells == null) {
+      columnCells = ColumnCells.of(value, rowCount);
+    } else if (!columnCells.accepts(value)) {
+      columnCells = columnCells.toObjectCells(populated[columnIndex], rowCount);
+    }
+    columnCells.set(rowIndex, value);
+    cells[columnIndex] = columnCells;
+    populated[columnIndex].set(rowIndex);
+    failures.remove(index);
+    return this;
+  }
+
+  /**
+   * Builds the results.
+   * <p>
+   * Cells that have not been set are reported as failures when queried.
+   * The builder must not be used after this method is called.
+   *
+   * @return the results
+   */
+  public ColumnarResults build() {
+    return new ColumnarResults(columns, rowCount, cells, populated, ImmutableMap.copyOf(failures));
+  }
+
+}
@@ -9,6 +9,7 @@ import static com.opengamma.strata.collect.Guavate.not;
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,10 +17,15 @@ import java.util.Optional;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.ImmutableMarketDataBuilder;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.ObservableId;
@@ -42,6 +48,9 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
   /** Market data functions, keyed by the type of the market data ID they can handle. */
   private final Map<Class<? extends MarketDataId<?>>, MarketDataFunction<?, ?>> functions;
 
+  /** Caches market data built by the functions. */
+  private final MarketDataCache cache;
+
   //-------------------------------------------------------------------------
   /**
    * Creates an instance of the factory based on providers of market data and time-series.
@@ -52,14 +61,35 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
    * @param timeSeriesProvider  the provider time-series
    * @param functions  the functions that create the market data
    */
+  DefaultMarketDataFactory(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    this(observableDataProvider, timeSeriesProvider, MarketDataCache.none(), functions);
+  }
+
+  /**
+   * Creates an instance of the factory based on providers of market data and time-series and a cache.
+   * <p>
+   * The market data functions are used to build the market data.
+   * The cache is checked before invoking a function.
+   *
+   * @param observableDataProvider  the provider observable market data
+   * @param timeSeriesProvider  the provider time-series
+   * @param cache  the cache of market data built by the functions
+   * @param functions  the functions that create the market data
+   */
   @SuppressWarnings("unchecked")
   DefaultMarketDataFactory(
       ObservableDataProvider observableDataProvider,
       TimeSeriesProvider timeSeriesProvider,
+      MarketDataCache cache,
       List<MarketDataFunction<?, ?>> functions) {
 
     this.observableDataProvider = observableDataProvider;
     this.timeSeriesProvider = timeSeriesProvider;
+    this.cache = ArgChecker.notNull(cache, "cache");
 
     // Use a HashMap instead of an ImmutableMap.Builder so values can be overwritten.
     // If the functions argument includes a missing mapping builder it can overwrite the one inserted below
@@ -82,6 +112,38 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     return new BuiltMarketData(smd);
   }
 
+  @Override
+  public BuiltMarketData createIncremental(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      ReferenceData refData,
+      BuiltMarketData previousData,
+      Set<? extends MarketDataId<?>> changedIds) {
+
+    if (!previousData.getValuationDate().equals(suppliedData.getValuationDate())) {
+      return create(requirements, marketDataConfig, suppliedData, refData);
+    }
+    // The dependency tree identifies the previously built data that depends on the changed data.
+    // All other previously built data is still valid and is treated as supplied data,
+    // which means it is not built again
+    ScenarioMarketData md = ScenarioMarketData.of(1, suppliedData);
+    MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, md, marketDataConfig, functions);
+    Set<MarketDataId<?>> staleIds = root.dependentIds(changedIds);
+
+    ImmutableMarketDataBuilder reusedBuilder = ImmutableMarketData.builder(suppliedData.getValuationDate());
+    previousData.getIds().stream()
+        .filter(id -> !staleIds.contains(id))
+        .filter(not(suppliedData::containsValue))
+        .forEach(id -> reusedBuilder.addValueUnsafe(id, previousData.getValue(id)));
+    previousData.getTimeSeriesIds().stream()
+        .filter(id -> !changedIds.contains(id))
+        .filter(id -> suppliedData.getTimeSeries(id).isEmpty())
+        .forEach(id -> reusedBuilder.addTimeSeries(id, previousData.getTimeSeries(id)));
+
+    return create(requirements, marketDataConfig, suppliedData.combinedWith(reusedBuilder.build()), refData);
+  }
+
   @Override
   public BuiltScenarioMarketData createMultiScenario(
       MarketDataRequirements requirements,
@@ -231,7 +293,69 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     if (marketDataFunction == null) {
       throw new IllegalStateException("No market data function available for market data ID of type " + idClass.getName());
     }
-    return Result.of(() -> marketDataFunction.build(id, marketDataConfig, suppliedData, refData));
+    if (cache == NoMarketDataCache.INSTANCE) {
+      return Result.of(() -> marketDataFunction.build(id, marketDataConfig, suppliedData, refData));
+    }
+    MarketDataCacheKey key = cacheKey(id, marketDataFunction, marketDataConfig, suppliedData);
+    if (key == null) {
+      return Result.of(() -> marketDataFunction.build(id, marketDataConfig, suppliedData, refData));
+    }
+    Optional<MarketDataBox<?>> cached = cache.find(key);
+    if (cached.isPresent()) {
+      return Result.success(cached.get());
+    }
+    Result<MarketDataBox<?>> result =
+        Result.of(() -> marketDataFunction.build(id, marketDataConfig, suppliedData, refData));
+    if (result.isSuccess()) {
+      cache.put(key, result.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Creates the key used to cache the market data built by a function.
+   * <p>
+   * The key includes the market data the function requires, which must already have been built.
+   *
+   * @param id  ID of the market data that should be built
+   * @param marketDataFunction  the function that builds the market data
+   * @param marketDataConfig  configuration specifying how the market data should be built
+   * @param marketData  existing set of market data that contains any data required to build the value
+   * @return the key, null if the market data cannot be cached
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static MarketDataCacheKey cacheKey(
+      MarketDataId id,
+      MarketDataFunction marketDataFunction,
+      MarketDataConfig marketDataConfig,
+      BuiltScenarioMarketData marketData) {
+
+    MarketDataBox<LocalDate> valuationDate = marketData.getValuationDate();
+    if (!valuationDate.isSingleValue()) {
+      return null;
+    }
+    MarketDataRequirements requirements;
+    try {
+      requirements = marketDataFunction.requirements(id, marketDataConfig);
+    } catch (RuntimeException ex) {
+      return null;
+    }
+    Map<MarketDataId<?>, MarketDataBox<?>> values = new HashMap<>();
+    Iterable<MarketDataId<?>> requiredIds =
+        Iterables.concat(requirements.getObservables(), requirements.getNonObservables());
+    for (MarketDataId<?> requiredId : requiredIds) {
+      Optional<? extends MarketDataBox<?>> value = marketData.findValue(requiredId);
+      if (!value.isPresent()) {
+        // the required data could not be built, so the function will fail
+        return null;
+      }
+      values.put(requiredId, value.get());
+    }
+    Map<ObservableId, LocalDateDoubleTimeSeries> timeSeries = new HashMap<>();
+    for (ObservableId requiredId : requirements.getTimeSeries()) {
+      timeSeries.put(requiredId, marketData.getTimeSeries(requiredId));
+    }
+    return MarketDataCacheKey.of(id, valuationDate.getSingleValue(), values, timeSeries, marketDataConfig);
   }
 
   @SuppressWarnings("unchecked")
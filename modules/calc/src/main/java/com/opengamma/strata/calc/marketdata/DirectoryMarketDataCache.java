@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ser.JodaBeanSer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.Hashing;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * Implementation of a market data cache which holds values in files in a directory on local disk.
+ * <p>
+ * Each value is stored in a file named using a SHA-256 digest of the serialized key.
+ * The file holds the serialized key followed by the serialized value, allowing the key to be checked on read.
+ * Values are written to a temporary file and then moved, thus readers never see a partially written file.
+ * <p>
+ * Failure to read or write a file is logged and treated as though the value was not in the cache.
+ */
+final class DirectoryMarketDataCache implements MarketDataCache {
+
+  /** The logger. */
+  private static final Logger log = LoggerFactory.getLogger(DirectoryMarketDataCache.class);
+  /** The file suffix. */
+  private static final String SUFFIX = ".bin";
+
+  /** The directory holding the files. */
+  private final Path directory;
+
+  /**
+   * Creates an instance.
+   *
+   * @param directory  the directory to store the cached market data in, created if necessary
+   */
+  DirectoryMarketDataCache(Path directory) {
+    this.directory = ArgChecker.notNull(directory, "directory");
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Optional<MarketDataBox<?>> find(MarketDataCacheKey key) {
+    byte[] keyBytes = serialize(key);
+    if (keyBytes == null) {
+      return Optional.empty();
+    }
+    Path file = file(keyBytes);
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+    try {
+      byte[] entryBytes = Files.readAllBytes(file);
+      MarketDataCacheEntry entry = JodaBeanSer.COMPACT.binReader().read(entryBytes, MarketDataCacheEntry.class);
+      if (!entry.getKey().equals(key)) {
+        return Optional.empty();
+      }
+      return Optional.of(entry.getValue());
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Unable to read cached market data from " + file, ex);
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void put(MarketDataCacheKey key, MarketDataBox<?> value) {
+    byte[] keyBytes = serialize(key);
+    byte[] entryBytes = serialize(MarketDataCacheEntry.of(key, value));
+    if (keyBytes == null || entryBytes == null) {
+      return;
+    }
+    Path file = file(keyBytes);
+    try {
+      Path tempFile = Files.createTempFile(directory, "tmp", SUFFIX);
+      Files.write(tempFile, entryBytes);
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Unable to write cached market data to " + file, ex);
+    }
+  }
+
+  // serializes the bean, returning null if the bean cannot be serialized
+  private static byte[] serialize(Bean bean) {
+    try {
+      return JodaBeanSer.COMPACT.binWriter().write(bean);
+    } catch (RuntimeException ex) {
+      return null;
+    }
+  }
+
+  // the file that holds the value for the serialized key
+  private Path file(byte[] keyBytes) {
+    return directory.resolve(Hashing.sha256().hashBytes(keyBytes).toString() + SUFFIX);
+  }
+
+  @Override
+  public String toString() {
+    return "DirectoryMarketDataCache[" + directory + "]";
+  }
+
+}
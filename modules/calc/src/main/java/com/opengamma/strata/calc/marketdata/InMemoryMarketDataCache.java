@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.util.Optional;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * Implementation of a market data cache which holds a bounded number of values in memory.
+ * <p>
+ * When the cache is full, the least recently used values are evicted.
+ */
+final class InMemoryMarketDataCache implements MarketDataCache {
+
+  /** The underlying cache. */
+  private final Cache<MarketDataCacheKey, MarketDataBox<?>> cache;
+
+  /**
+   * Creates an instance.
+   *
+   * @param maximumSize  the maximum number of values to hold
+   */
+  InMemoryMarketDataCache(int maximumSize) {
+    ArgChecker.notNegativeOrZero(maximumSize, "maximumSize");
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Optional<MarketDataBox<?>> find(MarketDataCacheKey key) {
+    return Optional.ofNullable(cache.getIfPresent(key));
+  }
+
+  @Override
+  public void put(MarketDataCacheKey key, MarketDataBox<?> value) {
+    cache.put(key, value);
+  }
+
+  /**
+   * Gets the number of values in the cache.
+   *
+   * @return the number of values
+   */
+  long size() {
+    return cache.size();
+  }
+
+  @Override
+  public String toString() {
+    return "InMemoryMarketDataCache[size=" + cache.size() + "]";
+  }
+
+}
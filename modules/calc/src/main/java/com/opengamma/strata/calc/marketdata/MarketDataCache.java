@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * A cache of market data built by {@link MarketDataFunction} instances.
+ * <p>
+ * This plugin point allows market data, such as calibrated curves, to be reused between calls
+ * to the {@link MarketDataFactory}. Before invoking a market data function, the factory looks up
+ * the value in the cache using a key that captures all the inputs to the function.
+ * If found, the cached value is used and the function is not invoked.
+ * If not found, the function is invoked and any successfully built value is added to the cache.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface MarketDataCache {
+
+  /**
+   * Obtains an instance that caches nothing.
+   *
+   * @return a cache that never contains any market data
+   */
+  public static MarketDataCache none() {
+    return NoMarketDataCache.INSTANCE;
+  }
+
+  /**
+   * Obtains an instance that caches market data in memory.
+   * <p>
+   * The cache holds up to the specified number of values.
+   * When full, the least recently used values are evicted.
+   *
+   * @param maximumSize  the maximum number of values to hold
+   * @return a cache that holds market data in memory
+   */
+  public static MarketDataCache ofInMemory(int maximumSize) {
+    return new InMemoryMarketDataCache(maximumSize);
+  }
+
+  /**
+   * Obtains an instance that caches market data in files in a directory on local disk.
+   * <p>
+   * The cache allows market data to be reused between processes, or after a process restarts.
+   * The key and value are stored using Joda-Beans binary serialization.
+   * Market data that cannot be serialized, typically because it is not a Joda-Bean, is not cached.
+   * Entries are never evicted, thus the application is responsible for managing the directory.
+   *
+   * @param directory  the directory to store the cached market data in, created if necessary
+   * @return a cache that holds market data on disk
+   */
+  public static MarketDataCache ofDirectory(Path directory) {
+    return new DirectoryMarketDataCache(directory);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the market data for the specified key.
+   *
+   * @param key  the key identifying the market data and the inputs used to build it
+   * @return the market data, empty if not found
+   */
+  public abstract Optional<MarketDataBox<?>> find(MarketDataCacheKey key);
+
+  /**
+   * Adds market data to the cache.
+   * <p>
+   * The cache may choose not to hold the market data.
+   *
+   * @param key  the key identifying the market data and the inputs used to build it
+   * @param value  the market data
+   */
+  public abstract void put(MarketDataCacheKey key, MarketDataBox<?> value);
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import java.lang.invoke.MethodHandles;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.impl.light.LightMetaBean;
+
+/**
+ * An entry in a market data cache, used when the cache is stored externally.
+ */
+@BeanDefinition(style = "light", constructorScope = "package")
+final class MarketDataCacheEntry implements ImmutableBean {
+
+  /**
+   * The key identifying the market data and the inputs used to build it.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final MarketDataCacheKey key;
+  /**
+   * The market data.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final MarketDataBox<?> value;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param key  the key
+   * @param value  the market data
+   * @return the entry
+   */
+  static MarketDataCacheEntry of(MarketDataCacheKey key, MarketDataBox<?> value) {
+    return new MarketDataCacheEntry(key, value);
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code MarketDataCacheEntry}.
+   */
+  private static final TypedMetaBean<MarketDataCacheEntry> META_BEAN =
+      LightMetaBean.of(
+          MarketDataCacheEntry.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "key",
+              "value"},
+          new Object[0]);
+
+  /**
+   * The meta-bean for {@code MarketDataCacheEntry}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<MarketDataCacheEntry> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * Creates an instance.
+   * @param key  the value of the property, not null
+   * @param value  the value of the property, not null
+   */
+  MarketDataCacheEntry(
+      MarketDataCacheKey key,
+      MarketDataBox<?> value) {
+    JodaBeanUtils.notNull(key, "key");
+    JodaBeanUtils.notNull(value, "value");
+    this.key = key;
+    this.value = value;
+  }
+
+  @Override
+  public TypedMetaBean<MarketDataCacheEntry> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the key identifying the market data and the inputs used to build it.
+   * @return the value of the property, not null
+   */
+  public MarketDataCacheKey getKey() {
+    return key;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the market data.
+   * @return the value of the property, not null
+   */
+  public MarketDataBox<?> getValue() {
+    return value;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      MarketDataCacheEntry other = (MarketDataCacheEntry) obj;
+      return JodaBeanUtils.equal(key, other.key) &&
+          JodaBeanUtils.equal(value, other.value);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(key);
+    hash = hash * 31 + JodaBeanUtils.hashCode(value);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(96);
+    buf.append("MarketDataCacheEntry{");
+    buf.append("key").append('=').append(key).append(',').append(' ');
+    buf.append("value").append('=').append(JodaBeanUtils.toString(value));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
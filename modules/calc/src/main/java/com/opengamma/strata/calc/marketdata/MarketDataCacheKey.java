@@ -0,0 +1,466 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import java.util.NoSuchElementException;
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+/**
+ * The key used to find an item of built market data in a {@link MarketDataCache}.
+ * <p>
+ * A market data function is deterministic, thus a value it builds can be reused whenever the
+ * function would be invoked with identical inputs. The key captures those inputs - the identifier,
+ * the valuation date, the market data values and time-series the function requires and the market data
+ * configuration. The whole configuration is captured, as the entries used by a function cannot be determined.
+ * <p>
+ * The reference data is not part of the key. A cache must only be used with a single set of reference data.
+ */
+@BeanDefinition(builderScope = "private")
+public final class MarketDataCacheKey implements ImmutableBean, Serializable {
+
+  /**
+   * The identifier of the market data that is built.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final MarketDataId<?> id;
+  /**
+   * The valuation date.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final LocalDate valuationDate;
+  /**
+   * The market data values used to build the market data, keyed by identifier.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableMap<MarketDataId<?>, MarketDataBox<?>> values;
+  /**
+   * The time-series used to build the market data, keyed by identifier.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> timeSeries;
+  /**
+   * The configuration used to build the market data.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final MarketDataConfig marketDataConfig;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param id  the identifier of the market data that is built
+   * @param valuationDate  the valuation date
+   * @param values  the market data values used to build the market data
+   * @param timeSeries  the time-series used to build the market data
+   * @param marketDataConfig  the configuration used to build the market data
+   * @return the key
+   */
+  public static MarketDataCacheKey of(
+      MarketDataId<?> id,
+      LocalDate valuationDate,
+      Map<? extends MarketDataId<?>, ? extends MarketDataBox<?>> values,
+      Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries,
+      MarketDataConfig marketDataConfig) {
+
+    return new MarketDataCacheKey(
+        id, valuationDate, ImmutableMap.copyOf(values), ImmutableMap.copyOf(timeSeries), marketDataConfig);
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code MarketDataCacheKey}.
+   * @return the meta-bean, not null
+   */
+  public static MarketDataCacheKey.Meta meta() {
+    return MarketDataCacheKey.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(MarketDataCacheKey.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private MarketDataCacheKey(
+      MarketDataId<?> id,
+      LocalDate valuationDate,
+      Map<MarketDataId<?>, MarketDataBox<?>> values,
+      Map<ObservableId, LocalDateDoubleTimeSeries> timeSeries,
+      MarketDataConfig marketDataConfig) {
+    JodaBeanUtils.notNull(id, "id");
+    JodaBeanUtils.notNull(valuationDate, "valuationDate");
+    JodaBeanUtils.notNull(values, "values");
+    JodaBeanUtils.notNull(timeSeries, "timeSeries");
+    JodaBeanUtils.notNull(marketDataConfig, "marketDataConfig");
+    this.id = id;
+    this.valuationDate = valuationDate;
+    this.values = ImmutableMap.copyOf(values);
+    this.timeSeries = ImmutableMap.copyOf(timeSeries);
+    this.marketDataConfig = marketDataConfig;
+  }
+
+  @Override
+  public MarketDataCacheKey.Meta metaBean() {
+    return MarketDataCacheKey.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the identifier of the market data that is built.
+   * @return the value of the property, not null
+   */
+  public MarketDataId<?> getId() {
+    return id;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the valuation date.
+   * @return the value of the property, not null
+   */
+  public LocalDate getValuationDate() {
+    return valuationDate;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the market data values used to build the market data, keyed by identifier.
+   * @return the value of the property, not null
+   */
+  public ImmutableMap<MarketDataId<?>, MarketDataBox<?>> getValues() {
+    return values;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the time-series used to build the market data, keyed by identifier.
+   * @return the value of the property, not null
+   */
+  public ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> getTimeSeries() {
+    return timeSeries;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the configuration used to build the market data.
+   * @return the value of the property, not null
+   */
+  public MarketDataConfig getMarketDataConfig() {
+    return marketDataConfig;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      MarketDataCacheKey other = (MarketDataCacheKey) obj;
+      return JodaBeanUtils.equal(id, other.id) &&
+          JodaBeanUtils.equal(valuationDate, other.valuationDate) &&
+          JodaBeanUtils.equal(values, other.values) &&
+          JodaBeanUtils.equal(timeSeries, other.timeSeries) &&
+          JodaBeanUtils.equal(marketDataConfig, other.marketDataConfig);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(id);
+    hash = hash * 31 + JodaBeanUtils.hashCode(valuationDate);
+    hash = hash * 31 + JodaBeanUtils.hashCode(values);
+    hash = hash * 31 + JodaBeanUtils.hashCode(timeSeries);
+    hash = hash * 31 + JodaBeanUtils.hashCode(marketDataConfig);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(192);
+    buf.append("MarketDataCacheKey{");
+    buf.append("id").append('=').append(id).append(',').append(' ');
+    buf.append("valuationDate").append('=').append(valuationDate).append(',').append(' ');
+    buf.append("values").append('=').append(values).append(',').append(' ');
+    buf.append("timeSeries").append('=').append(timeSeries).append(',').append(' ');
+    buf.append("marketDataConfig").append('=').append(JodaBeanUtils.toString(marketDataConfig));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code MarketDataCacheKey}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code id} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<MarketDataId<?>> id = DirectMetaProperty.ofImmutable(
+        this, "id", MarketDataCacheKey.class, (Class) MarketDataId.class);
+    /**
+     * The meta-property for the {@code valuationDate} property.
+     */
+    private final MetaProperty<LocalDate> valuationDate = DirectMetaProperty.ofImmutable(
+        this, "valuationDate", MarketDataCacheKey.class, LocalDate.class);
+    /**
+     * The meta-property for the {@code values} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableMap<MarketDataId<?>, MarketDataBox<?>>> values = DirectMetaProperty.ofImmutable(
+        this, "values", MarketDataCacheKey.class, (Class) ImmutableMap.class);
+    /**
+     * The meta-property for the {@code timeSeries} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableMap<ObservableId, LocalDateDoubleTimeSeries>> timeSeries = DirectMetaProperty.ofImmutable(
+        this, "timeSeries", MarketDataCacheKey.class, (Class) ImmutableMap.class);
+    /**
+     * The meta-property for the {@code marketDataConfig} property.
+     */
+    private final MetaProperty<MarketDataConfig> marketDataConfig = DirectMetaProperty.ofImmutable(
+        this, "marketDataConfig", MarketDataCacheKey.class, MarketDataConfig.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "id",
+        "valuationDate",
+        "values",
+        "timeSeries",
+        "marketDataConfig");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 3355:  // id
+          return id;
+        case 113107279:  // valuationDate
+          return valuationDate;
+        case -823812830:  // values
+          return values;
+        case 779431844:  // timeSeries
+          return timeSeries;
+        case -2066297624:  // marketDataConfig
+          return marketDataConfig;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends MarketDataCacheKey> builder() {
+      return new MarketDataCacheKey.Builder();
+    }
+
+    @Override
+    public Class<? extends MarketDataCacheKey> beanType() {
+      return MarketDataCacheKey.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code id} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<MarketDataId<?>> id() {
+      return id;
+    }
+
+    /**
+     * The meta-property for the {@code valuationDate} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<LocalDate> valuationDate() {
+      return valuationDate;
+    }
+
+    /**
+     * The meta-property for the {@code values} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableMap<MarketDataId<?>, MarketDataBox<?>>> values() {
+      return values;
+    }
+
+    /**
+     * The meta-property for the {@code timeSeries} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableMap<ObservableId, LocalDateDoubleTimeSeries>> timeSeries() {
+      return timeSeries;
+    }
+
+    /**
+     * The meta-property for the {@code marketDataConfig} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<MarketDataConfig> marketDataConfig() {
+      return marketDataConfig;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 3355:  // id
+          return ((MarketDataCacheKey) bean).getId();
+        case 113107279:  // valuationDate
+          return ((MarketDataCacheKey) bean).getValuationDate();
+        case -823812830:  // values
+          return ((MarketDataCacheKey) bean).getValues();
+        case 779431844:  // timeSeries
+          return ((MarketDataCacheKey) bean).getTimeSeries();
+        case -2066297624:  // marketDataConfig
+          return ((MarketDataCacheKey) bean).getMarketDataConfig();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code MarketDataCacheKey}.
+   */
+  private static final class Builder extends DirectPrivateBeanBuilder<MarketDataCacheKey> {
+
+    private MarketDataId<?> id;
+    private LocalDate valuationDate;
+    private Map<MarketDataId<?>, MarketDataBox<?>> values = ImmutableMap.of();
+    private Map<ObservableId, LocalDateDoubleTimeSeries> timeSeries = ImmutableMap.of();
+    private MarketDataConfig marketDataConfig;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 3355:  // id
+          return id;
+        case 113107279:  // valuationDate
+          return valuationDate;
+        case -823812830:  // values
+          return values;
+        case 779431844:  // timeSeries
+          return timeSeries;
+        case -2066297624:  // marketDataConfig
+          return marketDataConfig;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 3355:  // id
+          this.id = (MarketDataId<?>) newValue;
+          break;
+        case 113107279:  // valuationDate
+          this.valuationDate = (LocalDate) newValue;
+          break;
+        case -823812830:  // values
+          this.values = (Map<MarketDataId<?>, MarketDataBox<?>>) newValue;
+          break;
+        case 779431844:  // timeSeries
+          this.timeSeries = (Map<ObservableId, LocalDateDoubleTimeSeries>) newValue;
+          break;
+        case -2066297624:  // marketDataConfig
+          this.marketDataConfig = (MarketDataConfig) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public MarketDataCacheKey build() {
+      return new MarketDataCacheKey(
+          id,
+          valuationDate,
+          values,
+          timeSeries,
+          marketDataConfig);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(192);
+      buf.append("MarketDataCacheKey.Builder{");
+      buf.append("id").append('=').append(JodaBeanUtils.toString(id)).append(',').append(' ');
+      buf.append("valuationDate").append('=').append(JodaBeanUtils.toString(valuationDate)).append(',').append(' ');
+      buf.append("values").append('=').append(JodaBeanUtils.toString(values)).append(',').append(' ');
+      buf.append("timeSeries").append('=').append(JodaBeanUtils.toString(timeSeries)).append(',').append(' ');
+      buf.append("marketDataConfig").append('=').append(JodaBeanUtils.toString(marketDataConfig));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -6,11 +6,13 @@
 package com.opengamma.strata.calc.marketdata;
 
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationTasks;
 import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
@@ -74,6 +76,28 @@ public interface MarketDataFactory {
     return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, functions);
   }
 
+  /**
+   * Obtains an instance of the factory based on providers of market data and time-series and a cache.
+   * <p>
+   * The market data functions are used to build the market data.
+   * The cache is checked before invoking a function, allowing data such as calibrated curves
+   * to be reused when the inputs have not changed.
+   *
+   * @param observableDataProvider  the provider of observable market data
+   * @param timeSeriesProvider  the provider of time-series
+   * @param cache  the cache of market data built by the functions
+   * @param functions  the functions that create the market data
+   * @return the market data factory
+   */
+  public static MarketDataFactory of(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      MarketDataCache cache,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, cache, functions);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds a set of market data.
@@ -94,6 +118,43 @@ public interface MarketDataFactory {
       MarketData suppliedData,
       ReferenceData refData);
 
+  /**
+   * Rebuilds a set of market data, reusing the values from an earlier build where possible.
+   * <p>
+   * This builds market data in the same way as {@link #create(MarketDataRequirements, MarketDataConfig,
+   * MarketData, ReferenceData) create}, but avoids rebuilding values that cannot have changed.
+   * The previous market data must have been built using the same requirements and configuration.
+   * The changed identifiers are those of the supplied market data whose value or time-series differs
+   * from the market data supplied when building the previous market data.
+   * <p>
+   * Any value in the previous market data that does not depend on one of the changed identifiers
+   * is reused instead of being rebuilt. For example, if a single quote changes, only the curves
+   * calibrated using that quote, and the data derived from those curves, will be rebuilt.
+   * If the valuation date has changed, all the market data is rebuilt.
+   * Data obtained from the {@link ObservableDataProvider} or {@link TimeSeriesProvider} by the earlier
+   * call is treated as unchanged.
+   * <p>
+   * The default implementation ignores the previous market data and rebuilds everything.
+   *
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  market data supplied by the user
+   * @param refData  the reference data
+   * @param previousData  the market data built by an earlier call using the same requirements and configuration
+   * @param changedIds  the identifiers of the supplied market data that have changed since the earlier call
+   * @return the market data required by the calculations plus details of any data that could not be built
+   */
+  public default BuiltMarketData createIncremental(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      ReferenceData refData,
+      BuiltMarketData previousData,
+      Set<? extends MarketDataId<?>> changedIds) {
+
+    return create(requirements, marketDataConfig, suppliedData, refData);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds the market data required for performing calculations for a set of scenarios.
@@ -9,8 +9,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.data.MarketDataId;
@@ -162,6 +164,38 @@ final class MarketDataNode {
     return Pair.of(node, requirements);
   }
 
+  /**
+   * Returns the IDs of the market data in the tree that depends on any of the specified IDs.
+   * <p>
+   * A node is included if its ID is one of the specified IDs, or if any of its dependencies
+   * are included. The specified IDs are only returned if they are present in the tree.
+   * The result identifies the market data that must be rebuilt when the specified data changes.
+   *
+   * @param ids  the IDs of the market data that has changed
+   * @return the IDs of the market data in the tree that depends on the specified IDs
+   */
+  Set<MarketDataId<?>> dependentIds(Set<? extends MarketDataId<?>> ids) {
+    ImmutableSet.Builder<MarketDataId<?>> builder = ImmutableSet.builder();
+    collectDependentIds(ids, builder);
+    return builder.build();
+  }
+
+  // collects the dependent IDs, returning true if this node depends on any of the IDs
+  private boolean collectDependentIds(
+      Set<? extends MarketDataId<?>> ids,
+      ImmutableSet.Builder<MarketDataId<?>> builder) {
+
+    boolean dependent = id != null && ids.contains(id);
+    for (MarketDataNode child : dependencies) {
+      // the child must always be visited, as it may contain dependent IDs even if this node is dependent
+      dependent |= child.collectDependentIds(ids, builder);
+    }
+    if (dependent && id != null) {
+      builder.add(id);
+    }
+    return dependent;
+  }
+
   /**
    * Returns true if this node has no children.
    *
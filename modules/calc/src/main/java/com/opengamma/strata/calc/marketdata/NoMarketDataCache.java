@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.util.Optional;
+
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * Implementation of a market data cache which caches nothing.
+ * <p>
+ * This is used when no cache has been configured, ensuring market data is always built.
+ */
+class NoMarketDataCache implements MarketDataCache {
+
+  /** The single, shared instance of this class. */
+  static final NoMarketDataCache INSTANCE = new NoMarketDataCache();
+
+  @Override
+  public Optional<MarketDataBox<?>> find(MarketDataCacheKey key) {
+    return Optional.empty();
+  }
+
+  @Override
+  public void put(MarketDataCacheKey key, MarketDataBox<?> value) {
+    // do nothing
+  }
+
+}
@@ -50,6 +50,43 @@ public interface CalculationListener {
    */
   public abstract void resultReceived(CalculationTarget target, CalculationResult result);
 
+  /**
+   * Invoked when a batch of calculations completes.
+   * <p>
+   * Results that arrive while the listener is busy are delivered together in a single batch.
+   * The same guarantees apply as for {@link #resultReceived(CalculationTarget, CalculationResult)}.
+   * <p>
+   * The default implementation calls {@link #resultReceived(CalculationTarget, CalculationResult)}
+   * for each cell of each result in the batch, in order.
+   * If an exception is thrown for one target, the remaining cells of that target are skipped,
+   * but the results of the other targets in the batch are still processed.
+   * Once the batch has been processed, the first exception is rethrown, with any others suppressed.
+   * <p>
+   * Listeners that can process results more efficiently in bulk may override this method.
+   * Overriding implementations should process every target in the batch even if one of them fails.
+   *
+   * @param results  the results of the calculations, each containing the target and its cells
+   */
+  public default void resultsReceived(List<CalculationResults> results) {
+    RuntimeException failure = null;
+    for (CalculationResults result : results) {
+      try {
+        for (CalculationResult cell : result.getCells()) {
+          resultReceived(result.getTarget(), cell);
+        }
+      } catch (RuntimeException ex) {
+        if (failure == null) {
+          failure = ex;
+        } else {
+          failure.addSuppressed(ex);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
   /**
    * Invoked when all calculations have completed.
    * <p>
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.List;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.ColumnarResults;
+import com.opengamma.strata.calc.ColumnarResultsBuilder;
+
+/**
+ * Calculation listener that receives the results of individual calculations and builds a set of {@link ColumnarResults}.
+ * <p>
+ * Unlike {@link ResultsListener}, the individual results are not retained and sorted.
+ * Each result is written directly into the columnar storage as it arrives.
+ */
+public final class ColumnarResultsListener extends AggregatingCalculationListener<ColumnarResults> {
+
+  /** The builder that is populated with the results as they arrive. */
+  private ColumnarResultsBuilder builder;
+
+  /**
+   * Creates a new instance.
+   */
+  public ColumnarResultsListener() {
+  }
+
+  @Override
+  public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+    List<ColumnHeader> headers = columns.stream()
+        .map(Column::toHeader)
+        .collect(toImmutableList());
+    builder = ColumnarResults.builder(headers, targets.size());
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    builder.set(result.getRowIndex(), result.getColumnIndex(), result.getResult());
+  }
+
+  @Override
+  protected ColumnarResults createAggregateResult() {
+    return builder.build();
+  }
+}
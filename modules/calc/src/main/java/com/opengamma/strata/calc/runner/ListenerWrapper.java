@@ -5,11 +5,12 @@
  */
 package com.opengamma.strata.calc.runner;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -26,9 +27,12 @@ import com.opengamma.strata.collect.ArgChecker;
  * is only invoked by a single thread at a time. When the calculations are complete,
  * it calls {@link CalculationListener#calculationsComplete() calculationsComplete}.
  * <p>
- * Calculations may be performed in bulk for a given target.
- * The logic in this class unwraps the {@link CalculationResults}, calling the
- * listener with each individual {@link CalculationResult}.
+ * No locks are used. Results are added to a lock-free queue, and a counter of pending results
+ * determines which thread delivers them. The first thread to find no other thread delivering
+ * becomes the delivering thread, and delivers all queued results in batches until the queue is empty.
+ * Each batch is passed to {@link CalculationListener#resultsReceived(List)}, which by default
+ * unwraps the {@link CalculationResults}, calling the listener with each individual {@link CalculationResult}.
+ * Other threads add their result to the queue and return immediately.
  */
 final class ListenerWrapper implements Consumer<CalculationResults> {
 
@@ -37,27 +41,23 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
   /** The wrapped listener. */
   private final CalculationListener listener;
 
-  /** Queue of actions to perform on the delegate. */
-  private final Queue<CalculationResults> queue = new LinkedList<>();
+  /** Queue of results to deliver to the listener, which may be added to by multiple threads. */
+  private final Queue<CalculationResults> queue = new ConcurrentLinkedQueue<>();
 
-  /** Protects the queue and the executing flag. */
-  private final Lock lock = new ReentrantLock();
-
-  /** This lock is never contended; it is used to guarantee the listener state is visible to all threads. */
-  private final Lock listenerLock = new ReentrantLock();
+  /**
+   * The number of results added to the queue that have not yet been accounted for by the delivering thread.
+   * <p>
+   * A thread that increments this from zero becomes the delivering thread.
+   * The delivering thread only stops when it decrements this to zero.
+   * Access to this counter also ensures any state changes in the listener are visible
+   * to the next delivering thread.
+   */
+  private final AtomicInteger pending = new AtomicInteger();
 
   /** The total number of tasks to be executed. */
   private final int tasksExpected;
 
-  // Mutable state -----------------------------------------------------
-
-  /**
-   * Flags whether a call to the underlying listener is executing.
-   * If this flag is set when {@link #accept} is called, the result is added to
-   * the queue and the calling thread returns. The executing thread will ensure
-   * all queued results are delivered.
-   */
-  private boolean executing;
+  // Mutable state, only accessed by the delivering thread ---------------
 
   /** The number of task results that have been received. */
   private int tasksReceived;
@@ -65,24 +65,22 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
   //-------------------------------------------------------------------------
   /**
    * Creates an instance wrapping the specified listener.
-   *  @param listener  the underlying listener wrapped by this object
+   *
+   * @param listener  the underlying listener wrapped by this object
    * @param tasksExpected  the number of tasks to be executed
+   * @param targets  the targets for which values are being calculated
    * @param columns  the columns for which values are being calculated
    */
   ListenerWrapper(CalculationListener listener, int tasksExpected, List<CalculationTarget> targets, List<Column> columns) {
     this.listener = ArgChecker.notNull(listener, "listener");
     this.tasksExpected = ArgChecker.notNegative(tasksExpected, "tasksExpected");
 
-    listenerLock.lock();
-    try {
-      listener.calculationsStarted(targets, columns);
-
-      if (tasksExpected == 0) {
-        listener.calculationsComplete();
-      }
-    } finally {
-      listenerLock.unlock();
+    listener.calculationsStarted(targets, columns);
+    if (tasksExpected == 0) {
+      listener.calculationsComplete();
     }
+    // ensure the listener state is visible to the first delivering thread
+    pending.set(0);
   }
 
   //-------------------------------------------------------------------------
@@ -101,85 +99,51 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
    */
   @Override
   public void accept(CalculationResults result) {
-    CalculationResults nextResult;
-
-    // Multiple calculation threads can try to acquire this lock at the same time.
-    // The thread which acquires the lock will set the executing flag and proceed into
-    // the body of the method.
-    // If another thread acquires the lock while the first thread is executing it will
-    // add an item to the queue and return.
-    // The lock also ensures the state of the executing flag and the queue are visible
-    // to any thread acquiring the lock.
-    lock.lock();
-    try {
-      if (executing) {
-        // Another thread is already invoking the listener. Add the result to
-        // the queue and return. The other thread will ensure the queued results
-        // are delivered.
-        queue.add(result);
+    queue.add(result);
+    if (pending.getAndIncrement() != 0) {
+      // Another thread is delivering results, and is guaranteed to see the count
+      // incremented above, thus it will deliver the result added to the queue
+      return;
+    }
+    // This thread is now the only thread that will invoke the listener until the count returns to zero.
+    // Loop until all the results from the queue have been delivered
+    int missed = 1;
+    for (;;) {
+      // deliver everything currently on the queue as a single batch
+      List<CalculationResults> batch = new ArrayList<>();
+      CalculationResults nextResult;
+      while ((nextResult = queue.poll()) != null) {
+        batch.add(nextResult);
+      }
+      if (!batch.isEmpty()) {
+        deliver(batch);
+      }
+      // If other threads added results since the last check, the count will not reach zero
+      // and the loop will deliver them. Otherwise this thread stops delivering, and the next
+      // thread to increment the count from zero will deliver
+      missed = pending.addAndGet(-missed);
+      if (missed == 0) {
         return;
-      } else {
-        // There is no thread invoking the listener. Set the executing flag to
-        // ensure no other thread passes this point and invoke the listener.
-        executing = true;
-        nextResult = result;
       }
-    } finally {
-      lock.unlock();
     }
+  }
 
-    // The logic in the block above guarantees that there will never be more than one thread in the
-    // rest of the method below this point.
-
-    // Loop until the nextResult and all the results from the queue have been delivered
-    for (;;) {
-      // The logic above means this lock is never contended; the executing flag means
-      // only one thread will ever be in this loop at any given time.
-      // This lock is required to ensure any state changes in the listener are visible to all threads
-      listenerLock.lock();
+  // delivers a batch of results to the listener, only invoked by the delivering thread
+  private void deliver(List<CalculationResults> batch) {
+    try {
+      listener.resultsReceived(Collections.unmodifiableList(batch));
+    } catch (RuntimeException e) {
+      log.warn("Exception invoking listener.resultsReceived", e);
+    }
+    tasksReceived += batch.size();
+    if (tasksReceived == tasksExpected) {
+      // The expected number of results have been received, inform the listener
       try {
-        // Invoke the listener while not protected by lock. This allows other threads
-        // to queue results while this thread is delivering them to the listener.
-        for (CalculationResult cell : nextResult.getCells()) {
-          listener.resultReceived(nextResult.getTarget(), cell);
-        }
+        listener.calculationsComplete();
       } catch (RuntimeException e) {
-        log.warn("Exception invoking listener.resultReceived", e);
-      } finally {
-        listenerLock.unlock();
-      }
-
-      // The following code must be executed whilst holding the lock to guarantee any changes
-      // to the executing flag and to the state of the queue are visible to all threads
-      lock.lock();
-      try {
-        if (++tasksReceived == tasksExpected) {
-          // The expected number of results have been received, inform the listener.
-          // The listener lock must be acquired to ensure any state changes in the listener are
-          // visible to all threads
-          listenerLock.lock();
-          try {
-            listener.calculationsComplete();
-          } catch (RuntimeException e) {
-            log.warn("Exception invoking listener.calculationsComplete", e);
-          } finally {
-            listenerLock.unlock();
-          }
-          return;
-        } else if (queue.isEmpty()) {
-          // There are no more results to deliver. Unset the executing flag and return.
-          // This allows the next calling thread to deliver results.
-          executing = false;
-          return;
-        } else {
-          // There are results on the queue. This means another thread called accept(),
-          // added a result to the queue and returned while this thread was invoking the listener.
-          // This thread must deliver the results from the queue.
-          nextResult = queue.remove();
-        }
-      } finally {
-        lock.unlock();
+        log.warn("Exception invoking listener.calculationsComplete", e);
       }
     }
   }
+
 }
@@ -7,8 +7,12 @@ package com.opengamma.strata.calc.runner;
 
 import java.io.Serializable;
 
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxMatrix;
 import com.opengamma.strata.basics.currency.FxRateProvider;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -46,6 +50,16 @@ class LookupScenarioFxRateProvider
     return marketData.getScenarioCount();
   }
 
+  @Override
+  public DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (lookup instanceof MatrixFxRateLookup && !baseCurrency.equals(counterCurrency)) {
+      // look up the matrix once for all scenarios, rather than once per scenario
+      MarketDataBox<FxMatrix> matrices = marketData.getValue(((MatrixFxRateLookup) lookup).getMatrixId());
+      return DoubleArray.of(getScenarioCount(), i -> matrices.getValue(i).fxRate(baseCurrency, counterCurrency));
+    }
+    return ScenarioFxRateProvider.super.fxRates(baseCurrency, counterCurrency);
+  }
+
   @Override
   public FxRateProvider fxRateProvider(int scenarioIndex) {
     return lookup.fxRateProvider(marketData.scenario(scenarioIndex));
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.marketdata.BuiltMarketData;
+import com.opengamma.strata.calc.marketdata.BuiltScenarioMarketData;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.marketdata.ObservableDataProvider;
+import com.opengamma.strata.calc.marketdata.ScenarioDefinition;
+import com.opengamma.strata.calc.marketdata.TestObservableId;
+import com.opengamma.strata.calc.marketdata.TimeSeriesProvider;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.CalculationParameters;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link CalculationSession}.
+ */
+@Test
+public class CalculationSessionTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final TestTarget TARGET = new TestTarget();
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final TestObservableId ID3 = TestObservableId.of("3");
+
+  //-------------------------------------------------------------------------
+  public void calculate() {
+    ImmutableList<CalculationTarget> targets = ImmutableList.of(TARGET);
+    Column column1 = Column.of(TestingMeasures.PRESENT_VALUE);
+    Column column2 = Column.of(TestingMeasures.BUCKETED_PV01);
+    ImmutableList<Column> columns = ImmutableList.of(column1, column2);
+    CalculationRules rules =
+        CalculationRules.of(CalculationFunctions.empty(), ReportingCurrency.NONE, CalculationParameters.empty());
+    RecordingMarketDataFactory factory = new RecordingMarketDataFactory();
+
+    try (CalculationRunner runner = CalculationRunner.of(MoreExecutors.newDirectExecutorService())) {
+      CalculationSession test =
+          CalculationSession.of(runner, factory, rules, targets, columns, MarketDataConfig.empty(), REF_DATA);
+      assertThat(test.getTasks().getTasks()).hasSize(1);
+      assertThat(test.getRequirements()).isEqualTo(MarketDataRequirements.empty());
+      assertThat(test.getMarketData()).isEmpty();
+
+      // first calculation builds all the market data
+      MarketData md1 = ImmutableMarketData.builder(date(2016, 6, 30))
+          .addValue(ID1, 1d)
+          .addValue(ID2, 2d)
+          .addTimeSeries(ID1, LocalDateDoubleTimeSeries.of(date(2016, 6, 29), 1d))
+          .build();
+      assertThat(test.calculate(md1).get(0, 0).isFailure()).isTrue();
+      assertThat(factory.createCount).isEqualTo(1);
+      assertThat(factory.incrementalCount).isEqualTo(0);
+      assertThat(test.getMarketData()).isPresent();
+
+      // subsequent calculations build incrementally
+      MarketData md2 = ImmutableMarketData.builder(date(2016, 6, 30))
+          .addValue(ID1, 1d)
+          .addValue(ID2, 3d)
+          .addValue(ID3, 4d)
+          .addTimeSeries(ID1, LocalDateDoubleTimeSeries.of(date(2016, 6, 29), 1d))
+          .build();
+      assertThat(test.calculate(md2).get(0, 1).isFailure()).isTrue();
+      assertThat(factory.createCount).isEqualTo(1);
+      assertThat(factory.incrementalCount).isEqualTo(1);
+      assertThat(factory.changedIds).containsOnly(ID2, ID3);
+
+      MarketData md3 = ImmutableMarketData.builder(date(2016, 6, 30))
+          .addValue(ID2, 3d)
+          .addValue(ID3, 4d)
+          .addTimeSeries(ID1, LocalDateDoubleTimeSeries.of(date(2016, 6, 28), 1d))
+          .build();
+      assertThat(test.buildMarketData(md3)).isEqualTo(test.getMarketData().get());
+      assertThat(factory.incrementalCount).isEqualTo(2);
+      assertThat(factory.changedIds).containsOnly(ID1);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static class TestTarget implements CalculationTarget {
+  }
+
+  private static class RecordingMarketDataFactory implements MarketDataFactory {
+    private final MarketDataFactory underlying =
+        MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none());
+    private int createCount;
+    private int incrementalCount;
+    private Set<? extends MarketDataId<?>> changedIds;
+
+    @Override
+    public BuiltMarketData create(
+        MarketDataRequirements requirements,
+        MarketDataConfig marketDataConfig,
+        MarketData suppliedData,
+        ReferenceData refData) {
+
+      createCount++;
+      return underlying.create(requirements, marketDataConfig, suppliedData, refData);
+    }
+
+    @Override
+    public BuiltMarketData createIncremental(
+        MarketDataRequirements requirements,
+        MarketDataConfig marketDataConfig,
+        MarketData suppliedData,
+        ReferenceData refData,
+        BuiltMarketData previousData,
+        Set<? extends MarketDataId<?>> changedIds) {
+
+      incrementalCount++;
+      this.changedIds = ImmutableSet.copyOf(changedIds);
+      return underlying.create(requirements, marketDataConfig, suppliedData, refData);
+    }
+
+    @Override
+    public BuiltScenarioMarketData createMultiScenario(
+        MarketDataRequirements requirements,
+        MarketDataConfig marketDataConfig,
+        MarketData suppliedData,
+        ReferenceData refData,
+        ScenarioDefinition scenarioDefinition) {
+
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BuiltScenarioMarketData createMultiScenario(
+        MarketDataRequirements requirements,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData suppliedData,
+        ReferenceData refData,
+        ScenarioDefinition scenarioDefinition) {
+
+      throw new UnsupportedOperationException();
+    }
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Test {@link ColumnarResults}.
+ */
+@Test
+public class ColumnarResultsTest {
+
+  private static final ColumnName NAME_A = ColumnName.of("A");
+  private static final ColumnName NAME_B = ColumnName.of("B");
+  private static final ColumnName NAME_C = ColumnName.of("C");
+  private static final ColumnHeader HEADER1 = ColumnHeader.of(NAME_A, TestingMeasures.PRESENT_VALUE);
+  private static final ColumnHeader HEADER2 = ColumnHeader.of(NAME_B, TestingMeasures.PRESENT_VALUE);
+  private static final ColumnHeader HEADER3 = ColumnHeader.of(NAME_C, TestingMeasures.PRESENT_VALUE);
+  private static final ImmutableList<ColumnHeader> HEADERS = ImmutableList.of(HEADER1, HEADER2, HEADER3);
+  private static final Result<?> FAILURE = Result.failure(FailureReason.CALCULATION_FAILED, "Failed");
+
+  //-------------------------------------------------------------------------
+  public void test_empty() {
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(), 0).build();
+    assertThat(test.getColumns()).isEmpty();
+    assertThat(test.getRowCount()).isEqualTo(0);
+    assertThat(test.getColumnCount()).isEqualTo(0);
+    assertThrows(() -> test.get(0, 0), IllegalArgumentException.class, "Row index must be greater than or.*");
+    assertThrows(() -> test.get(0, NAME_A), IllegalArgumentException.class, "Column name not found.*");
+    assertThat(test.toResults()).isEqualTo(Results.of(ImmutableList.of(), ImmutableList.of()));
+  }
+
+  public void test_builder() {
+    ColumnarResults test = ColumnarResults.builder(HEADERS, 2)
+        .set(0, 0, Result.success(1d))
+        .set(1, 0, FAILURE)
+        .set(0, 1, Result.success(CurrencyAmount.of(GBP, 2d)))
+        .set(1, 1, Result.success(CurrencyAmount.of(USD, 3d)))
+        .set(1, 2, Result.success("X"))
+        .build();
+    assertThat(test.getColumns()).isEqualTo(HEADERS);
+    assertThat(test.getRowCount()).isEqualTo(2);
+    assertThat(test.getColumnCount()).isEqualTo(3);
+    assertThat(test.getFailureCount()).isEqualTo(1);
+    assertThat(test.get(0, 0).getValue()).isEqualTo(1d);
+    assertThat(test.get(0, 0, Double.class).getValue()).isEqualTo(1d);
+    assertThat(test.get(1, 0)).isEqualTo(FAILURE);
+    assertThat(test.get(0, NAME_B).getValue()).isEqualTo(CurrencyAmount.of(GBP, 2d));
+    assertThat(test.get(1, NAME_B, CurrencyAmount.class).getValue()).isEqualTo(CurrencyAmount.of(USD, 3d));
+    assertThat(test.get(0, 2).getFailure().getReason()).isEqualTo(FailureReason.MISSING_DATA);
+    assertThat(test.get(1, 2).getValue()).isEqualTo("X");
+    assertThat(test.getDoubleColumn(0)).isEqualTo(DoubleArray.of(1d, Double.NaN));
+    assertThat(test.getDoubleColumn(1)).isEqualTo(DoubleArray.of(2d, 3d));
+    assertThrowsIllegalArg(() -> test.getDoubleColumn(2));
+    assertThrowsIllegalArg(() -> test.getDoubleColumn(3));
+    assertThat(test.getCurrencyColumn(1)).containsExactly(GBP, USD);
+    assertThrowsIllegalArg(() -> test.getCurrencyColumn(0));
+    assertThrowsIllegalArg(() -> test.getCurrencyColumn(2));
+    assertThrowsIllegalArg(() -> test.getCurrencyColumn(3));
+    assertThrows(() -> test.get(-1, 0), IllegalArgumentException.class, "Row index must be greater than or.*");
+    assertThrows(() -> test.get(2, 0), IllegalArgumentException.class, "Row index must be greater than or.*");
+    assertThrows(() -> test.get(0, -1), IllegalArgumentException.class, "Column index must be greater than or.*");
+    assertThrows(() -> test.get(0, 3), IllegalArgumentException.class, "Column index must be greater than or.*");
+    assertThrows(() -> test.get(0, 0, String.class), ClassCastException.class,
+        "Result queried with type 'java.lang.String' but was 'java.lang.Double'");
+  }
+
+  public void test_builder_mixedTypes() {
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(HEADER1), 3)
+        .set(0, 0, Result.success(1d))
+        .set(1, 0, Result.success("X"))
+        .set(2, 0, FAILURE)
+        .set(2, 0, Result.success(CurrencyAmount.of(GBP, 2d)))
+        .build();
+    assertThat(test.getFailureCount()).isEqualTo(0);
+    assertThat(test.get(0, 0).getValue()).isEqualTo(1d);
+    assertThat(test.get(1, 0).getValue()).isEqualTo("X");
+    assertThat(test.get(2, 0).getValue()).isEqualTo(CurrencyAmount.of(GBP, 2d));
+    assertThrowsIllegalArg(() -> test.getDoubleColumn(0));
+    assertThrowsIllegalArg(() -> test.getCurrencyColumn(0));
+  }
+
+  public void test_currencyColumn_missingValues() {
+    ColumnarResults test = ColumnarResults.builder(HEADERS, 3)
+        .set(0, 0, Result.success(CurrencyAmount.of(GBP, 2d)))
+        .set(1, 0, FAILURE)
+        .set(2, 0, Result.success(CurrencyAmount.of(USD, 3d)))
+        .build();
+    assertThat(test.getDoubleColumn(0)).isEqualTo(DoubleArray.of(2d, Double.NaN, 3d));
+    assertThat(test.getCurrencyColumn(0)).containsExactly(GBP, null, USD);
+    assertThat(test.getCurrencyColumn(1)).containsExactly(null, null, null);
+    assertThrows(() -> test.getCurrencyColumn(0).set(0, USD), UnsupportedOperationException.class);
+  }
+
+  public void test_builder_invalid() {
+    assertThrowsIllegalArg(() -> ColumnarResults.builder(HEADERS, -1));
+    assertThrowsIllegalArg(() -> ColumnarResults.builder(HEADERS, 2).set(2, 0, FAILURE));
+    assertThrowsIllegalArg(() -> ColumnarResults.builder(HEADERS, 2).set(0, 3, FAILURE));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_of_toResults() {
+    Results results = Results.of(
+        HEADERS,
+        ImmutableList.of(Result.success(1d), Result.success("A"), FAILURE, Result.success(2d), Result.success("B"), FAILURE));
+    ColumnarResults test = ColumnarResults.of(results);
+    assertThat(test.getRowCount()).isEqualTo(2);
+    assertThat(test.getFailureCount()).isEqualTo(2);
+    assertThat(test.getDoubleColumn(0)).isEqualTo(DoubleArray.of(1d, 2d));
+    assertThat(test.toResults()).isEqualTo(results);
+  }
+
+  public void coverage() {
+    ColumnarResults test = ColumnarResults.builder(HEADERS, 1).set(0, 0, Result.success(1d)).build();
+    ColumnarResults test2 = ColumnarResults.builder(HEADERS, 1).set(0, 0, Result.success(2d)).build();
+    ColumnarResults test3 = ColumnarResults.builder(HEADERS, 1).set(0, 1, Result.success(1d)).build();
+    assertThat(test).isEqualTo(test);
+    assertThat(test).isEqualTo(ColumnarResults.builder(HEADERS, 1).set(0, 0, Result.success(1d)).build());
+    assertThat(test).isNotEqualTo(test2);
+    assertThat(test).isNotEqualTo(test3);
+    assertThat(test).isNotEqualTo("");
+    assertThat(test).isNotEqualTo(null);
+    assertThat(test.hashCode()).isEqualTo(test2.hashCode());
+    assertThat(test.toString()).startsWith("ColumnarResults");
+  }
+
+}
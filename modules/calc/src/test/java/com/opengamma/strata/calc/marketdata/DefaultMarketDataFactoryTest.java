@@ -272,6 +272,120 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketDataB2).isEqualTo(expectedB2);
   }
 
+  /**
+   * Tests rebuilding market data, where only the data depending on changed supplied data is built again.
+   */
+  public void buildIncremental() {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+
+    LocalDateDoubleTimeSeries timeSeries1 =
+        LocalDateDoubleTimeSeries.builder()
+            .put(date(2011, 3, 8), 1)
+            .put(date(2011, 3, 9), 2)
+            .build();
+
+    LocalDateDoubleTimeSeries timeSeries2 =
+        LocalDateDoubleTimeSeries.builder()
+            .put(date(2011, 3, 8), 10)
+            .put(date(2011, 3, 9), 20)
+            .build();
+
+    TestIdA idA1 = new TestIdA("1");
+    TestIdA idA2 = new TestIdA("2");
+
+    MarketData suppliedData = ImmutableMarketData.builder(date(2011, 3, 8))
+        .addTimeSeries(idA1, timeSeries1)
+        .addTimeSeries(idA2, timeSeries2)
+        .addValue(idA1, 1d)
+        .addValue(idA2, 2d)
+        .build();
+
+    MarketDataFactory factory = MarketDataFactory.of(
+        ObservableDataProvider.none(),
+        TimeSeriesProvider.none(),
+        new TestMarketDataFunctionB(),
+        new TestMarketDataFunctionC());
+
+    BuiltMarketData marketData = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+
+    // value A1 has changed, so B1 is rebuilt but B2 is reused
+    MarketData suppliedData2 = suppliedData.withValue(idA1, 3d);
+    BuiltMarketData marketData2 = factory.createIncremental(
+        requirements, MARKET_DATA_CONFIG, suppliedData2, REF_DATA, marketData, ImmutableSet.of(idA1));
+
+    assertThat(marketData2.getValueFailures()).isEmpty();
+    assertThat(marketData2.getTimeSeriesFailures()).isEmpty();
+    assertThat(marketData2.getValue(new TestIdB("1"))).isEqualTo(new TestMarketDataB(3, new TestMarketDataC(timeSeries1)));
+    assertThat(marketData2.getValue(new TestIdB("2"))).isSameAs(marketData.getValue(new TestIdB("2")));
+
+    // nothing has changed, so everything is reused
+    BuiltMarketData marketData3 = factory.createIncremental(
+        requirements, MARKET_DATA_CONFIG, suppliedData2, REF_DATA, marketData2, ImmutableSet.of());
+    assertThat(marketData3.getValue(new TestIdB("1"))).isSameAs(marketData2.getValue(new TestIdB("1")));
+    assertThat(marketData3.getValue(new TestIdB("2"))).isSameAs(marketData2.getValue(new TestIdB("2")));
+
+    // the valuation date has changed, so everything is rebuilt
+    MarketData suppliedData4 = ImmutableMarketData.builder(date(2011, 3, 9))
+        .addTimeSeries(idA1, timeSeries1)
+        .addTimeSeries(idA2, timeSeries2)
+        .addValue(idA1, 3d)
+        .addValue(idA2, 2d)
+        .build();
+    BuiltMarketData marketData4 = factory.createIncremental(
+        requirements, MARKET_DATA_CONFIG, suppliedData4, REF_DATA, marketData3, ImmutableSet.of());
+    assertThat(marketData4.getValuationDate()).isEqualTo(date(2011, 3, 9));
+    assertThat(marketData4.getValue(new TestIdB("2"))).isEqualTo(marketData3.getValue(new TestIdB("2")));
+    assertThat(marketData4.getValue(new TestIdB("2"))).isNotSameAs(marketData3.getValue(new TestIdB("2")));
+  }
+
+  /**
+   * Tests market data built by a function is found in the cache when the inputs are unchanged.
+   */
+  public void buildWithCache() {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+
+    LocalDateDoubleTimeSeries timeSeries =
+        LocalDateDoubleTimeSeries.builder()
+            .put(date(2011, 3, 8), 1)
+            .put(date(2011, 3, 9), 2)
+            .build();
+
+    TestIdA idA1 = new TestIdA("1");
+    TestIdA idA2 = new TestIdA("2");
+
+    MarketData suppliedData = ImmutableMarketData.builder(date(2011, 3, 8))
+        .addTimeSeries(idA1, timeSeries)
+        .addTimeSeries(idA2, timeSeries)
+        .addValue(idA1, 1d)
+        .addValue(idA2, 2d)
+        .build();
+
+    MarketDataFactory factory = MarketDataFactory.of(
+        ObservableDataProvider.none(),
+        TimeSeriesProvider.none(),
+        MarketDataCache.ofInMemory(100),
+        ImmutableList.of(new TestMarketDataFunctionB(), new TestMarketDataFunctionC()));
+
+    BuiltMarketData marketData = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+    assertThat(marketData.getValueFailures()).isEmpty();
+    assertThat(marketData.getValue(new TestIdB("1"))).isEqualTo(new TestMarketDataB(1, new TestMarketDataC(timeSeries)));
+
+    // identical inputs, so the values are found in the cache
+    BuiltMarketData marketData2 = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+    assertThat(marketData2.getValue(new TestIdB("1"))).isSameAs(marketData.getValue(new TestIdB("1")));
+    assertThat(marketData2.getValue(new TestIdB("2"))).isSameAs(marketData.getValue(new TestIdB("2")));
+
+    // changed input, so B1 is built again
+    MarketData suppliedData3 = suppliedData.withValue(idA1, 3d);
+    BuiltMarketData marketData3 = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData3, REF_DATA);
+    assertThat(marketData3.getValue(new TestIdB("1"))).isEqualTo(new TestMarketDataB(3, new TestMarketDataC(timeSeries)));
+    assertThat(marketData3.getValue(new TestIdB("2"))).isSameAs(marketData.getValue(new TestIdB("2")));
+  }
+
   /**
    * Tests an exception is thrown when there is no builder for an ID type.
    */
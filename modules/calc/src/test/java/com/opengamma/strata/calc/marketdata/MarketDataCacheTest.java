@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * Test {@link MarketDataCache}.
+ */
+@Test
+public class MarketDataCacheTest {
+
+  private static final FxRateId ID1 = FxRateId.of(Currency.GBP, Currency.USD);
+  private static final FxRateId ID2 = FxRateId.of(Currency.EUR, Currency.USD);
+  private static final MarketDataCacheKey KEY1 = MarketDataCacheKey.of(
+      ID1,
+      date(2019, 1, 31),
+      ImmutableMap.of(ID2, MarketDataBox.ofSingleValue(FxRate.of(Currency.EUR, Currency.USD, 1.1))),
+      ImmutableMap.of(),
+      MarketDataConfig.empty());
+  private static final MarketDataCacheKey KEY2 = MarketDataCacheKey.of(
+      ID1,
+      date(2019, 1, 31),
+      ImmutableMap.of(ID2, MarketDataBox.ofSingleValue(FxRate.of(Currency.EUR, Currency.USD, 1.2))),
+      ImmutableMap.of(),
+      MarketDataConfig.empty());
+  private static final MarketDataBox<FxRate> VALUE1 = MarketDataBox.ofSingleValue(FxRate.of(Currency.GBP, Currency.USD, 1.3));
+  private static final MarketDataBox<FxRate> VALUE2 = MarketDataBox.ofSingleValue(FxRate.of(Currency.GBP, Currency.USD, 1.4));
+
+  //-------------------------------------------------------------------------
+  public void test_none() {
+    MarketDataCache test = MarketDataCache.none();
+    test.put(KEY1, VALUE1);
+    assertThat(test.find(KEY1)).isEmpty();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_inMemory() {
+    MarketDataCache test = MarketDataCache.ofInMemory(10);
+    assertThat(test.find(KEY1)).isEmpty();
+    test.put(KEY1, VALUE1);
+    test.put(KEY2, VALUE2);
+    assertThat(test.find(KEY1)).hasValue(VALUE1);
+    assertThat(test.find(KEY2)).hasValue(VALUE2);
+  }
+
+  public void test_inMemory_bounded() {
+    InMemoryMarketDataCache test = new InMemoryMarketDataCache(1);
+    test.put(KEY1, VALUE1);
+    test.put(KEY2, VALUE2);
+    assertThat(test.size()).isEqualTo(1);
+    assertThat(test.find(KEY2)).hasValue(VALUE2);
+  }
+
+  public void test_inMemory_invalidSize() {
+    assertThrowsIllegalArg(() -> MarketDataCache.ofInMemory(0));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_directory() throws IOException {
+    Path directory = Files.createTempDirectory("strata-md-cache");
+    try {
+      MarketDataCache test = MarketDataCache.ofDirectory(directory);
+      assertThat(test.find(KEY1)).isEmpty();
+      test.put(KEY1, VALUE1);
+      test.put(KEY2, VALUE2);
+      assertThat(test.find(KEY1)).hasValue(VALUE1);
+      assertThat(test.find(KEY2)).hasValue(VALUE2);
+
+      // a new instance sees the values written by the previous one
+      MarketDataCache test2 = MarketDataCache.ofDirectory(directory);
+      assertThat(test2.find(KEY1)).hasValue(VALUE1);
+      assertThat(test2.find(KEY2)).hasValue(VALUE2);
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        files.forEach(file -> file.toFile().delete());
+      }
+      Files.delete(directory);
+    }
+  }
+
+  public void test_directory_notSerializable() throws IOException {
+    Path directory = Files.createTempDirectory("strata-md-cache");
+    try {
+      MarketDataCache test = MarketDataCache.ofDirectory(directory);
+      MarketDataCacheKey key = MarketDataCacheKey.of(
+          TestId.of("1"), date(2019, 1, 31), ImmutableMap.of(), ImmutableMap.of(), MarketDataConfig.empty());
+      test.put(key, VALUE1);
+      assertThat(test.find(key)).isEmpty();
+      assertThat(directory.toFile().list()).isEmpty();
+    } finally {
+      Files.delete(directory);
+    }
+  }
+
+}
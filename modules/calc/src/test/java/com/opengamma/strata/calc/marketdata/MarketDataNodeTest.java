@@ -15,6 +15,7 @@ import java.util.Objects;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.collect.tuple.Pair;
@@ -261,6 +262,34 @@ public class MarketDataNodeTest {
     assertThat(root).isEqualTo(expected);
   }
 
+  /**
+   * Tests finding the market data that depends on a set of IDs.
+   */
+  public void dependentIds() {
+    MarketDataNode root =
+        rootNode(
+            observableNode(new TestIdA("1")),
+            valueNode(
+                new TestIdB("2"),
+                valueNode(new TestIdB("3")),
+                observableNode(new TestIdA("4")),
+                valueNode(
+                    new TestIdB("5"),
+                    timeSeriesNode(new TestIdA("6")))),
+            valueNode(
+                new TestIdB("7"),
+                observableNode(new TestIdA("4"))));
+
+    assertThat(root.dependentIds(ImmutableSet.of(new TestIdA("1")))).containsOnly(new TestIdA("1"));
+    assertThat(root.dependentIds(ImmutableSet.of(new TestIdA("4"))))
+        .containsOnly(new TestIdA("4"), new TestIdB("2"), new TestIdB("7"));
+    assertThat(root.dependentIds(ImmutableSet.of(new TestIdA("6"))))
+        .containsOnly(new TestIdA("6"), new TestIdB("5"), new TestIdB("2"));
+    assertThat(root.dependentIds(ImmutableSet.of(new TestIdB("3"), new TestIdA("8"))))
+        .containsOnly(new TestIdB("3"), new TestIdB("2"));
+    assertThat(root.dependentIds(ImmutableSet.of())).isEmpty();
+  }
+
   //-------------------------------------------------------------------------
   private static MarketDataNode rootNode(MarketDataNode... children) {
     return MarketDataNode.root(Arrays.asList(children));
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnarResults;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Test {@link ColumnarResultsListener}.
+ */
+@Test
+public class ColumnarResultsListenerTest {
+
+  private static final List<Column> COLUMNS = ImmutableList.of(
+      Column.of(TestingMeasures.PRESENT_VALUE, "A"),
+      Column.of(TestingMeasures.PRESENT_VALUE, "B"),
+      Column.of(TestingMeasures.PRESENT_VALUE, "C"));
+
+  //-------------------------------------------------------------------------
+  public void test_resultReceived() {
+    CalculationTarget target = new CalculationTarget() {};
+    ColumnarResultsListener test = new ColumnarResultsListener();
+    test.calculationsStarted(ImmutableList.of(target, target), COLUMNS);
+    test.resultReceived(target, CalculationResult.of(1, 0, Result.success(2d)));
+    test.resultReceived(target, CalculationResult.of(0, 0, Result.success(1d)));
+    test.resultReceived(target, CalculationResult.of(0, 1, Result.success(CurrencyAmount.of(GBP, 3d))));
+    test.resultReceived(target, CalculationResult.of(1, 1, Result.failure(FailureReason.ERROR, "Failed")));
+    test.resultReceived(target, CalculationResult.of(0, 2, Result.success("X")));
+    test.resultReceived(target, CalculationResult.of(1, 2, Result.success(ImmutableList.of("Y"))));
+    test.calculationsComplete();
+
+    ColumnarResults results = test.result();
+    assertThat(results.getRowCount()).isEqualTo(2);
+    assertThat(results.getColumns()).hasSize(3);
+    assertThat(results.getFailureCount()).isEqualTo(1);
+    assertThat(results.getDoubleColumn(0).toArray()).containsExactly(1d, 2d);
+    assertThat(results.getDoubleColumn(1).get(0)).isEqualTo(3d);
+    assertThat(results.getDoubleColumn(1).get(1)).isNaN();
+    assertThat(results.getCurrencyColumn(1)).containsExactly(GBP, null);
+    assertThat(results.get(1, 1).getFailure().getReason()).isEqualTo(FailureReason.ERROR);
+    assertThat(results.get(1, 1).getFailure().getMessage()).isEqualTo("Failed");
+    assertThat(results.get(0, 2).getValue()).isEqualTo("X");
+    assertThat(results.get(1, 2).getValue()).isEqualTo(ImmutableList.of("Y"));
+  }
+
+  // results delivered concurrently through the wrapper are all captured
+  public void test_concurrentDelivery() throws InterruptedException {
+    int rowCount = 5_000;
+    CalculationTarget target = new CalculationTarget() {};
+    List<CalculationTarget> targets = IntStream.range(0, rowCount).mapToObj(i -> target).collect(toImmutableList());
+    ColumnarResultsListener listener = new ColumnarResultsListener();
+    Consumer<CalculationResults> wrapper = new ListenerWrapper(listener, rowCount, targets, COLUMNS);
+    ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+    IntStream.range(0, rowCount).forEach(row -> executor.submit(() -> wrapper.accept(CalculationResults.of(
+        target,
+        ImmutableList.of(
+            CalculationResult.of(row, 0, Result.success((double) row)),
+            CalculationResult.of(row, 1, row % 10 == 0 ?
+                Result.failure(FailureReason.CALCULATION_FAILED, "Row {}", row) :
+                Result.success(CurrencyAmount.of(row % 2 == 0 ? GBP : USD, row))),
+            CalculationResult.of(row, 2, Result.success("R" + row)))))));
+    executor.shutdown();
+    assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+    ColumnarResults results = listener.result();
+    assertThat(results.getRowCount()).isEqualTo(rowCount);
+    assertThat(results.getFailureCount()).isEqualTo(rowCount / 10);
+    DoubleArray values = results.getDoubleColumn(0);
+    List<Currency> currencies = results.getCurrencyColumn(1);
+    for (int row = 0; row < rowCount; row++) {
+      assertThat(values.get(row)).isEqualTo(row);
+      if (row % 10 == 0) {
+        assertThat(results.get(row, 1).getFailure().getMessage()).isEqualTo("Row " + row);
+        assertThat(currencies.get(row)).isNull();
+      } else {
+        assertThat(results.get(row, 1).getValue()).isEqualTo(CurrencyAmount.of(row % 2 == 0 ? GBP : USD, row));
+        assertThat(currencies.get(row)).isEqualTo(row % 2 == 0 ? GBP : USD);
+      }
+      assertThat(results.get(row, 2).getValue()).isEqualTo("R" + row);
+    }
+  }
+
+}
@@ -6,8 +6,12 @@
 package com.opengamma.strata.calc.runner;
 
 import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
@@ -52,6 +56,188 @@ public class ListenerWrapperTest {
     }
   }
 
+  // Tests that every result is delivered exactly once to a listener that is not thread-safe,
+  // with many threads invoking the wrapper concurrently.
+  public void concurrentDelivery() throws InterruptedException {
+    int nThreads = Runtime.getRuntime().availableProcessors() * 2;
+    int expectedResultCount = 20_000;
+    CountDownLatch latch = new CountDownLatch(1);
+    CountingListener listener = new CountingListener(latch);
+    Consumer<CalculationResults> wrapper =
+        new ListenerWrapper(listener, expectedResultCount, ImmutableList.of(), ImmutableList.of());
+    ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+    CalculationResult result = CalculationResult.of(0, 0, Result.failure(FailureReason.ERROR, "foo"));
+    CalculationTarget target = new CalculationTarget() {};
+    CalculationResults results = CalculationResults.of(target, ImmutableList.of(result, result));
+    IntStream.range(0, expectedResultCount).forEach(i -> executor.submit(() -> wrapper.accept(results)));
+
+    latch.await();
+    executor.shutdown();
+
+    assertThat(listener.resultCount).isEqualTo(expectedResultCount * 2);
+    assertThat(listener.completeCount).isEqualTo(1);
+  }
+
+  // Tests that results are delivered in batches to a listener that overrides the batch method
+  public void concurrentBatchDelivery() throws InterruptedException {
+    int nThreads = Runtime.getRuntime().availableProcessors() * 2;
+    int expectedResultCount = 20_000;
+    CountDownLatch latch = new CountDownLatch(1);
+    BatchListener listener = new BatchListener(latch);
+    Consumer<CalculationResults> wrapper =
+        new ListenerWrapper(listener, expectedResultCount, ImmutableList.of(), ImmutableList.of());
+    ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+    CalculationResult result = CalculationResult.of(0, 0, Result.failure(FailureReason.ERROR, "foo"));
+    CalculationTarget target = new CalculationTarget() {};
+    CalculationResults results = CalculationResults.of(target, ImmutableList.of(result, result));
+    IntStream.range(0, expectedResultCount).forEach(i -> executor.submit(() -> wrapper.accept(results)));
+
+    latch.await();
+    executor.shutdown();
+
+    assertThat(listener.resultCount).isEqualTo(expectedResultCount);
+    assertThat(listener.batchCount).isBetween(1, expectedResultCount);
+    assertThat(listener.singleCount).isEqualTo(0);
+    assertThat(listener.completeCount).isEqualTo(1);
+  }
+
+  public void exceptionInListener() {
+    CountDownLatch latch = new CountDownLatch(1);
+    CountingListener listener = new CountingListener(latch) {
+      @Override
+      public void resultReceived(CalculationTarget target, CalculationResult result) {
+        throw new IllegalStateException("Expected");
+      }
+    };
+    Consumer<CalculationResults> wrapper = new ListenerWrapper(listener, 2, ImmutableList.of(), ImmutableList.of());
+    CalculationResult result = CalculationResult.of(0, 0, Result.failure(FailureReason.ERROR, "foo"));
+    CalculationResults results = CalculationResults.of(new CalculationTarget() {}, ImmutableList.of(result));
+    wrapper.accept(results);
+    assertThat(listener.completeCount).isEqualTo(0);
+    wrapper.accept(results);
+    assertThat(listener.completeCount).isEqualTo(1);
+  }
+
+  // Tests that an exception for one target in a batch does not prevent delivery of the other targets
+  public void exceptionInListener_batch() {
+    CountDownLatch latch = new CountDownLatch(1);
+    CalculationTarget target1 = new CalculationTarget() {};
+    CalculationTarget target2 = new CalculationTarget() {};
+    CalculationTarget target3 = new CalculationTarget() {};
+    CalculationResult result = CalculationResult.of(0, 0, Result.failure(FailureReason.ERROR, "foo"));
+    List<CalculationTarget> received = new ArrayList<>();
+    List<Consumer<CalculationResults>> wrapperRef = new ArrayList<>();
+    CountingListener listener = new CountingListener(latch) {
+      @Override
+      public void resultReceived(CalculationTarget target, CalculationResult cell) {
+        if (target == target1) {
+          // results accepted while delivering are queued and delivered together as the next batch
+          wrapperRef.get(0).accept(CalculationResults.of(target2, ImmutableList.of(cell, cell)));
+          wrapperRef.get(0).accept(CalculationResults.of(target3, ImmutableList.of(cell, cell)));
+        }
+        if (target == target2) {
+          throw new IllegalStateException("Expected");
+        }
+        received.add(target);
+      }
+    };
+    wrapperRef.add(new ListenerWrapper(listener, 3, ImmutableList.of(), ImmutableList.of()));
+    wrapperRef.get(0).accept(CalculationResults.of(target1, ImmutableList.of(result)));
+    assertThat(received).containsExactly(target1, target3, target3);
+    assertThat(listener.completeCount).isEqualTo(1);
+  }
+
+  public void exceptionInListener_defaultResultsReceived() {
+    CalculationTarget target1 = new CalculationTarget() {};
+    CalculationTarget target2 = new CalculationTarget() {};
+    CalculationTarget target3 = new CalculationTarget() {};
+    CalculationResult result = CalculationResult.of(0, 0, Result.failure(FailureReason.ERROR, "foo"));
+    List<CalculationTarget> received = new ArrayList<>();
+    CountingListener listener = new CountingListener(new CountDownLatch(1)) {
+      @Override
+      public void resultReceived(CalculationTarget target, CalculationResult cell) {
+        if (target != target2) {
+          received.add(target);
+        }
+        if (target != target3) {
+          throw new IllegalStateException("Expected " + received.size());
+        }
+      }
+    };
+    List<CalculationResults> batch = ImmutableList.of(
+        CalculationResults.of(target1, ImmutableList.of(result)),
+        CalculationResults.of(target2, ImmutableList.of(result, result)),
+        CalculationResults.of(target3, ImmutableList.of(result, result)));
+    assertThatThrownBy(() -> listener.resultsReceived(batch))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Expected 1")
+        .satisfies(ex -> assertThat(ex.getSuppressed()).hasSize(1));
+    assertThat(received).containsExactly(target1, target3, target3);
+  }
+
+  public void noTasks() {
+    CountDownLatch latch = new CountDownLatch(1);
+    CountingListener listener = new CountingListener(latch);
+    new ListenerWrapper(listener, 0, ImmutableList.of(), ImmutableList.of());
+    assertThat(listener.resultCount).isEqualTo(0);
+    assertThat(listener.completeCount).isEqualTo(1);
+  }
+
+  //-------------------------------------------------------------------------
+  private static class CountingListener implements CalculationListener {
+
+    private final CountDownLatch latch;
+    // deliberately not thread-safe, relying on the wrapper for visibility
+    private int resultCount;
+    private int completeCount;
+
+    private CountingListener(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      resultCount++;
+    }
+
+    @Override
+    public void calculationsComplete() {
+      completeCount++;
+      latch.countDown();
+    }
+  }
+
+  private static final class BatchListener implements CalculationListener {
+
+    private final CountDownLatch latch;
+    // deliberately not thread-safe, relying on the wrapper for visibility
+    private int resultCount;
+    private int batchCount;
+    private int singleCount;
+    private int completeCount;
+
+    private BatchListener(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    @Override
+    public void resultsReceived(List<CalculationResults> results) {
+      resultCount += results.size();
+      batchCount++;
+    }
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      singleCount++;
+    }
+
+    @Override
+    public void calculationsComplete() {
+      completeCount++;
+      latch.countDown();
+    }
+  }
+
   public static final class Listener implements CalculationListener {
 
     /**
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+/**
+ * Constants defining the compact binary format of {@link BinaryBeanWriter} and {@link BinaryBeanReader}.
+ * <p>
+ * A stream starts with a header of four magic bytes and a version byte.
+ * It is followed by a sequence of values, each of which starts with a tag byte.
+ * <p>
+ * Strings and bean schemas are written using a reference, which is an index into a table held by
+ * both the writer and the reader. The table is shared by all the values in the stream.
+ * If the index equals the size of the table, then the definition follows and it is added to the table.
+ * A bean schema is defined by the type name, and the number and names of the properties.
+ * The property values are then written in schema order, with no property names.
+ */
+final class BinaryBeanFormat {
+
+  /**
+   * The magic bytes at the start of the stream.
+   */
+  static final byte[] MAGIC = {'S', 'B', 'I', 'N'};
+  /**
+   * The version of the format.
+   */
+  static final int VERSION = 1;
+  /**
+   * The size of the buffer.
+   */
+  static final int BUFFER_SIZE = 65536;
+
+  /** Tag for null. */
+  static final int NULL = 0;
+  /** Tag for a string, followed by a string reference. */
+  static final int STRING = 1;
+  /** Tag for a boolean true. */
+  static final int TRUE = 2;
+  /** Tag for a boolean false. */
+  static final int FALSE = 3;
+  /** Tag for an {@code Integer}, followed by a zig-zag encoded variable length integer. */
+  static final int INTEGER = 4;
+  /** Tag for a {@code Long}, followed by a zig-zag encoded variable length integer. */
+  static final int LONG = 5;
+  /** Tag for a {@code Double}, followed by eight bytes. */
+  static final int DOUBLE = 6;
+  /** Tag for a {@code LocalDate}, followed by the zig-zag encoded epoch-day. */
+  static final int LOCAL_DATE = 7;
+  /** Tag for a {@code double[]}, followed by the length and a block of doubles. */
+  static final int DOUBLE_PRIMITIVE_ARRAY = 8;
+  /** Tag for an {@code int[]}, followed by the length and a block of ints. */
+  static final int INT_PRIMITIVE_ARRAY = 9;
+  /** Tag for a {@code long[]}, followed by the length and a block of longs. */
+  static final int LONG_PRIMITIVE_ARRAY = 10;
+  /** Tag for a {@code LocalDate[]}, followed by the length and the delta encoded epoch-days. */
+  static final int LOCAL_DATE_ARRAY = 11;
+  /** Tag for an {@code Object[]}, followed by the component type, the length and the elements. */
+  static final int OBJECT_ARRAY = 12;
+  /** Tag for a {@code DoubleArray}, followed by the length and a block of doubles. */
+  static final int DOUBLE_ARRAY = 13;
+  /** Tag for an {@code IntArray}, followed by the length and a block of ints. */
+  static final int INT_ARRAY = 14;
+  /** Tag for a {@code DoubleMatrix}, followed by the row count, column count and a block of doubles. */
+  static final int DOUBLE_MATRIX = 15;
+  /** Tag for a list or other collection, followed by the size and the elements. */
+  static final int LIST = 16;
+  /** Tag for a set, followed by the size and the elements. */
+  static final int SET = 17;
+  /** Tag for a sorted set, followed by the size and the elements. */
+  static final int SORTED_SET = 18;
+  /** Tag for a map, followed by the size and the keys and values. */
+  static final int MAP = 19;
+  /** Tag for a sorted map, followed by the size and the keys and values. */
+  static final int SORTED_MAP = 20;
+  /** Tag for a list multimap, followed by the size and the keys and values. */
+  static final int LIST_MULTIMAP = 21;
+  /** Tag for a set multimap, followed by the size and the keys and values. */
+  static final int SET_MULTIMAP = 22;
+  /** Tag for a value converted by Joda-Convert, followed by the type and value string references. */
+  static final int CONVERTED = 23;
+  /** Tag for a bean, followed by the schema reference and the property values. */
+  static final int BEAN = 24;
+
+  /**
+   * Restricted constructor.
+   */
+  private BinaryBeanFormat() {
+  }
+
+}
@@ -0,0 +1,651 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.BEAN;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.BUFFER_SIZE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.CONVERTED;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.DOUBLE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.DOUBLE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.DOUBLE_MATRIX;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.DOUBLE_PRIMITIVE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.FALSE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.INTEGER;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.INT_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.INT_PRIMITIVE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LIST;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LIST_MULTIMAP;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LOCAL_DATE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LOCAL_DATE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LONG;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LONG_PRIMITIVE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.MAGIC;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.MAP;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.NULL;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.OBJECT_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.SET;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.SET_MULTIMAP;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.SORTED_MAP;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.SORTED_SET;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.STRING;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.TRUE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.VERSION;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.convert.StringConvert;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Ordering;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.IntArray;
+
+/**
+ * Reads beans and other values from a stream in the compact binary format.
+ * <p>
+ * This reads the format written by {@link BinaryBeanWriter}.
+ * The values are read one at a time, allowing a large stream to be processed without
+ * holding all the values in memory.
+ * <p>
+ * Collections are read as immutable Guava collections, with sorted sets and maps using natural ordering.
+ * Types named in the stream are only loaded if they are beans or can be converted by Joda-Convert,
+ * or if they are the component type of an array, and are not initialized until they have been checked.
+ * Values converted by Joda-Convert are cached, such that repeated values, such as currencies,
+ * are converted once per stream.
+ * This class is not thread-safe.
+ */
+public final class BinaryBeanReader implements Closeable {
+
+  /**
+   * The string converter.
+   */
+  private static final StringConvert CONVERTER = JodaBeanUtils.stringConverter();
+  /**
+   * The types, other than beans and converted types, that can be the component type of an object array.
+   */
+  private static final ImmutableSet<Class<?>> ARRAY_COMPONENT_TYPES = ImmutableSet.of(
+      String.class, Boolean.class, Integer.class, Long.class, Double.class, LocalDate.class,
+      DoubleArray.class, IntArray.class, DoubleMatrix.class);
+
+  /**
+   * The underlying input stream.
+   */
+  private final InputStream in;
+  /**
+   * The buffer.
+   */
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  /**
+   * The interned strings, by index.
+   */
+  private final List<String> strings = new ArrayList<>();
+  /**
+   * The bean schemas, by index.
+   */
+  private final List<BeanSchema> schemas = new ArrayList<>();
+  /**
+   * The types, keyed by name.
+   */
+  private final Map<String, Class<?>> types = new HashMap<>();
+  /**
+   * The converted values, keyed by type and value string reference.
+   */
+  private final Map<Long, Object> convertedValues = new HashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a reader that reads from the specified input stream.
+   * <p>
+   * The header of the format is read immediately.
+   * The input stream is closed when the reader is closed.
+   *
+   * @param in  the input stream
+   * @return the reader
+   * @throws IllegalArgumentException if the stream is not in the binary bean format
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public static BinaryBeanReader of(InputStream in) {
+    ArgChecker.notNull(in, "in");
+    return new BinaryBeanReader(in);
+  }
+
+  /**
+   * Reads a single value from a byte array.
+   * <p>
+   * The bytes are typically those produced by {@link BinaryBeanWriter#toBytes(Object)}.
+   *
+   * @param <T>  the type of the value
+   * @param bytes  the bytes to read
+   * @param type  the type of the value
+   * @return the value
+   * @throws IllegalArgumentException if the value cannot be read
+   */
+  public static <T> T fromBytes(byte[] bytes, Class<T> type) {
+    try (BinaryBeanReader reader = new BinaryBeanReader(new ByteArrayInputStream(bytes))) {
+      return reader.read(type);
+    }
+  }
+
+  // restricted constructor
+  private BinaryBeanReader(InputStream in) {
+    this.in = in;
+    buffer.limit(0);
+    if (!fill(MAGIC.length + 1)) {
+      throw new IllegalArgumentException("Invalid binary bean format, header not found");
+    }
+    for (byte magic : MAGIC) {
+      if (buffer.get() != magic) {
+        throw new IllegalArgumentException("Invalid binary bean format, header not found");
+      }
+    }
+    int version = buffer.get();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported binary bean format version: " + version);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if there is another value in the stream.
+   *
+   * @return true if there is another value
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public boolean hasNext() {
+    return fill(1);
+  }
+
+  /**
+   * Reads the next value from the stream.
+   *
+   * @param <T>  the type of the value
+   * @param type  the type of the value
+   * @return the value, may be null
+   * @throws IllegalArgumentException if the value cannot be read or is not of the specified type
+   * @throws NoSuchElementException if the end of the stream has been reached
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public <T> T read(Class<T> type) {
+    ArgChecker.notNull(type, "type");
+    if (!hasNext()) {
+      throw new NoSuchElementException("End of stream");
+    }
+    Object value = readObject();
+    if (value != null && !type.isInstance(value)) {
+      throw new IllegalArgumentException(
+          "Value was of type " + value.getClass().getName() + " but expected " + type.getName());
+    }
+    return type.cast(value);
+  }
+
+  /**
+   * Returns a stream of the remaining values in the stream.
+   * <p>
+   * The values are read lazily as the stream is consumed.
+   * Closing the returned stream closes this reader.
+   *
+   * @param <T>  the type of the values
+   * @param type  the type of the values
+   * @return the stream of values
+   */
+  public <T> Stream<T> stream(Class<T> type) {
+    ArgChecker.notNull(type, "type");
+    Iterator<T> iterator = new Iterator<T>() {
+      @Override
+      public boolean hasNext() {
+        return BinaryBeanReader.this.hasNext();
+      }
+
+      @Override
+      public T next() {
+        return read(type);
+      }
+    };
+    Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+    return StreamSupport.stream(spliterator, false).onClose(this::close);
+  }
+
+  /**
+   * Closes the stream.
+   *
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  @Override
+  public void close() {
+    try {
+      in.close();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // reads any supported value
+  private Object readObject() {
+    int tag = readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return readStringRef();
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case INTEGER:
+        return readSignedVarInt();
+      case LONG:
+        return readSignedVarLong();
+      case DOUBLE:
+        ensure(8);
+        return buffer.getDouble();
+      case LOCAL_DATE:
+        return LocalDate.ofEpochDay(readSignedVarLong());
+      case DOUBLE_PRIMITIVE_ARRAY:
+        return readDoubles();
+      case INT_PRIMITIVE_ARRAY:
+        return readInts();
+      case LONG_PRIMITIVE_ARRAY:
+        return readLongs();
+      case LOCAL_DATE_ARRAY:
+        return readDates();
+      case OBJECT_ARRAY:
+        return readObjectArray();
+      case DOUBLE_ARRAY:
+        return DoubleArray.ofUnsafe(readDoubles());
+      case INT_ARRAY:
+        return IntArray.ofUnsafe(readInts());
+      case DOUBLE_MATRIX:
+        return readMatrix();
+      case LIST:
+        return readList();
+      case SET:
+        return ImmutableSet.copyOf(readList());
+      case SORTED_SET:
+        return readSortedSet();
+      case MAP:
+        return readMap();
+      case SORTED_MAP:
+        return readSortedMap();
+      case LIST_MULTIMAP:
+        return readListMultimap();
+      case SET_MULTIMAP:
+        return readSetMultimap();
+      case CONVERTED:
+        return readConverted();
+      case BEAN:
+        return readBean();
+      default:
+        throw new IllegalArgumentException("Invalid binary bean format, unknown tag: " + tag);
+    }
+  }
+
+  // reads a bean, defining the schema if necessary
+  private Object readBean() {
+    int index = readVarInt();
+    BeanSchema schema;
+    if (index == schemas.size()) {
+      Class<?> type = type(readStringRef(), t -> Bean.class.isAssignableFrom(t));
+      MetaBean metaBean = MetaBean.of(type);
+      int count = readVarInt();
+      List<MetaProperty<?>> properties = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        String name = readStringRef();
+        properties.add(metaBean.metaPropertyExists(name) ? metaBean.metaProperty(name) : null);
+      }
+      schema = new BeanSchema(metaBean, properties);
+      schemas.add(schema);
+    } else if (index < schemas.size()) {
+      schema = schemas.get(index);
+    } else {
+      throw new IllegalArgumentException("Invalid binary bean format, unknown schema: " + index);
+    }
+    BeanBuilder<?> builder = schema.metaBean.builder();
+    for (MetaProperty<?> property : schema.properties) {
+      Object value = readObject();
+      // properties that no longer exist are ignored
+      if (property != null) {
+        builder.set(property, value);
+      }
+    }
+    return builder.build();
+  }
+
+  // reads a value converted by Joda-Convert, caching the result
+  private Object readConverted() {
+    int typeIndex = readVarInt();
+    String typeName = stringRef(typeIndex);
+    int valueIndex = readVarInt();
+    String valueStr = stringRef(valueIndex);
+    Long key = (((long) typeIndex) << 32) | valueIndex;
+    Object value = convertedValues.get(key);
+    if (value == null) {
+      value = CONVERTER.convertFromString(type(typeName, BinaryBeanReader::isConvertible), valueStr);
+      convertedValues.put(key, value);
+    }
+    return value;
+  }
+
+  // reads the elements of a list
+  private ImmutableList<Object> readList() {
+    int size = readVarInt();
+    ImmutableList.Builder<Object> builder = ImmutableList.builder();
+    for (int i = 0; i < size; i++) {
+      builder.add(readObject());
+    }
+    return builder.build();
+  }
+
+  // reads the elements of a sorted set
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private ImmutableSortedSet<Object> readSortedSet() {
+    return ImmutableSortedSet.copyOf((Comparator) Ordering.natural(), readList());
+  }
+
+  // reads the entries of a map
+  private ImmutableMap<Object, Object> readMap() {
+    int size = readVarInt();
+    ImmutableMap.Builder<Object, Object> builder = ImmutableMap.builder();
+    for (int i = 0; i < size; i++) {
+      builder.put(readObject(), readObject());
+    }
+    return builder.build();
+  }
+
+  // reads the entries of a sorted map
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private ImmutableSortedMap<Object, Object> readSortedMap() {
+    return ImmutableSortedMap.copyOf(readMap(), (Comparator) Ordering.natural());
+  }
+
+  // reads the entries of a list multimap
+  private ImmutableListMultimap<Object, Object> readListMultimap() {
+    int size = readVarInt();
+    ImmutableListMultimap.Builder<Object, Object> builder = ImmutableListMultimap.builder();
+    for (int i = 0; i < size; i++) {
+      builder.put(readObject(), readObject());
+    }
+    return builder.build();
+  }
+
+  // reads the entries of a set multimap
+  private ImmutableSetMultimap<Object, Object> readSetMultimap() {
+    int size = readVarInt();
+    ImmutableSetMultimap.Builder<Object, Object> builder = ImmutableSetMultimap.builder();
+    for (int i = 0; i < size; i++) {
+      builder.put(readObject(), readObject());
+    }
+    return builder.build();
+  }
+
+  // reads an object array
+  private Object[] readObjectArray() {
+    Class<?> componentType = type(readStringRef(), BinaryBeanReader::isArrayComponent);
+    int length = readVarInt();
+    Object[] array = (Object[]) Array.newInstance(componentType, length);
+    for (int i = 0; i < length; i++) {
+      array[i] = readObject();
+    }
+    return array;
+  }
+
+  // reads a matrix
+  private DoubleMatrix readMatrix() {
+    int rows = readVarInt();
+    int columns = readVarInt();
+    if (rows == 0 || columns == 0) {
+      // a matrix with no rows or columns is always written as 0x0, as that is all DoubleMatrix can represent
+      if (rows != 0 || columns != 0) {
+        throw new IllegalArgumentException(
+            "Invalid binary bean format, empty matrix must be 0x0 but was " + rows + "x" + columns);
+      }
+      return DoubleMatrix.EMPTY;
+    }
+    double[][] array = new double[rows][columns];
+    for (double[] row : array) {
+      readDoubleBlock(row);
+    }
+    return DoubleMatrix.ofUnsafe(array);
+  }
+
+  // reads dates from the delta between consecutive epoch-days
+  private LocalDate[] readDates() {
+    LocalDate[] dates = new LocalDate[readVarInt()];
+    long epochDay = 0;
+    for (int i = 0; i < dates.length; i++) {
+      epochDay += readSignedVarLong();
+      dates[i] = LocalDate.ofEpochDay(epochDay);
+    }
+    return dates;
+  }
+
+  //-------------------------------------------------------------------------
+  // reads an array of doubles with its length
+  private double[] readDoubles() {
+    double[] array = new double[readVarInt()];
+    readDoubleBlock(array);
+    return array;
+  }
+
+  // reads a block of doubles, emptying the buffer in bulk
+  private void readDoubleBlock(double[] array) {
+    int offset = 0;
+    while (offset < array.length) {
+      ensure(8);
+      int count = Math.min(array.length - offset, buffer.remaining() / 8);
+      buffer.asDoubleBuffer().get(array, offset, count);
+      buffer.position(buffer.position() + count * 8);
+      offset += count;
+    }
+  }
+
+  // reads an array of ints with its length
+  private int[] readInts() {
+    int[] array = new int[readVarInt()];
+    int offset = 0;
+    while (offset < array.length) {
+      ensure(4);
+      int count = Math.min(array.length - offset, buffer.remaining() / 4);
+      buffer.asIntBuffer().get(array, offset, count);
+      buffer.position(buffer.position() + count * 4);
+      offset += count;
+    }
+    return array;
+  }
+
+  // reads an array of longs with its length
+  private long[] readLongs() {
+    long[] array = new long[readVarInt()];
+    int offset = 0;
+    while (offset < array.length) {
+      ensure(8);
+      int count = Math.min(array.length - offset, buffer.remaining() / 8);
+      buffer.asLongBuffer().get(array, offset, count);
+      buffer.position(buffer.position() + count * 8);
+      offset += count;
+    }
+    return array;
+  }
+
+  // reads a string by reference, defining it if necessary
+  private String readStringRef() {
+    return stringRef(readVarInt());
+  }
+
+  // finds a string by reference, reading the definition if necessary
+  private String stringRef(int index) {
+    if (index < strings.size()) {
+      return strings.get(index);
+    }
+    if (index > strings.size()) {
+      throw new IllegalArgumentException("Invalid binary bean format, unknown string: " + index);
+    }
+    byte[] bytes = new byte[readVarInt()];
+    int offset = 0;
+    while (offset < bytes.length) {
+      ensure(1);
+      int count = Math.min(bytes.length - offset, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      offset += count;
+    }
+    String str = new String(bytes, StandardCharsets.UTF_8);
+    strings.add(str);
+    return str;
+  }
+
+  // finds a type by name, only initializing the type once it has been validated
+  private Class<?> type(String name, Predicate<Class<?>> validator) {
+    Class<?> type = types.get(name);
+    if (type == null) {
+      try {
+        type = Class.forName(name, false, BinaryBeanReader.class.getClassLoader());
+      } catch (ClassNotFoundException ex) {
+        throw new IllegalArgumentException("Unable to find type: " + name, ex);
+      }
+      types.put(name, type);
+    }
+    if (!validator.test(type)) {
+      throw new IllegalArgumentException("Invalid binary bean format, type not permitted: " + name);
+    }
+    return type;
+  }
+
+  // checks if the type can be converted by Joda-Convert, excluding Class which would load any named type
+  private static boolean isConvertible(Class<?> type) {
+    return type != Class.class && CONVERTER.isConvertible(type);
+  }
+
+  // checks if the type can be the component type of an object array
+  // creating the array does not initialize the type, the elements are validated as they are read
+  private static boolean isArrayComponent(Class<?> type) {
+    return type == Object.class ||
+        type.isInterface() ||
+        ARRAY_COMPONENT_TYPES.contains(type) ||
+        Bean.class.isAssignableFrom(type) ||
+        isConvertible(type);
+  }
+
+  // reads a byte
+  private int readByte() {
+    ensure(1);
+    return buffer.get();
+  }
+
+  // reads a non-negative int in variable length form
+  private int readVarInt() {
+    long value = readVarLong();
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid binary bean format, size too large: " + value);
+    }
+    return (int) value;
+  }
+
+  // reads a signed int in zig-zag variable length form
+  private int readSignedVarInt() {
+    long value = readSignedVarLong();
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid binary bean format, integer out of range: " + value);
+    }
+    return (int) value;
+  }
+
+  // reads a signed long in zig-zag variable length form
+  private long readSignedVarLong() {
+    long value = readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  // reads an unsigned long in variable length form
+  private long readVarLong() {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte();
+      value |= ((long) (b & 0x7F)) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Invalid binary bean format, malformed variable length integer");
+  }
+
+  // ensures the buffer has the specified number of bytes
+  private void ensure(int size) {
+    if (!fill(size)) {
+      throw new UncheckedIOException(new EOFException("Unexpected end of binary bean stream"));
+    }
+  }
+
+  // fills the buffer to have the specified number of bytes, returning false if the end of the stream is reached
+  private boolean fill(int size) {
+    if (buffer.remaining() >= size) {
+      return true;
+    }
+    buffer.compact();
+    try {
+      while (buffer.position() < size) {
+        int read = in.read(buffer.array(), buffer.position(), buffer.remaining());
+        if (read < 0) {
+          break;
+        }
+        buffer.position(buffer.position() + read);
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } finally {
+      buffer.flip();
+    }
+    return buffer.remaining() >= size;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The schema of a bean type, with null for properties that no longer exist.
+   */
+  private static final class BeanSchema {
+    private final MetaBean metaBean;
+    private final List<MetaProperty<?>> properties;
+
+    private BeanSchema(MetaBean metaBean, List<MetaProperty<?>> properties) {
+      this.metaBean = metaBean;
+      this.properties = properties;
+    }
+  }
+
+}
@@ -0,0 +1,566 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.BEAN;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.BUFFER_SIZE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.CONVERTED;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.DOUBLE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.DOUBLE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.DOUBLE_MATRIX;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.DOUBLE_PRIMITIVE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.FALSE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.INTEGER;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.INT_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.INT_PRIMITIVE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LIST;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LIST_MULTIMAP;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LOCAL_DATE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LOCAL_DATE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LONG;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.LONG_PRIMITIVE_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.MAGIC;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.MAP;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.NULL;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.OBJECT_ARRAY;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.SET;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.SET_MULTIMAP;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.SORTED_MAP;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.SORTED_SET;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.STRING;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.TRUE;
+import static com.opengamma.strata.collect.io.BinaryBeanFormat.VERSION;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import org.joda.beans.Bean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaProperty;
+import org.joda.convert.StringConvert;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.SetMultimap;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.IntArray;
+
+/**
+ * Writes beans and other values to a stream in a compact binary format.
+ * <p>
+ * This provides an efficient alternative to the Joda-Beans XML, JSON and binary formats
+ * for persisting large numbers of objects, such as a portfolio of trades, curves or results.
+ * The format is read using {@link BinaryBeanReader}.
+ * <p>
+ * The format is schema-aware. The type and property names of each bean type are written
+ * once per stream, with each bean then written as its property values in schema order.
+ * Strings, including the string form of types converted by Joda-Convert, are interned,
+ * such that each distinct string is written once per stream.
+ * Primitive arrays, {@link DoubleArray}, {@link IntArray}, {@link DoubleMatrix} and arrays of
+ * {@link LocalDate} are written as blocks of primitives.
+ * This makes the format particularly efficient for time-series and sensitivities.
+ * <p>
+ * The supported values are beans, types that can be converted to a string by Joda-Convert,
+ * the types above, boxed primitives, and collections, maps and multimaps of supported values.
+ * Sorted sets and maps must use natural ordering, as the comparator is not written.
+ * Types that Joda-Convert can convert are written in string form in preference to being written as a bean.
+ * <p>
+ * Multiple values can be written to the same stream, allowing them to be read back one at a time.
+ * The interned strings and bean schemas are shared across the values in the stream.
+ * This class is not thread-safe.
+ */
+public final class BinaryBeanWriter implements Closeable, Flushable {
+
+  /**
+   * The string converter.
+   */
+  private static final StringConvert CONVERTER = JodaBeanUtils.stringConverter();
+
+  /**
+   * The underlying output stream.
+   */
+  private final OutputStream out;
+  /**
+   * The buffer.
+   */
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  /**
+   * The interned strings, mapped to their index.
+   */
+  private final Map<String, Integer> strings = new HashMap<>();
+  /**
+   * The bean schemas, keyed by bean type.
+   */
+  private final Map<Class<?>, BeanSchema> schemas = new HashMap<>();
+  /**
+   * The tag to write for each type.
+   */
+  private final Map<Class<?>, Integer> tags = new HashMap<>();
+  /**
+   * The Joda-Convert type name to write for each type.
+   */
+  private final Map<Class<?>, String> convertedTypeNames = new HashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a writer that writes to the specified output stream.
+   * <p>
+   * The header of the format is written immediately.
+   * The output stream is closed when the writer is closed.
+   *
+   * @param out  the output stream
+   * @return the writer
+   */
+  public static BinaryBeanWriter of(OutputStream out) {
+    ArgChecker.notNull(out, "out");
+    return new BinaryBeanWriter(out);
+  }
+
+  /**
+   * Writes a single value to a byte array.
+   *
+   * @param value  the value to write, such as a bean
+   * @return the bytes
+   * @throws IllegalArgumentException if the value cannot be written
+   */
+  public static byte[] toBytes(Object value) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (BinaryBeanWriter writer = new BinaryBeanWriter(baos)) {
+      writer.write(value);
+    }
+    return baos.toByteArray();
+  }
+
+  // restricted constructor
+  private BinaryBeanWriter(OutputStream out) {
+    this.out = out;
+    buffer.put(MAGIC);
+    buffer.put((byte) VERSION);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a value to the stream.
+   * <p>
+   * The value is typically a bean, such as a trade or curve.
+   *
+   * @param value  the value to write, may be null
+   * @throws IllegalArgumentException if the value cannot be written
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public void write(Object value) {
+    writeObject(value);
+  }
+
+  /**
+   * Flushes the stream.
+   *
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  @Override
+  public void flush() {
+    flushBuffer();
+    try {
+      out.flush();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Flushes and closes the stream.
+   *
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  @Override
+  public void close() {
+    try {
+      flushBuffer();
+      out.close();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // writes any supported value
+  private void writeObject(Object value) {
+    if (value == null) {
+      writeTag(NULL);
+      return;
+    }
+    Class<?> type = value.getClass();
+    Integer tag = tags.get(type);
+    if (tag == null) {
+      tag = tag(type);
+      tags.put(type, tag);
+    }
+    if (tag == TRUE) {
+      writeTag(((Boolean) value) ? TRUE : FALSE);
+      return;
+    }
+    if (tag == SORTED_SET) {
+      checkNaturalOrdering(((SortedSet<?>) value).comparator());
+    } else if (tag == SORTED_MAP) {
+      checkNaturalOrdering(((SortedMap<?, ?>) value).comparator());
+    }
+    writeTag(tag);
+    switch (tag) {
+      case STRING:
+        writeStringRef((String) value);
+        return;
+      case INTEGER:
+        writeSignedVarLong((Integer) value);
+        return;
+      case LONG:
+        writeSignedVarLong((Long) value);
+        return;
+      case DOUBLE:
+        ensure(8);
+        buffer.putDouble((Double) value);
+        return;
+      case LOCAL_DATE:
+        writeSignedVarLong(((LocalDate) value).toEpochDay());
+        return;
+      case DOUBLE_PRIMITIVE_ARRAY:
+        writeDoubles((double[]) value);
+        return;
+      case INT_PRIMITIVE_ARRAY:
+        writeInts((int[]) value);
+        return;
+      case LONG_PRIMITIVE_ARRAY:
+        writeLongs((long[]) value);
+        return;
+      case LOCAL_DATE_ARRAY:
+        writeDates((LocalDate[]) value);
+        return;
+      case OBJECT_ARRAY:
+        writeObjectArray((Object[]) value);
+        return;
+      case DOUBLE_ARRAY:
+        writeDoubles(((DoubleArray) value).toArrayUnsafe());
+        return;
+      case INT_ARRAY:
+        writeInts(((IntArray) value).toArrayUnsafe());
+        return;
+      case DOUBLE_MATRIX:
+        writeMatrix((DoubleMatrix) value);
+        return;
+      case LIST:
+      case SET:
+      case SORTED_SET:
+        writeCollection((Collection<?>) value);
+        return;
+      case MAP:
+      case SORTED_MAP:
+        writeMap((Map<?, ?>) value);
+        return;
+      case LIST_MULTIMAP:
+      case SET_MULTIMAP:
+        writeMultimap((Multimap<?, ?>) value);
+        return;
+      case CONVERTED:
+        writeStringRef(convertedTypeNames.get(type));
+        writeStringRef(CONVERTER.convertToString(value));
+        return;
+      case BEAN:
+        writeBean((Bean) value);
+        return;
+      default:
+        throw new IllegalStateException("Unknown tag: " + tag);
+    }
+  }
+
+  // determines the tag for a type
+  private int tag(Class<?> type) {
+    if (type == String.class) {
+      return STRING;
+    } else if (type == Boolean.class) {
+      return TRUE;
+    } else if (type == Integer.class) {
+      return INTEGER;
+    } else if (type == Long.class) {
+      return LONG;
+    } else if (type == Double.class) {
+      return DOUBLE;
+    } else if (type == LocalDate.class) {
+      return LOCAL_DATE;
+    } else if (type == double[].class) {
+      return DOUBLE_PRIMITIVE_ARRAY;
+    } else if (type == int[].class) {
+      return INT_PRIMITIVE_ARRAY;
+    } else if (type == long[].class) {
+      return LONG_PRIMITIVE_ARRAY;
+    } else if (type == LocalDate[].class) {
+      return LOCAL_DATE_ARRAY;
+    } else if (type == DoubleArray.class) {
+      return DOUBLE_ARRAY;
+    } else if (type == IntArray.class) {
+      return INT_ARRAY;
+    } else if (type == DoubleMatrix.class) {
+      return DOUBLE_MATRIX;
+    } else if (type.isArray() && !type.getComponentType().isPrimitive()) {
+      return OBJECT_ARRAY;
+    } else if (SortedSet.class.isAssignableFrom(type)) {
+      return SORTED_SET;
+    } else if (Set.class.isAssignableFrom(type)) {
+      return SET;
+    } else if (Collection.class.isAssignableFrom(type)) {
+      return LIST;
+    } else if (SortedMap.class.isAssignableFrom(type)) {
+      return SORTED_MAP;
+    } else if (Map.class.isAssignableFrom(type)) {
+      return MAP;
+    } else if (ListMultimap.class.isAssignableFrom(type)) {
+      return LIST_MULTIMAP;
+    } else if (SetMultimap.class.isAssignableFrom(type)) {
+      return SET_MULTIMAP;
+    } else if (CONVERTER.isConvertible(type)) {
+      convertedTypeNames.put(type, CONVERTER.findTypedConverter(type).getEffectiveType().getName());
+      return CONVERTED;
+    } else if (Bean.class.isAssignableFrom(type)) {
+      return BEAN;
+    }
+    throw new IllegalArgumentException("Unable to write type: " + type.getName());
+  }
+
+  // writes a bean, defining the schema if necessary
+  private void writeBean(Bean bean) {
+    Class<?> type = bean.getClass();
+    BeanSchema schema = schemas.get(type);
+    if (schema == null) {
+      List<MetaProperty<?>> properties = new ArrayList<>();
+      for (MetaProperty<?> property : bean.metaBean().metaPropertyIterable()) {
+        if (property.style().isSerializable()) {
+          properties.add(property);
+        }
+      }
+      schema = new BeanSchema(schemas.size(), properties);
+      schemas.put(type, schema);
+      writeVarInt(schema.index);
+      writeStringRef(type.getName());
+      writeVarInt(properties.size());
+      for (MetaProperty<?> property : properties) {
+        writeStringRef(property.name());
+      }
+    } else {
+      writeVarInt(schema.index);
+    }
+    for (MetaProperty<?> property : schema.properties) {
+      writeObject(property.get(bean));
+    }
+  }
+
+  // checks the comparator of a sorted set or map is natural ordering, which is all that can be read
+  private static void checkNaturalOrdering(Comparator<?> comparator) {
+    if (comparator != null && comparator != Ordering.natural() && comparator != Comparator.naturalOrder()) {
+      throw new IllegalArgumentException("Unable to write sorted collection that does not use natural ordering");
+    }
+  }
+
+  // writes the elements of a collection
+  private void writeCollection(Collection<?> collection) {
+    writeVarInt(collection.size());
+    for (Object element : collection) {
+      writeObject(element);
+    }
+  }
+
+  // writes the entries of a map
+  private void writeMap(Map<?, ?> map) {
+    writeVarInt(map.size());
+    for (Entry<?, ?> entry : map.entrySet()) {
+      writeObject(entry.getKey());
+      writeObject(entry.getValue());
+    }
+  }
+
+  // writes the entries of a multimap
+  private void writeMultimap(Multimap<?, ?> map) {
+    writeVarInt(map.size());
+    for (Entry<?, ?> entry : map.entries()) {
+      writeObject(entry.getKey());
+      writeObject(entry.getValue());
+    }
+  }
+
+  // writes an object array
+  private void writeObjectArray(Object[] array) {
+    writeStringRef(array.getClass().getComponentType().getName());
+    writeVarInt(array.length);
+    for (Object element : array) {
+      writeObject(element);
+    }
+  }
+
+  // writes a matrix as a single block
+  private void writeMatrix(DoubleMatrix matrix) {
+    writeVarInt(matrix.rowCount());
+    writeVarInt(matrix.columnCount());
+    for (double[] row : matrix.toArrayUnsafe()) {
+      writeDoubleBlock(row);
+    }
+  }
+
+  // writes dates as the delta between consecutive epoch-days
+  private void writeDates(LocalDate[] dates) {
+    writeVarInt(dates.length);
+    long previous = 0;
+    for (LocalDate date : dates) {
+      if (date == null) {
+        throw new IllegalArgumentException("Unable to write null element in LocalDate[]");
+      }
+      long epochDay = date.toEpochDay();
+      writeSignedVarLong(epochDay - previous);
+      previous = epochDay;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // writes an array of doubles with its length
+  private void writeDoubles(double[] array) {
+    writeVarInt(array.length);
+    writeDoubleBlock(array);
+  }
+
+  // writes a block of doubles, filling the buffer in bulk
+  private void writeDoubleBlock(double[] array) {
+    int offset = 0;
+    while (offset < array.length) {
+      ensure(8);
+      int count = Math.min(array.length - offset, buffer.remaining() / 8);
+      buffer.asDoubleBuffer().put(array, offset, count);
+      buffer.position(buffer.position() + count * 8);
+      offset += count;
+    }
+  }
+
+  // writes an array of ints with its length
+  private void writeInts(int[] array) {
+    writeVarInt(array.length);
+    int offset = 0;
+    while (offset < array.length) {
+      ensure(4);
+      int count = Math.min(array.length - offset, buffer.remaining() / 4);
+      buffer.asIntBuffer().put(array, offset, count);
+      buffer.position(buffer.position() + count * 4);
+      offset += count;
+    }
+  }
+
+  // writes an array of longs with its length
+  private void writeLongs(long[] array) {
+    writeVarInt(array.length);
+    int offset = 0;
+    while (offset < array.length) {
+      ensure(8);
+      int count = Math.min(array.length - offset, buffer.remaining() / 8);
+      buffer.asLongBuffer().put(array, offset, count);
+      buffer.position(buffer.position() + count * 8);
+      offset += count;
+    }
+  }
+
+  // writes a string by reference, defining it if necessary
+  private void writeStringRef(String str) {
+    Integer index = strings.get(str);
+    if (index != null) {
+      writeVarInt(index);
+      return;
+    }
+    int newIndex = strings.size();
+    strings.put(str, newIndex);
+    writeVarInt(newIndex);
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(bytes.length);
+    int offset = 0;
+    while (offset < bytes.length) {
+      ensure(1);
+      int count = Math.min(bytes.length - offset, buffer.remaining());
+      buffer.put(bytes, offset, count);
+      offset += count;
+    }
+  }
+
+  // writes a tag
+  private void writeTag(int tag) {
+    ensure(1);
+    buffer.put((byte) tag);
+  }
+
+  // writes a non-negative int in variable length form
+  private void writeVarInt(int value) {
+    writeVarLong(value);
+  }
+
+  // writes a signed long in zig-zag variable length form
+  private void writeSignedVarLong(long value) {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  // writes an unsigned long in variable length form
+  private void writeVarLong(long value) {
+    ensure(10);
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      buffer.put((byte) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    buffer.put((byte) remaining);
+  }
+
+  // ensures the buffer has space for the specified number of bytes
+  private void ensure(int size) {
+    if (buffer.remaining() < size) {
+      flushBuffer();
+    }
+  }
+
+  // writes the buffer to the output stream
+  private void flushBuffer() {
+    try {
+      out.write(buffer.array(), 0, buffer.position());
+      buffer.clear();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The schema of a bean type.
+   */
+  private static final class BeanSchema {
+    private final int index;
+    private final List<MetaProperty<?>> properties;
+
+    private BeanSchema(int index, List<MetaProperty<?>> properties) {
+      this.index = index;
+      this.properties = properties;
+    }
+  }
+
+}
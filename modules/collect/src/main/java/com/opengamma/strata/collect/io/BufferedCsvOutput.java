@@ -0,0 +1,642 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.base.Strings;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Outputs a CSV formatted file to a byte stream, channel or appendable.
+ * <p>
+ * This is an alternative to {@link CsvOutput} intended for large files.
+ * Cells are encoded as UTF-8 directly into a buffer, which is written to the underlying
+ * stream or channel when full. When writing to an appendable, the buffer is decoded into
+ * a reusable character buffer which is then appended.
+ * Numbers are formatted without creating intermediate strings where possible.
+ * <p>
+ * The quoting rules are the same as {@code CsvOutput}, with standard and safe modes.
+ * The separator is always a comma. Numeric cells are never quoted.
+ * <p>
+ * Instances of this class contain mutable state.
+ * A new instance must be created for each file to be output.
+ * The output must be flushed or closed once all the cells have been written.
+ */
+public final class BufferedCsvOutput implements Flushable, Closeable {
+
+  /**
+   * The size of the buffer.
+   */
+  private static final int BUFFER_SIZE = 65536;
+  /**
+   * The limit above which the cell is formatted using the fallback, around 2^53.
+   */
+  private static final double EXACT_LIMIT = 9e15;
+  /**
+   * The limit above which rounding uses the fallback, so that ties can be detected.
+   */
+  private static final double ROUNDING_LIMIT = 1e13;
+  /**
+   * The powers of ten that can be represented exactly.
+   */
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  /**
+   * The underlying stream, null if writing to a channel or appendable.
+   */
+  private final OutputStream stream;
+  /**
+   * The underlying channel, null if writing to a stream or appendable.
+   */
+  private final WritableByteChannel channel;
+  /**
+   * The underlying appendable, null if writing to a stream or channel.
+   */
+  private final Appendable appendable;
+  /**
+   * The decoder, null unless writing to an appendable.
+   */
+  private final CharsetDecoder decoder;
+  /**
+   * The character buffer, null unless writing to an appendable.
+   */
+  private final CharBuffer charBuffer;
+  /**
+   * The buffer.
+   */
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  /**
+   * The buffer, as a byte buffer.
+   */
+  private final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+  /**
+   * Scratch space for formatting numbers.
+   */
+  private final byte[] digits = new byte[20];
+  /**
+   * The new line bytes.
+   */
+  private final byte[] newLine;
+  /**
+   * Whether expressions should be safely encoded.
+   */
+  private final boolean safeExpressions;
+  /**
+   * The current position in the buffer.
+   */
+  private int position;
+  /**
+   * Whether the writer is currently at the start of a line.
+   */
+  private boolean lineStarted;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance writing to a stream, allowing the new line character to be controlled.
+   * <p>
+   * See the standard quoting rules in {@link CsvOutput}.
+   *
+   * @param stream  the stream to write to
+   * @param newLine  the new line string
+   * @return the CSV outputter
+   */
+  public static BufferedCsvOutput standard(OutputStream stream, String newLine) {
+    return new BufferedCsvOutput(ArgChecker.notNull(stream, "stream"), null, null, newLine, false);
+  }
+
+  /**
+   * Creates an instance writing to a channel, allowing the new line character to be controlled.
+   * <p>
+   * See the standard quoting rules in {@link CsvOutput}.
+   * The buffer is written directly to the channel, such as a {@link FileChannel}.
+   *
+   * @param channel  the channel to write to
+   * @param newLine  the new line string
+   * @return the CSV outputter
+   */
+  public static BufferedCsvOutput standard(WritableByteChannel channel, String newLine) {
+    return new BufferedCsvOutput(null, ArgChecker.notNull(channel, "channel"), null, newLine, false);
+  }
+
+  /**
+   * Creates an instance writing to an appendable, allowing the new line character to be controlled.
+   * <p>
+   * See the standard quoting rules in {@link CsvOutput}.
+   * The appendable is flushed or closed when this instance is, if it supports it.
+   *
+   * @param appendable  the appendable to write to
+   * @param newLine  the new line string
+   * @return the CSV outputter
+   */
+  public static BufferedCsvOutput standard(Appendable appendable, String newLine) {
+    return new BufferedCsvOutput(null, null, ArgChecker.notNull(appendable, "appendable"), newLine, false);
+  }
+
+  /**
+   * Creates an instance writing to a file, allowing the new line character to be controlled.
+   * <p>
+   * See the standard quoting rules in {@link CsvOutput}.
+   * Any existing file is replaced. The file is closed when this instance is closed.
+   *
+   * @param file  the file to write to
+   * @param newLine  the new line string
+   * @param gzip  true to compress the file using gzip
+   * @return the CSV outputter
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public static BufferedCsvOutput standard(Path file, String newLine, boolean gzip) {
+    return ofFile(file, newLine, gzip, false);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance writing to a stream, allowing the new line character to be controlled.
+   * <p>
+   * See the safe quoting rules in {@link CsvOutput#safe(Appendable)}.
+   *
+   * @param stream  the stream to write to
+   * @param newLine  the new line string
+   * @return the CSV outputter
+   */
+  public static BufferedCsvOutput safe(OutputStream stream, String newLine) {
+    return new BufferedCsvOutput(ArgChecker.notNull(stream, "stream"), null, null, newLine, true);
+  }
+
+  /**
+   * Creates an instance writing to a channel, allowing the new line character to be controlled.
+   * <p>
+   * See the safe quoting rules in {@link CsvOutput#safe(Appendable)}.
+   * The buffer is written directly to the channel, such as a {@link FileChannel}.
+   *
+   * @param channel  the channel to write to
+   * @param newLine  the new line string
+   * @return the CSV outputter
+   */
+  public static BufferedCsvOutput safe(WritableByteChannel channel, String newLine) {
+    return new BufferedCsvOutput(null, ArgChecker.notNull(channel, "channel"), null, newLine, true);
+  }
+
+  /**
+   * Creates an instance writing to an appendable, allowing the new line character to be controlled.
+   * <p>
+   * See the safe quoting rules in {@link CsvOutput#safe(Appendable)}.
+   * The appendable is flushed or closed when this instance is, if it supports it.
+   *
+   * @param appendable  the appendable to write to
+   * @param newLine  the new line string
+   * @return the CSV outputter
+   */
+  public static BufferedCsvOutput safe(Appendable appendable, String newLine) {
+    return new BufferedCsvOutput(null, null, ArgChecker.notNull(appendable, "appendable"), newLine, true);
+  }
+
+  /**
+   * Creates an instance writing to a file, allowing the new line character to be controlled.
+   * <p>
+   * See the safe quoting rules in {@link CsvOutput#safe(Appendable)}.
+   * Any existing file is replaced. The file is closed when this instance is closed.
+   *
+   * @param file  the file to write to
+   * @param newLine  the new line string
+   * @param gzip  true to compress the file using gzip
+   * @return the CSV outputter
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public static BufferedCsvOutput safe(Path file, String newLine, boolean gzip) {
+    return ofFile(file, newLine, gzip, true);
+  }
+
+  // opens the file
+  private static BufferedCsvOutput ofFile(Path file, String newLine, boolean gzip, boolean safeExpressions) {
+    ArgChecker.notNull(file, "file");
+    try {
+      if (gzip) {
+        OutputStream stream = new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        return new BufferedCsvOutput(stream, null, null, newLine, safeExpressions);
+      }
+      FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE);
+      return new BufferedCsvOutput(null, channel, null, newLine, safeExpressions);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // creates an instance
+  private BufferedCsvOutput(
+      OutputStream stream,
+      WritableByteChannel channel,
+      Appendable appendable,
+      String newLine,
+      boolean safeExpressions) {
+
+    this.stream = stream;
+    this.channel = channel;
+    this.appendable = appendable;
+    this.decoder = appendable != null ? StandardCharsets.UTF_8.newDecoder() : null;
+    this.charBuffer = appendable != null ? CharBuffer.allocate(BUFFER_SIZE) : null;
+    this.newLine = ArgChecker.notNull(newLine, "newLine").getBytes(StandardCharsets.UTF_8);
+    this.safeExpressions = safeExpressions;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a single CSV line to the underlying, only quoting if needed.
+   * <p>
+   * This method writes each cell in the specified list to the underlying, followed by
+   * a new line character.
+   *
+   * @param line  the line to write
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public void writeLine(List<String> line) {
+    ArgChecker.notNull(line, "line");
+    for (String cell : line) {
+      writeCell(cell, false);
+    }
+    writeNewLine();
+  }
+
+  /**
+   * Writes a single cell to the current line, only quoting if needed.
+   * <p>
+   * When using this method, either {@link #writeNewLine()} or {@link #writeLine(List)}
+   * must be called at the end of the line.
+   *
+   * @param cell  the cell to write
+   * @return this, for method chaining
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public BufferedCsvOutput writeCell(String cell) {
+    return writeCell(cell, false);
+  }
+
+  /**
+   * Writes a single cell to the current line.
+   * <p>
+   * The boolean flag controls whether each entry is always quoted or only quoted when necessary.
+   *
+   * @param cell  the cell to write
+   * @param alwaysQuote  when true, the cell will be quoted, when false, quoting is selective
+   * @return this, for method chaining
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public BufferedCsvOutput writeCell(String cell, boolean alwaysQuote) {
+    startCell();
+    if (alwaysQuote || CsvOutput.isQuotingRequired(cell, safeExpressions)) {
+      if (safeExpressions && CsvOutput.isExpressionPrefix(cell, safeExpressions)) {
+        writeByte('=');
+      }
+      writeByte('"');
+      writeChars(cell, true);
+      writeByte('"');
+    } else {
+      writeChars(cell, false);
+    }
+    return this;
+  }
+
+  /**
+   * Writes a single cell containing an integer to the current line.
+   *
+   * @param value  the value to write
+   * @return this, for method chaining
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public BufferedCsvOutput writeCell(long value) {
+    startCell();
+    if (value == Long.MIN_VALUE) {
+      writeChars(Long.toString(value), false);
+    } else {
+      writeDecimal(value < 0, Math.abs(value), 0);
+    }
+    return this;
+  }
+
+  /**
+   * Writes a single cell containing a {@code double} to the current line, retaining full precision.
+   * <p>
+   * The value is written exactly as {@code BigDecimal.valueOf(value).toPlainString()},
+   * without creating the {@code BigDecimal}, such as '2.0', '-0.0125', '15000000' or '0.000010'.
+   * Values that are not finite are written using {@code Double.toString(value)}.
+   *
+   * @param value  the value to write
+   * @return this, for method chaining
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public BufferedCsvOutput writeCell(double value) {
+    startCell();
+    if (value == 0d) {
+      // BigDecimal does not retain the sign of zero
+      writeChars("0.0", false);
+    } else if (Double.isFinite(value)) {
+      writePlain(Double.toString(value));
+    } else {
+      writeChars(Double.toString(value), false);
+    }
+    return this;
+  }
+
+  /**
+   * Writes a single cell containing a {@code double} to the current line, rounding to the decimal places.
+   * <p>
+   * The value is rounded using half-even rounding, with trailing zeros removed and no exponent.
+   * This matches a {@link DecimalFormat} with a pattern such as '#.####', where the
+   * number of '#' after the decimal point is the number of decimal places.
+   *
+   * @param value  the value to write
+   * @param decimalPlaces  the maximum number of decimal places, from 0 to 15
+   * @return this, for method chaining
+   * @throws IllegalArgumentException if the decimal places is invalid
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public BufferedCsvOutput writeCell(double value, int decimalPlaces) {
+    ArgChecker.inRangeInclusive(decimalPlaces, 0, 15, "decimalPlaces");
+    startCell();
+    if (!writeShortest(value, 0, decimalPlaces, true) && !writeRounded(value, decimalPlaces)) {
+      DecimalFormat format = new DecimalFormat(
+          decimalPlaces == 0 ? "#" : "#." + Strings.repeat("#", decimalPlaces),
+          new DecimalFormatSymbols(Locale.ENGLISH));
+      writeChars(format.format(value), false);
+    }
+    return this;
+  }
+
+  /**
+   * Writes a new line character.
+   *
+   * @return this, for method chaining
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public BufferedCsvOutput writeNewLine() {
+    for (byte b : newLine) {
+      writeByte(b);
+    }
+    lineStarted = false;
+    return this;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Flushes the buffer to the underlying stream, channel or appendable.
+   *
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  @Override
+  public void flush() {
+    flushBuffer();
+    try {
+      if (stream != null) {
+        stream.flush();
+      } else if (appendable instanceof Flushable) {
+        ((Flushable) appendable).flush();
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Flushes the buffer and closes the underlying stream, channel or appendable.
+   * <p>
+   * An appendable is only closed if it implements {@link Closeable}.
+   *
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  @Override
+  public void close() {
+    flushBuffer();
+    try {
+      if (stream != null) {
+        stream.close();
+      } else if (channel != null) {
+        channel.close();
+      } else if (appendable instanceof Closeable) {
+        ((Closeable) appendable).close();
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // writes the separator if necessary
+  private void startCell() {
+    if (lineStarted) {
+      writeByte(',');
+    }
+    lineStarted = true;
+  }
+
+  // writes the result of Double.toString() in the form of BigDecimal.toPlainString()
+  // BigDecimal.valueOf() parses the same string, with the digits of the mantissa as the unscaled value
+  private void writePlain(String str) {
+    int exponentIndex = str.indexOf('E');
+    if (exponentIndex < 0) {
+      writeChars(str, false);
+      return;
+    }
+    int start = 0;
+    if (str.charAt(0) == '-') {
+      writeByte('-');
+      start = 1;
+    }
+    // the mantissa is one digit, the decimal point and the fraction digits
+    int fractionDigits = exponentIndex - start - 2;
+    int digitCount = fractionDigits + 1;
+    int scale = fractionDigits - Integer.parseInt(str.substring(exponentIndex + 1));
+    if (scale <= 0) {
+      writeMantissaDigits(str, start, exponentIndex);
+      for (int i = 0; i < -scale; i++) {
+        writeByte('0');
+      }
+    } else if (digitCount > scale) {
+      // not reached from Double.toString(), which only uses an exponent for large and small values
+      int integerDigits = digitCount - scale;
+      int written = 0;
+      for (int i = start; i < exponentIndex; i++) {
+        char ch = str.charAt(i);
+        if (ch != '.') {
+          if (written++ == integerDigits) {
+            writeByte('.');
+          }
+          writeByte(ch);
+        }
+      }
+    } else {
+      writeByte('0');
+      writeByte('.');
+      for (int i = 0; i < scale - digitCount; i++) {
+        writeByte('0');
+      }
+      writeMantissaDigits(str, start, exponentIndex);
+    }
+  }
+
+  // writes the digits of the mantissa, omitting the decimal point
+  private void writeMantissaDigits(String str, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char ch = str.charAt(i);
+      if (ch != '.') {
+        writeByte(ch);
+      }
+    }
+  }
+
+  // writes the shortest decimal with the specified range of decimal places that converts back to the value
+  // negative zero is written as '0' unless the sign of zero is retained, as per DecimalFormat
+  private boolean writeShortest(double value, int minDecimalPlaces, int maxDecimalPlaces, boolean signedZero) {
+    double abs = Math.abs(value);
+    for (int places = minDecimalPlaces; places <= maxDecimalPlaces; places++) {
+      double scaled = abs * POWERS_OF_TEN[places];
+      if (!(scaled < EXACT_LIMIT)) {
+        return false;
+      }
+      double rounded = Math.rint(scaled);
+      if (rounded / POWERS_OF_TEN[places] == abs) {
+        boolean negative = signedZero ? Double.doubleToRawLongBits(value) < 0 : value < 0;
+        writeDecimal(negative, (long) rounded, places);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // writes the value rounded half-even to the decimal places, unless the value is too close to a tie
+  private boolean writeRounded(double value, int decimalPlaces) {
+    double scaled = Math.abs(value) * POWERS_OF_TEN[decimalPlaces];
+    if (!(scaled < ROUNDING_LIMIT) || Math.abs(scaled - Math.floor(scaled) - 0.5) < 0.01) {
+      return false;
+    }
+    long rounded = (long) Math.rint(scaled);
+    int places = decimalPlaces;
+    while (places > 0 && rounded % 10 == 0) {
+      rounded /= 10;
+      places--;
+    }
+    // matches DecimalFormat, where a negative value that rounds to zero is written as '-0'
+    writeDecimal(value < 0, rounded, places);
+    return true;
+  }
+
+  // writes the unscaled value as a decimal with the specified number of decimal places
+  private void writeDecimal(boolean negative, long unscaled, int decimalPlaces) {
+    if (negative) {
+      writeByte('-');
+    }
+    int count = 0;
+    long remaining = unscaled;
+    do {
+      digits[count++] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    } while (remaining != 0 || count <= decimalPlaces);
+    for (int i = count - 1; i >= 0; i--) {
+      if (i == decimalPlaces - 1) {
+        writeByte('.');
+      }
+      writeByte(digits[i]);
+    }
+  }
+
+  // writes the characters as UTF-8, doubling quotes if necessary
+  private void writeChars(String str, boolean escapeQuotes) {
+    int length = str.length();
+    for (int i = 0; i < length; i++) {
+      char ch = str.charAt(i);
+      if (ch < 0x80) {
+        if (ch == '"' && escapeQuotes) {
+          writeByte('"');
+        }
+        writeByte(ch);
+      } else if (ch < 0x800) {
+        writeByte(0xC0 | (ch >> 6));
+        writeByte(0x80 | (ch & 0x3F));
+      } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(ch, str.charAt(++i));
+        writeByte(0xF0 | (codePoint >> 18));
+        writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+        writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+        writeByte(0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(ch)) {
+        // unpaired surrogate, replaced as per String.getBytes()
+        writeByte('?');
+      } else {
+        writeByte(0xE0 | (ch >> 12));
+        writeByte(0x80 | ((ch >> 6) & 0x3F));
+        writeByte(0x80 | (ch & 0x3F));
+      }
+    }
+  }
+
+  // writes a single byte
+  private void writeByte(int b) {
+    if (position == BUFFER_SIZE) {
+      flushBuffer();
+    }
+    buffer[position++] = (byte) b;
+  }
+
+  // writes the buffer to the underlying
+  private void flushBuffer() {
+    try {
+      if (appendable != null) {
+        flushToAppendable();
+        return;
+      }
+      if (stream != null) {
+        stream.write(buffer, 0, position);
+      } else {
+        byteBuffer.clear().limit(position);
+        while (byteBuffer.hasRemaining()) {
+          channel.write(byteBuffer);
+        }
+      }
+      position = 0;
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // decodes the buffer and appends it, retaining the bytes of any incomplete character for the next flush
+  private void flushToAppendable() throws IOException {
+    byteBuffer.clear().limit(position);
+    CoderResult result;
+    do {
+      result = decoder.decode(byteBuffer, charBuffer, false);
+      charBuffer.flip();
+      appendable.append(charBuffer);
+      charBuffer.clear();
+    } while (result.isOverflow());
+    int remaining = byteBuffer.remaining();
+    System.arraycopy(buffer, byteBuffer.position(), buffer, 0, remaining);
+    position = remaining;
+  }
+
+}
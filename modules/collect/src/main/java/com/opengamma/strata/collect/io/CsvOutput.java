@@ -258,7 +258,7 @@ public final class CsvOutput {
       if (lineStarted) {
         underlying.append(separator);
       }
-      if (alwaysQuote || isQuotingRequired(cell)) {
+      if (alwaysQuote || isQuotingRequired(cell, safeExpressions)) {
         outputQuotedCell(cell);
       } else {
         underlying.append(cell);
@@ -288,15 +288,15 @@ public final class CsvOutput {
 
   //-------------------------------------------------------------------------
   // quoting is required if entry contains quote, comma, trimmable whitespace, or starts with an expression character
-  private boolean isQuotingRequired(String cell) {
+  static boolean isQuotingRequired(String cell, boolean safeExpressions) {
     return cell.indexOf('"') >= 0 ||
         cell.indexOf(',') >= 0 ||
         cell.trim().length() != cell.length() ||
-        isExpressionPrefix(cell);
+        isExpressionPrefix(cell, safeExpressions);
   }
 
   // checks if quoting should be applied
-  private boolean isExpressionPrefix(String cell) {
+  static boolean isExpressionPrefix(String cell, boolean safeExpressions) {
     if (cell.isEmpty()) {
       return false;
     }
@@ -312,7 +312,7 @@ public final class CsvOutput {
 
   // quotes the entry
   private void outputQuotedCell(String cell) throws IOException {
-    if (safeExpressions && isExpressionPrefix(cell)) {
+    if (safeExpressions && isExpressionPrefix(cell, safeExpressions)) {
       underlying.append('=');
     }
     underlying.append('"');
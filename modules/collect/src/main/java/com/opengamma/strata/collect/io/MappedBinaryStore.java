@@ -0,0 +1,465 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * A read-only store of keyed values and time-series, held in a memory-mapped file.
+ * <p>
+ * This is intended for data that is written once and then opened by many processes,
+ * such as a snapshot of market data. Opening the store only reads the index of keys.
+ * The values are decoded on first access and then cached.
+ * As the file is memory-mapped, multiple processes opening the same file share the pages
+ * in the operating system page cache.
+ * <p>
+ * Values of type {@code Double} and {@link DoubleArray}, and all time-series, are stored as
+ * blocks of primitives within the file. Time-series are stored as epoch-days and values.
+ * Other values, the keys and the header are stored in the format of {@link BinaryBeanWriter},
+ * and must be supported by that format.
+ * <p>
+ * The file is limited to 2Gb. Instances are thread-safe.
+ */
+public final class MappedBinaryStore {
+
+  /**
+   * The magic bytes at the start of the file.
+   */
+  private static final byte[] MAGIC = {'S', 'M', 'A', 'P'};
+  /**
+   * The version of the format.
+   */
+  private static final int VERSION = 1;
+  /**
+   * The size of the file header.
+   */
+  private static final int HEADER_SIZE = 24;
+  /**
+   * The kind of value stored as a double.
+   */
+  private static final int KIND_DOUBLE = 0;
+  /**
+   * The kind of value stored as a block of doubles.
+   */
+  private static final int KIND_DOUBLE_ARRAY = 1;
+  /**
+   * The kind of value stored in the binary bean format.
+   */
+  private static final int KIND_BINARY = 2;
+
+  /**
+   * The mapped file.
+   */
+  private final ByteBuffer buffer;
+  /**
+   * The header.
+   */
+  private final Object header;
+  /**
+   * The location of the values, keyed by key.
+   */
+  private final ImmutableMap<Object, Location> values;
+  /**
+   * The location of the time-series, keyed by key.
+   */
+  private final ImmutableMap<Object, Location> timeSeries;
+  /**
+   * The decoded values and time-series.
+   */
+  private final Map<Object, Object> decoded = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a store to the specified file.
+   * <p>
+   * The header is typically used to hold information that applies to the whole store,
+   * such as a valuation date. Any existing file is replaced.
+   *
+   * @param file  the file to write
+   * @param header  the header, not null
+   * @param values  the values, keyed by key, not null
+   * @param timeSeries  the time-series, keyed by key, not null
+   * @throws IllegalArgumentException if a key or value cannot be written
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public static void write(
+      Path file,
+      Object header,
+      Map<?, ?> values,
+      Map<?, LocalDateDoubleTimeSeries> timeSeries) {
+
+    ArgChecker.notNull(file, "file");
+    ArgChecker.notNull(header, "header");
+    ArgChecker.notNull(values, "values");
+    ArgChecker.notNull(timeSeries, "timeSeries");
+    ByteArrayOutputStream index = new ByteArrayOutputStream();
+    try (FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE);
+        CountingOutputStream counting = new CountingOutputStream(
+            new BufferedOutputStream(Channels.newOutputStream(channel), 65536));
+        DataOutputStream out = new DataOutputStream(counting);
+        BinaryBeanWriter indexWriter = BinaryBeanWriter.of(index)) {
+
+      out.write(new byte[HEADER_SIZE]);
+      indexWriter.write(header);
+      indexWriter.write(values.size());
+      for (Entry<?, ?> entry : values.entrySet()) {
+        Object value = ArgChecker.notNull(entry.getValue(), "value");
+        indexWriter.write(entry.getKey());
+        if (value instanceof Double) {
+          indexWriter.write(KIND_DOUBLE);
+          indexWriter.write(counting.count);
+          indexWriter.write(1);
+          out.writeDouble((Double) value);
+        } else if (value instanceof DoubleArray) {
+          double[] array = ((DoubleArray) value).toArrayUnsafe();
+          indexWriter.write(KIND_DOUBLE_ARRAY);
+          indexWriter.write(counting.count);
+          indexWriter.write(array.length);
+          for (double d : array) {
+            out.writeDouble(d);
+          }
+        } else {
+          byte[] bytes = BinaryBeanWriter.toBytes(value);
+          indexWriter.write(KIND_BINARY);
+          indexWriter.write(counting.count);
+          indexWriter.write(bytes.length);
+          out.write(bytes);
+          pad(out, counting.count);
+        }
+      }
+      indexWriter.write(timeSeries.size());
+      for (Entry<?, LocalDateDoubleTimeSeries> entry : timeSeries.entrySet()) {
+        LocalDateDoubleTimeSeries series = ArgChecker.notNull(entry.getValue(), "timeSeries");
+        indexWriter.write(entry.getKey());
+        indexWriter.write(counting.count);
+        indexWriter.write(series.size());
+        // values first to keep the doubles aligned, then the epoch-days
+        for (double value : series.values().toArray()) {
+          out.writeDouble(value);
+        }
+        for (long epochDay : series.dates().mapToLong(LocalDate::toEpochDay).toArray()) {
+          if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Time-series date out of range: " + LocalDate.ofEpochDay(epochDay));
+          }
+          out.writeInt((int) epochDay);
+        }
+        pad(out, counting.count);
+      }
+      indexWriter.close();
+      pad(out, counting.count);
+      long indexOffset = counting.count;
+      out.write(index.toByteArray());
+      out.flush();
+      if (counting.count > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Store is too large, maximum size is 2Gb");
+      }
+      // write the header now that the index location is known
+      ByteBuffer fileHeader = ByteBuffer.allocate(HEADER_SIZE);
+      fileHeader.put(MAGIC).putInt(VERSION).putLong(indexOffset).putInt(index.size()).flip();
+      channel.write(fileHeader, 0);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // pads to a multiple of 8 bytes
+  private static void pad(DataOutputStream out, long position) throws IOException {
+    int remainder = (int) (position % 8);
+    if (remainder != 0) {
+      out.write(new byte[8 - remainder]);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Opens a store from the specified file.
+   * <p>
+   * The file is memory-mapped read-only, and only the index is read.
+   *
+   * @param file  the file to open
+   * @return the store
+   * @throws IllegalArgumentException if the file is not a valid store
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public static MappedBinaryStore open(Path file) {
+    ArgChecker.notNull(file, "file");
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Invalid store, file size is invalid: " + file);
+      }
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+      return new MappedBinaryStore(buffer, file);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // restricted constructor
+  private MappedBinaryStore(ByteBuffer buffer, Path file) {
+    byte[] magic = new byte[MAGIC.length];
+    buffer.get(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IllegalArgumentException("Invalid store, header not found: " + file);
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported store version: " + version);
+    }
+    long indexOffset = buffer.getLong();
+    int indexLength = buffer.getInt();
+    if (indexOffset < HEADER_SIZE || indexOffset + indexLength > buffer.limit()) {
+      throw new IllegalArgumentException("Invalid store, index not found: " + file);
+    }
+    byte[] indexBytes = new byte[indexLength];
+    ByteBuffer indexBuffer = buffer.duplicate();
+    indexBuffer.position((int) indexOffset);
+    indexBuffer.get(indexBytes);
+    try (BinaryBeanReader reader = BinaryBeanReader.of(new ByteArrayInputStream(indexBytes))) {
+      this.header = reader.read(Object.class);
+      Map<Object, Location> values = new LinkedHashMap<>();
+      int valueCount = reader.read(Integer.class);
+      for (int i = 0; i < valueCount; i++) {
+        Object key = reader.read(Object.class);
+        int kind = reader.read(Integer.class);
+        long offset = reader.read(Long.class);
+        int length = reader.read(Integer.class);
+        values.put(key, new Location(kind, offset, length));
+      }
+      Map<Object, Location> timeSeries = new LinkedHashMap<>();
+      int timeSeriesCount = reader.read(Integer.class);
+      for (int i = 0; i < timeSeriesCount; i++) {
+        Object key = reader.read(Object.class);
+        long offset = reader.read(Long.class);
+        int length = reader.read(Integer.class);
+        timeSeries.put(key, new Location(KIND_DOUBLE_ARRAY, offset, length));
+      }
+      this.buffer = buffer;
+      this.values = ImmutableMap.copyOf(values);
+      this.timeSeries = ImmutableMap.copyOf(timeSeries);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the header.
+   *
+   * @return the header
+   */
+  public Object getHeader() {
+    return header;
+  }
+
+  /**
+   * Gets the keys of the values.
+   *
+   * @return the keys
+   */
+  public Set<Object> getKeys() {
+    return values.keySet();
+  }
+
+  /**
+   * Finds the value for the specified key.
+   * <p>
+   * The value is decoded on first access and then cached.
+   *
+   * @param key  the key
+   * @return the value, empty if not found
+   */
+  public Optional<Object> findValue(Object key) {
+    Location location = values.get(key);
+    if (location == null) {
+      return Optional.empty();
+    }
+    return Optional.of(decoded.computeIfAbsent(new ValueKey(key), k -> decodeValue(location)));
+  }
+
+  /**
+   * Gets the keys of the time-series.
+   *
+   * @return the keys
+   */
+  public Set<Object> getTimeSeriesKeys() {
+    return timeSeries.keySet();
+  }
+
+  /**
+   * Finds the time-series for the specified key.
+   * <p>
+   * The time-series is decoded on first access and then cached.
+   *
+   * @param key  the key
+   * @return the time-series, empty if not found
+   */
+  public Optional<LocalDateDoubleTimeSeries> findTimeSeries(Object key) {
+    Location location = timeSeries.get(key);
+    if (location == null) {
+      return Optional.empty();
+    }
+    return Optional.of((LocalDateDoubleTimeSeries) decoded.computeIfAbsent(
+        new TimeSeriesKey(key), k -> decodeTimeSeries(location)));
+  }
+
+  //-------------------------------------------------------------------------
+  // decodes a value
+  private Object decodeValue(Location location) {
+    ByteBuffer view = view(location.offset);
+    switch (location.kind) {
+      case KIND_DOUBLE:
+        return view.getDouble();
+      case KIND_DOUBLE_ARRAY: {
+        double[] array = new double[location.length];
+        view.asDoubleBuffer().get(array);
+        return DoubleArray.ofUnsafe(array);
+      }
+      case KIND_BINARY: {
+        byte[] bytes = new byte[location.length];
+        view.get(bytes);
+        return BinaryBeanReader.fromBytes(bytes, Object.class);
+      }
+      default:
+        throw new IllegalArgumentException("Invalid store, unknown value kind: " + location.kind);
+    }
+  }
+
+  // decodes a time-series
+  private LocalDateDoubleTimeSeries decodeTimeSeries(Location location) {
+    double[] values = new double[location.length];
+    view(location.offset).asDoubleBuffer().get(values);
+    long[] epochDays = new long[location.length];
+    ByteBuffer dates = view(location.offset + location.length * 8L);
+    for (int i = 0; i < epochDays.length; i++) {
+      epochDays[i] = dates.getInt();
+    }
+    return LocalDateDoubleTimeSeries.ofEpochDays(epochDays, values);
+  }
+
+  // creates an independent view of the buffer at the offset
+  private ByteBuffer view(long offset) {
+    ByteBuffer view = buffer.duplicate();
+    view.position((int) offset);
+    return view;
+  }
+
+  @Override
+  public String toString() {
+    return "MappedBinaryStore[values=" + values.size() + ", timeSeries=" + timeSeries.size() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The location of an entry within the file.
+   */
+  private static final class Location {
+    private final int kind;
+    private final long offset;
+    private final int length;
+
+    private Location(int kind, long offset, int length) {
+      this.kind = kind;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  /**
+   * The cache key of a value.
+   */
+  private static final class ValueKey {
+    private final Object key;
+
+    private ValueKey(Object key) {
+      this.key = key;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof ValueKey && ((ValueKey) obj).key.equals(key);
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode();
+    }
+  }
+
+  /**
+   * The cache key of a time-series.
+   */
+  private static final class TimeSeriesKey {
+    private final Object key;
+
+    private TimeSeriesKey(Object key) {
+      this.key = key;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof TimeSeriesKey && ((TimeSeriesKey) obj).key.equals(key);
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode();
+    }
+  }
+
+  /**
+   * An output stream that counts the bytes written.
+   */
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    private CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+      out.write(bytes, off, len);
+      count += len;
+    }
+  }
+
+}
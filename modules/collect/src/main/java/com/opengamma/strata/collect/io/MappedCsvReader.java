@@ -0,0 +1,714 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.OptionalInt;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * A reader of CSV files that tokenizes the memory-mapped bytes of the file in place.
+ * <p>
+ * This supports the same CSV format as {@link CsvFile} and {@link CsvIterator}, for files encoded
+ * in ASCII or UTF-8, with or without a byte order mark. See {@link CsvFile} for a description of the format.
+ * <p>
+ * The file is mapped in windows aligned on line breaks, so files larger than 2GB can be read.
+ * Rather than creating a {@link CsvRow} for each line, the reader is a cursor:
+ * {@link #next()} moves to the next row, and the fields of the current row are accessed
+ * directly on the reader. Fields are exposed as {@link CharSequence} slices of the mapped bytes,
+ * decoded to a string only when necessary, and can be parsed to a {@code double} or a {@link LocalDate}
+ * without creating a string. The current row can also be obtained as a {@code CsvRow} using {@link #row()}.
+ * <p>
+ * This class is not thread-safe.
+ * <p>
+ * Example usage:
+ * <pre>
+ *  try (MappedCsvReader csv = MappedCsvReader.of(path, true)) {
+ *    int dateIndex = csv.headerIndex("Date");
+ *    int valueIndex = csv.headerIndex("Value");
+ *    while (csv.next()) {
+ *      LocalDate date = csv.fieldAsDate(dateIndex);
+ *      double value = csv.fieldAsDouble(valueIndex);
+ *      ...
+ *    }
+ *  }
+ * </pre>
+ */
+public final class MappedCsvReader implements AutoCloseable {
+
+  /**
+   * The default size of the mapped windows.
+   */
+  private static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+  /**
+   * The powers of ten that are exactly representable as a double.
+   */
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+  /**
+   * The quote character.
+   */
+  private static final byte QUOTE = '"';
+
+  /**
+   * The file channel.
+   */
+  private final FileChannel channel;
+  /**
+   * The size of the file.
+   */
+  private final long fileSize;
+  /**
+   * The separator.
+   */
+  private final byte separator;
+  /**
+   * The maximum size of the mapped windows.
+   */
+  private final int windowSize;
+  /**
+   * The header row, ordered as the headers appear in the file.
+   */
+  private final ImmutableList<String> headers;
+  /**
+   * The header map, transformed for case-insensitive searching.
+   */
+  private final ImmutableMap<String, Integer> searchHeaders;
+
+  /**
+   * The current window.
+   */
+  private ByteBuffer window;
+  /**
+   * The position of the current window in the file.
+   */
+  private long windowPosition;
+  /**
+   * The end of the complete lines in the current window.
+   */
+  private int windowEnd;
+  /**
+   * The position of the next line in the current window.
+   */
+  private int position;
+  /**
+   * The line number of the current row.
+   */
+  private int lineNumber;
+  /**
+   * The number of fields in the current row.
+   */
+  private int fieldCount;
+  /**
+   * The start of each field of the current row.
+   */
+  private int[] fieldStarts = new int[16];
+  /**
+   * The end of each field of the current row.
+   */
+  private int[] fieldEnds = new int[16];
+  /**
+   * Whether each field of the current row must be decoded, as it has non-ASCII bytes or escaped quotes.
+   */
+  private boolean[] fieldDecoded = new boolean[16];
+  /**
+   * Whether each field of the current row was quoted, in which case pairs of quotes are unescaped when decoding.
+   */
+  private boolean[] fieldQuoted = new boolean[16];
+
+  //------------------------------------------------------------------------
+  /**
+   * Opens the specified file as a CSV file, using a comma as the separator.
+   *
+   * @param file  the CSV file
+   * @param headerRow  whether the file has a header row, an empty file must still contain the header
+   * @return the reader
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static MappedCsvReader of(Path file, boolean headerRow) {
+    return of(file, headerRow, ',');
+  }
+
+  /**
+   * Opens the specified file as a CSV file where the separator is specified and might not be a comma.
+   * <p>
+   * The separator must be an ASCII character.
+   *
+   * @param file  the CSV file
+   * @param headerRow  whether the file has a header row, an empty file must still contain the header
+   * @param separator  the separator used to separate each field, typically a comma, but a tab is sometimes used
+   * @return the reader
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static MappedCsvReader of(Path file, boolean headerRow, char separator) {
+    return of(file, headerRow, separator, DEFAULT_WINDOW_SIZE);
+  }
+
+  // opens the file, with the specified window size
+  static MappedCsvReader of(Path file, boolean headerRow, char separator, int windowSize) {
+    ArgChecker.notNull(file, "file");
+    ArgChecker.isTrue(separator < 0x80, "Separator must be an ASCII character");
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    try {
+      return new MappedCsvReader(channel, headerRow, (byte) separator, windowSize);
+    } catch (RuntimeException ex) {
+      try {
+        channel.close();
+      } catch (IOException ex2) {
+        ex.addSuppressed(ex2);
+      }
+      throw ex;
+    }
+  }
+
+  // restricted constructor
+  private MappedCsvReader(FileChannel channel, boolean headerRow, byte separator, int windowSize) {
+    this.channel = channel;
+    this.separator = separator;
+    this.windowSize = windowSize;
+    try {
+      this.fileSize = channel.size();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    mapWindow(0);
+    // skip the UTF-8 byte order mark
+    if (windowEnd >= 3 && window.get(0) == (byte) 0xEF && window.get(1) == (byte) 0xBB && window.get(2) == (byte) 0xBF) {
+      position = 3;
+    }
+    if (headerRow) {
+      if (!next()) {
+        throw new IllegalArgumentException("Could not read header row from empty CSV file");
+      }
+      ImmutableList<String> headerList = fields();
+      this.headers = headerList;
+      this.searchHeaders = CsvFile.buildSearchHeaders(headerList);
+    } else {
+      this.headers = ImmutableList.of();
+      this.searchHeaders = ImmutableMap.of();
+    }
+  }
+
+  //------------------------------------------------------------------------
+  /**
+   * Gets the header row.
+   * <p>
+   * If there is no header row, an empty list is returned.
+   *
+   * @return the header row
+   */
+  public ImmutableList<String> headers() {
+    return headers;
+  }
+
+  /**
+   * Gets the index of the specified header, matching case insensitively.
+   *
+   * @param header  the column header
+   * @return the index of the header
+   * @throws IllegalArgumentException if the header is not found
+   */
+  public int headerIndex(String header) {
+    return findHeaderIndex(header)
+        .orElseThrow(() -> new IllegalArgumentException("Header not found: '" + header + "'"));
+  }
+
+  /**
+   * Finds the index of the specified header, matching case insensitively.
+   *
+   * @param header  the column header
+   * @return the index of the header, empty if not found
+   */
+  public OptionalInt findHeaderIndex(String header) {
+    Integer index = searchHeaders.get(header.toLowerCase(Locale.ENGLISH));
+    return index == null ? OptionalInt.empty() : OptionalInt.of(index);
+  }
+
+  //------------------------------------------------------------------------
+  /**
+   * Moves to the next row of the file.
+   * <p>
+   * Blank lines and comment lines are skipped.
+   *
+   * @return true if there is another row, false if the end of the file has been reached
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public boolean next() {
+    while (true) {
+      if (position >= windowEnd) {
+        long next = windowPosition + windowEnd;
+        if (next >= fileSize) {
+          fieldCount = 0;
+          return false;
+        }
+        mapWindow(next);
+      }
+      int lineStart = position;
+      int lineEnd = lineStart;
+      while (lineEnd < windowEnd && !isLineBreak(window.get(lineEnd))) {
+        lineEnd++;
+      }
+      position = lineEnd;
+      if (position < windowEnd) {
+        position += window.get(position) == '\r' && position + 1 < windowEnd && window.get(position + 1) == '\n' ? 2 : 1;
+      }
+      lineNumber++;
+      if (tokenize(lineStart, lineEnd)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Gets the line number of the current row in the file.
+   *
+   * @return the line number
+   */
+  public int lineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Gets the number of fields in the current row.
+   * <p>
+   * This will never be less than the number of headers.
+   *
+   * @return the number of fields
+   */
+  public int fieldCount() {
+    return Math.max(fieldCount, headers.size());
+  }
+
+  /**
+   * Gets the specified field of the current row.
+   * <p>
+   * The result is a view of the bytes of the file when the field is ASCII and has no escaped quotes.
+   *
+   * @param index  the field index
+   * @return the field
+   * @throws IndexOutOfBoundsException if the field index is invalid
+   */
+  public CharSequence field(int index) {
+    if (checkIndex(index)) {
+      return "";
+    }
+    if (fieldDecoded[index]) {
+      return decode(index);
+    }
+    return new AsciiSlice(window, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+  }
+
+  /**
+   * Parses the specified field of the current row as a {@code double}.
+   * <p>
+   * The format is that of {@link Double#parseDouble(String)}.
+   * Simple decimal numbers are parsed directly from the bytes of the file.
+   *
+   * @param index  the field index
+   * @return the parsed value
+   * @throws IndexOutOfBoundsException if the field index is invalid
+   * @throws NumberFormatException if the field cannot be parsed
+   */
+  public double fieldAsDouble(int index) {
+    if (checkIndex(index) || fieldDecoded[index]) {
+      return Double.parseDouble(field(index).toString());
+    }
+    int start = fieldStarts[index];
+    int end = fieldEnds[index];
+    int pos = start;
+    boolean negative = false;
+    if (pos < end && (window.get(pos) == '-' || window.get(pos) == '+')) {
+      negative = window.get(pos) == '-';
+      pos++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int scale = 0;
+    boolean anyDigit = false;
+    boolean point = false;
+    for (; pos < end; pos++) {
+      byte b = window.get(pos);
+      if (b >= '0' && b <= '9') {
+        anyDigit = true;
+        if (mantissa != 0 || b != '0') {
+          if (++digits > 15) {
+            return Double.parseDouble(field(index).toString());
+          }
+          mantissa = mantissa * 10 + (b - '0');
+        }
+        if (point) {
+          scale--;
+        }
+      } else if (b == '.' && !point) {
+        point = true;
+      } else {
+        break;
+      }
+    }
+    if (pos < end && (window.get(pos) == 'e' || window.get(pos) == 'E') && anyDigit) {
+      pos++;
+      boolean negativeExponent = false;
+      if (pos < end && (window.get(pos) == '-' || window.get(pos) == '+')) {
+        negativeExponent = window.get(pos) == '-';
+        pos++;
+      }
+      int exponent = 0;
+      int exponentStart = pos;
+      for (; pos < end && pos - exponentStart < 5; pos++) {
+        byte b = window.get(pos);
+        if (b < '0' || b > '9') {
+          break;
+        }
+        exponent = exponent * 10 + (b - '0');
+      }
+      if (pos == exponentStart) {
+        return Double.parseDouble(field(index).toString());
+      }
+      scale += negativeExponent ? -exponent : exponent;
+    }
+    if (!anyDigit || pos != end || scale < -22 || scale > 22) {
+      // not a simple number, or one that may not be exactly computed
+      return Double.parseDouble(field(index).toString());
+    }
+    double value = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses the specified field of the current row as a {@code LocalDate}.
+   * <p>
+   * The format is the ISO-8601 format 'yyyy-MM-dd', or the basic format 'yyyyMMdd'.
+   *
+   * @param index  the field index
+   * @return the parsed date
+   * @throws IndexOutOfBoundsException if the field index is invalid
+   * @throws IllegalArgumentException if the field cannot be parsed
+   */
+  public LocalDate fieldAsDate(int index) {
+    if (!checkIndex(index) && !fieldDecoded[index]) {
+      int start = fieldStarts[index];
+      int length = fieldEnds[index] - start;
+      if (length == 10 && window.get(start + 4) == '-' && window.get(start + 7) == '-') {
+        int year = digits(start, 4);
+        int month = digits(start + 5, 2);
+        int day = digits(start + 8, 2);
+        if (year >= 0 && month >= 0 && day >= 0) {
+          return date(year, month, day, index);
+        }
+      } else if (length == 8) {
+        int year = digits(start, 4);
+        int month = digits(start + 4, 2);
+        int day = digits(start + 6, 2);
+        if (year >= 0 && month >= 0 && day >= 0) {
+          return date(year, month, day, index);
+        }
+      }
+    }
+    throw new IllegalArgumentException(
+        "Unable to parse date from '" + field(index) + "' on line " + lineNumber + ", must be formatted as yyyy-MM-dd");
+  }
+
+  /**
+   * Gets the current row.
+   * <p>
+   * This decodes all the fields of the row.
+   *
+   * @return the current row
+   */
+  public CsvRow row() {
+    return new CsvRow(headers, searchHeaders, lineNumber, fields());
+  }
+
+  /**
+   * Closes the underlying file.
+   *
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //------------------------------------------------------------------------
+  // maps the window starting at the specified position in the file, ending on a line break
+  private void mapWindow(long start) {
+    long remaining = fileSize - start;
+    int size = (int) Math.min(remaining, windowSize);
+    while (true) {
+      try {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+      windowPosition = start;
+      position = 0;
+      if (size == remaining) {
+        windowEnd = size;
+        return;
+      }
+      // end the window after the last LF, or a CR that is not the last byte as it may be followed by LF
+      for (int i = size - 1; i >= 0; i--) {
+        byte b = window.get(i);
+        if (b == '\n' || (b == '\r' && i < size - 1)) {
+          windowEnd = i + 1;
+          return;
+        }
+      }
+      // no line break, so the line is longer than the window
+      ArgChecker.isTrue(size < Integer.MAX_VALUE / 2, "CSV line too long on line {}", lineNumber + 1);
+      size = (int) Math.min(remaining, 2L * size);
+    }
+  }
+
+  // tokenizes the line, returning false if the line is blank or a comment
+  private boolean tokenize(int lineStart, int lineEnd) {
+    fieldCount = 0;
+    if (lineStart == lineEnd || window.get(lineStart) == '#' || window.get(lineStart) == ';') {
+      return false;
+    }
+    boolean hasContent = false;
+    int start = lineStart;
+    int nextSeparator = indexOfSeparator(start, lineEnd);
+    while (true) {
+      int fieldStart = start;
+      int fieldEnd = trimEnd(fieldStart, nextSeparator);
+      fieldStart = trimStart(fieldStart, fieldEnd);
+      // handle convention where ="xxx" means xxx
+      if (fieldEnd - fieldStart >= 2 && window.get(fieldStart) == '=' && window.get(fieldStart + 1) == QUOTE) {
+        start++;
+        fieldStart++;
+      }
+      boolean escaped = false;
+      // handle quoting where "xxx""yyy" means xxx"yyy
+      if (fieldStart < fieldEnd && window.get(fieldStart) == QUOTE) {
+        while (!isClosed(fieldStart, fieldEnd)) {
+          if (nextSeparator == lineEnd) {
+            throw new IllegalArgumentException("Mismatched quotes in CSV on line " + lineNumber);
+          }
+          nextSeparator = indexOfSeparator(nextSeparator + 1, lineEnd);
+          fieldEnd = trimEnd(start, nextSeparator);
+          fieldStart = trimStart(start, fieldEnd);
+        }
+        fieldStart++;
+        fieldEnd--;
+        escaped = true;
+      }
+      hasContent |= addField(fieldStart, fieldEnd, escaped);
+      if (nextSeparator == lineEnd) {
+        return hasContent;
+      }
+      start = nextSeparator + 1;
+      nextSeparator = indexOfSeparator(start, lineEnd);
+    }
+  }
+
+  // adds a field, returning true if it has content
+  private boolean addField(int start, int end, boolean quoted) {
+    if (fieldCount == fieldStarts.length) {
+      fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+      fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+      fieldDecoded = Arrays.copyOf(fieldDecoded, fieldCount * 2);
+      fieldQuoted = Arrays.copyOf(fieldQuoted, fieldCount * 2);
+    }
+    boolean decoded = false;
+    boolean content = false;
+    for (int i = start; i < end; i++) {
+      byte b = window.get(i);
+      decoded |= b < 0 || (quoted && b == QUOTE);
+      content |= b < 0 || b > ' ';
+    }
+    fieldStarts[fieldCount] = start;
+    fieldEnds[fieldCount] = end;
+    fieldDecoded[fieldCount] = decoded;
+    fieldQuoted[fieldCount] = quoted;
+    fieldCount++;
+    return content;
+  }
+
+  // checks whether the quoted field is closed, once pairs of quotes are removed
+  private boolean isClosed(int start, int end) {
+    boolean lastIsQuote = false;
+    for (int i = start + 1; i < end; i++) {
+      if (window.get(i) == QUOTE && i + 1 < end && window.get(i + 1) == QUOTE) {
+        i++;
+      } else {
+        lastIsQuote = window.get(i) == QUOTE;
+      }
+    }
+    return lastIsQuote;
+  }
+
+  // decodes a field as UTF-8, replacing pairs of quotes if the field was quoted
+  private String decode(int index) {
+    int start = fieldStarts[index];
+    byte[] bytes = new byte[fieldEnds[index] - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = window.get(start + i);
+    }
+    String str = new String(bytes, UTF_8);
+    return fieldQuoted[index] ? str.replace("\"\"", "\"") : str;
+  }
+
+  // decodes all the fields
+  private ImmutableList<String> fields() {
+    ImmutableList.Builder<String> builder = ImmutableList.builder();
+    for (int i = 0; i < fieldCount; i++) {
+      builder.add(field(i).toString());
+    }
+    return builder.build();
+  }
+
+  // checks the index, returning true if the field is an empty field beyond the end of the row
+  private boolean checkIndex(int index) {
+    if (index >= fieldCount && index < headers.size()) {
+      return true;
+    }
+    if (index < 0 || index >= fieldCount) {
+      throw new IndexOutOfBoundsException("Field index " + index + " is invalid on line " + lineNumber);
+    }
+    return false;
+  }
+
+  // parses a fixed number of digits, -1 if not digits
+  private int digits(int start, int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      byte b = window.get(i);
+      if (b < '0' || b > '9') {
+        return -1;
+      }
+      value = value * 10 + (b - '0');
+    }
+    return value;
+  }
+
+  // creates a date, with a consistent exception
+  private LocalDate date(int year, int month, int day, int index) {
+    try {
+      return LocalDate.of(year, month, day);
+    } catch (RuntimeException ex) {
+      throw new IllegalArgumentException(
+          "Unable to parse date from '" + field(index) + "' on line " + lineNumber + ": " + ex.getMessage(), ex);
+    }
+  }
+
+  private int indexOfSeparator(int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (window.get(i) == separator) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private int trimStart(int start, int end) {
+    int pos = start;
+    while (pos < end && isWhitespace(window.get(pos))) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private int trimEnd(int start, int end) {
+    int pos = end;
+    while (pos > start && isWhitespace(window.get(pos - 1))) {
+      pos--;
+    }
+    return pos;
+  }
+
+  // matches String.trim(), which removes all ASCII control characters and space
+  private static boolean isWhitespace(byte b) {
+    return b >= 0 && b <= ' ';
+  }
+
+  private static boolean isLineBreak(byte b) {
+    return b == '\n' || b == '\r';
+  }
+
+  //------------------------------------------------------------------------
+  /**
+   * Returns a string describing the reader.
+   *
+   * @return the descriptive string
+   */
+  @Override
+  public String toString() {
+    return "MappedCsvReader" + headers.toString();
+  }
+
+  //------------------------------------------------------------------------
+  // a view of ASCII bytes as characters
+  private static final class AsciiSlice implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private AsciiSlice(ByteBuffer buffer, int offset, int length) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException("Index " + index + " is invalid for length " + length);
+      }
+      return (char) buffer.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      if (start < 0 || end > length || start > end) {
+        throw new IndexOutOfBoundsException("Range " + start + " to " + end + " is invalid for length " + length);
+      }
+      return new AsciiSlice(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      byte[] bytes = new byte[length];
+      for (int i = 0; i < length; i++) {
+        bytes[i] = buffer.get(offset + i);
+      }
+      return new String(bytes, ISO_8859_1);
+    }
+  }
+
+}
@@ -7,8 +7,20 @@ package com.opengamma.strata.collect.io;
 
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
@@ -101,6 +113,101 @@ public final class XmlFile {
     });
   }
 
+  /**
+   * Parses the specified source as an XML file, streaming the elements with the specified names.
+   * <p>
+   * This parses the specified byte source expecting an XML file format, but only the elements
+   * with one of the specified names are parsed to an in-memory DOM-like structure.
+   * See {@link #streamElements(ByteSource, String, Predicate)} for more details.
+   * 
+   * @param source  the XML source data
+   * @param refAttrName  the attribute name that should be parsed as a reference
+   * @param elementNames  the names of the elements to parse
+   * @return the stream of parsed elements
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static Stream<XmlFile> streamElements(ByteSource source, String refAttrName, Set<String> elementNames) {
+    ArgChecker.notNull(elementNames, "elementNames");
+    return streamElements(source, refAttrName, path -> elementNames.contains(path.get(path.size() - 1)));
+  }
+
+  /**
+   * Parses the specified source as an XML file, streaming the elements matching the specified path filter.
+   * <p>
+   * This parses the specified byte source expecting an XML file format, but only the elements
+   * matching the filter are parsed to an in-memory DOM-like structure.
+   * The rest of the file is read but not retained, so only one matching element is held in memory at a time.
+   * <p>
+   * The filter is invoked with the path of each element, which is the list of element names from
+   * the root element to the element itself, in document order. The list must not be retained.
+   * A matching element nested within another matching element is returned as part of the outer element.
+   * <p>
+   * Each matching element is returned as an {@code XmlFile} whose root is the element.
+   * The references of the file are those found within the element, see {@link #of(ByteSource, String)}.
+   * <p>
+   * The stream is lazy, and must be closed to release the underlying input stream
+   * if it is not fully consumed.
+   * 
+   * @param source  the XML source data
+   * @param refAttrName  the attribute name that should be parsed as a reference
+   * @param pathFilter  the filter selecting the elements to parse, based on their path from the root
+   * @return the stream of parsed elements
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static Stream<XmlFile> streamElements(
+      ByteSource source,
+      String refAttrName,
+      Predicate<List<String>> pathFilter) {
+
+    return streamElements(source, refAttrName, pathFilter, 0, (path, attrs) -> {});
+  }
+
+  /**
+   * Parses the specified source as an XML file, streaming the elements matching the specified path filter
+   * and capturing the attributes of the elements near the root.
+   * <p>
+   * This behaves as {@link #streamElements(ByteSource, String, Predicate)}.
+   * In addition, the attributes consumer is invoked with the path and attributes of each element
+   * whose path has a size less than or equal to the specified depth, when the element is reached.
+   * This allows the attributes of the enclosing elements to be captured without parsing them.
+   * 
+   * @param source  the XML source data
+   * @param refAttrName  the attribute name that should be parsed as a reference
+   * @param pathFilter  the filter selecting the elements to parse, based on their path from the root
+   * @param attributesDepth  the maximum size of the path of the elements passed to the attributes consumer
+   * @param attributesConsumer  the consumer of the path and attributes of the elements near the root
+   * @return the stream of parsed elements
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static Stream<XmlFile> streamElements(
+      ByteSource source,
+      String refAttrName,
+      Predicate<List<String>> pathFilter,
+      int attributesDepth,
+      BiConsumer<List<String>, ImmutableMap<String, String>> attributesConsumer) {
+
+    ArgChecker.notNull(source, "source");
+    ArgChecker.notNull(refAttrName, "refAttrName");
+    ArgChecker.notNull(pathFilter, "pathFilter");
+    ArgChecker.notNegative(attributesDepth, "attributesDepth");
+    ArgChecker.notNull(attributesConsumer, "attributesConsumer");
+    InputStream in = Unchecked.wrap(() -> source.openBufferedStream());
+    try {
+      XMLStreamReader xmlReader = xmlInputFactory().createXMLStreamReader(in);
+      ElementIterator iterator = new ElementIterator(
+          in, xmlReader, refAttrName, pathFilter, attributesDepth, attributesConsumer);
+      Spliterator<XmlFile> spliterator = Spliterators.spliteratorUnknownSize(
+          iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+      return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    } catch (XMLStreamException | RuntimeException ex) {
+      Unchecked.wrap(() -> in.close());
+      throw ex instanceof RuntimeException ? (RuntimeException) ex : new IllegalArgumentException(ex);
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Parses the tree from the StAX stream reader, capturing references.
@@ -184,6 +291,94 @@ public final class XmlFile {
     return attrs;
   }
 
+  //-------------------------------------------------------------------------
+  // iterates over the elements with the specified names, skipping the rest of the file
+  private static final class ElementIterator implements Iterator<XmlFile> {
+    private final InputStream in;
+    private final XMLStreamReader reader;
+    private final String refAttr;
+    private final Predicate<List<String>> pathFilter;
+    private final int attributesDepth;
+    private final BiConsumer<List<String>, ImmutableMap<String, String>> attributesConsumer;
+    private final List<String> path = new ArrayList<>();
+    private final List<String> unmodifiablePath = Collections.unmodifiableList(path);
+    private XmlFile next;
+    private boolean closed;
+
+    private ElementIterator(
+        InputStream in,
+        XMLStreamReader reader,
+        String refAttr,
+        Predicate<List<String>> pathFilter,
+        int attributesDepth,
+        BiConsumer<List<String>, ImmutableMap<String, String>> attributesConsumer) {
+
+      this.in = in;
+      this.reader = reader;
+      this.refAttr = refAttr;
+      this.pathFilter = pathFilter;
+      this.attributesDepth = attributesDepth;
+      this.attributesConsumer = attributesConsumer;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null && !closed) {
+        next = findNext();
+      }
+      return next != null;
+    }
+
+    @Override
+    public XmlFile next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("No more elements in XML file");
+      }
+      XmlFile result = next;
+      next = null;
+      return result;
+    }
+
+    // finds the next matching element, closing at the end of the file
+    private XmlFile findNext() {
+      try {
+        while (reader.hasNext()) {
+          int event = reader.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            path.add(reader.getLocalName());
+            if (path.size() <= attributesDepth) {
+              attributesConsumer.accept(ImmutableList.copyOf(path), parseAttributes(reader));
+            }
+            if (pathFilter.test(unmodifiablePath)) {
+              HashMap<String, XmlElement> refs = new HashMap<>();
+              XmlElement element = parse(reader, refAttr, refs);
+              path.remove(path.size() - 1);
+              return new XmlFile(element, refs);
+            }
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            path.remove(path.size() - 1);
+          }
+        }
+      } catch (XMLStreamException ex) {
+        close();
+        throw new IllegalArgumentException(ex);
+      } catch (RuntimeException ex) {
+        close();
+        throw ex;
+      }
+      close();
+      return null;
+    }
+
+    private void close() {
+      if (!closed) {
+        closed = true;
+        Unchecked.wrap(() -> reader.close());
+        Unchecked.wrap(() -> in.close());
+      }
+    }
+  }
+
   //-------------------------------------------------------------------------
   // creates the XML input factory, recreated each time to avoid JDK-8028111
   // this also provides some protection against hackers attacking XML
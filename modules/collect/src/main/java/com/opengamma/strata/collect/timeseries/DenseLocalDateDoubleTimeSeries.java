@@ -219,6 +219,24 @@ final class DenseLocalDateDoubleTimeSeries
     return new DenseLocalDateDoubleTimeSeries(startDate, points, dateCalculation, true);
   }
 
+  /**
+   * Package protected factory method intended to be called
+   * by the {@link LocalDateDoubleTimeSeriesBuilder}. The points
+   * array is assigned, not cloned, and is assumed to be consistent.
+   *
+   * @param startDate  the earliest date included in the time-series
+   * @param points  the points, NaN where there is no value
+   * @param dateCalculation  the date calculation method to be used
+   * @return a new time-series
+   */
+  static LocalDateDoubleTimeSeries ofUnsafe(
+      LocalDate startDate,
+      double[] points,
+      DenseTimeSeriesCalculation dateCalculation) {
+
+    return new DenseLocalDateDoubleTimeSeries(startDate, points, dateCalculation, true);
+  }
+
   // Private constructor, the trusted flag indicates whether the
   // points array should be cloned. If trusted, it will not be cloned.
   private DenseLocalDateDoubleTimeSeries(
@@ -64,6 +64,26 @@ public interface LocalDateDoubleTimeSeries {
     return builder().put(date, value).build();
   }
 
+  /**
+   * Obtains a time-series from arrays of epoch days and values.
+   * <p>
+   * The epoch day of each date is as defined by {@link LocalDate#toEpochDay()}.
+   * The dates do not have to be sorted, but sorting is avoided if they are.
+   * If a date is duplicated, the last value is used, as with {@link #builder()}.
+   * The dense or sparse implementation is chosen as with {@link #builder()},
+   * without creating a date object for each point of a dense series.
+   * <p>
+   * The arrays are not altered or retained.
+   *
+   * @param epochDays  the epoch days of the dates
+   * @param values  the values
+   * @return the time-series
+   * @throws IllegalArgumentException if the arrays are of different sizes or a value is NaN
+   */
+  public static LocalDateDoubleTimeSeries ofEpochDays(long[] epochDays, double[] values) {
+    return LocalDateDoubleTimeSeriesBuilder.build(epochDays, values);
+  }
+
   /**
    * Creates an empty builder, used to create time-series.
    * <p>
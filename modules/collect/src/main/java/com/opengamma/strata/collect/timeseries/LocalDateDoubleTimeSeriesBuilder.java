@@ -10,6 +10,7 @@ import static com.opengamma.strata.collect.timeseries.DenseLocalDateDoubleTimeSe
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoField;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -317,4 +318,89 @@ public final class LocalDateDoubleTimeSeriesBuilder {
     return entries.size() / rangeSize;
   }
 
+  //-------------------------------------------------------------------------
+  // builds a time-series from epoch days and values, see LocalDateDoubleTimeSeries.ofEpochDays()
+  static LocalDateDoubleTimeSeries build(long[] epochDays, double[] values) {
+    ArgChecker.notNull(epochDays, "epochDays");
+    ArgChecker.notNull(values, "values");
+    ArgChecker.isTrue(epochDays.length == values.length,
+        "Arrays are of different sizes - epochDays: {}, values: {}", epochDays.length, values.length);
+    if (epochDays.length == 0) {
+      return LocalDateDoubleTimeSeries.empty();
+    }
+    boolean sorted = true;
+    long min = epochDays[0];
+    long max = epochDays[0];
+    for (int i = 0; i < epochDays.length; i++) {
+      ArgChecker.isFalse(Double.isNaN(values[i]), "NaN is not allowed as a value");
+      sorted &= i == 0 || epochDays[i] > epochDays[i - 1];
+      min = Math.min(min, epochDays[i]);
+      max = Math.max(max, epochDays[i]);
+    }
+    long[] days = epochDays;
+    double[] dayValues = values;
+    int size = epochDays.length;
+    if (!sorted) {
+      if (max - min > Integer.MAX_VALUE) {
+        LocalDateDoubleTimeSeriesBuilder builder = new LocalDateDoubleTimeSeriesBuilder();
+        for (int i = 0; i < epochDays.length; i++) {
+          builder.put(LocalDate.ofEpochDay(epochDays[i]), values[i]);
+        }
+        return builder.build();
+      }
+      // sort the day offset and the index packed in a primitive, the last of any duplicate wins
+      long[] keys = new long[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = ((epochDays[i] - min) << 32) | i;
+      }
+      Arrays.sort(keys);
+      days = new long[size];
+      dayValues = new double[size];
+      int count = 0;
+      for (long key : keys) {
+        long day = min + (key >>> 32);
+        double value = values[(int) key];
+        if (count > 0 && days[count - 1] == day) {
+          dayValues[count - 1] = value;
+        } else {
+          days[count] = day;
+          dayValues[count] = value;
+          count++;
+        }
+      }
+      size = count;
+    }
+    boolean weekends = false;
+    for (int i = 0; i < size && !weekends; i++) {
+      weekends = Math.floorMod(days[i] + 3, 7) >= 5;
+    }
+    long first = days[0];
+    long rangeSize = position(days[size - 1], first, weekends) + 1;
+    if (size / (double) rangeSize > DENSITY_THRESHOLD) {
+      double[] points = new double[(int) rangeSize];
+      Arrays.fill(points, Double.NaN);
+      for (int i = 0; i < size; i++) {
+        points[(int) position(days[i], first, weekends)] = dayValues[i];
+      }
+      return DenseLocalDateDoubleTimeSeries.ofUnsafe(
+          LocalDate.ofEpochDay(first), points, weekends ? INCLUDE_WEEKENDS : SKIP_WEEKENDS);
+    }
+    LocalDate[] dates = new LocalDate[size];
+    for (int i = 0; i < size; i++) {
+      dates[i] = LocalDate.ofEpochDay(days[i]);
+    }
+    return SparseLocalDateDoubleTimeSeries.createUnsafe(dates, Arrays.copyOf(dayValues, size));
+  }
+
+  // the position of an epoch day in a dense time-series, consistent with DenseTimeSeriesCalculation
+  private static long position(long epochDay, long firstEpochDay, boolean weekends) {
+    return weekends ? epochDay - firstEpochDay : weekdayIndex(epochDay) - weekdayIndex(firstEpochDay);
+  }
+
+  // the number of weekdays between Monday 1969-12-29 and the epoch day
+  private static long weekdayIndex(long epochDay) {
+    long daysFromMonday = epochDay + 3;
+    return Math.floorDiv(daysFromMonday, 7) * 5 + Math.min(Math.floorMod(daysFromMonday, 7), 5);
+  }
+
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.IntArray;
+import com.opengamma.strata.collect.result.FailureItem;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.result.ValueWithFailures;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Test {@link BinaryBeanWriter} and {@link BinaryBeanReader}.
+ */
+@Test
+public class BinaryBeanWriterTest {
+
+  private static final LocalDate DATE = date(2019, 6, 28);
+
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "values")
+  public static Object[][] data_values() {
+    return new Object[][] {
+        {"Hello é"},
+        {true},
+        {false},
+        {-12},
+        {Integer.MIN_VALUE},
+        {Long.MAX_VALUE},
+        {1.25d},
+        {Double.NaN},
+        {DATE},
+        {LocalDate.MIN},
+        {DoubleArray.of(1d, 2d, -3.5d)},
+        {DoubleArray.EMPTY},
+        {IntArray.of(1, -2, 3)},
+        {DoubleMatrix.of(2, 3, 1d, 2d, 3d, 4d, 5d, 6d)},
+        {DoubleMatrix.EMPTY},
+        {ImmutableList.of("a", "b", "a")},
+        {ImmutableSet.of(3, 1, 2)},
+        {ImmutableSortedSet.of("b", "a")},
+        {ImmutableMap.of("a", 1, "b", 2)},
+        {ImmutableSortedMap.of("b", 1d, "a", 2d)},
+        {ImmutableListMultimap.of("a", 1, "a", 2, "b", 1)},
+        {ImmutableSetMultimap.of("a", 1, "a", 2, "b", 1)},
+        {FailureReason.PARSING},
+        {Result.success(ImmutableList.of(DATE, DATE.plusDays(1)))},
+        {Result.failure(FailureReason.INVALID, "Bad {value}", "thing")},
+        {ValueWithFailures.of(DoubleArray.of(1d), FailureItem.of(FailureReason.OTHER, "Failed"))},
+        {LocalDateDoubleTimeSeries.builder().put(DATE, 1d).put(DATE.plusDays(1), 2d).build()},
+        {LocalDateDoubleTimeSeries.builder().put(DATE, 1d).put(DATE.plusYears(10), 2d).build()},
+        {LocalDateDoubleTimeSeries.empty()},
+    };
+  }
+
+  @Test(dataProvider = "values")
+  public void test_roundTrip(Object value) {
+    byte[] bytes = BinaryBeanWriter.toBytes(value);
+    assertEquals(BinaryBeanReader.fromBytes(bytes, Object.class), value);
+  }
+
+  public void test_roundTrip_arrays() {
+    double[] doubles = IntStream.range(0, 20000).mapToDouble(i -> i * 1.5d).toArray();
+    int[] ints = IntStream.range(0, 20000).toArray();
+    long[] longs = IntStream.range(0, 20000).mapToLong(i -> i * 1000000007L).toArray();
+    LocalDate[] dates = {DATE, DATE.minusDays(3), LocalDate.MAX};
+    String[] strs = {"a", null, "b"};
+    assertTrue(Arrays.equals(BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(doubles), double[].class), doubles));
+    assertTrue(Arrays.equals(BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(ints), int[].class), ints));
+    assertTrue(Arrays.equals(BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(longs), long[].class), longs));
+    assertTrue(Arrays.equals(BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(dates), LocalDate[].class), dates));
+    assertTrue(Arrays.equals(BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(strs), String[].class), strs));
+    assertEquals(BinaryBeanWriter.toBytes(doubles).length, 20000 * 8 + 9);
+  }
+
+  public void test_roundTrip_null() {
+    assertNull(BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(null), String.class));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_stream() {
+    List<Result<String>> values = IntStream.range(0, 1000)
+        .mapToObj(i -> Result.<String>failure(FailureReason.CALCULATION_FAILED, "Failed {value}", i % 3))
+        .collect(toList());
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (BinaryBeanWriter writer = BinaryBeanWriter.of(baos)) {
+      values.forEach(writer::write);
+      writer.flush();
+    }
+    // schema and strings are interned, so each subsequent value is small
+    byte[] one = BinaryBeanWriter.toBytes(values.get(0));
+    assertTrue(baos.size() * 10 < one.length * values.size());
+
+    BinaryBeanReader reader = BinaryBeanReader.of(new ByteArrayInputStream(baos.toByteArray()));
+    assertEquals(reader.read(Result.class), values.get(0));
+    try (Stream<Result> stream = reader.stream(Result.class)) {
+      assertEquals(stream.collect(toList()), values.subList(1, values.size()));
+    }
+    assertFalse(reader.hasNext());
+    assertThrows(() -> reader.read(Result.class), NoSuchElementException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_write_unsupported() {
+    assertThrowsIllegalArg(() -> BinaryBeanWriter.toBytes(new Object()), "Unable to write type: java.lang.Object");
+  }
+
+  public void test_read_wrongType() {
+    byte[] bytes = BinaryBeanWriter.toBytes("Hello");
+    assertThrowsIllegalArg(() -> BinaryBeanReader.fromBytes(bytes, Integer.class));
+  }
+
+  public void test_read_badHeader() {
+    assertThrowsIllegalArg(() -> BinaryBeanReader.fromBytes(new byte[0], String.class));
+    assertThrowsIllegalArg(() -> BinaryBeanReader.fromBytes(new byte[] {'S', 'B', 'I', 'X', 1}, String.class));
+    assertThrowsIllegalArg(() -> BinaryBeanReader.fromBytes(new byte[] {'S', 'B', 'I', 'N', 9}, String.class));
+  }
+
+  public void test_read_badTag() {
+    assertThrowsIllegalArg(() -> BinaryBeanReader.fromBytes(new byte[] {'S', 'B', 'I', 'N', 1, 99}, String.class));
+  }
+
+  public void test_write_sortedNotNatural() {
+    ImmutableSortedSet<String> set = ImmutableSortedSet.orderedBy(Comparator.<String>reverseOrder()).add("a").build();
+    ImmutableSortedMap<String, String> map =
+        ImmutableSortedMap.<String, String>orderedBy(Comparator.reverseOrder()).put("a", "b").build();
+    assertThrowsIllegalArg(() -> BinaryBeanWriter.toBytes(set), "Unable to write sorted collection.*");
+    assertThrowsIllegalArg(() -> BinaryBeanWriter.toBytes(map), "Unable to write sorted collection.*");
+    assertEquals(
+        BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(new TreeSet<>(ImmutableList.of("a"))), Object.class),
+        ImmutableSortedSet.of("a"));
+  }
+
+  public void test_read_typeNotPermitted() {
+    String name = Initialized.class.getName();
+    assertThrowsIllegalArg(
+        () -> BinaryBeanReader.fromBytes(bytes(BinaryBeanFormat.BEAN, 0, 0, name), Object.class),
+        "Invalid binary bean format, type not permitted: .*");
+    assertThrowsIllegalArg(
+        () -> BinaryBeanReader.fromBytes(bytes(BinaryBeanFormat.CONVERTED, 0, name, 1, "x"), Object.class),
+        "Invalid binary bean format, type not permitted: .*");
+    assertThrowsIllegalArg(
+        () -> BinaryBeanReader.fromBytes(bytes(BinaryBeanFormat.CONVERTED, 0, "java.lang.Class", 1, name), Object.class),
+        "Invalid binary bean format, type not permitted: .*");
+    assertThrowsIllegalArg(
+        () -> BinaryBeanReader.fromBytes(bytes(BinaryBeanFormat.OBJECT_ARRAY, 0, name, 0), Object.class),
+        "Invalid binary bean format, type not permitted: .*");
+    assertFalse(initialized);
+  }
+
+  public void test_read_emptyMatrixWithColumns() {
+    assertThrowsIllegalArg(
+        () -> BinaryBeanReader.fromBytes(bytes(BinaryBeanFormat.DOUBLE_MATRIX, 0, 3), DoubleMatrix.class),
+        "Invalid binary bean format, empty matrix must be 0x0 but was 0x3");
+  }
+
+  public void test_read_integerOutOfRange() {
+    // zig-zag encoding of 2^31 is 2^32
+    assertThrowsIllegalArg(
+        () -> BinaryBeanReader.fromBytes(bytes(BinaryBeanFormat.INTEGER, 1L << 32), Integer.class),
+        "Invalid binary bean format, integer out of range: 2147483648");
+  }
+
+  public void test_read_truncated() {
+    byte[] bytes = BinaryBeanWriter.toBytes(DoubleArray.of(1d, 2d));
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+    assertThrows(() -> BinaryBeanReader.fromBytes(truncated, DoubleArray.class), UncheckedIOException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  // creates the bytes of a stream, numbers as variable length and strings as new string references
+  private static byte[] bytes(int tag, Object... parts) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    baos.write(BinaryBeanFormat.MAGIC, 0, BinaryBeanFormat.MAGIC.length);
+    baos.write(BinaryBeanFormat.VERSION);
+    baos.write(tag);
+    for (Object part : parts) {
+      if (part instanceof String) {
+        byte[] str = ((String) part).getBytes(StandardCharsets.UTF_8);
+        writeVarLong(baos, str.length);
+        baos.write(str, 0, str.length);
+      } else {
+        writeVarLong(baos, ((Number) part).longValue());
+      }
+    }
+    return baos.toByteArray();
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream baos, long value) {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      baos.write((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    baos.write((int) remaining);
+  }
+
+  private static volatile boolean initialized;
+
+  // a type that must not be initialized when named in a stream
+  static final class Initialized {
+    static {
+      initialized = true;
+    }
+  }
+
+}
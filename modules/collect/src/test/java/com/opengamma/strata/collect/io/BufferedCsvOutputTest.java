@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Test {@link BufferedCsvOutput}.
+ */
+@Test
+public class BufferedCsvOutputTest {
+
+  //-------------------------------------------------------------------------
+  public void test_standard_quoting() {
+    List<String> line = Arrays.asList("a", "1,000", "b\"c", " x", "=cmd", "+cmd", "-cmd", "@cmd", "");
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BufferedCsvOutput test = BufferedCsvOutput.standard(baos, "\n");
+    test.writeLine(line);
+    test.writeCell("a", true).writeCell("x", true).writeNewLine().flush();
+    StringBuilder buf = new StringBuilder();
+    CsvOutput expected = CsvOutput.standard(buf, "\n");
+    expected.writeLine(line);
+    expected.writeCell("a", true).writeCell("x", true).writeNewLine();
+    assertEquals(str(baos), buf.toString());
+  }
+
+  public void test_safe_quoting() {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BufferedCsvOutput test = BufferedCsvOutput.safe(baos, "\n");
+    test.writeLine(Arrays.asList("=cmd", "+cmd", "-cmd", "@cmd", "+8", "-7", "-7+8", "NaN"));
+    test.flush();
+    assertEquals(str(baos), "=\"=cmd\",=\"+cmd\",=\"-cmd\",=\"@cmd\",+8,-7,=\"-7+8\",NaN\n");
+  }
+
+  public void test_unicode() {
+    String str = "café € 😀 \"q\"";
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BufferedCsvOutput.standard(baos, "\r\n").writeCell(str).writeCell("\ud83d").writeNewLine().flush();
+    String expected = "\"" + str.replace("\"", "\"\"") + "\",?\r\n";
+    assertEquals(str(baos), expected);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_long() {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BufferedCsvOutput.standard(baos, "\n")
+        .writeCell(0)
+        .writeCell(-123)
+        .writeCell(Long.MAX_VALUE)
+        .writeCell(Long.MIN_VALUE)
+        .writeNewLine()
+        .flush();
+    assertEquals(str(baos), "0,-123," + Long.MAX_VALUE + "," + Long.MIN_VALUE + "\n");
+  }
+
+  @DataProvider(name = "doubles")
+  public static Object[][] data_doubles() {
+    return new Object[][] {
+        {0d, "0.0", "0"},
+        {-0d, "0.0", "-0"},
+        {2d, "2.0", "2"},
+        {-2.5d, "-2.5", "-2.5"},
+        {0.1d, "0.1", "0.1"},
+        {1.23456789012345d, "1.23456789012345", "1.2345678901"},
+        {0.00012d, "0.00012", "0.00012"},
+        {1e-11d, "0.000000000010", "0"},
+        {-1e-11d, "-0.000000000010", "-0"},
+        {1.5e-5d, "0.000015", "0.000015"},
+        {1e-5d, "0.000010", "0.00001"},
+        {12345678.9d, "12345678.9", "12345678.9"},
+        {1.5e7d, "15000000", "15000000"},
+        {-1.25e20d, "-125000000000000000000", "-125000000000000000000"},
+        {1e300d, BigDecimal.valueOf(1e300d).toPlainString(), BigDecimal.valueOf(1e300d).toPlainString()},
+        {Double.NaN, "NaN", "�"},
+        {Double.NEGATIVE_INFINITY, "-Infinity", "-∞"},
+    };
+  }
+
+  @Test(dataProvider = "doubles")
+  public void test_double(double value, String expected, String expectedRounded) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BufferedCsvOutput.standard(baos, "\n").writeCell(value).writeCell(value, 10).flush();
+    assertEquals(str(baos), expected + "," + expectedRounded);
+  }
+
+  public void test_double_random() {
+    DecimalFormat format = new DecimalFormat("#.######", new DecimalFormatSymbols(Locale.ENGLISH));
+    Random random = new Random(1);
+    for (int i = 0; i < 10000; i++) {
+      double value = random.nextGaussian() * Math.pow(10, random.nextInt(20) - 10);
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      BufferedCsvOutput.standard(baos, "\n").writeCell(value).writeCell(value, 6).flush();
+      String[] cells = str(baos).split(",");
+      assertEquals(cells[0], BigDecimal.valueOf(value).toPlainString());
+      assertEquals(cells[1], format.format(value));
+    }
+  }
+
+  public void test_double_invalidDecimalPlaces() {
+    BufferedCsvOutput test = BufferedCsvOutput.standard(new ByteArrayOutputStream(), "\n");
+    assertThrowsIllegalArg(() -> test.writeCell(1d, -1));
+    assertThrowsIllegalArg(() -> test.writeCell(1d, 16));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_appendable() {
+    StringBuilder buf = new StringBuilder();
+    BufferedCsvOutput test = BufferedCsvOutput.safe(buf, "\n");
+    test.writeLine(Arrays.asList("a", "=b", "\u00e9\u20ac"));
+    test.writeCell(1.5e7).flush();
+    assertEquals(buf.toString(), "a,=\"=b\",\u00e9\u20ac\n15000000");
+  }
+
+  public void test_appendable_largerThanBuffer() {
+    // multi-byte characters will straddle the end of the byte buffer
+    StringBuilder expected = new StringBuilder();
+    StringBuilder buf = new StringBuilder();
+    try (BufferedCsvOutput test = BufferedCsvOutput.standard(buf, "\n")) {
+      for (int i = 0; i < 20000; i++) {
+        test.writeCell("\u00e9\u20ac").writeCell(i).writeCell(i / 4d).writeNewLine();
+        expected.append("\u00e9\u20ac,").append(i).append(',').append(BigDecimal.valueOf(i / 4d).toPlainString())
+            .append('\n');
+      }
+    }
+    assertEquals(buf.toString(), expected.toString());
+  }
+
+  public void test_channel_largerThanBuffer() {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    StringBuilder buf = new StringBuilder();
+    try (BufferedCsvOutput test = BufferedCsvOutput.standard(Channels.newChannel(baos), "\n")) {
+      for (int i = 0; i < 20000; i++) {
+        test.writeCell("row").writeCell(i).writeCell(i / 4d).writeNewLine();
+        buf.append("row,").append(i).append(',').append(BigDecimal.valueOf(i / 4d).toPlainString()).append('\n');
+      }
+    }
+    assertEquals(str(baos), buf.toString());
+  }
+
+  public void test_file() throws IOException {
+    Path file = Files.createTempFile("BufferedCsvOutputTest", ".csv");
+    file.toFile().deleteOnExit();
+    try (BufferedCsvOutput test = BufferedCsvOutput.safe(file, "\n", false)) {
+      test.writeLine(Arrays.asList("a", "=b"));
+    }
+    assertEquals(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), "a,=\"=b\"\n");
+  }
+
+  public void test_file_gzip() throws IOException {
+    Path file = Files.createTempFile("BufferedCsvOutputTest", ".csv.gz");
+    file.toFile().deleteOnExit();
+    try (BufferedCsvOutput test = BufferedCsvOutput.standard(file, "\n", true)) {
+      test.writeLine(Arrays.asList("a", "b"));
+      test.writeCell(1.5d).writeNewLine();
+    }
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+      assertEquals(new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8), "a,b\n1.5\n");
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static String str(ByteArrayOutputStream baos) {
+    return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+}
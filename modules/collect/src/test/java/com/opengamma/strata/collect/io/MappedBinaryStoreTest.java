@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Test {@link MappedBinaryStore}.
+ */
+@Test
+public class MappedBinaryStoreTest {
+
+  private static final LocalDate DATE = date(2019, 6, 28);
+  private static final LocalDateDoubleTimeSeries DENSE = LocalDateDoubleTimeSeries.builder()
+      .put(DATE, 1d)
+      .put(DATE.plusDays(3), 2d)
+      .put(DATE.plusDays(4), 3d)
+      .build();
+  private static final LocalDateDoubleTimeSeries SPARSE = LocalDateDoubleTimeSeries.builder()
+      .put(DATE, 1d)
+      .put(DATE.plusYears(10), 2d)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_roundTrip() throws IOException {
+    ImmutableMap<Object, Object> values = ImmutableMap.of(
+        "a", 1.5d,
+        "b", DoubleArray.of(1d, 2d, 3d),
+        "c", "Hello",
+        "d", Result.failure(FailureReason.INVALID, "Bad"),
+        ImmutableList.of("e", 1), 2.5d);
+    ImmutableMap<Object, LocalDateDoubleTimeSeries> timeSeries = ImmutableMap.of(
+        "dense", DENSE,
+        "sparse", SPARSE,
+        "empty", LocalDateDoubleTimeSeries.empty());
+    Path file = tempFile();
+    MappedBinaryStore.write(file, DATE, values, timeSeries);
+
+    MappedBinaryStore test = MappedBinaryStore.open(file);
+    assertEquals(test.getHeader(), DATE);
+    assertEquals(test.getKeys(), values.keySet());
+    values.forEach((key, value) -> assertEquals(test.findValue(key), Optional.of(value)));
+    assertEquals(test.findValue("x"), Optional.empty());
+    assertEquals(test.getTimeSeriesKeys(), ImmutableSet.of("dense", "sparse", "empty"));
+    timeSeries.forEach((key, value) -> assertEquals(test.findTimeSeries(key), Optional.of(value)));
+    assertEquals(test.findTimeSeries("a"), Optional.empty());
+    assertEquals(test.toString(), "MappedBinaryStore[values=5, timeSeries=3]");
+  }
+
+  public void test_cached() throws IOException {
+    Path file = tempFile();
+    MappedBinaryStore.write(file, DATE, ImmutableMap.of("a", "Hello"), ImmutableMap.of("a", DENSE));
+    MappedBinaryStore test = MappedBinaryStore.open(file);
+    assertSame(test.findValue("a").get(), test.findValue("a").get());
+    assertSame(test.findTimeSeries("a").get(), test.findTimeSeries("a").get());
+  }
+
+  public void test_openTwice() throws IOException {
+    Path file = tempFile();
+    MappedBinaryStore.write(file, DATE, ImmutableMap.of("a", 2d), ImmutableMap.of("a", SPARSE));
+    MappedBinaryStore test1 = MappedBinaryStore.open(file);
+    MappedBinaryStore test2 = MappedBinaryStore.open(file);
+    assertEquals(test1.findValue("a"), test2.findValue("a"));
+    assertEquals(test1.findTimeSeries("a"), test2.findTimeSeries("a"));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_write_unsupported() throws IOException {
+    Path file = tempFile();
+    assertThrowsIllegalArg(
+        () -> MappedBinaryStore.write(file, DATE, ImmutableMap.of("a", new Object()), ImmutableMap.of()));
+  }
+
+  public void test_open_invalid() throws IOException {
+    Path file = tempFile();
+    Files.write(file, new byte[30]);
+    assertThrowsIllegalArg(() -> MappedBinaryStore.open(file), "Invalid store, header not found: .*");
+    Files.write(file, new byte[3]);
+    assertThrowsIllegalArg(() -> MappedBinaryStore.open(file), "Invalid store, file size is invalid: .*");
+  }
+
+  public void test_open_fileNotFound() {
+    assertThrows(() -> MappedBinaryStore.open(Paths.get("does-not-exist.bin")), UncheckedIOException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  private static Path tempFile() throws IOException {
+    Path file = Files.createTempFile("MappedBinaryStoreTest", ".bin");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.CharSource;
+
+/**
+ * Test {@link MappedCsvReader}.
+ */
+@Test
+public class MappedCsvReaderTest {
+
+  private static final String CSV1 = "" +
+      "h1,h2\n" +
+      "r11,r12\n" +
+      "r21,r22\n" +
+      "r31,";
+
+  private static final String CSV2 = "" +
+      "# comment\n" +
+      "h1 , H2\r\n" +
+      ";r11,r12\r" +
+      "\n" +
+      ",\n" +
+      "  r21  ,  \"r 22\"  \n" +
+      "\"a,b\",=\"0123\"\n" +
+      "\"x\"\"y\",\"\"\"\"\n" +
+      "caf\u00e9,\"\u00e9\"\"\u00e9\"\n";
+
+  private static final String CSV3 = "" +
+      "Date,Value\n" +
+      "2019-06-30,1.25\n" +
+      "20190701,-0.000125\n" +
+      "2019-07-02,1.5e-3\n" +
+      "2019-07-03,12345678901234567890\n" +
+      "2019-07-04,+7\n" +
+      "2019-07-05,NaN\n" +
+      "2019-07-06,1E23\n" +
+      "2019-07-07,.5\n";
+
+  private static final String CSV4 = "" +
+      "h1,h2,h3\n" +
+      "\u00e9\"\"x,a\"\"b,\"\u00e9\"\"x\"\n";
+
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "files")
+  public static Object[][] data_files() {
+    return new Object[][] {
+        {CSV1, true},
+        {CSV1, false},
+        {CSV2, true},
+        {CSV2, false},
+        {CSV3, true},
+        {CSV4, true},
+        {"\uFEFF" + CSV1, true},
+    };
+  }
+
+  @Test(dataProvider = "files")
+  public void test_matchesCsvFile(String content, boolean headerRow) throws IOException {
+    Path file = write(content);
+    CsvFile expected = CsvFile.of(CharSource.wrap(content.replace("\uFEFF", "")), headerRow);
+    for (int windowSize : new int[] {7, 16, 1 << 20}) {
+      try (MappedCsvReader test = MappedCsvReader.of(file, headerRow, ',', windowSize)) {
+        assertEquals(test.headers(), expected.headers());
+        List<CsvRow> rows = new ArrayList<>();
+        while (test.next()) {
+          CsvRow row = test.row();
+          List<String> fields = new ArrayList<>();
+          for (int i = 0; i < test.fieldCount(); i++) {
+            fields.add(test.field(i).toString());
+          }
+          assertEquals(fields, row.fields());
+          rows.add(row);
+        }
+        assertFalse(test.next());
+        assertEquals(rows, expected.rows());
+      }
+    }
+  }
+
+  public void test_field_unquotedWithQuotes() throws IOException {
+    Path file = write(CSV4);
+    try (MappedCsvReader test = MappedCsvReader.of(file, true)) {
+      assertTrue(test.next());
+      assertEquals(test.field(0).toString(), "\u00e9\"\"x");
+      assertEquals(test.field(1).toString(), "a\"\"b");
+      assertEquals(test.field(2).toString(), "\u00e9\"x");
+    }
+  }
+
+  public void test_of_separator() throws IOException {
+    Path file = write("h1\th2\nr11\tr12\n");
+    try (MappedCsvReader test = MappedCsvReader.of(file, true, '\t')) {
+      assertEquals(test.headers(), ImmutableList.of("h1", "h2"));
+      assertTrue(test.next());
+      assertEquals(test.field(1).toString(), "r12");
+      assertEquals(test.lineNumber(), 2);
+      assertFalse(test.next());
+    }
+  }
+
+  public void test_headerIndex() throws IOException {
+    Path file = write(CSV1);
+    try (MappedCsvReader test = MappedCsvReader.of(file, true)) {
+      assertEquals(test.headerIndex("H2"), 1);
+      assertEquals(test.findHeaderIndex("h1"), OptionalInt.of(0));
+      assertEquals(test.findHeaderIndex("h3"), OptionalInt.empty());
+      assertThrowsIllegalArg(() -> test.headerIndex("h3"));
+      assertTrue(test.next());
+      assertTrue(test.next());
+      assertTrue(test.next());
+      assertEquals(test.fieldCount(), 2);
+      assertEquals(test.field(1).toString(), "");
+      assertThrows(() -> test.field(2), IndexOutOfBoundsException.class);
+    }
+  }
+
+  public void test_field_slice() throws IOException {
+    Path file = write(CSV1);
+    try (MappedCsvReader test = MappedCsvReader.of(file, true)) {
+      assertTrue(test.next());
+      CharSequence field = test.field(0);
+      assertEquals(field.length(), 3);
+      assertEquals(field.charAt(1), '1');
+      assertEquals(field.subSequence(1, 3).toString(), "11");
+      assertThrows(() -> field.charAt(3), IndexOutOfBoundsException.class);
+      assertThrows(() -> field.subSequence(2, 4), IndexOutOfBoundsException.class);
+    }
+  }
+
+  public void test_fieldAsDouble_fieldAsDate() throws IOException {
+    Path file = write(CSV3);
+    CsvFile expected = CsvFile.of(CharSource.wrap(CSV3), true);
+    try (MappedCsvReader test = MappedCsvReader.of(file, true)) {
+      for (CsvRow row : expected.rows()) {
+        assertTrue(test.next());
+        String value = row.getField("Value");
+        assertEquals(test.fieldAsDouble(1), Double.parseDouble(value), 0d, value);
+        String date = row.getField("Date");
+        assertEquals(test.fieldAsDate(0), date.contains("-") ? LocalDate.parse(date) : date(2019, 7, 1));
+      }
+    }
+  }
+
+  public void test_fieldAsDouble_exact() throws IOException {
+    String[] values = {"0.1", "0.3", "123.456", "-9.87654321e-5", "1e22", "1e-22", "999999999999999", "0.000"};
+    Path file = write(String.join("\n", values));
+    try (MappedCsvReader test = MappedCsvReader.of(file, false)) {
+      for (String value : values) {
+        assertTrue(test.next());
+        assertEquals(Double.doubleToLongBits(test.fieldAsDouble(0)), Double.doubleToLongBits(Double.parseDouble(value)));
+      }
+    }
+  }
+
+  public void test_invalid() throws IOException {
+    Path file = write("a,b,1e,2019-13-01,2019/01/01\n");
+    try (MappedCsvReader test = MappedCsvReader.of(file, false)) {
+      assertTrue(test.next());
+      assertThrows(() -> test.fieldAsDouble(0), NumberFormatException.class);
+      assertThrows(() -> test.fieldAsDouble(2), NumberFormatException.class);
+      assertThrowsIllegalArg(() -> test.fieldAsDate(1));
+      assertThrowsIllegalArg(() -> test.fieldAsDate(3));
+      assertThrowsIllegalArg(() -> test.fieldAsDate(4));
+    }
+  }
+
+  public void test_mismatchedQuotes() throws IOException {
+    Path file = write("h1,h2\n\"r11,r12\n");
+    try (MappedCsvReader test = MappedCsvReader.of(file, true)) {
+      assertThrowsIllegalArg(() -> test.next(), "Mismatched quotes in CSV on line 2");
+    }
+  }
+
+  public void test_emptyFile() throws IOException {
+    Path file = write("");
+    assertThrowsIllegalArg(() -> MappedCsvReader.of(file, true));
+    try (MappedCsvReader test = MappedCsvReader.of(file, false)) {
+      assertFalse(test.next());
+    }
+  }
+
+  public void test_longLine() throws IOException {
+    String content = "h1,h2\nabcdefghijklmnopqrstuvwxyz,abcdefghijklmnopqrstuvwxyz\n";
+    Path file = write(content);
+    try (MappedCsvReader test = MappedCsvReader.of(file, true, ',', 8)) {
+      assertTrue(test.next());
+      assertEquals(test.field(1).toString(), "abcdefghijklmnopqrstuvwxyz");
+      assertFalse(test.next());
+    }
+  }
+
+  public void test_fileNotFound() {
+    assertThrows(() -> MappedCsvReader.of(Paths.get("does-not-exist.csv"), true), UncheckedIOException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  private static Path write(String content) throws IOException {
+    Path file = Files.createTempFile("MappedCsvReaderTest", ".csv");
+    file.toFile().deleteOnExit();
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+}
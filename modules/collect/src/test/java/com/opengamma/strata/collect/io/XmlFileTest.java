@@ -7,19 +7,25 @@ package com.opengamma.strata.collect.io;
 
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 
 import java.io.File;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteSource;
 import com.google.common.io.Files;
 
@@ -131,6 +137,70 @@ public class XmlFileTest {
     assertThrows(() -> XmlFile.of(source, "key"), UncheckedIOException.class);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_streamElements() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    try (Stream<XmlFile> stream = XmlFile.streamElements(source, "key", ImmutableSet.of("leaf2", "test"))) {
+      List<XmlFile> test = stream.collect(toList());
+      assertEquals(test.size(), 1);
+      assertEquals(test.get(0).getRoot(), XmlElement.ofChildren("test", ATTR_MAP, CHILD_LIST_MULTI));
+      assertEquals(test.get(0).getReferences(), ImmutableMap.of("value", test.get(0).getRoot()));
+    }
+  }
+
+  public void test_streamElements_multiple() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    try (Stream<XmlFile> stream = XmlFile.streamElements(source, "key", ImmutableSet.of("leaf2", "none"))) {
+      List<XmlElement> test = stream.map(XmlFile::getRoot).collect(toList());
+      assertEquals(test, ImmutableList.of(LEAF2A, LEAF2B));
+    }
+  }
+
+  public void test_streamElements_partial() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    try (Stream<XmlFile> stream = XmlFile.streamElements(source, "key", ImmutableSet.of("leaf1", "leaf2"))) {
+      assertEquals(stream.findFirst().get().getRoot(), LEAF1);
+    }
+  }
+
+  public void test_streamElements_pathFilter() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    List<List<String>> paths = new ArrayList<>();
+    Predicate<List<String>> filter = path -> {
+      paths.add(ImmutableList.copyOf(path));
+      return path.size() == 3 && path.get(2).equals("leaf2");
+    };
+    try (Stream<XmlFile> stream = XmlFile.streamElements(source, "key", filter)) {
+      List<XmlElement> test = stream.map(XmlFile::getRoot).collect(toList());
+      assertEquals(test, ImmutableList.of(LEAF2A, LEAF2B));
+    }
+    assertEquals(paths.get(0), ImmutableList.of("base"));
+    assertEquals(paths.get(1), ImmutableList.of("base", "test"));
+  }
+
+  public void test_streamElements_attributes() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    Map<List<String>, ImmutableMap<String, String>> attributes = new LinkedHashMap<>();
+    Predicate<List<String>> filter = path -> path.size() == 3 && path.get(2).equals("leaf2");
+    try (Stream<XmlFile> stream = XmlFile.streamElements(source, "key", filter, 2, attributes::put)) {
+      List<XmlElement> test = stream.map(XmlFile::getRoot).collect(toList());
+      assertEquals(test, ImmutableList.of(LEAF2A, LEAF2B));
+    }
+    assertEquals(attributes, ImmutableMap.of(
+        ImmutableList.of("base"), ATTR_MAP_EMPTY,
+        ImmutableList.of("base", "test"), ATTR_MAP));
+  }
+
+  public void test_streamElements_badEnd() {
+    ByteSource source = ByteSource.wrap(SAMPLE_BAD_END.getBytes(StandardCharsets.UTF_8));
+    assertThrowsIllegalArg(() -> XmlFile.streamElements(source, "key", ImmutableSet.of("test")).count());
+  }
+
+  public void test_streamElements_ioException() {
+    ByteSource source = Files.asByteSource(new File("/oh-dear-no-such-file"));
+    assertThrows(() -> XmlFile.streamElements(source, "key", ImmutableSet.of("test")), UncheckedIOException.class);
+  }
+
   //-------------------------------------------------------------------------
   public void test_equalsHashCodeToString() {
     ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
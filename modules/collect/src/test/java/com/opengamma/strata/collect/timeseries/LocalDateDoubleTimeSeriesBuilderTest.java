@@ -5,12 +5,14 @@
  */
 package com.opengamma.strata.collect.timeseries;
 
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static org.testng.Assert.assertEquals;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.OptionalDouble;
+import java.util.Random;
 
 import org.testng.annotations.Test;
 
@@ -206,6 +208,64 @@ public class LocalDateDoubleTimeSeriesBuilderTest {
     assertEquals(series5.getClass(), DenseLocalDateDoubleTimeSeries.class);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_ofEpochDays_matchesBuilder() {
+    Random random = new Random(1);
+    for (int n = 0; n < 200; n++) {
+      int size = random.nextInt(40);
+      long start = date(2015, 1, 1).toEpochDay() + random.nextInt(14);
+      int spread = 1 + random.nextInt(3);
+      boolean skipWeekends = random.nextBoolean();
+      long[] epochDays = new long[size];
+      double[] values = new double[size];
+      LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+      for (int i = 0; i < size; i++) {
+        LocalDate date = LocalDate.ofEpochDay(start + random.nextInt(size * spread + 1));
+        if (skipWeekends && date.getDayOfWeek().getValue() > 5) {
+          date = date.plusDays(2);
+        }
+        epochDays[i] = date.toEpochDay();
+        values[i] = random.nextDouble();
+        builder.put(date, values[i]);
+      }
+      if (random.nextBoolean()) {
+        Arrays.sort(epochDays);
+        builder = LocalDateDoubleTimeSeries.builder();
+        for (int i = 0; i < size; i++) {
+          builder.put(LocalDate.ofEpochDay(epochDays[i]), values[i]);
+        }
+      }
+      long[] epochDaysCopy = epochDays.clone();
+      LocalDateDoubleTimeSeries expected = builder.build();
+      LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.ofEpochDays(epochDays, values);
+      assertEquals(test, expected);
+      assertEquals(test.getClass(), expected.getClass());
+      assertEquals(epochDays, epochDaysCopy);
+    }
+  }
+
+  public void test_ofEpochDays_duplicates() {
+    long day = date(2015, 1, 5).toEpochDay();
+    LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.ofEpochDays(
+        new long[] {day + 1, day, day + 1}, new double[] {1d, 2d, 3d});
+    assertEquals(test.get(date(2015, 1, 5)), OptionalDouble.of(2d));
+    assertEquals(test.get(date(2015, 1, 6)), OptionalDouble.of(3d));
+    assertEquals(test.size(), 2);
+  }
+
+  public void test_ofEpochDays_wideRange() {
+    long[] epochDays = {date(10_000_000, 1, 1).toEpochDay(), date(-10_000_000, 1, 1).toEpochDay()};
+    LocalDateDoubleTimeSeries test = LocalDateDoubleTimeSeries.ofEpochDays(epochDays, new double[] {1d, 2d});
+    assertEquals(test.getEarliestDate(), date(-10_000_000, 1, 1));
+    assertEquals(test.getLatestValue(), 1d);
+  }
+
+  public void test_ofEpochDays_invalid() {
+    assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeries.ofEpochDays(new long[1], new double[2]));
+    assertThrowsIllegalArg(() -> LocalDateDoubleTimeSeries.ofEpochDays(new long[1], new double[] {Double.NaN}));
+    assertEquals(LocalDateDoubleTimeSeries.ofEpochDays(new long[0], new double[0]), LocalDateDoubleTimeSeries.empty());
+  }
+
   //-------------------------------------------------------------------------
   private static LocalDate date(int year, int month, int day) {
     return LocalDate.of(year, month, day);
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableSet;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.io.MappedBinaryStore;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Market data held in a memory-mapped snapshot file.
+ * <p>
+ * A snapshot is written once using {@link #write(MarketData, Path)} and can then be opened
+ * read-only by many processes using {@link #open(Path)}.
+ * Opening a snapshot only reads the identifiers, with each value and time-series decoded on first access.
+ * Quotes and time-series are held in the file as blocks of primitives, see {@link MappedBinaryStore}.
+ * <p>
+ * All values must be supported by {@link com.opengamma.strata.collect.io.BinaryBeanWriter}.
+ * This is true of Joda-Beans and types supported by Joda-Convert.
+ */
+public final class MappedMarketData implements MarketData {
+
+  /**
+   * The underlying store.
+   */
+  private final MappedBinaryStore store;
+  /**
+   * The valuation date.
+   */
+  private final LocalDate valuationDate;
+  /**
+   * The identifiers of the values.
+   */
+  private final ImmutableSet<MarketDataId<?>> ids;
+  /**
+   * The identifiers of the time-series.
+   */
+  private final ImmutableSet<ObservableId> timeSeriesIds;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a snapshot of the market data to the specified file.
+   * <p>
+   * Any existing file is replaced.
+   *
+   * @param marketData  the market data
+   * @param file  the file to write
+   * @throws IllegalArgumentException if a value cannot be written
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   */
+  public static void write(MarketData marketData, Path file) {
+    ArgChecker.notNull(marketData, "marketData");
+    ImmutableMap.Builder<MarketDataId<?>, Object> values = ImmutableMap.builder();
+    for (MarketDataId<?> id : marketData.getIds()) {
+      values.put(id, marketData.getValue(id));
+    }
+    ImmutableMap.Builder<ObservableId, LocalDateDoubleTimeSeries> timeSeries = ImmutableMap.builder();
+    for (ObservableId id : marketData.getTimeSeriesIds()) {
+      timeSeries.put(id, marketData.getTimeSeries(id));
+    }
+    MappedBinaryStore.write(file, marketData.getValuationDate(), values.build(), timeSeries.build());
+  }
+
+  /**
+   * Opens a snapshot of market data from the specified file.
+   * <p>
+   * The file is memory-mapped read-only.
+   *
+   * @param file  the file to open
+   * @return the market data
+   * @throws IllegalArgumentException if the file is not a market data snapshot
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   */
+  public static MappedMarketData open(Path file) {
+    return new MappedMarketData(MappedBinaryStore.open(file));
+  }
+
+  // restricted constructor
+  private MappedMarketData(MappedBinaryStore store) {
+    if (!(store.getHeader() instanceof LocalDate)) {
+      throw new IllegalArgumentException("Invalid market data snapshot, valuation date not found");
+    }
+    this.store = store;
+    this.valuationDate = (LocalDate) store.getHeader();
+    this.ids = store.getKeys().stream()
+        .map(key -> (MarketDataId<?>) key)
+        .collect(toImmutableSet());
+    this.timeSeriesIds = store.getTimeSeriesKeys().stream()
+        .map(key -> (ObservableId) key)
+        .collect(toImmutableSet());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public LocalDate getValuationDate() {
+    return valuationDate;
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return ids.contains(id);
+  }
+
+  @Override
+  public <T> Optional<T> findValue(MarketDataId<T> id) {
+    return store.findValue(id).map(value -> id.getMarketDataType().cast(value));
+  }
+
+  @Override
+  public Set<MarketDataId<?>> getIds() {
+    return ids;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    return ids.stream()
+        .filter(id -> id instanceof NamedMarketDataId)
+        .filter(id -> ((NamedMarketDataId<?>) id).getMarketDataName().equals(name))
+        .map(id -> (MarketDataId<T>) id)
+        .collect(toImmutableSet());
+  }
+
+  @Override
+  public Set<ObservableId> getTimeSeriesIds() {
+    return timeSeriesIds;
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    return store.findTimeSeries(id).orElse(LocalDateDoubleTimeSeries.empty());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "MappedMarketData[valuationDate=" + valuationDate +
+        ", values=" + ids.size() + ", timeSeries=" + timeSeriesIds.size() + "]";
+  }
+
+}
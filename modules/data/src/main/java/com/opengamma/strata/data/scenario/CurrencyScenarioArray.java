@@ -28,7 +28,6 @@ import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.CurrencyAmountArray;
-import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.array.DoubleArray;
 
 /**
@@ -134,12 +133,7 @@ public final class CurrencyScenarioArray
     if (getCurrency().equals(reportingCurrency)) {
       return this;
     }
-    if (fxRateProvider.getScenarioCount() != amounts.size()) {
-      throw new IllegalArgumentException(Messages.format(
-          "Expected {} FX rates but received {}", amounts.size(), fxRateProvider.getScenarioCount()));
-    }
-    DoubleArray convertedValues =
-        amounts.getValues().mapWithIndex((i, v) -> v * fxRateProvider.fxRate(getCurrency(), reportingCurrency, i));
+    DoubleArray convertedValues = fxRateProvider.convert(amounts.getValues(), getCurrency(), reportingCurrency);
     return of(reportingCurrency, convertedValues);
   }
 
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableSet;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.io.MappedBinaryStore;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MappedMarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.NamedMarketDataId;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Scenario market data held in a memory-mapped snapshot file.
+ * <p>
+ * A snapshot is written once using {@link #write(ScenarioMarketData, Path)} and can then be opened
+ * read-only by many processes using {@link #open(Path)}.
+ * Opening a snapshot only reads the identifiers, with each value and time-series decoded on first access.
+ * <p>
+ * A box containing a single {@code Double}, or a {@code Double} for each scenario, is held in the file
+ * as a block of primitives, as are the time-series. Other boxes are held in the format of
+ * {@link com.opengamma.strata.collect.io.BinaryBeanWriter}, see {@link MappedMarketData}.
+ */
+public final class MappedScenarioMarketData implements ScenarioMarketData {
+
+  /**
+   * The underlying store.
+   */
+  private final MappedBinaryStore store;
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+  /**
+   * The valuation date.
+   */
+  private final MarketDataBox<LocalDate> valuationDate;
+  /**
+   * The identifiers of the values.
+   */
+  private final ImmutableSet<MarketDataId<?>> ids;
+  /**
+   * The identifiers of the time-series.
+   */
+  private final ImmutableSet<ObservableId> timeSeriesIds;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a snapshot of the scenario market data to the specified file.
+   * <p>
+   * Any existing file is replaced.
+   *
+   * @param marketData  the market data
+   * @param file  the file to write
+   * @throws IllegalArgumentException if a value cannot be written
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   */
+  public static void write(ScenarioMarketData marketData, Path file) {
+    ArgChecker.notNull(marketData, "marketData");
+    ImmutableMap.Builder<MarketDataId<?>, Object> values = ImmutableMap.builder();
+    for (MarketDataId<?> id : marketData.getIds()) {
+      values.put(id, unbox(marketData.getValue(id)));
+    }
+    ImmutableMap.Builder<ObservableId, LocalDateDoubleTimeSeries> timeSeries = ImmutableMap.builder();
+    for (ObservableId id : marketData.getTimeSeriesIds()) {
+      timeSeries.put(id, marketData.getTimeSeries(id));
+    }
+    List<Object> header = ImmutableList.of(marketData.getScenarioCount(), marketData.getValuationDate());
+    MappedBinaryStore.write(file, header, values.build(), timeSeries.build());
+  }
+
+  // converts boxes of doubles to the form stored as primitives
+  private static Object unbox(MarketDataBox<?> box) {
+    if (box.isSingleValue()) {
+      return box.getSingleValue() instanceof Double ? box.getSingleValue() : box;
+    }
+    ScenarioArray<?> array = box.getScenarioValue();
+    if (array instanceof DefaultScenarioArray && array.stream().allMatch(value -> value instanceof Double)) {
+      return DoubleArray.of(array.getScenarioCount(), i -> (Double) array.get(i));
+    }
+    return box;
+  }
+
+  /**
+   * Opens a snapshot of scenario market data from the specified file.
+   * <p>
+   * The file is memory-mapped read-only.
+   *
+   * @param file  the file to open
+   * @return the scenario market data
+   * @throws IllegalArgumentException if the file is not a scenario market data snapshot
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   */
+  public static MappedScenarioMarketData open(Path file) {
+    return new MappedScenarioMarketData(MappedBinaryStore.open(file));
+  }
+
+  // restricted constructor
+  @SuppressWarnings("unchecked")
+  private MappedScenarioMarketData(MappedBinaryStore store) {
+    Object header = store.getHeader();
+    if (!(header instanceof List) || ((List<?>) header).size() != 2 ||
+        !(((List<?>) header).get(0) instanceof Integer) || !(((List<?>) header).get(1) instanceof MarketDataBox)) {
+      throw new IllegalArgumentException("Invalid scenario market data snapshot, valuation date not found");
+    }
+    this.store = store;
+    this.scenarioCount = (Integer) ((List<?>) header).get(0);
+    this.valuationDate = (MarketDataBox<LocalDate>) ((List<?>) header).get(1);
+    this.ids = store.getKeys().stream()
+        .map(key -> (MarketDataId<?>) key)
+        .collect(toImmutableSet());
+    this.timeSeriesIds = store.getTimeSeriesKeys().stream()
+        .map(key -> (ObservableId) key)
+        .collect(toImmutableSet());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return valuationDate;
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return ids.contains(id);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    return store.findValue(id).map(value -> (MarketDataBox<T>) box(value));
+  }
+
+  // converts the stored form back to a box
+  private static MarketDataBox<?> box(Object value) {
+    if (value instanceof Double) {
+      return MarketDataBox.ofSingleValue(value);
+    }
+    if (value instanceof DoubleArray) {
+      List<Double> values = ((DoubleArray) value).stream().boxed().collect(toImmutableList());
+      return MarketDataBox.ofScenarioValues(values);
+    }
+    return (MarketDataBox<?>) value;
+  }
+
+  @Override
+  public Set<MarketDataId<?>> getIds() {
+    return ids;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    return ids.stream()
+        .filter(id -> id instanceof NamedMarketDataId)
+        .filter(id -> ((NamedMarketDataId<?>) id).getMarketDataName().equals(name))
+        .map(id -> (MarketDataId<T>) id)
+        .collect(toImmutableSet());
+  }
+
+  @Override
+  public Set<ObservableId> getTimeSeriesIds() {
+    return timeSeriesIds;
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    return store.findTimeSeries(id).orElse(LocalDateDoubleTimeSeries.empty());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "MappedScenarioMarketData[scenarioCount=" + scenarioCount +
+        ", values=" + ids.size() + ", timeSeries=" + timeSeriesIds.size() + "]";
+  }
+
+}
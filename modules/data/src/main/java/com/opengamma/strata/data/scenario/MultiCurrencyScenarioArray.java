@@ -193,12 +193,9 @@ public final class MultiCurrencyScenarioArray
 
     double[] singleCurrencyValues = new double[size];
     for (Map.Entry<Currency, DoubleArray> entry : amounts.getValues().entrySet()) {
-      Currency currency = entry.getKey();
-      DoubleArray currencyValues = entry.getValue();
-
+      DoubleArray convertedValues = fxRateProvider.convert(entry.getValue(), entry.getKey(), reportingCurrency);
       for (int i = 0; i < size; i++) {
-        double convertedValue = currencyValues.get(i) * fxRateProvider.fxRate(currency, reportingCurrency, i);
-        singleCurrencyValues[i] += convertedValue;
+        singleCurrencyValues[i] += convertedValues.get(i);
       }
     }
     return CurrencyScenarioArray.of(reportingCurrency, DoubleArray.ofUnsafe(singleCurrencyValues));
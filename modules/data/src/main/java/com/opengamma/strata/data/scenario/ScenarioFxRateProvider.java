@@ -7,6 +7,8 @@ package com.opengamma.strata.data.scenario;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.ObservableSource;
 
 /**
@@ -63,6 +65,51 @@ public interface ScenarioFxRateProvider {
     return amount * fxRate(fromCurrency, toCurrency, scenarioIndex);
   }
 
+  /**
+   * Converts an amount for each scenario in a currency to an amount in a different currency
+   * using the rates from this provider.
+   * <p>
+   * The amounts are converted in a single pass using the rates from {@link #fxRates(Currency, Currency)}.
+   *
+   * @param amounts  the amounts in {@code fromCurrency}, one for each scenario
+   * @param fromCurrency  the currency of the amounts
+   * @param toCurrency  the currency into which the amounts should be converted
+   * @return the amounts converted into {@code toCurrency}
+   * @throws IllegalArgumentException if the number of amounts does not match the number of scenarios
+   */
+  public default DoubleArray convert(DoubleArray amounts, Currency fromCurrency, Currency toCurrency) {
+    if (amounts.size() != getScenarioCount()) {
+      throw new IllegalArgumentException(Messages.format(
+          "Expected {} FX rates but received {}", amounts.size(), getScenarioCount()));
+    }
+    if (fromCurrency.equals(toCurrency)) {
+      return amounts;
+    }
+    return amounts.multipliedBy(fxRates(fromCurrency, toCurrency));
+  }
+
+  /**
+   * Gets the FX rate for the specified currency pair in each scenario.
+   * <p>
+   * The rates returned are the rates from the base currency to the counter currency
+   * as defined by this formula: {@code (1 * baseCurrency = fxRate * counterCurrency)}.
+   * This will return an array of 1 if the two input currencies are the same.
+   * <p>
+   * The default implementation queries each scenario in turn.
+   * Implementations may override this to look up the rates for all scenarios at once.
+   * 
+   * @param baseCurrency  the base currency, to convert from
+   * @param counterCurrency  the counter currency, to convert to
+   * @return the FX rate for the currency pair, one for each scenario
+   * @throws RuntimeException if no FX rate could be found
+   */
+  public default DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return DoubleArray.filled(getScenarioCount(), 1d);
+    }
+    return DoubleArray.of(getScenarioCount(), i -> fxRate(baseCurrency, counterCurrency, i));
+  }
+
   /**
    * Gets the FX rate for the specified currency pair and scenario index.
    * <p>
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.io.MappedBinaryStore;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Test {@link MappedMarketData}.
+ */
+@Test
+public class MappedMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 30);
+  private static final TestingMappedNamedId ID1 = TestingMappedNamedId.of("1");
+  private static final TestingMappedNamedId ID2 = TestingMappedNamedId.of("2");
+  private static final TestingMappedObservableId ID3 = TestingMappedObservableId.of("3");
+  private static final TestingMappedObservableId ID4 = TestingMappedObservableId.of("4");
+  private static final FxRateId ID5 = FxRateId.of(Currency.GBP, Currency.USD);
+  private static final FxRate FX_RATE = FxRate.of(Currency.GBP, Currency.USD, 1.4d);
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2011, 3, 8), 1.1)
+      .put(date(2011, 3, 10), 1.2)
+      .build();
+  private static final MarketData MARKET_DATA = ImmutableMarketData.builder(VAL_DATE)
+      .addValue(ID1, "1")
+      .addValue(ID3, 1.5d)
+      .addValue(ID5, FX_RATE)
+      .addTimeSeries(ID4, TIME_SERIES)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_roundTrip() throws IOException {
+    Path file = tempFile();
+    MappedMarketData.write(MARKET_DATA, file);
+    MappedMarketData test = MappedMarketData.open(file);
+
+    assertEquals(test.getValuationDate(), VAL_DATE);
+    assertEquals(test.containsValue(ID1), true);
+    assertEquals(test.getValue(ID1), "1");
+    assertEquals(test.findValue(ID3), Optional.of(1.5d));
+    assertEquals(test.getValue(ID5), FX_RATE);
+    assertEquals(test.containsValue(ID2), false);
+    assertEquals(test.findValue(ID2), Optional.empty());
+    assertThrows(() -> test.getValue(ID2), MarketDataNotFoundException.class);
+    assertEquals(test.getIds(), ImmutableSet.of(ID1, ID3, ID5));
+    assertEquals(test.findIds(ID1.getMarketDataName()), ImmutableSet.of(ID1));
+    assertEquals(test.findIds(new TestingName("Foo")), ImmutableSet.of());
+    assertEquals(test.getTimeSeriesIds(), ImmutableSet.of(ID4));
+    assertEquals(test.getTimeSeries(ID4), TIME_SERIES);
+    assertEquals(test.getTimeSeries(ID3), LocalDateDoubleTimeSeries.empty());
+    assertEquals(test.toString(), "MappedMarketData[valuationDate=2015-06-30, values=3, timeSeries=1]");
+  }
+
+  public void test_empty() throws IOException {
+    Path file = tempFile();
+    MappedMarketData.write(MarketData.empty(VAL_DATE), file);
+    MappedMarketData test = MappedMarketData.open(file);
+    assertEquals(test.getValuationDate(), VAL_DATE);
+    assertEquals(test.getIds(), ImmutableSet.of());
+    assertEquals(test.getTimeSeriesIds(), ImmutableSet.of());
+  }
+
+  public void test_open_notMarketData() throws IOException {
+    Path file = tempFile();
+    MappedBinaryStore.write(file, "Hello", ImmutableMap.of(), ImmutableMap.of());
+    assertThrowsIllegalArg(() -> MappedMarketData.open(file));
+  }
+
+  //-------------------------------------------------------------------------
+  private static Path tempFile() throws IOException {
+    Path file = Files.createTempFile("MappedMarketDataTest", ".bin");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import java.util.Objects;
+
+import org.joda.convert.FromString;
+import org.joda.convert.ToString;
+
+/**
+ * NamedMarketDataId implementation used in tests of the mapped snapshot stores.
+ * <p>
+ * This is convertible to and from a string, as required to store it as a key.
+ */
+public final class TestingMappedNamedId implements NamedMarketDataId<String> {
+
+  private final String name;
+
+  @FromString
+  public static TestingMappedNamedId of(String name) {
+    return new TestingMappedNamedId(name);
+  }
+
+  private TestingMappedNamedId(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public MarketDataName<String> getMarketDataName() {
+    return new TestingName(name);
+  }
+
+  @Override
+  public Class<String> getMarketDataType() {
+    return String.class;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof TestingMappedNamedId) {
+      TestingMappedNamedId other = (TestingMappedNamedId) obj;
+      return Objects.equals(name, other.name);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name);
+  }
+
+  @Override
+  @ToString
+  public String toString() {
+    return name;
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import java.util.Objects;
+
+import org.joda.convert.FromString;
+import org.joda.convert.ToString;
+
+import com.opengamma.strata.basics.StandardId;
+
+/**
+ * ObservableId implementation used in tests of the mapped snapshot stores.
+ * <p>
+ * This is convertible to and from a string, as required to store it as a key.
+ */
+public final class TestingMappedObservableId implements ObservableId {
+
+  private final String id;
+
+  @FromString
+  public static TestingMappedObservableId of(String id) {
+    return new TestingMappedObservableId(id);
+  }
+
+  private TestingMappedObservableId(String id) {
+    this.id = id;
+  }
+
+  @ToString
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public Class<Double> getMarketDataType() {
+    return Double.class;
+  }
+
+  @Override
+  public StandardId getStandardId() {
+    return StandardId.of("Test", id);
+  }
+
+  @Override
+  public FieldName getFieldName() {
+    return FieldName.MARKET_VALUE;
+  }
+
+  @Override
+  public ObservableSource getObservableSource() {
+    return ObservableSource.NONE;
+  }
+
+  @Override
+  public ObservableId withObservableSource(ObservableSource obsSource) {
+    return this;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    TestingMappedObservableId that = (TestingMappedObservableId) obj;
+    return Objects.equals(id, that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id);
+  }
+
+  @Override
+  public String toString() {
+    return "TestingMappedObservableId [id=" + id + "]";
+  }
+
+}
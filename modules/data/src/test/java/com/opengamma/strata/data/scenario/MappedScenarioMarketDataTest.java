@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MappedMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.TestingMappedNamedId;
+import com.opengamma.strata.data.TestingMappedObservableId;
+
+/**
+ * Test {@link MappedScenarioMarketData}.
+ */
+@Test
+public class MappedScenarioMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 30);
+  private static final TestingMappedObservableId ID1 = TestingMappedObservableId.of("1");
+  private static final TestingMappedObservableId ID2 = TestingMappedObservableId.of("2");
+  private static final TestingMappedObservableId ID3 = TestingMappedObservableId.of("3");
+  private static final TestingMappedNamedId ID4 = TestingMappedNamedId.of("4");
+  private static final TestingMappedNamedId ID5 = TestingMappedNamedId.of("5");
+  private static final MarketDataBox<Double> BOX1 = MarketDataBox.ofScenarioValues(1d, 2d, 3d);
+  private static final MarketDataBox<Double> BOX2 = MarketDataBox.ofSingleValue(4d);
+  private static final MarketDataBox<String> BOX4 = MarketDataBox.ofScenarioValues("a", "b", "c");
+  private static final MarketDataBox<String> BOX5 = MarketDataBox.ofSingleValue("d");
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2011, 3, 8), 1.1)
+      .put(date(2011, 3, 10), 1.2)
+      .build();
+  private static final ImmutableScenarioMarketData MARKET_DATA = ImmutableScenarioMarketData.builder(VAL_DATE)
+      .addBox(ID1, BOX1)
+      .addBox(ID2, BOX2)
+      .addBox(ID4, BOX4)
+      .addBox(ID5, BOX5)
+      .addTimeSeries(ID3, TIME_SERIES)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_roundTrip() throws IOException {
+    Path file = tempFile();
+    MappedScenarioMarketData.write(MARKET_DATA, file);
+    MappedScenarioMarketData test = MappedScenarioMarketData.open(file);
+
+    assertThat(test.getValuationDate()).isEqualTo(MarketDataBox.ofSingleValue(VAL_DATE));
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    assertThat(test.getIds()).isEqualTo(ImmutableSet.of(ID1, ID2, ID4, ID5));
+    assertThat(test.containsValue(ID1)).isTrue();
+    assertThat(test.containsValue(ID3)).isFalse();
+    assertThat(test.getValue(ID1)).isEqualTo(BOX1);
+    assertThat(test.getValue(ID2)).isEqualTo(BOX2);
+    assertThat(test.getValue(ID4)).isEqualTo(BOX4);
+    assertThat(test.getValue(ID5)).isEqualTo(BOX5);
+    assertThat(test.findValue(ID3)).isEmpty();
+    assertThat(test.findIds(ID4.getMarketDataName())).containsOnly(ID4);
+    assertThat(test.getTimeSeriesIds()).containsOnly(ID3);
+    assertThat(test.getTimeSeries(ID3)).isEqualTo(TIME_SERIES);
+    assertThat(test.getTimeSeries(ID1)).isEqualTo(LocalDateDoubleTimeSeries.empty());
+    assertThat(test.scenario(1).getValue(ID1)).isEqualTo(2d);
+    assertThat(test.toString()).isEqualTo("MappedScenarioMarketData[scenarioCount=3, values=4, timeSeries=1]");
+  }
+
+  public void test_open_notScenarioMarketData() throws IOException {
+    Path file = tempFile();
+    MappedMarketData.write(MarketData.empty(VAL_DATE), file);
+    assertThrowsIllegalArg(() -> MappedScenarioMarketData.open(file));
+  }
+
+  //-------------------------------------------------------------------------
+  private static Path tempFile() throws IOException {
+    Path file = Files.createTempFile("MappedScenarioMarketDataTest", ".bin");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+
+}
@@ -6,6 +6,8 @@
 package com.opengamma.strata.data.scenario;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.offset;
 
 import java.time.LocalDate;
 
@@ -14,6 +16,7 @@ import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.ObservableSource;
 
@@ -39,6 +42,30 @@ public class ScenarioFxRateProviderTest {
     assertThat(fxRateProvider.fxRate(Currency.GBP, Currency.USD, 0)).isEqualTo(1.4d);
   }
 
+  public void convert_bulk() {
+    assertThat(fxRateProvider.convert(DoubleArray.of(10), Currency.GBP, Currency.USD)).isEqualTo(DoubleArray.of(14d));
+    assertThat(fxRateProvider.convert(DoubleArray.of(10), Currency.GBP, Currency.GBP)).isEqualTo(DoubleArray.of(10d));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> fxRateProvider.convert(DoubleArray.of(10, 20), Currency.GBP, Currency.USD));
+  }
+
+  public void fxRates() {
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(LocalDate.of(2011, 3, 8))
+        .addBox(
+            FxRateId.of(Currency.GBP, Currency.USD),
+            MarketDataBox.ofScenarioValues(
+                FxRate.of(Currency.GBP, Currency.USD, 1.4d), FxRate.of(Currency.GBP, Currency.USD, 1.5d)))
+        .addValue(FxRateId.of(Currency.EUR, Currency.USD), FxRate.of(Currency.EUR, Currency.USD, 1.2d))
+        .build();
+    ScenarioFxRateProvider test = ScenarioFxRateProvider.of(marketData);
+    assertThat(test.fxRates(Currency.GBP, Currency.USD)).isEqualTo(DoubleArray.of(1.4d, 1.5d));
+    assertThat(test.fxRates(Currency.USD, Currency.GBP)).isEqualTo(DoubleArray.of(1 / 1.4d, 1 / 1.5d));
+    assertThat(test.fxRates(Currency.GBP, Currency.GBP)).isEqualTo(DoubleArray.of(1d, 1d));
+    // triangulated via USD
+    assertThat(test.fxRates(Currency.GBP, Currency.EUR).get(1)).isCloseTo(1.5d / 1.2d, offset(1e-12));
+    assertThat(test.fxRates(Currency.GBP, Currency.EUR).get(0)).isEqualTo(test.fxRate(Currency.GBP, Currency.EUR, 0));
+  }
+
   public void specifySource() {
     ObservableSource testSource = ObservableSource.of("test");
     ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(LocalDate.of(2011, 3, 8))
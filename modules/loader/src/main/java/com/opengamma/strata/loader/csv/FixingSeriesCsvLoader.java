@@ -12,6 +12,8 @@ import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
@@ -20,12 +22,11 @@ import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.basics.index.PriceIndex;
 import com.opengamma.strata.collect.MapStream;
 import com.opengamma.strata.collect.Messages;
-import com.opengamma.strata.collect.io.CsvFile;
+import com.opengamma.strata.collect.io.CsvIterator;
 import com.opengamma.strata.collect.io.CsvRow;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.collect.io.UnicodeBom;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
-import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
 import com.opengamma.strata.data.ObservableId;
 import com.opengamma.strata.loader.LoaderUtils;
 import com.opengamma.strata.market.observable.IndexQuoteId;
@@ -110,22 +111,72 @@ public final class FixingSeriesCsvLoader {
     return builder.build();
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Loads one or more CSV format fixing series files, parsing the files in parallel.
+   * <p>
+   * This is intended for loading a large number of fixings, such as many years of daily fixings for many indices.
+   * The result is the same as {@link #load(Collection)}.
+   * <p>
+   * If the files contain a duplicate entry an exception will be thrown.
+   * 
+   * @param resources  the fixing series CSV resources
+   * @return the loaded fixing series, mapped by {@linkplain ObservableId observable ID}
+   * @throws IllegalArgumentException if the files contain a duplicate entry
+   */
+  public static ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> loadInParallel(
+      Collection<ResourceLocator> resources) {
+
+    Collection<CharSource> charSources = resources.stream().map(r -> r.getCharSource()).collect(toList());
+    return parseInParallel(charSources);
+  }
+
+  /**
+   * Parses one or more CSV format fixing series files, parsing the files in parallel.
+   * <p>
+   * This is intended for parsing a large number of fixings, such as many years of daily fixings for many indices.
+   * The result is the same as {@link #parse(Collection)}.
+   * <p>
+   * If the files contain a duplicate entry an exception will be thrown.
+   * 
+   * @param charSources  the fixing series CSV character sources
+   * @return the loaded fixing series, mapped by {@linkplain ObservableId observable ID}
+   * @throws IllegalArgumentException if the files contain a duplicate entry
+   */
+  public static ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> parseInParallel(
+      Collection<CharSource> charSources) {
+
+    List<ImmutableMap<ObservableId, LocalDateDoubleTimeSeries>> parsed = charSources.parallelStream()
+        .map(FixingSeriesCsvLoader::parseSingle)
+        .collect(toList());
+    // builder ensures keys can only be seen once
+    ImmutableMap.Builder<ObservableId, LocalDateDoubleTimeSeries> builder = ImmutableMap.builder();
+    parsed.forEach(builder::putAll);
+    return builder.build();
+  }
+
   //-------------------------------------------------------------------------
   // loads a single fixing series CSV file
   private static ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> parseSingle(CharSource resource) {
-    Map<ObservableId, LocalDateDoubleTimeSeriesBuilder> builders = new HashMap<>();
-    try {
-      CsvFile csv = CsvFile.of(resource, true);
-      for (CsvRow row : csv.rows()) {
+    // the index lookup is only performed once for each distinct reference
+    Map<ObservableId, SeriesPoints> seriesById = new LinkedHashMap<>();
+    Map<String, SeriesPoints> seriesByReference = new HashMap<>();
+    try (CsvIterator csv = CsvIterator.of(resource, true)) {
+      while (csv.hasNext()) {
+        CsvRow row = csv.next();
         String referenceStr = row.getField(REFERENCE_FIELD);
         String dateStr = row.getField(DATE_FIELD);
         String valueStr = row.getField(VALUE_FIELD);
 
-        Index index = LoaderUtils.findIndex(referenceStr);
-        ObservableId id = IndexQuoteId.of(index);
+        SeriesPoints series = seriesByReference.get(referenceStr);
+        if (series == null) {
+          Index index = LoaderUtils.findIndex(referenceStr);
+          series = seriesById.computeIfAbsent(IndexQuoteId.of(index), id -> new SeriesPoints(index));
+          seriesByReference.put(referenceStr, series);
+        }
         double value = Double.parseDouble(valueStr);
         LocalDate date;
-        if (index instanceof PriceIndex) {
+        if (series.index instanceof PriceIndex) {
           try {
             YearMonth ym = LoaderUtils.parseYearMonth(dateStr);
             date = ym.atEndOfMonth();
@@ -139,15 +190,40 @@ public final class FixingSeriesCsvLoader {
         } else {
           date = LoaderUtils.parseDate(dateStr);
         }
-
-        LocalDateDoubleTimeSeriesBuilder builder = builders.computeIfAbsent(id, k -> LocalDateDoubleTimeSeries.builder());
-        builder.put(date, value);
+        series.add(date.toEpochDay(), value);
       }
+      return MapStream.of(seriesById).mapValues(series -> series.build()).toMap();
     } catch (RuntimeException ex) {
       throw new IllegalArgumentException(
           Messages.format("Error processing resource as CSV file: {}", resource), ex);
     }
-    return MapStream.of(builders).mapValues(builder -> builder.build()).toMap();
+  }
+
+  //-------------------------------------------------------------------------
+  // the points of a single series, held as primitives in the order of the file
+  private static final class SeriesPoints {
+    private final Index index;
+    private long[] epochDays = new long[64];
+    private double[] values = new double[64];
+    private int size;
+
+    private SeriesPoints(Index index) {
+      this.index = index;
+    }
+
+    private void add(long epochDay, double value) {
+      if (size == epochDays.length) {
+        epochDays = Arrays.copyOf(epochDays, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      epochDays[size] = epochDay;
+      values[size] = value;
+      size++;
+    }
+
+    private LocalDateDoubleTimeSeries build() {
+      return LocalDateDoubleTimeSeries.ofEpochDays(Arrays.copyOf(epochDays, size), Arrays.copyOf(values, size));
+    }
   }
 
   //-------------------------------------------------------------------------
@@ -8,9 +8,13 @@ package com.opengamma.strata.loader.csv;
 import static java.util.stream.Collectors.toList;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -21,13 +25,16 @@ import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.io.CharSource;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.io.CsvFile;
+import com.opengamma.strata.collect.io.CsvIterator;
 import com.opengamma.strata.collect.io.CsvRow;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.collect.io.UnicodeBom;
 import com.opengamma.strata.data.FieldName;
 import com.opengamma.strata.loader.LoaderUtils;
 import com.opengamma.strata.market.observable.QuoteId;
+import com.opengamma.strata.market.observable.QuoteMatrix;
 
 /**
  * Loads a set of quotes into memory from CSV resources.
@@ -236,6 +243,143 @@ public final class QuotesCsvLoader {
     }
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Loads one or more CSV format quote files into a matrix of dates and quotes.
+   * <p>
+   * All dates that are found will be returned.
+   * This is more efficient than {@link #loadAllDates(Collection)} when there are many dates,
+   * as the values are held as primitives, see {@link QuoteMatrix}.
+   * <p>
+   * If the files contain a duplicate entry an exception will be thrown.
+   * 
+   * @param resources  the CSV resources
+   * @return the loaded quotes
+   * @throws IllegalArgumentException if the files contain a duplicate entry
+   */
+  public static QuoteMatrix loadMatrix(Collection<ResourceLocator> resources) {
+    Collection<CharSource> charSources = resources.stream().map(r -> r.getCharSource()).collect(toList());
+    return parseMatrix(d -> true, charSources);
+  }
+
+  /**
+   * Parses one or more CSV format quote files into a matrix of dates and quotes.
+   * <p>
+   * A predicate is specified that is used to filter the dates that are returned.
+   * The dates of the matrix are sorted, and the quotes are in the order they are first found.
+   * A quote that has no value on a date is {@code NaN} in the matrix.
+   * <p>
+   * If the files contain a duplicate entry an exception will be thrown.
+   * 
+   * @param datePredicate  the predicate used to select the dates
+   * @param charSources  the CSV character sources
+   * @return the loaded quotes
+   * @throws IllegalArgumentException if the files contain a duplicate entry
+   */
+  public static QuoteMatrix parseMatrix(Predicate<LocalDate> datePredicate, Collection<CharSource> charSources) {
+    MatrixBuilder builder = new MatrixBuilder(datePredicate);
+    for (CharSource charSource : charSources) {
+      try (CsvIterator csv = CsvIterator.of(charSource, true)) {
+        while (csv.hasNext()) {
+          builder.add(csv.next());
+        }
+      } catch (RuntimeException ex) {
+        throw new IllegalArgumentException(
+            Messages.format("Error processing resource as CSV file: {}", charSource), ex);
+      }
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  // builds the matrix, avoiding boxing and repeated parsing of dates and identifiers
+  private static final class MatrixBuilder {
+    private final Predicate<LocalDate> datePredicate;
+    // the parsed date of each date text, as the same date may be written in different formats
+    private final Map<String, LocalDate> parsedDates = new HashMap<>();
+    // the row of each date, -1 if the date is not selected
+    private final Map<LocalDate, Integer> dateRows = new HashMap<>();
+    private final List<LocalDate> dates = new ArrayList<>();
+    private final List<double[]> rows = new ArrayList<>();
+    // the columns of each row that have a value, as the value may itself be NaN
+    private final List<BitSet> filled = new ArrayList<>();
+    // the column of each symbology, ticker and field name
+    private final Map<List<String>, Integer> quoteColumns = new HashMap<>();
+    private final Map<QuoteId, Integer> quoteIndices = new HashMap<>();
+    private final List<QuoteId> quoteIds = new ArrayList<>();
+
+    private MatrixBuilder(Predicate<LocalDate> datePredicate) {
+      this.datePredicate = datePredicate;
+    }
+
+    private void add(CsvRow row) {
+      LocalDate date = parsedDates.computeIfAbsent(row.getField(DATE_FIELD), LoaderUtils::parseDate);
+      Integer rowIndex = dateRows.get(date);
+      if (rowIndex == null) {
+        rowIndex = datePredicate.test(date) ? dates.size() : -1;
+        if (rowIndex >= 0) {
+          dates.add(date);
+          rows.add(new double[0]);
+          filled.add(new BitSet());
+        }
+        dateRows.put(date, rowIndex);
+      }
+      if (rowIndex < 0) {
+        return;
+      }
+      String symbologyStr = row.getField(SYMBOLOGY_FIELD);
+      String tickerStr = row.getField(TICKER_FIELD);
+      String fieldNameStr = row.getField(FIELD_NAME_FIELD);
+      String valueStr = row.getField(VALUE_FIELD);
+
+      double value = Double.parseDouble(valueStr);
+      Integer column = quoteColumns.get(Arrays.asList(symbologyStr, tickerStr, fieldNameStr));
+      if (column == null) {
+        StandardId id = StandardId.of(symbologyStr, tickerStr);
+        FieldName fieldName = fieldNameStr.isEmpty() ? FieldName.MARKET_VALUE : FieldName.of(fieldNameStr);
+        QuoteId quoteId = QuoteId.of(id, fieldName);
+        // different field name text may refer to the same quote, such as an empty field name
+        column = quoteIndices.computeIfAbsent(quoteId, k -> {
+          quoteIds.add(k);
+          return quoteIds.size() - 1;
+        });
+        quoteColumns.put(Arrays.asList(symbologyStr, tickerStr, fieldNameStr), column);
+      }
+      double[] values = rows.get(rowIndex);
+      if (column >= values.length) {
+        int oldLength = values.length;
+        values = Arrays.copyOf(values, Math.max(column + 1, oldLength * 2));
+        Arrays.fill(values, oldLength, values.length, Double.NaN);
+        rows.set(rowIndex, values);
+      }
+      BitSet rowFilled = filled.get(rowIndex);
+      if (rowFilled.get(column)) {
+        throw new IllegalArgumentException(
+            Messages.format("Duplicate quote for '{}' on {}", quoteIds.get(column), dates.get(rowIndex)));
+      }
+      rowFilled.set(column);
+      values[column] = value;
+    }
+
+    private QuoteMatrix build() {
+      int quoteCount = quoteIds.size();
+      Integer[] order = new Integer[dates.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, Comparator.comparing(dates::get));
+      List<LocalDate> sortedDates = new ArrayList<>(order.length);
+      double[][] values = new double[order.length][];
+      for (int i = 0; i < order.length; i++) {
+        sortedDates.add(dates.get(order[i]));
+        double[] row = rows.get(order[i]);
+        values[i] = Arrays.copyOf(row, quoteCount);
+        Arrays.fill(values[i], Math.min(row.length, quoteCount), quoteCount, Double.NaN);
+      }
+      return QuoteMatrix.of(sortedDates, quoteIds, DoubleMatrix.ofUnsafe(values));
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Restricted constructor.
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.loader.csv;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.result.FailureItem;
+import com.opengamma.strata.collect.tuple.Triple;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.param.ParameterMetadata;
+import com.opengamma.strata.market.sensitivity.CurveSensitivities;
+import com.opengamma.strata.market.sensitivity.CurveSensitivitiesBuilder;
+import com.opengamma.strata.market.sensitivity.CurveSensitivitiesType;
+import com.opengamma.strata.product.PortfolioItemInfo;
+
+/**
+ * Accumulates sensitivity values parsed from CSV rows in columnar form.
+ * <p>
+ * Each combination of type, curve name and currency has a primitive array of values,
+ * indexed by the position at which the parameter metadata was first seen.
+ * This avoids creating intermediate sensitivity objects for each row, with the
+ * {@link CurveSensitivities} being assembled once all the rows have been processed.
+ * <p>
+ * Instances are mutable and not thread-safe.
+ * When parsing in parallel, each chunk of rows has its own instance, merged in row order.
+ */
+final class SensitivityCsvAccumulator {
+
+  /**
+   * The parameter values, keyed by type, curve name and currency, in the order first seen.
+   */
+  private final Map<Triple<CurveSensitivitiesType, CurveName, Currency>, ParameterValues> curves =
+      new LinkedHashMap<>();
+  /**
+   * The failures that occurred while parsing the rows.
+   */
+  private final List<FailureItem> failures = new ArrayList<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds a single sensitivity value, summing with any existing value for the same parameter.
+   *
+   * @param type  the sensitivity type
+   * @param curveName  the curve name
+   * @param currency  the currency
+   * @param metadata  the parameter metadata
+   * @param value  the sensitivity value
+   */
+  void add(
+      CurveSensitivitiesType type,
+      CurveName curveName,
+      Currency currency,
+      ParameterMetadata metadata,
+      double value) {
+
+    curves.computeIfAbsent(Triple.of(type, curveName, currency), k -> new ParameterValues())
+        .add(metadata, value);
+  }
+
+  /**
+   * Adds a failure.
+   *
+   * @param failure  the failure
+   */
+  void addFailure(FailureItem failure) {
+    failures.add(failure);
+  }
+
+  /**
+   * Merges the values of another accumulator into this one.
+   * <p>
+   * The other accumulator is expected to contain rows that occur after those in this accumulator.
+   * The values of the other accumulator are added in row order, thus the sums are the same
+   * as if the rows of both accumulators had been added to a single accumulator.
+   *
+   * @param other  the other accumulator
+   */
+  void merge(SensitivityCsvAccumulator other) {
+    for (Entry<Triple<CurveSensitivitiesType, CurveName, Currency>, ParameterValues> entry : other.curves.entrySet()) {
+      curves.computeIfAbsent(entry.getKey(), k -> new ParameterValues()).addAll(entry.getValue());
+    }
+    failures.addAll(other.failures);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the failures that occurred while parsing the rows.
+   *
+   * @return the failures
+   */
+  List<FailureItem> getFailures() {
+    return failures;
+  }
+
+  /**
+   * Builds the sensitivities.
+   *
+   * @param info  the sensitivity info
+   * @return the sensitivities
+   */
+  CurveSensitivities build(PortfolioItemInfo info) {
+    CurveSensitivitiesBuilder builder = CurveSensitivities.builder(info);
+    for (Entry<Triple<CurveSensitivitiesType, CurveName, Currency>, ParameterValues> entry : curves.entrySet()) {
+      Triple<CurveSensitivitiesType, CurveName, Currency> key = entry.getKey();
+      ParameterValues values = entry.getValue();
+      for (int i = 0; i < values.metadata.size(); i++) {
+        builder.add(key.getFirst(), key.getSecond(), key.getThird(), values.metadata.get(i), values.values[i]);
+      }
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  // the values for a single curve, indexed by metadata
+  // the values that were summed are retained so that they can be added again in row order when merging
+  private static final class ParameterValues {
+    private final Map<ParameterMetadata, Integer> indices = new HashMap<>();
+    private final List<ParameterMetadata> metadata = new ArrayList<>();
+    private double[] values = new double[16];
+    // the first value of each parameter, null until a value is summed
+    private double[] firstValues;
+    // the index and value of each value that was summed, in row order
+    private int[] repeatIndices = new int[0];
+    private double[] repeatValues = new double[0];
+    private int repeatCount;
+
+    // adds the value, summing if the metadata has already been seen
+    private void add(ParameterMetadata md, double value) {
+      Integer index = indices.putIfAbsent(md, metadata.size());
+      if (index != null) {
+        if (firstValues == null) {
+          firstValues = values.clone();
+        }
+        if (repeatCount == repeatIndices.length) {
+          repeatIndices = Arrays.copyOf(repeatIndices, Math.max(16, repeatCount * 2));
+          repeatValues = Arrays.copyOf(repeatValues, repeatIndices.length);
+        }
+        repeatIndices[repeatCount] = index;
+        repeatValues[repeatCount++] = value;
+        values[index] += value;
+      } else {
+        int size = metadata.size();
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size * 2);
+          if (firstValues != null) {
+            firstValues = Arrays.copyOf(firstValues, size * 2);
+          }
+        }
+        values[size] = value;
+        if (firstValues != null) {
+          firstValues[size] = value;
+        }
+        metadata.add(md);
+      }
+    }
+
+    // adds the values of the other instance, in the order they were originally added
+    // the sum for each parameter only depends on the order of the values for that parameter
+    private void addAll(ParameterValues other) {
+      double[] otherFirstValues = other.firstValues != null ? other.firstValues : other.values;
+      for (int i = 0; i < other.metadata.size(); i++) {
+        add(other.metadata.get(i), otherFirstValues[i]);
+      }
+      for (int i = 0; i < other.repeatCount; i++) {
+        add(other.metadata.get(other.repeatIndices[i]), other.repeatValues[i]);
+      }
+    }
+  }
+
+}
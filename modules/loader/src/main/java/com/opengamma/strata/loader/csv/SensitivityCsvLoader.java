@@ -17,6 +17,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableListMultimap;
@@ -168,6 +169,8 @@ public final class SensitivityCsvLoader {
           TENOR_HEADER.toLowerCase(Locale.ENGLISH),
           DATE_HEADER.toLowerCase(Locale.ENGLISH),
           CURRENCY_HEADER.toLowerCase(Locale.ENGLISH));
+  // number of rows in each chunk when parsing in parallel
+  private static final int PARALLEL_CHUNK_SIZE = 10_000;
 
   /**
    * The resolver, providing additional information.
@@ -301,10 +304,57 @@ public final class SensitivityCsvLoader {
    * @return the loaded sensitivities, parsing errors are captured in the result
    */
   public ValueWithFailures<ListMultimap<String, CurveSensitivities>> parse(Collection<CharSource> charSources) {
+    return parse(charSources, false);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Loads one or more CSV format sensitivities files, parsing the rows of each file in parallel.
+   * <p>
+   * This is intended for large files, such as CCP margin sensitivities with millions of rows.
+   * The result is the same as {@link #load(Collection)}, see {@link #parseInParallel(Collection)} for details.
+   *
+   * @param resources  the CSV resources
+   * @return the sensitivities keyed by identifier, parsing errors are captured in the result
+   */
+  public ValueWithFailures<ListMultimap<String, CurveSensitivities>> loadInParallel(
+      Collection<ResourceLocator> resources) {
+
+    Collection<CharSource> charSources = resources.stream()
+        .map(r -> UnicodeBom.toCharSource(r.getByteSource()))
+        .collect(toList());
+    return parseInParallel(charSources);
+  }
+
+  /**
+   * Parses one or more CSV format sensitivities files, parsing the rows of each file in parallel.
+   * <p>
+   * This is intended for large files, such as CCP margin sensitivities with millions of rows.
+   * The result is the same as {@link #parse(Collection)}, including the order of the failures.
+   * <p>
+   * The files are read one at a time, with the rows for each identifier split into chunks that are
+   * parsed in parallel. Each chunk accumulates the values for each curve in primitive arrays indexed
+   * by parameter metadata, and the sensitivities are assembled once all the chunks are complete.
+   * As such, the resolver must be safe to use from multiple threads.
+   *
+   * @param charSources  the CSV character sources
+   * @return the loaded sensitivities, parsing errors are captured in the result
+   */
+  public ValueWithFailures<ListMultimap<String, CurveSensitivities>> parseInParallel(
+      Collection<CharSource> charSources) {
+
+    return parse(charSources, true);
+  }
+
+  // parse the files
+  private ValueWithFailures<ListMultimap<String, CurveSensitivities>> parse(
+      Collection<CharSource> charSources,
+      boolean parallel) {
+
     ListMultimap<String, CurveSensitivities> parsed = ArrayListMultimap.create();
     List<FailureItem> failures = new ArrayList<>();
     for (CharSource charSource : charSources) {
-      parse(charSource, parsed, failures);
+      parse(charSource, parsed, failures, parallel);
     }
     return ValueWithFailures.of(ImmutableListMultimap.copyOf(parsed), failures);
   }
@@ -313,32 +363,38 @@ public final class SensitivityCsvLoader {
   private void parse(
       CharSource charSource,
       ListMultimap<String, CurveSensitivities> parsed,
-      List<FailureItem> failures) {
+      List<FailureItem> failures,
+      boolean parallel) {
 
     try (CsvIterator csv = CsvIterator.of(charSource, true)) {
       if (!csv.containsHeader(TENOR_HEADER) && !csv.containsHeader(DATE_HEADER)) {
         failures.add(FailureItem.of(
             FailureReason.PARSING, "CSV file could not be parsed as sensitivities, invalid format"));
-      } else if (csv.containsHeader(REFERENCE_HEADER) &&
+        return;
+      }
+      RowParser rowParser;
+      if (csv.containsHeader(REFERENCE_HEADER) &&
           csv.containsHeader(TYPE_HEADER) &&
           csv.containsHeader(VALUE_HEADER)) {
-        parseStandardFormat(csv, parsed, failures);
+        rowParser = this::parseStandardRow;
       } else if (csv.containsHeader(REFERENCE_HEADER)) {
-        parseListFormat(csv, parsed, failures);
+        rowParser = listRowParser(csv.headers());
       } else {
-        parseGridFormat(csv, parsed, failures);
+        rowParser = gridRowParser(csv.headers());
       }
+      parseRows(csv, rowParser, parsed, failures, parallel);
     } catch (RuntimeException ex) {
       failures.add(FailureItem.of(FailureReason.PARSING, ex, "CSV file could not be parsed: {}", ex.getMessage()));
     }
   }
 
-  //-------------------------------------------------------------------------
-  // parses the file in standard format
-  private void parseStandardFormat(
+  // parses the rows of the file
+  private void parseRows(
       CsvIterator csv,
+      RowParser rowParser,
       ListMultimap<String, CurveSensitivities> parsed,
-      List<FailureItem> failures) {
+      List<FailureItem> failures,
+      boolean parallel) {
 
     // loop around all rows, peeking to match batches with the same identifier
     // no exception catch at this level to avoid infinite loops
@@ -348,139 +404,148 @@ public final class SensitivityCsvLoader {
       String id = info.getId().map(StandardId::toString).orElse("");
 
       // process in batches, where the ID is the same
-      CurveSensitivitiesBuilder builder = CurveSensitivities.builder(info);
       List<CsvRow> batchRows = csv.nextBatch(r -> matchId(r, id));
-      for (CsvRow batchRow : batchRows) {
-        try {
-          CurveName reference = CurveName.of(batchRow.getValue(REFERENCE_HEADER));
-          CurveName resolvedCurveName = resolver.checkCurveName(reference);
-          CurveSensitivitiesType type = CurveSensitivitiesType.of(batchRow.getValue(TYPE_HEADER));
-          ParameterMetadata metadata = parseMetadata(batchRow, false);
-          Currency currency = parseCurrency(batchRow, reference);
-          String valueStr = batchRow.getField(VALUE_HEADER);
-          if (!valueStr.isEmpty()) {
-            double value = LoaderUtils.parseDouble(valueStr);
-            builder.add(type, resolvedCurveName, currency, metadata, value);
-          }
-
-        } catch (IllegalArgumentException ex) {
-          failures.add(FailureItem.of(
-              PARSING, "CSV file could not be parsed at line {}: {}", batchRow.lineNumber(), ex.getMessage()));
-        }
-      }
-      CurveSensitivities sens = builder.build();
+      CurveSensitivities sens = parallel ?
+          parseBatchInParallel(info, batchRows, rowParser, failures) :
+          parseBatch(info, batchRows, rowParser, failures);
       if (!sens.getTypedSensitivities().isEmpty()) {
         parsed.put(sens.getId().map(Object::toString).orElse(""), sens);
       }
     }
   }
 
-  //-------------------------------------------------------------------------
-  // parses the file in list format
-  private void parseListFormat(
-      CsvIterator csv,
-      ListMultimap<String, CurveSensitivities> parsed,
+  // parses a batch of rows with the same identifier
+  private CurveSensitivities parseBatch(
+      PortfolioItemInfo info,
+      List<CsvRow> batchRows,
+      RowParser rowParser,
       List<FailureItem> failures) {
 
+    CurveSensitivitiesBuilder builder = CurveSensitivities.builder(info);
+    for (CsvRow batchRow : batchRows) {
+      try {
+        rowParser.parse(batchRow, builder::add);
+      } catch (IllegalArgumentException ex) {
+        failures.add(rowFailure(batchRow, ex));
+      }
+    }
+    return builder.build();
+  }
+
+  // parses a batch of rows with the same identifier, splitting the rows into chunks that are parsed in parallel
+  private CurveSensitivities parseBatchInParallel(
+      PortfolioItemInfo info,
+      List<CsvRow> batchRows,
+      RowParser rowParser,
+      List<FailureItem> failures) {
+
+    int chunkCount = (batchRows.size() + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+    List<SensitivityCsvAccumulator> chunks = IntStream.range(0, chunkCount)
+        .parallel()
+        .mapToObj(i -> parseChunk(
+            batchRows.subList(i * PARALLEL_CHUNK_SIZE, Math.min((i + 1) * PARALLEL_CHUNK_SIZE, batchRows.size())),
+            rowParser))
+        .collect(toList());
+    // merge in row order so that the parameter order and failures match sequential parsing
+    SensitivityCsvAccumulator combined = new SensitivityCsvAccumulator();
+    for (SensitivityCsvAccumulator chunk : chunks) {
+      combined.merge(chunk);
+    }
+    failures.addAll(combined.getFailures());
+    return combined.build(info);
+  }
+
+  // parses a chunk of rows
+  private SensitivityCsvAccumulator parseChunk(List<CsvRow> chunkRows, RowParser rowParser) {
+    SensitivityCsvAccumulator accumulator = new SensitivityCsvAccumulator();
+    for (CsvRow row : chunkRows) {
+      try {
+        rowParser.parse(row, accumulator::add);
+      } catch (IllegalArgumentException ex) {
+        accumulator.addFailure(rowFailure(row, ex));
+      }
+    }
+    return accumulator;
+  }
+
+  // the failure for a row that could not be parsed
+  private static FailureItem rowFailure(CsvRow row, IllegalArgumentException ex) {
+    return FailureItem.of(PARSING, "CSV file could not be parsed at line {}: {}", row.lineNumber(), ex.getMessage());
+  }
+
+  //-------------------------------------------------------------------------
+  // parses a row in standard format
+  private void parseStandardRow(CsvRow row, SensitivityConsumer consumer) {
+    CurveName reference = CurveName.of(row.getValue(REFERENCE_HEADER));
+    CurveName resolvedCurveName = resolver.checkCurveName(reference);
+    CurveSensitivitiesType type = CurveSensitivitiesType.of(row.getValue(TYPE_HEADER));
+    ParameterMetadata metadata = parseMetadata(row, false);
+    Currency currency = parseCurrency(row, reference);
+    String valueStr = row.getField(VALUE_HEADER);
+    if (!valueStr.isEmpty()) {
+      double value = LoaderUtils.parseDouble(valueStr);
+      consumer.accept(type, resolvedCurveName, currency, metadata, value);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // creates the row parser for list format
+  private RowParser listRowParser(List<String> headers) {
     // find the applicable type columns
     Map<String, CurveSensitivitiesType> types = new LinkedHashMap<>();
-    for (String header : csv.headers()) {
+    for (String header : headers) {
       String headerLowerCase = header.toLowerCase(Locale.ENGLISH);
       if (!TYPE_HEADERS.contains(headerLowerCase) && !resolver.isInfoColumn(headerLowerCase)) {
         types.put(header, CurveSensitivitiesType.of(header.replace(" ", "")));
       }
     }
 
-    // loop around all rows, peeking to match batches with the same identifier
-    // no exception catch at this level to avoid infinite loops
-    while (csv.hasNext()) {
-      CsvRow peekedRow = csv.peek();
-      PortfolioItemInfo info = parseInfo(peekedRow);
-      String id = info.getId().map(StandardId::toString).orElse("");
-
-      // process in batches, where the ID is the same
-      CurveSensitivitiesBuilder builder = CurveSensitivities.builder(info);
-      List<CsvRow> batchRows = csv.nextBatch(r -> matchId(r, id));
-      for (CsvRow batchRow : batchRows) {
-        try {
-          ParameterMetadata metadata = parseMetadata(batchRow, true);
-          CurveName reference = CurveName.of(batchRow.getValue(REFERENCE_HEADER));
-          CurveName resolvedCurveName = resolver.checkCurveName(reference);
-          for (Entry<String, CurveSensitivitiesType> entry : types.entrySet()) {
-            CurveSensitivitiesType type = entry.getValue();
-            String valueStr = batchRow.getField(entry.getKey());
-            Currency currency = parseCurrency(batchRow, reference);
-            if (!valueStr.isEmpty()) {
-              double value = LoaderUtils.parseDouble(valueStr);
-              builder.add(type, resolvedCurveName, currency, metadata, value);
-            }
-          }
-
-        } catch (IllegalArgumentException ex) {
-          failures.add(FailureItem.of(
-              PARSING, "CSV file could not be parsed at line {}: {}", batchRow.lineNumber(), ex.getMessage()));
+    // parses a row in list format
+    return (row, consumer) -> {
+      ParameterMetadata metadata = parseMetadata(row, true);
+      CurveName reference = CurveName.of(row.getValue(REFERENCE_HEADER));
+      CurveName resolvedCurveName = resolver.checkCurveName(reference);
+      for (Entry<String, CurveSensitivitiesType> entry : types.entrySet()) {
+        CurveSensitivitiesType type = entry.getValue();
+        String valueStr = row.getField(entry.getKey());
+        Currency currency = parseCurrency(row, reference);
+        if (!valueStr.isEmpty()) {
+          double value = LoaderUtils.parseDouble(valueStr);
+          consumer.accept(type, resolvedCurveName, currency, metadata, value);
         }
       }
-      CurveSensitivities sens = builder.build();
-      if (!sens.getTypedSensitivities().isEmpty()) {
-        parsed.put(sens.getId().map(Object::toString).orElse(""), sens);
-      }
-    }
+    };
   }
 
   //-------------------------------------------------------------------------
-  // parses the file in grid format
-  private void parseGridFormat(
-      CsvIterator csv,
-      ListMultimap<String, CurveSensitivities> parsed,
-      List<FailureItem> failures) {
-
+  // creates the row parser for grid format
+  private RowParser gridRowParser(List<String> headers) {
     // find the applicable reference columns
     Map<String, CurveName> references = new LinkedHashMap<>();
-    for (String header : csv.headers()) {
+    for (String header : headers) {
       String headerLowerCase = header.toLowerCase(Locale.ENGLISH);
       if (!REF_HEADERS.contains(headerLowerCase) && !resolver.isInfoColumn(headerLowerCase)) {
         references.put(header, CurveName.of(header));
       }
     }
 
-    // loop around all rows, peeking to match batches with the same identifier
-    // no exception catch at this level to avoid infinite loops
-    while (csv.hasNext()) {
-      CsvRow peekedRow = csv.peek();
-      PortfolioItemInfo info = parseInfo(peekedRow);
-      String id = info.getId().map(StandardId::toString).orElse("");
-
-      // process in batches, where the ID is the same
-      CurveSensitivitiesBuilder builder = CurveSensitivities.builder(info);
-      List<CsvRow> batchRows = csv.nextBatch(r -> matchId(r, id));
-      for (CsvRow batchRow : batchRows) {
-        try {
-          ParameterMetadata metadata = parseMetadata(batchRow, true);
-          CurveSensitivitiesType type = batchRow.findValue(TYPE_HEADER)
-              .map(str -> CurveSensitivitiesType.of(str))
-              .orElse(CurveSensitivitiesType.ZERO_RATE_DELTA);
-          for (Entry<String, CurveName> entry : references.entrySet()) {
-            CurveName reference = entry.getValue();
-            CurveName resolvedCurveName = resolver.checkCurveName(reference);
-            String valueStr = batchRow.getField(entry.getKey());
-            Currency currency = parseCurrency(batchRow, reference);
-            if (!valueStr.isEmpty()) {
-              double value = LoaderUtils.parseDouble(valueStr);
-              builder.add(type, resolvedCurveName, currency, metadata, value);
-            }
-          }
-
-        } catch (IllegalArgumentException ex) {
-          failures.add(FailureItem.of(
-              PARSING, "CSV file could not be parsed at line {}: {}", batchRow.lineNumber(), ex.getMessage()));
+    // parses a row in grid format
+    return (row, consumer) -> {
+      ParameterMetadata metadata = parseMetadata(row, true);
+      CurveSensitivitiesType type = row.findValue(TYPE_HEADER)
+          .map(str -> CurveSensitivitiesType.of(str))
+          .orElse(CurveSensitivitiesType.ZERO_RATE_DELTA);
+      for (Entry<String, CurveName> entry : references.entrySet()) {
+        CurveName reference = entry.getValue();
+        CurveName resolvedCurveName = resolver.checkCurveName(reference);
+        String valueStr = row.getField(entry.getKey());
+        Currency currency = parseCurrency(row, reference);
+        if (!valueStr.isEmpty()) {
+          double value = LoaderUtils.parseDouble(valueStr);
+          consumer.accept(type, resolvedCurveName, currency, metadata, value);
         }
       }
-      CurveSensitivities sens = builder.build();
-      if (!sens.getTypedSensitivities().isEmpty()) {
-        parsed.put(sens.getId().map(Object::toString).orElse(""), sens);
-      }
-    }
+    };
   }
 
   //-------------------------------------------------------------------------
@@ -570,4 +635,22 @@ public final class SensitivityCsvLoader {
     return id.equals(rowId);
   }
 
+  //-------------------------------------------------------------------------
+  // parses a single row, passing each sensitivity value to the consumer
+  @FunctionalInterface
+  private interface RowParser {
+    public abstract void parse(CsvRow row, SensitivityConsumer consumer);
+  }
+
+  // receives a single sensitivity value
+  @FunctionalInterface
+  private interface SensitivityConsumer {
+    public abstract void accept(
+        CurveSensitivitiesType type,
+        CurveName curveName,
+        Currency currency,
+        ParameterMetadata metadata,
+        double value);
+  }
+
 }
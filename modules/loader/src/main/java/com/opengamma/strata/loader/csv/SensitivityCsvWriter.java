@@ -5,14 +5,15 @@
  */
 package com.opengamma.strata.loader.csv;
 
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.opengamma.strata.basics.date.Tenor;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.MapStream;
-import com.opengamma.strata.collect.io.CsvOutput;
+import com.opengamma.strata.collect.io.BufferedCsvOutput;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.param.DatedParameterMetadata;
@@ -66,6 +67,7 @@ public final class SensitivityCsvWriter {
    * <p>
    * The output is written in standard format, with no identifier columns.
    * The parameter metadata must contain tenors.
+   * The appendable is flushed, if it supports it, but not closed.
    *
    * @param curveSens  the curve sensitivities to write
    * @param output  the appendable to write to
@@ -73,39 +75,68 @@ public final class SensitivityCsvWriter {
    * @throws UncheckedIOException if an IO error occurs
    */
   public void write(CurveSensitivities curveSens, Appendable output) {
-    CsvOutput csv = CsvOutput.standard(output, "\n");
+    write(curveSens, BufferedCsvOutput.standard(output, "\n"));
+  }
+
+  /**
+   * Write sensitivities to an output stream in the standard sensitivities format.
+   * <p>
+   * The output is written in standard format, with no identifier columns.
+   * The parameter metadata must contain tenors.
+   * The output is encoded using UTF-8. The stream is flushed but not closed.
+   *
+   * @param curveSens  the curve sensitivities to write
+   * @param output  the output stream to write to
+   * @throws IllegalArgumentException if the metadata does not contain tenors
+   * @throws UncheckedIOException if an IO error occurs
+   */
+  public void write(CurveSensitivities curveSens, OutputStream output) {
+    write(curveSens, BufferedCsvOutput.standard(output, "\n"));
+  }
+
+  // writes the sensitivities, flushing the output
+  private void write(CurveSensitivities curveSens, BufferedCsvOutput csv) {
     List<String> additionalHeaders = supplier.headers(curveSens);
+    boolean containsDates = containsDates(curveSens);
+    csv.writeLine(headers(containsDates, additionalHeaders));
 
-    // check for dates
+    // content, grouped by reference, then type
+    MapStream.of(curveSens.getTypedSensitivities())
+        .flatMapValues(sens -> sens.getSensitivities().stream())
+        .mapKeys((type, sens) -> Pair.of(sens.getMarketDataName().getName(), type))
+        .sortedKeys()
+        .forEach((pair, paramSens) -> write(
+            pair.getFirst(), pair.getSecond(), curveSens, paramSens, additionalHeaders, containsDates, csv));
+    csv.flush();
+  }
+
+  // checks the metadata contains tenors, returning true if it also contains dates
+  private static boolean containsDates(CurveSensitivities curveSens) {
     if (curveSens.getTypedSensitivities().values().stream()
         .flatMap(allParamSens -> allParamSens.getSensitivities().stream())
         .flatMap(paramSens -> paramSens.getParameterMetadata().stream())
         .anyMatch(pmd -> !(pmd instanceof TenoredParameterMetadata))) {
       throw new IllegalArgumentException("Parameter metadata must contain tenors");
     }
-    boolean containsDates = curveSens.getTypedSensitivities().values().stream()
+    return curveSens.getTypedSensitivities().values().stream()
         .flatMap(allParamSens -> allParamSens.getSensitivities().stream())
         .flatMap(paramSens -> paramSens.getParameterMetadata().stream())
         .anyMatch(pmd -> pmd instanceof DatedParameterMetadata);
+  }
 
-    // headers
-    csv.writeCell(SensitivityCsvLoader.REFERENCE_HEADER);
-    csv.writeCell(SensitivityCsvLoader.TYPE_HEADER);
-    csv.writeCell(SensitivityCsvLoader.TENOR_HEADER);
+  // the header line
+  private static List<String> headers(boolean containsDates, List<String> additionalHeaders) {
+    List<String> headers = new ArrayList<>();
+    headers.add(SensitivityCsvLoader.REFERENCE_HEADER);
+    headers.add(SensitivityCsvLoader.TYPE_HEADER);
+    headers.add(SensitivityCsvLoader.TENOR_HEADER);
     if (containsDates) {
-      csv.writeCell(SensitivityCsvLoader.DATE_HEADER);
+      headers.add(SensitivityCsvLoader.DATE_HEADER);
     }
-    csv.writeCell(SensitivityCsvLoader.CURRENCY_HEADER);
-    csv.writeCell(SensitivityCsvLoader.VALUE_HEADER);
-    csv.writeLine(additionalHeaders);
-
-    // content, grouped by reference, then type
-    MapStream.of(curveSens.getTypedSensitivities())
-        .flatMapValues(sens -> sens.getSensitivities().stream())
-        .mapKeys((type, sens) -> Pair.of(sens.getMarketDataName().getName(), type))
-        .sortedKeys()
-        .forEach((pair, paramSens) -> write(
-            pair.getFirst(), pair.getSecond(), curveSens, paramSens, additionalHeaders, containsDates, csv));
+    headers.add(SensitivityCsvLoader.CURRENCY_HEADER);
+    headers.add(SensitivityCsvLoader.VALUE_HEADER);
+    headers.addAll(additionalHeaders);
+    return headers;
   }
 
   // writes the rows for a single CurrencyParameterSensitivity
@@ -116,7 +147,7 @@ public final class SensitivityCsvWriter {
       CurrencyParameterSensitivity paramSens,
       List<String> additionalHeaders,
       boolean containsDates,
-      CsvOutput csv) {
+      BufferedCsvOutput csv) {
 
     List<String> additionalCells = supplier.values(additionalHeaders, curveSens, paramSens);
     for (int i = 0; i < paramSens.getParameterCount(); i++) {
@@ -130,7 +161,7 @@ public final class SensitivityCsvWriter {
         csv.writeCell(pmd instanceof DatedParameterMetadata ? ((DatedParameterMetadata) pmd).getDate().toString() : "");
       }
       csv.writeCell(paramSens.getCurrency().getCode());
-      csv.writeCell(BigDecimal.valueOf(value).toPlainString());
+      csv.writeCell(value);
       csv.writeLine(additionalCells);
     }
   }
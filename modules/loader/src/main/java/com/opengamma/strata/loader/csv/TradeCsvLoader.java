@@ -9,11 +9,20 @@ import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
 import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.CharSource;
@@ -230,6 +239,11 @@ public final class TradeCsvLoader {
   private static final String TRADE_ZONE_FIELD = "Trade Zone";
   private static final String SETTLEMENT_DATE_FIELD = "Settlement Date";
 
+  /**
+   * The default number of trades in each parsed batch.
+   */
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+
   /**
    * The resolver, providing additional information.
    */
@@ -394,6 +408,104 @@ public final class TradeCsvLoader {
     }
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Loads a CSV format trade file as a stream.
+   * <p>
+   * The trades are parsed lazily as the stream is consumed, so the file is never held in memory.
+   * Parsing failures are passed to the failure consumer instead of being returned.
+   * The stream should be closed, such as by using try-with-resources, to release the file
+   * if it is not fully consumed.
+   * <p>
+   * CSV files sometimes contain a Unicode Byte Order Mark.
+   * This method uses {@link UnicodeBom} to interpret it.
+   *
+   * @param resource  the CSV resource
+   * @param failureConsumer  the consumer of the failures
+   * @return the stream of loaded trades
+   */
+  public Stream<Trade> loadStream(ResourceLocator resource, Consumer<FailureItem> failureConsumer) {
+    return parseStream(UnicodeBom.toCharSource(resource.getByteSource()), failureConsumer);
+  }
+
+  /**
+   * Parses a CSV format trade file as a stream.
+   * <p>
+   * The trades are parsed lazily as the stream is consumed, so the file is never held in memory.
+   * Parsing failures are passed to the failure consumer instead of being returned.
+   * The stream should be closed, such as by using try-with-resources, to release the file
+   * if it is not fully consumed.
+   * <p>
+   * CSV files sometimes contain a Unicode Byte Order Mark.
+   * Callers are responsible for handling this, such as by using {@link UnicodeBom}.
+   *
+   * @param charSource  the CSV character source
+   * @param failureConsumer  the consumer of the failures
+   * @return the stream of loaded trades
+   */
+  public Stream<Trade> parseStream(CharSource charSource, Consumer<FailureItem> failureConsumer) {
+    return parseBatches(charSource, Trade.class, DEFAULT_BATCH_SIZE, 1, failureConsumer).flatMap(List::stream);
+  }
+
+  /**
+   * Parses a CSV format trade file as a stream of batches, parsing the batches in parallel.
+   * <p>
+   * The rows of the file are read sequentially and grouped into batches of {@code batchSize} trades,
+   * keeping the variable rows of a swap in the same batch as the swap.
+   * Up to {@code parallelism} batches are then parsed concurrently, and the batches are returned in file order.
+   * At most {@code parallelism} batches are held in memory at any time.
+   * <p>
+   * A type is specified to filter the trades. Trades that do not match the type are silently dropped.
+   * Parsing failures are passed to the failure consumer in file order, on the thread consuming the stream.
+   * The stream should be closed, such as by using try-with-resources, to release the file
+   * if it is not fully consumed.
+   * <p>
+   * Each batch is a list of trades suitable for building calculation tasks, allowing
+   * large files to be processed without holding all the trades in memory.
+   * <p>
+   * CSV files sometimes contain a Unicode Byte Order Mark.
+   * Callers are responsible for handling this, such as by using {@link UnicodeBom}.
+   *
+   * @param <T>  the trade type
+   * @param charSource  the CSV character source
+   * @param tradeType  the trade type to return
+   * @param batchSize  the number of trades, before filtering, in each batch
+   * @param parallelism  the number of batches parsed concurrently
+   * @param failureConsumer  the consumer of the failures
+   * @return the stream of batches of loaded trades
+   */
+  public <T extends Trade> Stream<List<T>> parseBatches(
+      CharSource charSource,
+      Class<T> tradeType,
+      int batchSize,
+      int parallelism,
+      Consumer<FailureItem> failureConsumer) {
+
+    ArgChecker.notNull(charSource, "charSource");
+    ArgChecker.notNull(tradeType, "tradeType");
+    ArgChecker.notNegativeOrZero(batchSize, "batchSize");
+    ArgChecker.notNegativeOrZero(parallelism, "parallelism");
+    ArgChecker.notNull(failureConsumer, "failureConsumer");
+    CsvIterator csv;
+    try {
+      csv = CsvIterator.of(charSource, true);
+    } catch (RuntimeException ex) {
+      failureConsumer.accept(FailureItem.of(
+          FailureReason.PARSING, ex, "CSV file could not be parsed: {exceptionMessage}: {}", ex.getMessage(), charSource));
+      return Stream.empty();
+    }
+    if (!csv.headers().contains(TYPE_FIELD)) {
+      csv.close();
+      failureConsumer.accept(FailureItem.of(
+          FailureReason.PARSING, "CSV file does not contain '{header}' header: {}", TYPE_FIELD, charSource));
+      return Stream.empty();
+    }
+    BatchIterator<T> iterator = new BatchIterator<>(csv, charSource, tradeType, batchSize, parallelism, failureConsumer);
+    Spliterator<List<T>> spliterator =
+        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(csv::close);
+  }
+
   // loads a single CSV file, filtering by trade type
   private <T extends Trade> ValueWithFailures<List<T>> parseFile(CharSource charSource, Class<T> tradeType) {
     try (CsvIterator csv = CsvIterator.of(charSource, true)) {
@@ -417,77 +529,103 @@ public final class TradeCsvLoader {
     List<T> trades = new ArrayList<>();
     List<FailureItem> failures = new ArrayList<>();
     while (csv.hasNext()) {
-      CsvRow row = csv.next();
-      try {
-        String typeRaw = row.getField(TYPE_FIELD);
-        TradeInfo info = parseTradeInfo(row);
-        switch (typeRaw.toUpperCase(Locale.ENGLISH)) {
-          case "FRA":
-            if (tradeType == FraTrade.class || tradeType == Trade.class) {
-              trades.add(tradeType.cast(FraTradeCsvLoader.parse(row, info, resolver)));
-            }
-            break;
-          case "SECURITY":
-            if (tradeType == SecurityTrade.class || tradeType == GenericSecurityTrade.class ||
-                tradeType == ResolvableSecurityTrade.class || tradeType == Trade.class) {
-              SecurityQuantityTrade parsed = SecurityCsvLoader.parseTrade(row, info, resolver);
-              if (tradeType.isInstance(parsed)) {
-                trades.add(tradeType.cast(parsed));
-              }
-            }
-            break;
-          case "SWAP":
-            if (tradeType == SwapTrade.class || tradeType == Trade.class) {
-              List<CsvRow> variableRows = new ArrayList<>();
-              while (csv.hasNext() && csv.peek().getField(TYPE_FIELD).toUpperCase(Locale.ENGLISH).equals("VARIABLE")) {
-                variableRows.add(csv.next());
-              }
-              trades.add(tradeType.cast(SwapTradeCsvLoader.parse(row, variableRows, info, resolver)));
-            }
-            break;
-          case "TERMDEPOSIT":
-          case "TERM DEPOSIT":
-            if (tradeType == TermDepositTrade.class || tradeType == Trade.class) {
-              trades.add(tradeType.cast(TermDepositTradeCsvLoader.parse(row, info, resolver)));
-            }
-            break;
-          case "VARIABLE":
-            failures.add(FailureItem.of(
-                FailureReason.PARSING,
-                "CSV file contained a 'Variable' type at line {lineNumber} that was not preceeded by a 'Swap'",
-                row.lineNumber()));
-            break;
-          case "FX":
-          case "FXSINGLE":
-          case "FX SINGLE":
-            if (tradeType == FxSingleTrade.class || tradeType == FxTrade.class || tradeType == Trade.class) {
-              trades.add(tradeType.cast(FxSingleTradeCsvLoader.parse(row, info, resolver)));
-            }
-            break;
-          case "FXSWAP":
-          case "FX SWAP":
-            if (tradeType == FxSwapTrade.class || tradeType == FxTrade.class || tradeType == Trade.class) {
-              trades.add(tradeType.cast(FxSwapTradeCsvLoader.parse(row, info, resolver)));
+      parseRows(nextRows(csv, tradeType), tradeType, trades, failures);
+    }
+    return ValueWithFailures.of(trades, failures);
+  }
+
+  // reads the next row, together with the variable rows that follow a swap
+  private static List<CsvRow> nextRows(CsvIterator csv, Class<?> tradeType) {
+    CsvRow row = csv.next();
+    if (!isType(row, "SWAP") || (tradeType != SwapTrade.class && tradeType != Trade.class)) {
+      return ImmutableList.of(row);
+    }
+    List<CsvRow> rows = new ArrayList<>();
+    rows.add(row);
+    while (csv.hasNext() && isType(csv.peek(), "VARIABLE")) {
+      rows.add(csv.next());
+    }
+    return rows;
+  }
+
+  // checks the trade type of a row
+  private static boolean isType(CsvRow row, String type) {
+    return row.findField(TYPE_FIELD).map(t -> t.toUpperCase(Locale.ENGLISH).equals(type)).orElse(false);
+  }
+
+  // parses a row, together with its variable rows
+  private <T extends Trade> void parseRows(
+      List<CsvRow> rows,
+      Class<T> tradeType,
+      List<T> trades,
+      List<FailureItem> failures) {
+
+    CsvRow row = rows.get(0);
+    List<CsvRow> variableRows = rows.subList(1, rows.size());
+    try {
+      String typeRaw = row.getField(TYPE_FIELD);
+      TradeInfo info = parseTradeInfo(row);
+      switch (typeRaw.toUpperCase(Locale.ENGLISH)) {
+        case "FRA":
+          if (tradeType == FraTrade.class || tradeType == Trade.class) {
+            trades.add(tradeType.cast(FraTradeCsvLoader.parse(row, info, resolver)));
+          }
+          break;
+        case "SECURITY":
+          if (tradeType == SecurityTrade.class || tradeType == GenericSecurityTrade.class ||
+              tradeType == ResolvableSecurityTrade.class || tradeType == Trade.class) {
+            SecurityQuantityTrade parsed = SecurityCsvLoader.parseTrade(row, info, resolver);
+            if (tradeType.isInstance(parsed)) {
+              trades.add(tradeType.cast(parsed));
             }
-            break;
-          default:
-            failures.add(FailureItem.of(
-                FailureReason.PARSING,
-                "CSV file trade type '{tradeType}' is not known at line {lineNumber}",
-                typeRaw,
-                row.lineNumber()));
-            break;
-        }
-      } catch (RuntimeException ex) {
-        failures.add(FailureItem.of(
-            FailureReason.PARSING,
-            ex,
-            "CSV file trade could not be parsed at line {lineNumber}: {exceptionMessage}",
-            row.lineNumber(),
-            ex.getMessage()));
+          }
+          break;
+        case "SWAP":
+          if (tradeType == SwapTrade.class || tradeType == Trade.class) {
+            trades.add(tradeType.cast(SwapTradeCsvLoader.parse(row, variableRows, info, resolver)));
+          }
+          break;
+        case "TERMDEPOSIT":
+        case "TERM DEPOSIT":
+          if (tradeType == TermDepositTrade.class || tradeType == Trade.class) {
+            trades.add(tradeType.cast(TermDepositTradeCsvLoader.parse(row, info, resolver)));
+          }
+          break;
+        case "VARIABLE":
+          failures.add(FailureItem.of(
+              FailureReason.PARSING,
+              "CSV file contained a 'Variable' type at line {lineNumber} that was not preceeded by a 'Swap'",
+              row.lineNumber()));
+          break;
+        case "FX":
+        case "FXSINGLE":
+        case "FX SINGLE":
+          if (tradeType == FxSingleTrade.class || tradeType == FxTrade.class || tradeType == Trade.class) {
+            trades.add(tradeType.cast(FxSingleTradeCsvLoader.parse(row, info, resolver)));
+          }
+          break;
+        case "FXSWAP":
+        case "FX SWAP":
+          if (tradeType == FxSwapTrade.class || tradeType == FxTrade.class || tradeType == Trade.class) {
+            trades.add(tradeType.cast(FxSwapTradeCsvLoader.parse(row, info, resolver)));
+          }
+          break;
+        default:
+          failures.add(FailureItem.of(
+              FailureReason.PARSING,
+              "CSV file trade type '{tradeType}' is not known at line {lineNumber}",
+              typeRaw,
+              row.lineNumber()));
+          break;
       }
+    } catch (RuntimeException ex) {
+      failures.add(FailureItem.of(
+          FailureReason.PARSING,
+          ex,
+          "CSV file trade could not be parsed at line {lineNumber}: {exceptionMessage}",
+          row.lineNumber(),
+          ex.getMessage()));
     }
-    return ValueWithFailures.of(trades, failures);
   }
 
   // parse the trade info
@@ -505,4 +643,87 @@ public final class TradeCsvLoader {
     return infoBuilder.build();
   }
 
+  //-------------------------------------------------------------------------
+  // reads batches of rows sequentially and parses a window of batches in parallel
+  private final class BatchIterator<T extends Trade> implements Iterator<List<T>> {
+    private final CsvIterator csv;
+    private final CharSource charSource;
+    private final Class<T> tradeType;
+    private final int batchSize;
+    private final int parallelism;
+    private final Consumer<FailureItem> failureConsumer;
+    private final Deque<List<T>> parsed = new ArrayDeque<>();
+
+    private BatchIterator(
+        CsvIterator csv,
+        CharSource charSource,
+        Class<T> tradeType,
+        int batchSize,
+        int parallelism,
+        Consumer<FailureItem> failureConsumer) {
+
+      this.csv = csv;
+      this.charSource = charSource;
+      this.tradeType = tradeType;
+      this.batchSize = batchSize;
+      this.parallelism = parallelism;
+      this.failureConsumer = failureConsumer;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (parsed.isEmpty()) {
+        parseWindow();
+      }
+      return !parsed.isEmpty();
+    }
+
+    @Override
+    public List<T> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("No more trades");
+      }
+      return parsed.removeFirst();
+    }
+
+    // reads and parses the next window of batches, closing the file at the end
+    private void parseWindow() {
+      List<List<List<CsvRow>>> batches = new ArrayList<>();
+      try {
+        while (batches.size() < parallelism && csv.hasNext()) {
+          List<List<CsvRow>> batch = new ArrayList<>(batchSize);
+          while (batch.size() < batchSize && csv.hasNext()) {
+            batch.add(nextRows(csv, tradeType));
+          }
+          batches.add(batch);
+        }
+      } catch (RuntimeException ex) {
+        failureConsumer.accept(FailureItem.of(
+            FailureReason.PARSING, ex, "CSV file could not be parsed: {exceptionMessage}: {}", ex.getMessage(), charSource));
+        csv.close();
+        return;
+      }
+      if (batches.isEmpty()) {
+        csv.close();
+        return;
+      }
+      Stream<List<List<CsvRow>>> stream = batches.size() > 1 ? batches.parallelStream() : batches.stream();
+      List<ValueWithFailures<List<T>>> results = stream.map(this::parseBatch).collect(toList());
+      for (ValueWithFailures<List<T>> result : results) {
+        result.getFailures().forEach(failureConsumer);
+        parsed.addLast(result.getValue());
+      }
+    }
+
+    // parses a batch of rows
+    private ValueWithFailures<List<T>> parseBatch(List<List<CsvRow>> batch) {
+      List<T> trades = new ArrayList<>(batch.size());
+      List<FailureItem> failures = new ArrayList<>();
+      for (List<CsvRow> rows : batch) {
+        parseRows(rows, tradeType, trades, failures);
+      }
+      return ValueWithFailures.of(trades, failures);
+    }
+  }
+
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.loader.fpml;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Statistics describing the parsing of a batch of FpML documents.
+ * <p>
+ * This is produced when parsing FpML documents in parallel using {@link FpmlDocumentParser}
+ * and can be used to monitor the throughput of trade ingestion.
+ */
+@BeanDefinition(style = "light")
+public final class FpmlBatchStatistics
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The number of documents that were parsed.
+   * <p>
+   * This includes documents that failed to parse.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int documentCount;
+  /**
+   * The number of trades that were parsed successfully.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int tradeCount;
+  /**
+   * The number of documents that failed to parse.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int failureCount;
+  /**
+   * The elapsed time taken to parse the batch.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Duration elapsed;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the counts and elapsed time.
+   *
+   * @param documentCount  the number of documents that were parsed
+   * @param tradeCount  the number of trades that were parsed successfully
+   * @param failureCount  the number of documents that failed to parse
+   * @param elapsed  the elapsed time taken to parse the batch
+   * @return the statistics
+   */
+  public static FpmlBatchStatistics of(int documentCount, int tradeCount, int failureCount, Duration elapsed) {
+    return new FpmlBatchStatistics(documentCount, tradeCount, failureCount, elapsed);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of documents parsed per second.
+   * <p>
+   * Zero is returned if the elapsed time is zero.
+   *
+   * @return the number of documents per second
+   */
+  public double getDocumentsPerSecond() {
+    return perSecond(documentCount);
+  }
+
+  /**
+   * Gets the number of trades parsed per second.
+   * <p>
+   * Zero is returned if the elapsed time is zero.
+   *
+   * @return the number of trades per second
+   */
+  public double getTradesPerSecond() {
+    return perSecond(tradeCount);
+  }
+
+  // calculates a rate per second
+  private double perSecond(int count) {
+    long nanos = elapsed.toNanos();
+    return nanos == 0 ? 0d : count * 1e9 / nanos;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code FpmlBatchStatistics}.
+   */
+  private static final TypedMetaBean<FpmlBatchStatistics> META_BEAN =
+      LightMetaBean.of(
+          FpmlBatchStatistics.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "documentCount",
+              "tradeCount",
+              "failureCount",
+              "elapsed"},
+          new Object[0]);
+
+  /**
+   * The meta-bean for {@code FpmlBatchStatistics}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<FpmlBatchStatistics> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private FpmlBatchStatistics(
+      int documentCount,
+      int tradeCount,
+      int failureCount,
+      Duration elapsed) {
+    ArgChecker.notNegative(documentCount, "documentCount");
+    ArgChecker.notNegative(tradeCount, "tradeCount");
+    ArgChecker.notNegative(failureCount, "failureCount");
+    JodaBeanUtils.notNull(elapsed, "elapsed");
+    this.documentCount = documentCount;
+    this.tradeCount = tradeCount;
+    this.failureCount = failureCount;
+    this.elapsed = elapsed;
+  }
+
+  @Override
+  public TypedMetaBean<FpmlBatchStatistics> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of documents that were parsed.
+   * <p>
+   * This includes documents that failed to parse.
+   * @return the value of the property
+   */
+  public int getDocumentCount() {
+    return documentCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of trades that were parsed successfully.
+   * @return the value of the property
+   */
+  public int getTradeCount() {
+    return tradeCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of documents that failed to parse.
+   * @return the value of the property
+   */
+  public int getFailureCount() {
+    return failureCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the elapsed time taken to parse the batch.
+   * @return the value of the property, not null
+   */
+  public Duration getElapsed() {
+    return elapsed;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      FpmlBatchStatistics other = (FpmlBatchStatistics) obj;
+      return (documentCount == other.documentCount) &&
+          (tradeCount == other.tradeCount) &&
+          (failureCount == other.failureCount) &&
+          JodaBeanUtils.equal(elapsed, other.elapsed);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(documentCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(tradeCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(failureCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(elapsed);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(160);
+    buf.append("FpmlBatchStatistics{");
+    buf.append("documentCount").append('=').append(documentCount).append(',').append(' ');
+    buf.append("tradeCount").append('=').append(tradeCount).append(',').append(' ');
+    buf.append("failureCount").append('=').append(failureCount).append(',').append(' ');
+    buf.append("elapsed").append('=').append(JodaBeanUtils.toString(elapsed));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -13,6 +13,7 @@ import java.time.Period;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -218,6 +219,32 @@ public final class FpmlDocument {
     this.refData = refData;
   }
 
+  // creates an instance with additional references, without parsing the parties again
+  private FpmlDocument(FpmlDocument base, Map<String, XmlElement> additionalReferences) {
+    Map<String, XmlElement> references = new HashMap<>(base.references);
+    references.putAll(additionalReferences);
+    this.fpmlRoot = base.fpmlRoot;
+    this.references = ImmutableMap.copyOf(references);
+    this.parties = base.parties;
+    this.ourPartyHrefIds = base.ourPartyHrefIds;
+    this.tradeInfoParser = base.tradeInfoParser;
+    this.refData = base.refData;
+  }
+
+  /**
+   * Returns a copy of this document with additional references.
+   * <p>
+   * This is used when the trades are parsed one at a time, with the references found within each trade.
+   * The parties and "our" party are not resolved again.
+   * If a reference is already present, the additional reference replaces it.
+   * 
+   * @param additionalReferences  the map of id/href to referenced element to add
+   * @return the document with the additional references
+   */
+  public FpmlDocument withReferences(Map<String, XmlElement> additionalReferences) {
+    return new FpmlDocument(this, additionalReferences);
+  }
+
   // parse all the root-level party elements
   private static ImmutableListMultimap<String, String> parseParties(XmlElement root) {
     ListMultimap<String, String> parties = ArrayListMultimap.create();
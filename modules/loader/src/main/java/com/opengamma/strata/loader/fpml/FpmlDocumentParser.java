@@ -6,20 +6,42 @@
 package com.opengamma.strata.loader.fpml;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
+import static java.util.stream.Collectors.toList;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.io.ByteSource;
+import com.google.common.io.MoreFiles;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.io.XmlElement;
 import com.opengamma.strata.collect.io.XmlFile;
 import com.opengamma.strata.collect.named.ExtendedEnum;
+import com.opengamma.strata.collect.result.FailureItem;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.ValueWithFailures;
 import com.opengamma.strata.product.Trade;
 
 /**
@@ -34,6 +56,7 @@ import com.opengamma.strata.product.Trade;
 public final class FpmlDocumentParser {
   // Notes: Streaming trades directly from the file is difficult due to the
   // need to parse the party element at the root, which is after the trades
+  // as such, streamTrades() reads the source twice, once for the parties and once for the trades
 
   /**
    * The lookup of trade parsers.
@@ -170,7 +193,7 @@ public final class FpmlDocumentParser {
 
     this.ourPartySelector = ourPartySelector;
     this.tradeInfoParser = tradeInfoParser;
-    this.tradeParsers = tradeParsers;
+    this.tradeParsers = ImmutableMap.copyOf(tradeParsers);
     this.refData = refData;
   }
 
@@ -194,6 +217,197 @@ public final class FpmlDocumentParser {
     return parseTrades(root, xmlFile.getReferences());
   }
 
+  /**
+   * Parses FpML from the specified source, streaming the trades.
+   * <p>
+   * This parses the specified byte source which must be an XML document.
+   * Unlike {@link #parseTrades(ByteSource)}, the whole document is not held in memory.
+   * Instead, the source is read twice, first to find the {@code <party>} elements
+   * and the attributes of the FpML root element, then to parse each {@code <trade>} element one at a time as the stream is consumed.
+   * This is intended for large documents, such as bulk exports with many trades in one document.
+   * <p>
+   * The references used by a trade are resolved against the elements within the trade element
+   * and the party elements. References to other elements of the document are not supported.
+   * As with {@link #parseTrades(ByteSource)}, the trades and parties may be within a non-FpML wrapper.
+   * <p>
+   * The stream is lazy, and must be closed to release the underlying input stream
+   * if it is not fully consumed.
+   * 
+   * @param source  the source of the FpML XML document
+   * @return the stream of parsed trades
+   * @throws RuntimeException if a parse error occurred
+   */
+  public Stream<Trade> streamTrades(ByteSource source) {
+    // first pass, capture the parties and the location of the trades
+    ListMultimap<List<String>, XmlFile> partiesByParent = ArrayListMultimap.create();
+    Set<List<String>> tradeParents = new LinkedHashSet<>();
+    List<List<String>> partyParents = new ArrayList<>();
+    Predicate<List<String>> firstPassFilter = path -> {
+      String name = path.get(path.size() - 1);
+      List<String> parent = ImmutableList.copyOf(path.subList(0, path.size() - 1));
+      if (name.equals("trade")) {
+        tradeParents.add(parent);
+      } else if (name.equals("party")) {
+        partyParents.add(parent);
+        return true;
+      }
+      return false;
+    };
+    // the attributes of the possible FpML root elements, the first element found for each path
+    Map<List<String>, ImmutableMap<String, String>> rootAttributes = new HashMap<>();
+    try (Stream<XmlFile> parties = XmlFile.streamElements(
+        source, FpmlDocument.ID, firstPassFilter, 3, rootAttributes::putIfAbsent)) {
+      Iterator<XmlFile> it = parties.iterator();
+      for (int i = 0; it.hasNext(); i++) {
+        partiesByParent.put(partyParents.get(i), it.next());
+      }
+    }
+    // find the FpML root using the same rules as the in-memory parser
+    List<String> rootPath = null;
+    List<String> tradeParent = null;
+    List<List<String>> candidates = new ArrayList<>(partiesByParent.keySet());
+    candidates.sort(Comparator.comparingInt(List::size));
+    for (List<String> candidate : candidates) {
+      tradeParent = findTradeParent(candidate, tradeParents);
+      if (tradeParent != null && candidate.size() <= 3) {
+        rootPath = candidate;
+        break;
+      }
+    }
+    if (rootPath == null) {
+      throw new FpmlParseException("Unable to find FpML root element");
+    }
+    List<XmlElement> partyEls = new ArrayList<>();
+    Map<String, XmlElement> partyRefs = new HashMap<>();
+    for (XmlFile party : partiesByParent.get(rootPath)) {
+      partyEls.add(party.getRoot());
+      partyRefs.putAll(party.getReferences());
+    }
+    XmlElement partiesRoot = XmlElement.ofChildren(
+        rootPath.get(rootPath.size() - 1), rootAttributes.get(rootPath), partyEls);
+    FpmlDocument document = new FpmlDocument(partiesRoot, partyRefs, ourPartySelector, tradeInfoParser, refData);
+
+    // second pass, parse each trade
+    List<String> tradeParentPath = tradeParent;
+    Predicate<List<String>> secondPassFilter = path -> path.size() == tradeParentPath.size() + 1 &&
+        path.get(path.size() - 1).equals("trade") &&
+        path.subList(0, path.size() - 1).equals(tradeParentPath);
+    return XmlFile.streamElements(source, FpmlDocument.ID, secondPassFilter)
+        .map(file -> parseTrade(document.withReferences(file.getReferences()), file.getRoot()));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Loads FpML from the XML files in the specified directory, parsing the documents in parallel.
+   * <p>
+   * Each file with the extension '.xml' in the directory is parsed, see
+   * {@link #parseTradesInParallel(Collection, Consumer)} for more details.
+   * Sub-directories are not searched.
+   * 
+   * @param directory  the directory containing the FpML XML documents
+   * @param statisticsConsumer  the consumer of the statistics of the batch
+   * @return the parsed trades, with a failure for each document that could not be parsed
+   * @throws UncheckedIOException if the directory cannot be read
+   */
+  public ValueWithFailures<List<Trade>> loadTradesInParallel(
+      Path directory,
+      Consumer<FpmlBatchStatistics> statisticsConsumer) {
+
+    ArgChecker.notNull(directory, "directory");
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.xml")) {
+      stream.forEach(files::add);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    List<ByteSource> sources = files.stream()
+        .sorted()
+        .map(file -> MoreFiles.asByteSource(file))
+        .collect(toList());
+    return parseTradesInParallel(sources, statisticsConsumer);
+  }
+
+  /**
+   * Parses FpML from the specified sources, parsing the documents in parallel.
+   * <p>
+   * This is intended for parsing a large number of small documents, such as daily confirmations.
+   * Each source must be an XML document, parsed as per {@link #parseTrades(ByteSource)}.
+   * The parser state, including the trade parsers and reference data, is shared by all documents.
+   * <p>
+   * The trades are returned in the order of the sources.
+   * A document that cannot be parsed does not prevent the others from being parsed.
+   * Instead, a failure is returned for the document.
+   * 
+   * @param sources  the sources of the FpML XML documents
+   * @return the parsed trades, with a failure for each document that could not be parsed
+   */
+  public ValueWithFailures<List<Trade>> parseTradesInParallel(Collection<ByteSource> sources) {
+    return parseTradesInParallel(sources, statistics -> { });
+  }
+
+  /**
+   * Parses FpML from the specified sources, parsing the documents in parallel and reporting statistics.
+   * <p>
+   * This is intended for parsing a large number of small documents, such as daily confirmations.
+   * Each source must be an XML document, parsed as per {@link #parseTrades(ByteSource)}.
+   * The parser state, including the trade parsers and reference data, is shared by all documents.
+   * <p>
+   * The trades are returned in the order of the sources.
+   * A document that cannot be parsed does not prevent the others from being parsed.
+   * Instead, a failure is returned for the document.
+   * <p>
+   * Once the batch is complete, the statistics, such as the number of trades per second,
+   * are passed to the consumer.
+   * 
+   * @param sources  the sources of the FpML XML documents
+   * @param statisticsConsumer  the consumer of the statistics of the batch
+   * @return the parsed trades, with a failure for each document that could not be parsed
+   */
+  public ValueWithFailures<List<Trade>> parseTradesInParallel(
+      Collection<ByteSource> sources,
+      Consumer<FpmlBatchStatistics> statisticsConsumer) {
+
+    ArgChecker.notNull(sources, "sources");
+    ArgChecker.notNull(statisticsConsumer, "statisticsConsumer");
+    long start = System.nanoTime();
+    List<ValueWithFailures<List<Trade>>> parsed = sources.parallelStream()
+        .map(this::parseDocument)
+        .collect(toList());
+    ImmutableList.Builder<Trade> trades = ImmutableList.builder();
+    List<FailureItem> failures = new ArrayList<>();
+    for (ValueWithFailures<List<Trade>> document : parsed) {
+      trades.addAll(document.getValue());
+      failures.addAll(document.getFailures());
+    }
+    ValueWithFailures<List<Trade>> result = ValueWithFailures.of(trades.build(), failures);
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+    statisticsConsumer.accept(
+        FpmlBatchStatistics.of(parsed.size(), result.getValue().size(), failures.size(), elapsed));
+    return result;
+  }
+
+  // parses a single document, capturing the failure
+  private ValueWithFailures<List<Trade>> parseDocument(ByteSource source) {
+    try {
+      return ValueWithFailures.of(parseTrades(source));
+    } catch (RuntimeException ex) {
+      return ValueWithFailures.of(ImmutableList.of(), FailureItem.of(
+          FailureReason.PARSING, ex, "FpML file could not be parsed: {exceptionMessage}: {}", ex.getMessage(), source));
+    }
+  }
+
+  // finds the parent of the trades, which is the root or a child or grandchild of the root
+  private static List<String> findTradeParent(List<String> rootPath, Set<List<String>> tradeParents) {
+    for (int depth = 0; depth <= 2; depth++) {
+      for (List<String> tradeParent : tradeParents) {
+        if (tradeParent.size() == rootPath.size() + depth && tradeParent.subList(0, rootPath.size()).equals(rootPath)) {
+          return tradeParent;
+        }
+      }
+    }
+    return null;
+  }
+
   // intelligently finds the FpML root element
   private static XmlElement findFpmlRoot(XmlElement root) {
     XmlElement fpmlRoot = getFpmlRoot(root);
@@ -281,11 +495,11 @@ public final class FpmlDocumentParser {
 
   // parses one trade element
   private Trade parseTrade(FpmlDocument document, XmlElement tradeEl) {
-    // find which trade type it is by comparing children to known parsers
-    for (Entry<String, FpmlParserPlugin> entry : tradeParsers.entrySet()) {
-      Optional<XmlElement> productOptEl = tradeEl.findChild(entry.getKey());
-      if (productOptEl.isPresent()) {
-        return entry.getValue().parseTrade(document, tradeEl);
+    // find which trade type it is by looking up the children in the known parsers
+    for (XmlElement child : tradeEl.getChildren()) {
+      FpmlParserPlugin parser = tradeParsers.get(child.getName());
+      if (parser != null) {
+        return parser.parseTrade(document, tradeEl);
       }
     }
     // failed to find a known trade type
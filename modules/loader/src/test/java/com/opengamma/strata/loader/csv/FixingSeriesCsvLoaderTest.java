@@ -17,6 +17,7 @@ import java.util.Map;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.CharSource;
 import com.opengamma.strata.basics.index.IborIndices;
 import com.opengamma.strata.basics.index.PriceIndices;
 import com.opengamma.strata.collect.io.ResourceLocator;
@@ -103,6 +104,40 @@ public class FixingSeriesCsvLoaderTest {
         "Error processing resource as CSV file: .*");
   }
 
+  //-------------------------------------------------------------------------
+  public void test_loadInParallel() {
+    Map<ObservableId, LocalDateDoubleTimeSeries> ts = FixingSeriesCsvLoader.loadInParallel(
+        ImmutableList.of(FIXING_SERIES_1, FIXING_SERIES_2, FIXING_SERIES_PRICE1));
+    assertEquals(ts.size(), 3);
+    assertLibor3mSeries(ts.get(ID_USD_LIBOR_3M));
+    assertLibor6mSeries(ts.get(ID_USD_LIBOR_6M));
+    assertPriceIndexSeries(ts.get(ID_GB_RPI));
+  }
+
+  public void test_loadInParallel_duplicate() {
+    assertThrows(
+        () -> FixingSeriesCsvLoader.loadInParallel(ImmutableList.of(FIXING_SERIES_1, FIXING_SERIES_1)),
+        IllegalArgumentException.class,
+        "Multiple entries with same key: .*");
+  }
+
+  public void test_parse_unsortedAndDuplicate() {
+    CharSource source = CharSource.wrap("" +
+        "Reference,Date,Value\n" +
+        "USD-LIBOR-3M,1971-01-06,0.0638\n" +
+        "USD-LIBOR-3M,1971-01-04,0.07\n" +
+        "USD-LIBOR-3M,1971-01-05,0.0638\n" +
+        "USD-LIBOR-3M,1971-01-04,0.065\n");
+    Map<ObservableId, LocalDateDoubleTimeSeries> ts = FixingSeriesCsvLoader.parseInParallel(ImmutableList.of(source));
+    assertEquals(ts.size(), 1);
+    assertLibor3mSeries(ts.get(ID_USD_LIBOR_3M));
+  }
+
+  public void test_parse_nan() {
+    CharSource source = CharSource.wrap("Reference,Date,Value\nUSD-LIBOR-3M,1971-01-06,NaN\n");
+    assertThrowsIllegalArg(() -> FixingSeriesCsvLoader.parse(ImmutableList.of(source)));
+  }
+
   //-------------------------------------------------------------------------
   private void assertLibor3m6mSeries(Map<ObservableId, LocalDateDoubleTimeSeries> ts) {
     assertEquals(ts.size(), 2);
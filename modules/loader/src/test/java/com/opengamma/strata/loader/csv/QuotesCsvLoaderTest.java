@@ -20,9 +20,12 @@ import org.testng.annotations.Test;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.CharSource;
 import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.market.observable.QuoteId;
+import com.opengamma.strata.market.observable.QuoteMatrix;
 
 /**
  * Test {@link QuotesCsvLoader}.
@@ -102,6 +105,60 @@ public class QuotesCsvLoaderTest {
     assertFile1Date2(map.get(DATE2));
   }
 
+  //-------------------------------------------------------------------------
+  public void test_loadMatrix_file1file2() {
+    QuoteMatrix matrix = QuotesCsvLoader.loadMatrix(ImmutableList.of(QUOTES_2, QUOTES_1));
+    assertEquals(matrix.getDates(), ImmutableList.of(DATE1, DATE2));
+    assertEquals(matrix.getQuoteIds(), ImmutableList.of(FGBL_JUN14, FGBL_MAR14, ED_MAR14));
+    assertEquals(matrix.scenarioArray(FGBL_MAR14).getQuotes(), DoubleArray.of(150.43, 150.5));
+    assertEquals(matrix.scenarioArray(ED_MAR14).getQuotes(), DoubleArray.of(99.62, 99.63));
+    assertEquals(matrix.getValues().get(0, 0), 150.99);
+    assertTrue(Double.isNaN(matrix.getValues().get(1, 0)));
+  }
+
+  public void test_parseMatrix_matchesParse() {
+    ImmutableList<CharSource> sources = ImmutableList.of(QUOTES_1.getCharSource(), QUOTES_2.getCharSource());
+    Map<LocalDate, ImmutableMap<QuoteId, Double>> map = QuotesCsvLoader.parse(d -> d.equals(DATE2), sources);
+    QuoteMatrix matrix = QuotesCsvLoader.parseMatrix(d -> d.equals(DATE2), sources);
+    assertEquals(matrix.getDates(), ImmutableList.of(DATE2));
+    assertEquals(matrix.getQuoteIds().size(), map.get(DATE2).size());
+    for (QuoteId quoteId : matrix.getQuoteIds()) {
+      assertEquals(matrix.scenarioArray(quoteId).get(0), map.get(DATE2).get(quoteId));
+    }
+  }
+
+  public void test_loadMatrix_invalidDuplicate() {
+    assertThrowsIllegalArg(() -> QuotesCsvLoader.loadMatrix(ImmutableList.of(QUOTES_INVALID_DUPLICATE)));
+    assertThrowsIllegalArg(() -> QuotesCsvLoader.loadMatrix(ImmutableList.of(QUOTES_1, QUOTES_1)));
+  }
+
+  public void test_parseMatrix_sameDateDifferentFormats() {
+    CharSource source = CharSource.wrap(
+        "Valuation Date,Symbology,Ticker,Field Name,Value\n" +
+            "2014-01-22,OG-Future,Eurex-FGBL-Mar14,,150.43\n" +
+            "22/01/2014,OG-Future,Eurex-FGBL-Jun14,,150.99\n");
+    QuoteMatrix matrix = QuotesCsvLoader.parseMatrix(d -> true, ImmutableList.of(source));
+    assertEquals(matrix.getDates(), ImmutableList.of(DATE1));
+    assertEquals(matrix.getQuoteIds(), ImmutableList.of(FGBL_MAR14, FGBL_JUN14));
+    assertEquals(matrix.scenarioArray(FGBL_MAR14).getQuotes(), DoubleArray.of(150.43));
+    assertEquals(matrix.scenarioArray(FGBL_JUN14).getQuotes(), DoubleArray.of(150.99));
+  }
+
+  public void test_parseMatrix_invalidDuplicateOfNaN() {
+    CharSource source = CharSource.wrap(
+        "Valuation Date,Symbology,Ticker,Field Name,Value\n" +
+            "2014-01-22,OG-Future,Eurex-FGBL-Mar14,,NaN\n" +
+            "2014-01-22,OG-Future,Eurex-FGBL-Mar14,,150.43\n");
+    assertThrowsIllegalArg(() -> QuotesCsvLoader.parseMatrix(d -> true, ImmutableList.of(source)));
+  }
+
+  public void test_loadMatrix_invalidDate() {
+    assertThrows(
+        () -> QuotesCsvLoader.loadMatrix(ImmutableList.of(QUOTES_INVALID_DATE)),
+        IllegalArgumentException.class,
+        "Error processing resource as CSV file: .*");
+  }
+
   //-------------------------------------------------------------------------
   private void assertFile1Date1(Map<QuoteId, Double> map) {
     assertTrue(map.containsKey(FGBL_MAR14));
@@ -12,6 +12,7 @@ import static com.opengamma.strata.collect.TestHelper.date;
 import static com.opengamma.strata.market.sensitivity.CurveSensitivitiesType.ZERO_RATE_DELTA;
 import static com.opengamma.strata.market.sensitivity.CurveSensitivitiesType.ZERO_RATE_GAMMA;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 
 import java.io.IOException;
@@ -493,6 +494,77 @@ public final class SensitivityCsvLoaderTest {
     assertSens(csens1, ZERO_RATE_DELTA, "GBP-LIBOR", GBP, "3M, 6M", 1.3, 1.4);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_parseInParallel_resources() {
+    assertParallelMatches(LOADER, "sensitivity-standard.csv");
+    assertParallelMatches(LOADER_CCP, "sensitivity-standard-full.csv");
+    assertParallelMatches(LOADER, "sensitivity-list.csv");
+    assertParallelMatches(LOADER_CCP, "sensitivity-list-full.csv");
+    assertParallelMatches(LOADER, "sensitivity-grid.csv");
+    assertParallelMatches(LOADER_CCP, "sensitivity-grid-full.csv");
+  }
+
+  public void test_parseInParallel_large() {
+    StringBuilder buf = new StringBuilder("Id,Reference,Sensitivity Tenor,ZeroRateDelta,ZeroRateGamma\n");
+    String[] references = {"GBP", "USD-LIBOR-3M", "GBP-LIBOR-6M"};
+    for (int i = 0; i < 25_000; i++) {
+      buf.append(i < 15_000 ? "A" : "B").append(',')
+          .append(references[i % 3]).append(',')
+          .append(i % 997 == 0 ? "XX" : ((i % 40) + 1) + "M").append(',')
+          .append(i % 100).append(".5,")
+          .append(i % 11 == 0 ? "" : "0.25").append('\n');
+    }
+    CharSource source = CharSource.wrap(buf);
+    ValueWithFailures<ListMultimap<String, CurveSensitivities>> expected = LOADER.parse(ImmutableList.of(source));
+    ValueWithFailures<ListMultimap<String, CurveSensitivities>> test = LOADER.parseInParallel(ImmutableList.of(source));
+    assertEquals(test.getFailures().size(), 26);
+    assertParallelMatches(test, expected);
+    assertEquals(test.getValue().keySet().size(), 2);
+    CurveSensitivities csens = test.getValue().get("OG-Sensitivity~A").get(0);
+    assertEquals(csens.getTypedSensitivities().size(), 2);
+    assertEquals(
+        csens.getTypedSensitivity(ZERO_RATE_DELTA).getSensitivity(CurveName.of("GBP"), GBP).getParameterCount(), 40);
+  }
+
+  // the same parameters repeat across chunks, with sums that depend on the order of addition
+  public void test_parseInParallel_summationOrder() {
+    StringBuilder buf = new StringBuilder("Reference,Sensitivity Tenor,ZeroRateDelta\n");
+    for (int i = 0; i < 25_000; i++) {
+      buf.append("GBP,").append((i % 7) + 1).append("M,").append(1d / (i + 3)).append('\n');
+    }
+    CharSource source = CharSource.wrap(buf);
+    ValueWithFailures<ListMultimap<String, CurveSensitivities>> expected = LOADER.parse(ImmutableList.of(source));
+    ValueWithFailures<ListMultimap<String, CurveSensitivities>> test = LOADER.parseInParallel(ImmutableList.of(source));
+    assertParallelMatches(test, expected);
+  }
+
+  public void test_parseInParallel_invalidFormat() {
+    CharSource source = CharSource.wrap("Reference,Value\nGBP,1\n");
+    ValueWithFailures<ListMultimap<String, CurveSensitivities>> test = LOADER.parseInParallel(ImmutableList.of(source));
+    assertEquals(test.getValue().size(), 0);
+    assertEquals(test.getFailures().size(), 1);
+    assertEquals(test.getFailures().get(0).getReason(), FailureReason.PARSING);
+    assertEquals(test.getFailures().get(0).getMessage(), "CSV file could not be parsed as sensitivities, invalid format");
+  }
+
+  private void assertParallelMatches(
+      ValueWithFailures<ListMultimap<String, CurveSensitivities>> test,
+      ValueWithFailures<ListMultimap<String, CurveSensitivities>> expected) {
+
+    assertEquals(test.getValue(), expected.getValue());
+    assertEquals(
+        test.getFailures().stream().map(FailureItem::getMessage).collect(toList()),
+        expected.getFailures().stream().map(FailureItem::getMessage).collect(toList()));
+  }
+
+  private void assertParallelMatches(SensitivityCsvLoader loader, String fileName) {
+    ResourceLocator locator = ResourceLocator.ofClasspath("com/opengamma/strata/loader/csv/" + fileName);
+    ValueWithFailures<ListMultimap<String, CurveSensitivities>> expected = loader.load(ImmutableList.of(locator));
+    ValueWithFailures<ListMultimap<String, CurveSensitivities>> test = loader.loadInParallel(ImmutableList.of(locator));
+    assertEquals(test.getFailures().size(), 0, test.getFailures().toString());
+    assertParallelMatches(test, expected);
+  }
+
   //-------------------------------------------------------------------------
   private void assertSens(
       CurveSensitivities sens,
@@ -10,6 +10,8 @@ import static com.opengamma.strata.market.sensitivity.CurveSensitivitiesType.ZER
 import static com.opengamma.strata.market.sensitivity.CurveSensitivitiesType.ZERO_RATE_GAMMA;
 import static org.testng.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.testng.annotations.Test;
@@ -84,6 +86,50 @@ public final class SensitivityCsvWriterTest {
     assertEquals(content, expected);
   }
 
+  public void test_write_outputStream() {
+    CurveName curve = CurveName.of("GBDSC");
+    CurveSensitivities sens = CurveSensitivities.builder(PortfolioItemInfo.empty())
+        .add(ZERO_RATE_DELTA, curve, Currency.GBP, TenorParameterMetadata.of(Tenor.TENOR_3M), 0.000125)
+        .add(ZERO_RATE_DELTA, curve, Currency.GBP, TenorParameterMetadata.of(Tenor.TENOR_6M), -1234567.5)
+        .build();
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    WRITER.write(sens, baos);
+    String content = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+
+    String expected = "" +
+        "Reference,Sensitivity Type,Sensitivity Tenor,Currency,Value\n" +
+        "GBDSC,ZeroRateDelta,3M,GBP,0.000125\n" +
+        "GBDSC,ZeroRateDelta,6M,GBP,-1234567.5\n";
+    assertEquals(content, expected);
+  }
+
+  public void test_write_outputStreamMatchesAppendable() {
+    CurveName curve = CurveName.of("GBDSC");
+    CurveSensitivities sens = CurveSensitivities.builder(PortfolioItemInfo.empty())
+        .add(ZERO_RATE_DELTA, curve, Currency.GBP, TenorParameterMetadata.of(Tenor.TENOR_1M), 1.5e7)
+        .add(ZERO_RATE_DELTA, curve, Currency.GBP, TenorParameterMetadata.of(Tenor.TENOR_3M), 1e-5)
+        .add(ZERO_RATE_DELTA, curve, Currency.GBP, TenorParameterMetadata.of(Tenor.TENOR_6M), -2.5e-12)
+        .add(ZERO_RATE_DELTA, curve, Currency.GBP, TenorParameterMetadata.of(Tenor.TENOR_1Y), 1.23456789e21)
+        .add(ZERO_RATE_DELTA, curve, Currency.GBP, TenorParameterMetadata.of(Tenor.TENOR_2Y), -0d)
+        .build();
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    WRITER.write(sens, baos);
+    StringBuilder buf = new StringBuilder();
+    WRITER.write(sens, buf);
+    assertEquals(new String(baos.toByteArray(), StandardCharsets.UTF_8), buf.toString());
+
+    String expected = "" +
+        "Reference,Sensitivity Type,Sensitivity Tenor,Currency,Value\n" +
+        "GBDSC,ZeroRateDelta,1M,GBP,15000000\n" +
+        "GBDSC,ZeroRateDelta,3M,GBP,0.000010\n" +
+        "GBDSC,ZeroRateDelta,6M,GBP,-0.0000000000025\n" +
+        "GBDSC,ZeroRateDelta,1Y,GBP,1234567890000000000000\n" +
+        "GBDSC,ZeroRateDelta,2Y,GBP,0.0\n";
+    assertEquals(buf.toString(), expected);
+  }
+
   public void test_write_standard_withDate() {
     CurveName curve1 = CurveName.of("GBDSC");
     CurveName curve2 = CurveName.of("GBFWD");
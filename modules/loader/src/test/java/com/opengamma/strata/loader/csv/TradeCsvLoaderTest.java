@@ -20,6 +20,7 @@ import static com.opengamma.strata.basics.date.HolidayCalendarIds.GBLO;
 import static com.opengamma.strata.basics.date.HolidayCalendarIds.USNY;
 import static com.opengamma.strata.collect.Guavate.filtering;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static com.opengamma.strata.product.common.BuySell.BUY;
@@ -27,14 +28,17 @@ import static com.opengamma.strata.product.common.BuySell.SELL;
 import static com.opengamma.strata.product.common.PayReceive.PAY;
 import static com.opengamma.strata.product.common.PayReceive.RECEIVE;
 import static org.joda.beans.test.BeanAssert.assertBeanEquals;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.Period;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.testng.annotations.Test;
 
@@ -1237,6 +1241,68 @@ public class TradeCsvLoaderTest {
         "Trade type not allowed " + SwapTrade.class.getName() + ", only these types are supported: FraTrade, TermDepositTrade");
   }
 
+  //-------------------------------------------------------------------------
+  public void test_loadStream() {
+    TradeCsvLoader test = TradeCsvLoader.standard();
+    ValueWithFailures<List<Trade>> expected = test.load(FILE);
+    List<FailureItem> failures = new ArrayList<>();
+    try (Stream<Trade> stream = test.loadStream(FILE, failures::add)) {
+      assertEquals(stream.collect(toList()), expected.getValue());
+    }
+    assertFailureMessages(failures, expected.getFailures());
+  }
+
+  public void test_parseBatches() {
+    TradeCsvLoader test = TradeCsvLoader.standard();
+    ValueWithFailures<List<Trade>> expected = test.parse(ImmutableList.of(FILE.getCharSource()));
+    for (int parallelism = 1; parallelism < 4; parallelism++) {
+      List<FailureItem> failures = new ArrayList<>();
+      List<List<Trade>> batches;
+      try (Stream<List<Trade>> stream = test.parseBatches(FILE.getCharSource(), Trade.class, 2, parallelism, failures::add)) {
+        batches = stream.collect(toList());
+      }
+      assertEquals(batches.stream().allMatch(batch -> batch.size() <= 2), true);
+      assertEquals(batches.stream().flatMap(List::stream).collect(toList()), expected.getValue());
+      assertFailureMessages(failures, expected.getFailures());
+    }
+  }
+
+  public void test_parseBatches_filtered() {
+    TradeCsvLoader test = TradeCsvLoader.standard();
+    ValueWithFailures<List<SwapTrade>> expected = test.parse(ImmutableList.of(FILE.getCharSource()), SwapTrade.class);
+    List<FailureItem> failures = new ArrayList<>();
+    try (Stream<List<SwapTrade>> stream = test.parseBatches(FILE.getCharSource(), SwapTrade.class, 3, 2, failures::add)) {
+      assertEquals(stream.flatMap(List::stream).collect(toList()), expected.getValue());
+    }
+    assertFailureMessages(failures, expected.getFailures());
+  }
+
+  public void test_parseStream_partiallyConsumed() {
+    TradeCsvLoader test = TradeCsvLoader.standard();
+    List<FailureItem> failures = new ArrayList<>();
+    try (Stream<Trade> stream = test.parseStream(FILE.getCharSource(), failures::add)) {
+      assertEquals(stream.findFirst().get() instanceof FraTrade, true);
+    }
+  }
+
+  public void test_parseStream_invalid() {
+    TradeCsvLoader test = TradeCsvLoader.standard();
+    List<FailureItem> failures = new ArrayList<>();
+    assertEquals(test.parseStream(CharSource.wrap(""), failures::add).count(), 0);
+    assertEquals(test.parseStream(CharSource.wrap("Id"), failures::add).count(), 0);
+    assertEquals(failures.size(), 2);
+    assertEquals(failures.get(0).getMessage().contains("CSV file could not be parsed"), true);
+    assertEquals(failures.get(1).getMessage().contains("CSV file does not contain 'Strata Trade Type' header"), true);
+    assertThrowsIllegalArg(() -> test.parseBatches(FILE.getCharSource(), Trade.class, 0, 1, failures::add));
+    assertThrowsIllegalArg(() -> test.parseBatches(FILE.getCharSource(), Trade.class, 1, 0, failures::add));
+  }
+
+  private static void assertFailureMessages(List<FailureItem> actual, List<FailureItem> expected) {
+    assertEquals(
+        actual.stream().map(FailureItem::getMessage).collect(toList()),
+        expected.stream().map(FailureItem::getMessage).collect(toList()));
+  }
+
   //-------------------------------------------------------------------------
   public void test_load_resolver() {
     AtomicInteger fraCount = new AtomicInteger();
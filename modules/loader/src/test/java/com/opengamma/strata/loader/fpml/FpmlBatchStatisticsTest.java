@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.loader.fpml;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.testng.Assert.assertEquals;
+
+import java.time.Duration;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link FpmlBatchStatistics}.
+ */
+@Test
+public class FpmlBatchStatisticsTest {
+
+  private static final FpmlBatchStatistics TEST = FpmlBatchStatistics.of(10, 20, 1, Duration.ofMillis(500));
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    assertEquals(TEST.getDocumentCount(), 10);
+    assertEquals(TEST.getTradeCount(), 20);
+    assertEquals(TEST.getFailureCount(), 1);
+    assertEquals(TEST.getElapsed(), Duration.ofMillis(500));
+    assertEquals(TEST.getDocumentsPerSecond(), 20d, 1e-12);
+    assertEquals(TEST.getTradesPerSecond(), 40d, 1e-12);
+  }
+
+  public void test_of_zeroElapsed() {
+    FpmlBatchStatistics test = FpmlBatchStatistics.of(1, 1, 0, Duration.ZERO);
+    assertEquals(test.getDocumentsPerSecond(), 0d);
+    assertEquals(test.getTradesPerSecond(), 0d);
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> FpmlBatchStatistics.of(-1, 0, 0, Duration.ZERO));
+    assertThrowsIllegalArg(() -> FpmlBatchStatistics.of(0, 0, 0, null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    coverImmutableBean(TEST);
+    coverBeanEquals(TEST, FpmlBatchStatistics.of(1, 2, 0, Duration.ofSeconds(1)));
+  }
+
+  public void test_serialization() {
+    assertSerialization(TEST);
+  }
+
+}
@@ -46,17 +46,25 @@ import static com.opengamma.strata.product.common.BuySell.BUY;
 import static com.opengamma.strata.product.common.BuySell.SELL;
 import static com.opengamma.strata.product.common.PayReceive.PAY;
 import static com.opengamma.strata.product.common.PayReceive.RECEIVE;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.fail;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.Period;
 import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.joda.beans.Bean;
 import org.testng.annotations.DataProvider;
@@ -95,6 +103,8 @@ import com.opengamma.strata.basics.value.ValueStep;
 import com.opengamma.strata.basics.value.ValueStepSequence;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.collect.io.XmlElement;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.ValueWithFailures;
 import com.opengamma.strata.product.Trade;
 import com.opengamma.strata.product.common.LongShort;
 import com.opengamma.strata.product.common.PayReceive;
@@ -1585,6 +1595,137 @@ public class FpmlDocumentParserTest {
         "Unable to find FpML root element.*");
   }
 
+  //-------------------------------------------------------------------------
+  @DataProvider(name = "streamTrades")
+  public static Object[][] data_streamTrades() {
+    return new Object[][] {
+        {"ird-ex01-vanilla-swap.xml"},
+        {"ird-ex02-stub-amort-swap.xml"},
+        {"ird-ex06-xccy-swap.xml"},
+        {"ird-ex08-fra-namespace.xml"},
+        {"ird-ex08-fra-wrapper1.xml"},
+        {"ird-ex08-fra-wrapper2.xml"},
+        {"ird-ex08-fra-wrapper-clearing-status.xml"},
+        {"fx-ex08-fx-swap.xml"},
+        {"cd-ex01-long-asia-corp-fixreg.xml"},
+        {"td-ex01-simple-term-deposit.xml"},
+    };
+  }
+
+  @Test(dataProvider = "streamTrades")
+  public void streamTrades(String file) {
+    ByteSource resource = ResourceLocator.of("classpath:com/opengamma/strata/loader/fpml/" + file).getByteSource();
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.matching("Party1"));
+    try (Stream<Trade> trades = parser.streamTrades(resource)) {
+      assertEquals(trades.collect(toList()), parser.parseTrades(resource));
+    }
+  }
+
+  public void streamTrades_rootAttributes() {
+    ByteSource resource = ResourceLocator.of(
+        "classpath:com/opengamma/strata/loader/fpml/ird-ex08-fra-wrapper1.xml").getByteSource();
+    List<Map<String, String>> rootAttributes = new ArrayList<>();
+    FpmlParserPlugin fraParser = FpmlParserPlugin.of("fra");
+    FpmlParserPlugin tradeParser = new FpmlParserPlugin() {
+      @Override
+      public Trade parseTrade(FpmlDocument document, XmlElement tradeEl) {
+        rootAttributes.add(document.getFpmlRoot().getAttributes());
+        return fraParser.parseTrade(document, tradeEl);
+      }
+
+      @Override
+      public String getName() {
+        return "fra";
+      }
+    };
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.matching("Party1"),
+        FpmlTradeInfoParserPlugin.standard(),
+        ImmutableMap.of("fra", tradeParser));
+    List<Trade> expected = parser.parseTrades(resource);
+    try (Stream<Trade> trades = parser.streamTrades(resource)) {
+      assertEquals(trades.collect(toList()), expected);
+    }
+    assertEquals(rootAttributes.size(), 2);
+    assertEquals(rootAttributes.get(0).get("fpmlVersion"), "5-8");
+    assertEquals(rootAttributes.get(1), rootAttributes.get(0));
+  }
+
+  public void streamTrades_notFpml() {
+    String location = "classpath:com/opengamma/strata/loader/fpml/not-fpml.xml";
+    ByteSource resource = ResourceLocator.of(location).getByteSource();
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.any());
+    assertThrows(
+        () -> parser.streamTrades(resource),
+        FpmlParseException.class,
+        "Unable to find FpML root element.*");
+  }
+
+  public void streamTrades_badSelector() {
+    String location = "classpath:com/opengamma/strata/loader/fpml/ird-ex08-fra.xml";
+    ByteSource resource = ResourceLocator.of(location).getByteSource();
+    FpmlDocumentParser parser = FpmlDocumentParser.of(allParties -> ImmutableList.of("rubbish"));
+    assertThrows(
+        () -> parser.streamTrades(resource),
+        FpmlParseException.class,
+        "Selector returned an ID .*");
+  }
+
+  //-------------------------------------------------------------------------
+  public void parseTradesInParallel() {
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.matching("Party1"));
+    List<ByteSource> sources = Stream.of(
+        "ird-ex01-vanilla-swap.xml",
+        "ird-ex08-fra.xml",
+        "fx-ex08-fx-swap.xml",
+        "td-ex01-simple-term-deposit.xml")
+        .map(file -> ResourceLocator.of("classpath:com/opengamma/strata/loader/fpml/" + file).getByteSource())
+        .collect(toList());
+    List<Trade> expected = sources.stream().flatMap(source -> parser.parseTrades(source).stream()).collect(toList());
+    List<FpmlBatchStatistics> statistics = new ArrayList<>();
+    ValueWithFailures<List<Trade>> test = parser.parseTradesInParallel(sources, statistics::add);
+    assertEquals(test.getValue(), expected);
+    assertEquals(test.getFailures(), ImmutableList.of());
+    assertEquals(statistics.size(), 1);
+    assertEquals(statistics.get(0).getDocumentCount(), 4);
+    assertEquals(statistics.get(0).getTradeCount(), 4);
+    assertEquals(statistics.get(0).getFailureCount(), 0);
+  }
+
+  public void parseTradesInParallel_failure() {
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.matching("Party1"));
+    ByteSource good = ResourceLocator.of("classpath:com/opengamma/strata/loader/fpml/ird-ex08-fra.xml").getByteSource();
+    ByteSource bad = ByteSource.wrap("<root><foo/></root>".getBytes(StandardCharsets.UTF_8));
+    ValueWithFailures<List<Trade>> test = parser.parseTradesInParallel(ImmutableList.of(bad, good, bad));
+    assertEquals(test.getValue(), parser.parseTrades(good));
+    assertEquals(test.getFailures().size(), 2);
+    assertEquals(test.getFailures().get(0).getReason(), FailureReason.PARSING);
+  }
+
+  public void loadTradesInParallel() throws IOException {
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.matching("Party1"));
+    ByteSource fra = ResourceLocator.of("classpath:com/opengamma/strata/loader/fpml/ird-ex08-fra.xml").getByteSource();
+    ByteSource swap =
+        ResourceLocator.of("classpath:com/opengamma/strata/loader/fpml/ird-ex01-vanilla-swap.xml").getByteSource();
+    Path dir = Files.createTempDirectory("FpmlDocumentParserTest");
+    try {
+      Files.write(dir.resolve("a.xml"), fra.read());
+      Files.write(dir.resolve("b.xml"), swap.read());
+      Files.write(dir.resolve("c.txt"), "ignored".getBytes(StandardCharsets.UTF_8));
+      List<FpmlBatchStatistics> statistics = new ArrayList<>();
+      ValueWithFailures<List<Trade>> test = parser.loadTradesInParallel(dir, statistics::add);
+      assertEquals(test.getValue(), ImmutableList.builder()
+          .addAll(parser.parseTrades(fra))
+          .addAll(parser.parseTrades(swap))
+          .build());
+      assertEquals(statistics.get(0).getDocumentCount(), 2);
+    } finally {
+      Files.delete(dir.resolve("a.xml"));
+      Files.delete(dir.resolve("b.xml"));
+      Files.delete(dir.resolve("c.txt"));
+      Files.delete(dir);
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void document() {
     XmlElement tradeDateEl = XmlElement.ofContent("tradeDate", "2000-06-30");
@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.observable;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalInt;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableConstructor;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketDataBuilder;
+import com.opengamma.strata.market.ShiftType;
+
+/**
+ * The values of a set of quotes on a set of dates, held as a dense matrix.
+ * <p>
+ * The matrix has one row for each date and one column for each quote.
+ * A quote that has no value on a date is represented by {@code NaN}.
+ * <p>
+ * This is an efficient alternative to a map of quotes for each date when there are many dates,
+ * such as for historical simulation, as the values are held as primitives.
+ * The values of a quote on all the dates can be obtained as a {@link QuoteScenarioArray}.
+ */
+@BeanDefinition(style = "light")
+public final class QuoteMatrix
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The dates, in increasing order.
+   * <p>
+   * There is one row of the matrix for each date.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<LocalDate> dates;
+  /**
+   * The identifiers of the quotes.
+   * <p>
+   * There is one column of the matrix for each quote.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<QuoteId> quoteIds;
+  /**
+   * The values, with a row for each date and a column for each quote.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleMatrix values;
+  /**
+   * The index of each quote.
+   */
+  private final transient ImmutableMap<QuoteId, Integer> quoteIndices;  // derived, not a property
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the dates, quote identifiers and values.
+   *
+   * @param dates  the dates, in increasing order
+   * @param quoteIds  the quote identifiers
+   * @param values  the values, with a row for each date and a column for each quote
+   * @return the matrix of quotes
+   */
+  public static QuoteMatrix of(List<LocalDate> dates, List<QuoteId> quoteIds, DoubleMatrix values) {
+    return new QuoteMatrix(ImmutableList.copyOf(dates), ImmutableList.copyOf(quoteIds), values);
+  }
+
+  @ImmutableConstructor
+  private QuoteMatrix(
+      ImmutableList<LocalDate> dates,
+      ImmutableList<QuoteId> quoteIds,
+      DoubleMatrix values) {
+
+    JodaBeanUtils.notNull(dates, "dates");
+    JodaBeanUtils.notNull(quoteIds, "quoteIds");
+    JodaBeanUtils.notNull(values, "values");
+    if (!values.isEmpty() || (!dates.isEmpty() && !quoteIds.isEmpty())) {
+      ArgChecker.isTrue(values.rowCount() == dates.size() && values.columnCount() == quoteIds.size(),
+          "Matrix must be {}x{} to match the dates and quotes, but was {}x{}",
+          dates.size(), quoteIds.size(), values.rowCount(), values.columnCount());
+    }
+    for (int i = 1; i < dates.size(); i++) {
+      ArgChecker.isTrue(dates.get(i).isAfter(dates.get(i - 1)), "Dates must be in increasing order");
+    }
+    ImmutableMap.Builder<QuoteId, Integer> indices = ImmutableMap.builder();
+    for (int i = 0; i < quoteIds.size(); i++) {
+      indices.put(quoteIds.get(i), i);
+    }
+    this.dates = dates;
+    this.quoteIds = quoteIds;
+    this.values = values;
+    this.quoteIndices = indices.build();
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new QuoteMatrix(dates, quoteIds, values);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the column index of a quote.
+   *
+   * @param quoteId  the quote identifier
+   * @return the index of the quote, empty if not found
+   */
+  public OptionalInt findQuoteIndex(QuoteId quoteId) {
+    Integer index = quoteIndices.get(quoteId);
+    return index == null ? OptionalInt.empty() : OptionalInt.of(index);
+  }
+
+  /**
+   * Gets the values of a quote on each date, as a scenario array.
+   * <p>
+   * There is one scenario for each date, in the order of the dates.
+   *
+   * @param quoteId  the quote identifier
+   * @return the values of the quote on each date
+   * @throws IllegalArgumentException if the quote is not found
+   */
+  public QuoteScenarioArray scenarioArray(QuoteId quoteId) {
+    return QuoteScenarioArray.of(values.column(quoteIndex(quoteId)));
+  }
+
+  /**
+   * Gets historical scenarios of a quote, applying each historical move to a base value.
+   * <p>
+   * There is one scenario for each pair of consecutive dates, so one fewer than the number of dates.
+   * The move between consecutive dates is computed using the shift type, and then applied to the base value.
+   *
+   * @param quoteId  the quote identifier
+   * @param baseValue  the base value of the quote
+   * @param shiftType  the type of the historical moves, such as relative or absolute
+   * @return the values of the quote in each scenario
+   * @throws IllegalArgumentException if the quote is not found
+   */
+  public QuoteScenarioArray historicalScenarioArray(QuoteId quoteId, double baseValue, ShiftType shiftType) {
+    int column = quoteIndex(quoteId);
+    int scenarioCount = Math.max(dates.size() - 1, 0);
+    return QuoteScenarioArray.of(DoubleArray.of(scenarioCount, i -> shiftType.applyShift(
+        baseValue,
+        shiftType.computeShift(values.get(i, column), values.get(i + 1, column)))));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Converts the matrix to scenario market data, with one scenario for each date.
+   * <p>
+   * The values of each quote are added as a {@link QuoteScenarioArray}.
+   *
+   * @param valuationDate  the valuation date of the market data
+   * @return the scenario market data
+   */
+  public ImmutableScenarioMarketData toScenarioMarketData(LocalDate valuationDate) {
+    ImmutableScenarioMarketDataBuilder builder = ImmutableScenarioMarketData.builder(valuationDate);
+    for (int i = 0; i < quoteIds.size(); i++) {
+      builder.addScenarioValue(quoteIds.get(i), QuoteScenarioArray.of(values.column(i)));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Converts the matrix to historical scenario market data, applying the historical moves to the latest values.
+   * <p>
+   * The base value of each quote is its value on the latest date.
+   * There is one scenario for each pair of consecutive dates, see
+   * {@link #historicalScenarioArray(QuoteId, double, ShiftType)}.
+   *
+   * @param valuationDate  the valuation date of the market data
+   * @param shiftType  the type of the historical moves, such as relative or absolute
+   * @return the scenario market data
+   */
+  public ImmutableScenarioMarketData toHistoricalScenarioMarketData(LocalDate valuationDate, ShiftType shiftType) {
+    ArgChecker.isTrue(dates.size() >= 2, "At least two dates are needed for historical scenarios");
+    ImmutableScenarioMarketDataBuilder builder = ImmutableScenarioMarketData.builder(valuationDate);
+    int last = dates.size() - 1;
+    for (int i = 0; i < quoteIds.size(); i++) {
+      QuoteId quoteId = quoteIds.get(i);
+      builder.addScenarioValue(quoteId, historicalScenarioArray(quoteId, values.get(last, i), shiftType));
+    }
+    return builder.build();
+  }
+
+  // finds the index of a quote
+  private int quoteIndex(QuoteId quoteId) {
+    Integer index = quoteIndices.get(quoteId);
+    if (index == null) {
+      throw new IllegalArgumentException("Quote not found: " + quoteId);
+    }
+    return index;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code QuoteMatrix}.
+   */
+  private static final TypedMetaBean<QuoteMatrix> META_BEAN =
+      LightMetaBean.of(
+          QuoteMatrix.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "dates",
+              "quoteIds",
+              "values"},
+          ImmutableList.of(),
+          ImmutableList.of(),
+          null);
+
+  /**
+   * The meta-bean for {@code QuoteMatrix}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<QuoteMatrix> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  public TypedMetaBean<QuoteMatrix> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the dates, in increasing order.
+   * <p>
+   * There is one row of the matrix for each date.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<LocalDate> getDates() {
+    return dates;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the identifiers of the quotes.
+   * <p>
+   * There is one column of the matrix for each quote.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<QuoteId> getQuoteIds() {
+    return quoteIds;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the values, with a row for each date and a column for each quote.
+   * @return the value of the property, not null
+   */
+  public DoubleMatrix getValues() {
+    return values;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      QuoteMatrix other = (QuoteMatrix) obj;
+      return JodaBeanUtils.equal(dates, other.dates) &&
+          JodaBeanUtils.equal(quoteIds, other.quoteIds) &&
+          JodaBeanUtils.equal(values, other.values);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(dates);
+    hash = hash * 31 + JodaBeanUtils.hashCode(quoteIds);
+    hash = hash * 31 + JodaBeanUtils.hashCode(values);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(128);
+    buf.append("QuoteMatrix{");
+    buf.append("dates").append('=').append(dates).append(',').append(' ');
+    buf.append("quoteIds").append('=').append(quoteIds).append(',').append(' ');
+    buf.append("values").append('=').append(JodaBeanUtils.toString(values));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -20,6 +20,8 @@ import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.io.BinaryBeanReader;
+import com.opengamma.strata.collect.io.BinaryBeanWriter;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.curve.interpolator.BoundCurveInterpolator;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
@@ -256,4 +258,10 @@ public class InterpolatedNodalCurveTest {
     assertSerialization(test);
   }
 
+  public void test_binarySerialization() {
+    InterpolatedNodalCurve test = InterpolatedNodalCurve.of(METADATA, XVALUES, YVALUES, INTERPOLATOR);
+    byte[] bytes = BinaryBeanWriter.toBytes(test);
+    assertThat(BinaryBeanReader.fromBytes(bytes, InterpolatedNodalCurve.class)).isEqualTo(test);
+  }
+
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.observable;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.OptionalInt;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.market.ShiftType;
+
+/**
+ * Test {@link QuoteMatrix}.
+ */
+@Test
+public class QuoteMatrixTest {
+
+  private static final QuoteId ID1 = QuoteId.of(StandardId.of("OG-Ticker", "1"));
+  private static final QuoteId ID2 = QuoteId.of(StandardId.of("OG-Ticker", "2"));
+  private static final QuoteId ID3 = QuoteId.of(StandardId.of("OG-Ticker", "3"));
+  private static final LocalDate DATE1 = date(2019, 6, 3);
+  private static final LocalDate DATE2 = date(2019, 6, 4);
+  private static final LocalDate DATE3 = date(2019, 6, 5);
+  private static final DoubleMatrix VALUES = DoubleMatrix.of(3, 2,
+      1d, 10d,
+      2d, 11d,
+      4d, 12d);
+  private static final QuoteMatrix TEST =
+      QuoteMatrix.of(ImmutableList.of(DATE1, DATE2, DATE3), ImmutableList.of(ID1, ID2), VALUES);
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    assertEquals(TEST.getDates(), ImmutableList.of(DATE1, DATE2, DATE3));
+    assertEquals(TEST.getQuoteIds(), ImmutableList.of(ID1, ID2));
+    assertEquals(TEST.getValues(), VALUES);
+    assertEquals(TEST.findQuoteIndex(ID2), OptionalInt.of(1));
+    assertEquals(TEST.findQuoteIndex(ID3), OptionalInt.empty());
+  }
+
+  public void test_of_empty() {
+    QuoteMatrix test = QuoteMatrix.of(ImmutableList.of(DATE1), ImmutableList.of(), DoubleMatrix.EMPTY);
+    assertEquals(test.getQuoteIds(), ImmutableList.of());
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> QuoteMatrix.of(ImmutableList.of(DATE1, DATE2), ImmutableList.of(ID1, ID2), VALUES));
+    assertThrowsIllegalArg(() -> QuoteMatrix.of(ImmutableList.of(DATE1, DATE2, DATE3), ImmutableList.of(ID1), VALUES));
+    assertThrowsIllegalArg(() -> QuoteMatrix.of(ImmutableList.of(DATE1, DATE3, DATE2), ImmutableList.of(ID1, ID2), VALUES));
+    assertThrowsIllegalArg(() -> QuoteMatrix.of(ImmutableList.of(DATE1, DATE2, DATE3), ImmutableList.of(ID1, ID1), VALUES));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_scenarioArray() {
+    assertEquals(TEST.scenarioArray(ID1), QuoteScenarioArray.of(DoubleArray.of(1d, 2d, 4d)));
+    assertEquals(TEST.scenarioArray(ID2), QuoteScenarioArray.of(DoubleArray.of(10d, 11d, 12d)));
+    assertThrowsIllegalArg(() -> TEST.scenarioArray(ID3));
+  }
+
+  public void test_historicalScenarioArray() {
+    assertEquals(
+        TEST.historicalScenarioArray(ID1, 8d, ShiftType.RELATIVE),
+        QuoteScenarioArray.of(DoubleArray.of(16d, 16d)));
+    assertEquals(
+        TEST.historicalScenarioArray(ID2, 20d, ShiftType.ABSOLUTE),
+        QuoteScenarioArray.of(DoubleArray.of(21d, 21d)));
+  }
+
+  public void test_toScenarioMarketData() {
+    ImmutableScenarioMarketData test = TEST.toScenarioMarketData(DATE3);
+    assertEquals(test.getScenarioCount(), 3);
+    assertEquals(test.getValue(ID1).getValue(2), 4d);
+    assertEquals(test.getValue(ID2).getValue(0), 10d);
+  }
+
+  public void test_toHistoricalScenarioMarketData() {
+    ImmutableScenarioMarketData test = TEST.toHistoricalScenarioMarketData(DATE3, ShiftType.RELATIVE);
+    assertEquals(test.getScenarioCount(), 2);
+    assertEquals(test.getValue(ID1).getValue(0), 8d);
+    assertEquals(test.getValue(ID1).getValue(1), 8d);
+    assertEquals(test.getValue(ID2).getValue(1), 12d * 12d / 11d, 1e-12);
+    QuoteMatrix singleDate = QuoteMatrix.of(ImmutableList.of(DATE1), ImmutableList.of(ID1), DoubleMatrix.of(1, 1, 1d));
+    assertThrowsIllegalArg(() -> singleDate.toHistoricalScenarioMarketData(DATE1, ShiftType.RELATIVE));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    coverImmutableBean(TEST);
+    QuoteMatrix test2 = QuoteMatrix.of(ImmutableList.of(DATE2), ImmutableList.of(ID3), DoubleMatrix.of(1, 1, 5d));
+    coverBeanEquals(TEST, test2);
+  }
+
+  public void test_serialization() {
+    assertSerialization(TEST);
+  }
+
+}
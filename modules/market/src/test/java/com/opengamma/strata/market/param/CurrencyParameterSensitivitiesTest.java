@@ -22,6 +22,8 @@ import com.opengamma.strata.basics.currency.FxMatrix;
 import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.basics.date.Tenor;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.io.BinaryBeanReader;
+import com.opengamma.strata.collect.io.BinaryBeanWriter;
 import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.market.curve.CurveName;
 
@@ -395,4 +397,10 @@ public class CurrencyParameterSensitivitiesTest {
     coverBeanEquals(SENSI_1, SENSI_2);
   }
 
+  public void test_binarySerialization() {
+    CurrencyParameterSensitivities test = CurrencyParameterSensitivities.of(ENTRY_USD, ENTRY_EUR, ENTRY_COMBINED);
+    byte[] bytes = BinaryBeanWriter.toBytes(test);
+    assertEquals(BinaryBeanReader.fromBytes(bytes, CurrencyParameterSensitivities.class), test);
+  }
+
 }
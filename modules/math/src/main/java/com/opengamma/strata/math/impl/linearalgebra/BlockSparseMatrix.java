@@ -0,0 +1,456 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.Arrays;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.Matrix;
+
+/**
+ * A matrix partitioned into blocks, where blocks that are entirely zero are not stored.
+ * <p>
+ * The rows and columns are partitioned by the block sizes, so that block $(i, j)$ is
+ * a dense matrix of size {@code rowBlockSizes[i]} by {@code columnBlockSizes[j]}.
+ * Multiplication skips the zero blocks, and {@link BlockSparseSolver} exploits block triangular structure.
+ * <p>
+ * This is typically used for the Jacobian matrices of curve calibration, where each block
+ * corresponds to the parameters of one curve.
+ */
+public final class BlockSparseMatrix implements Matrix {
+
+  /**
+   * The number of rows in each block row.
+   */
+  private final int[] rowBlockSizes;
+  /**
+   * The number of columns in each block column.
+   */
+  private final int[] columnBlockSizes;
+  /**
+   * The index of the first row of each block row.
+   */
+  private final int[] rowStarts;
+  /**
+   * The index of the first column of each block column.
+   */
+  private final int[] columnStarts;
+  /**
+   * The blocks, indexed by block row then block column, null if the block is zero.
+   */
+  private final DoubleMatrix[][] blocks;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance by partitioning a square dense matrix.
+   * <p>
+   * The same partition is used for rows and columns.
+   * Blocks that are entirely zero are not stored.
+   *
+   * @param matrix  the dense matrix
+   * @param blockSizes  the size of each block, summing to the size of the matrix
+   * @return the block matrix
+   */
+  public static BlockSparseMatrix of(DoubleMatrix matrix, int[] blockSizes) {
+    return of(matrix, blockSizes, blockSizes);
+  }
+
+  /**
+   * Obtains an instance by partitioning a dense matrix.
+   * <p>
+   * Blocks that are entirely zero are not stored.
+   *
+   * @param matrix  the dense matrix
+   * @param rowBlockSizes  the number of rows in each block row, summing to the number of rows of the matrix
+   * @param columnBlockSizes  the number of columns in each block column, summing to the number of columns of the matrix
+   * @return the block matrix
+   */
+  public static BlockSparseMatrix of(DoubleMatrix matrix, int[] rowBlockSizes, int[] columnBlockSizes) {
+    ArgChecker.notNull(matrix, "matrix");
+    int[] rowStarts = starts(rowBlockSizes, matrix.rowCount(), "rows");
+    int[] columnStarts = starts(columnBlockSizes, matrix.columnCount(), "columns");
+    double[][] data = matrix.toArrayUnsafe();
+    DoubleMatrix[][] blocks = new DoubleMatrix[rowBlockSizes.length][columnBlockSizes.length];
+    for (int i = 0; i < rowBlockSizes.length; i++) {
+      for (int j = 0; j < columnBlockSizes.length; j++) {
+        int rowStart = rowStarts[i];
+        int columnStart = columnStarts[j];
+        int columnCount = columnBlockSizes[j];
+        double[][] block = new double[rowBlockSizes[i]][];
+        for (int r = 0; r < block.length; r++) {
+          block[r] = Arrays.copyOfRange(data[rowStart + r], columnStart, columnStart + columnCount);
+        }
+        blocks[i][j] = isZero(block) ? null : DoubleMatrix.ofUnsafe(block);
+      }
+    }
+    return new BlockSparseMatrix(rowBlockSizes.clone(), columnBlockSizes.clone(), rowStarts, columnStarts, blocks);
+  }
+
+  /**
+   * Obtains an instance from the blocks.
+   * <p>
+   * A null block, or one that is entirely zero, is treated as a zero block.
+   *
+   * @param rowBlockSizes  the number of rows in each block row
+   * @param columnBlockSizes  the number of columns in each block column
+   * @param blocks  the blocks, indexed by block row then block column
+   * @return the block matrix
+   */
+  public static BlockSparseMatrix ofBlocks(int[] rowBlockSizes, int[] columnBlockSizes, DoubleMatrix[][] blocks) {
+    ArgChecker.notNull(rowBlockSizes, "rowBlockSizes");
+    ArgChecker.notNull(columnBlockSizes, "columnBlockSizes");
+    ArgChecker.notNull(blocks, "blocks");
+    ArgChecker.isTrue(blocks.length == rowBlockSizes.length, "Number of block rows must match row block sizes");
+    int[] rowStarts = starts(rowBlockSizes, Arrays.stream(rowBlockSizes).sum(), "rows");
+    int[] columnStarts = starts(columnBlockSizes, Arrays.stream(columnBlockSizes).sum(), "columns");
+    DoubleMatrix[][] copy = new DoubleMatrix[rowBlockSizes.length][columnBlockSizes.length];
+    for (int i = 0; i < rowBlockSizes.length; i++) {
+      ArgChecker.isTrue(
+          blocks[i].length == columnBlockSizes.length, "Number of block columns must match column block sizes");
+      for (int j = 0; j < columnBlockSizes.length; j++) {
+        DoubleMatrix block = blocks[i][j];
+        if (block != null) {
+          ArgChecker.isTrue(
+              block.rowCount() == rowBlockSizes[i] && block.columnCount() == columnBlockSizes[j],
+              "Block ({}, {}) has incorrect size", i, j);
+          copy[i][j] = isZero(block.toArrayUnsafe()) ? null : block;
+        }
+      }
+    }
+    return new BlockSparseMatrix(rowBlockSizes.clone(), columnBlockSizes.clone(), rowStarts, columnStarts, copy);
+  }
+
+  // restricted constructor
+  private BlockSparseMatrix(
+      int[] rowBlockSizes,
+      int[] columnBlockSizes,
+      int[] rowStarts,
+      int[] columnStarts,
+      DoubleMatrix[][] blocks) {
+
+    this.rowBlockSizes = rowBlockSizes;
+    this.columnBlockSizes = columnBlockSizes;
+    this.rowStarts = rowStarts;
+    this.columnStarts = columnStarts;
+    this.blocks = blocks;
+  }
+
+  // the start index of each block, validating the sizes
+  private static int[] starts(int[] blockSizes, int total, String name) {
+    ArgChecker.notNull(blockSizes, "blockSizes");
+    int[] starts = new int[blockSizes.length];
+    int start = 0;
+    for (int i = 0; i < blockSizes.length; i++) {
+      ArgChecker.notNegative(blockSizes[i], "blockSize");
+      starts[i] = start;
+      start += blockSizes[i];
+    }
+    ArgChecker.isTrue(start == total, "Block sizes sum to {} but matrix has {} {}", start, total, name);
+    return starts;
+  }
+
+  // checks if the block is entirely zero
+  private static boolean isZero(double[][] block) {
+    for (double[] row : block) {
+      for (double value : row) {
+        if (value != 0d) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int dimensions() {
+    return 2;
+  }
+
+  @Override
+  public int size() {
+    return rowCount() * columnCount();
+  }
+
+  /**
+   * Gets the number of rows.
+   *
+   * @return the number of rows
+   */
+  public int rowCount() {
+    return rowBlockSizes.length == 0 ? 0 : rowStarts[rowStarts.length - 1] + rowBlockSizes[rowBlockSizes.length - 1];
+  }
+
+  /**
+   * Gets the number of columns.
+   *
+   * @return the number of columns
+   */
+  public int columnCount() {
+    return columnBlockSizes.length == 0 ?
+        0 :
+        columnStarts[columnStarts.length - 1] + columnBlockSizes[columnBlockSizes.length - 1];
+  }
+
+  /**
+   * Gets the number of block rows.
+   *
+   * @return the number of block rows
+   */
+  public int blockRowCount() {
+    return rowBlockSizes.length;
+  }
+
+  /**
+   * Gets the number of block columns.
+   *
+   * @return the number of block columns
+   */
+  public int blockColumnCount() {
+    return columnBlockSizes.length;
+  }
+
+  /**
+   * Gets the number of rows in the specified block row.
+   *
+   * @param blockRow  the block row index
+   * @return the number of rows
+   */
+  public int rowBlockSize(int blockRow) {
+    return rowBlockSizes[blockRow];
+  }
+
+  /**
+   * Gets the number of columns in the specified block column.
+   *
+   * @param blockColumn  the block column index
+   * @return the number of columns
+   */
+  public int columnBlockSize(int blockColumn) {
+    return columnBlockSizes[blockColumn];
+  }
+
+  /**
+   * Checks if the block partition is square, with the same sizes for block rows and block columns.
+   *
+   * @return true if the partition is square
+   */
+  public boolean isBlockSquare() {
+    return Arrays.equals(rowBlockSizes, columnBlockSizes);
+  }
+
+  /**
+   * Checks if the specified block is zero.
+   *
+   * @param blockRow  the block row index
+   * @param blockColumn  the block column index
+   * @return true if the block is zero
+   */
+  public boolean isZeroBlock(int blockRow, int blockColumn) {
+    return blocks[blockRow][blockColumn] == null;
+  }
+
+  /**
+   * Gets the specified block.
+   *
+   * @param blockRow  the block row index
+   * @param blockColumn  the block column index
+   * @return the block, a zero matrix if the block is zero
+   */
+  public DoubleMatrix getBlock(int blockRow, int blockColumn) {
+    DoubleMatrix block = blocks[blockRow][blockColumn];
+    return block != null ? block : DoubleMatrix.filled(rowBlockSizes[blockRow], columnBlockSizes[blockColumn]);
+  }
+
+  /**
+   * Checks if the matrix is block lower triangular.
+   * <p>
+   * This requires the block partition to be square and all blocks above the diagonal to be zero.
+   *
+   * @return true if the matrix is block lower triangular
+   */
+  public boolean isBlockLowerTriangular() {
+    if (!isBlockSquare()) {
+      return false;
+    }
+    for (int i = 0; i < blocks.length; i++) {
+      for (int j = i + 1; j < blocks.length; j++) {
+        if (blocks[i][j] != null) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the matrix is block upper triangular.
+   * <p>
+   * This requires the block partition to be square and all blocks below the diagonal to be zero.
+   *
+   * @return true if the matrix is block upper triangular
+   */
+  public boolean isBlockUpperTriangular() {
+    if (!isBlockSquare()) {
+      return false;
+    }
+    for (int i = 0; i < blocks.length; i++) {
+      for (int j = 0; j < i; j++) {
+        if (blocks[i][j] != null) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the transpose of this matrix.
+   *
+   * @return the transpose
+   */
+  public BlockSparseMatrix transpose() {
+    DoubleMatrix[][] transposed = new DoubleMatrix[columnBlockSizes.length][rowBlockSizes.length];
+    for (int i = 0; i < rowBlockSizes.length; i++) {
+      for (int j = 0; j < columnBlockSizes.length; j++) {
+        DoubleMatrix block = blocks[i][j];
+        transposed[j][i] = block != null ? block.transpose() : null;
+      }
+    }
+    return new BlockSparseMatrix(columnBlockSizes, rowBlockSizes, columnStarts, rowStarts, transposed);
+  }
+
+  /**
+   * Multiplies this matrix by a dense matrix, returning {@code this * other}.
+   * <p>
+   * Zero blocks are skipped.
+   *
+   * @param other  the matrix to multiply by
+   * @return the product
+   */
+  public DoubleMatrix multiply(DoubleMatrix other) {
+    ArgChecker.notNull(other, "other");
+    ArgChecker.isTrue(other.rowCount() == columnCount(), "Matrix size mismatch");
+    int width = other.columnCount();
+    double[][] b = other.toArrayUnsafe();
+    double[][] result = new double[rowCount()][width];
+    for (int i = 0; i < rowBlockSizes.length; i++) {
+      for (int j = 0; j < columnBlockSizes.length; j++) {
+        DoubleMatrix block = blocks[i][j];
+        if (block != null) {
+          double[][] a = block.toArrayUnsafe();
+          for (int r = 0; r < a.length; r++) {
+            double[] aRow = a[r];
+            double[] resultRow = result[rowStarts[i] + r];
+            for (int k = 0; k < aRow.length; k++) {
+              double aValue = aRow[k];
+              if (aValue != 0d) {
+                double[] bRow = b[columnStarts[j] + k];
+                for (int c = 0; c < width; c++) {
+                  resultRow[c] += aValue * bRow[c];
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
+  /**
+   * Multiplies a dense matrix by this matrix, returning {@code other * this}.
+   * <p>
+   * Zero blocks are skipped.
+   *
+   * @param other  the matrix to multiply
+   * @return the product
+   */
+  public DoubleMatrix preMultiply(DoubleMatrix other) {
+    ArgChecker.notNull(other, "other");
+    ArgChecker.isTrue(other.columnCount() == rowCount(), "Matrix size mismatch");
+    double[][] a = other.toArrayUnsafe();
+    double[][] result = new double[a.length][columnCount()];
+    for (int i = 0; i < rowBlockSizes.length; i++) {
+      for (int j = 0; j < columnBlockSizes.length; j++) {
+        DoubleMatrix block = blocks[i][j];
+        if (block != null) {
+          double[][] b = block.toArrayUnsafe();
+          int rowStart = rowStarts[i];
+          int columnStart = columnStarts[j];
+          int columnCount = columnBlockSizes[j];
+          for (int r = 0; r < a.length; r++) {
+            double[] aRow = a[r];
+            double[] resultRow = result[r];
+            for (int k = 0; k < b.length; k++) {
+              double aValue = aRow[rowStart + k];
+              if (aValue != 0d) {
+                double[] bRow = b[k];
+                for (int c = 0; c < columnCount; c++) {
+                  resultRow[columnStart + c] += aValue * bRow[c];
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
+  /**
+   * Converts this matrix to a dense matrix.
+   *
+   * @return the dense matrix
+   */
+  public DoubleMatrix toDoubleMatrix() {
+    double[][] result = new double[rowCount()][columnCount()];
+    for (int i = 0; i < rowBlockSizes.length; i++) {
+      for (int j = 0; j < columnBlockSizes.length; j++) {
+        DoubleMatrix block = blocks[i][j];
+        if (block != null) {
+          double[][] data = block.toArrayUnsafe();
+          for (int r = 0; r < data.length; r++) {
+            System.arraycopy(data[r], 0, result[rowStarts[i] + r], columnStarts[j], data[r].length);
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof BlockSparseMatrix) {
+      BlockSparseMatrix other = (BlockSparseMatrix) obj;
+      return Arrays.equals(rowBlockSizes, other.rowBlockSizes) &&
+          Arrays.equals(columnBlockSizes, other.columnBlockSizes) &&
+          Arrays.deepEquals(blocks, other.blocks);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Arrays.hashCode(rowBlockSizes);
+    result = 31 * result + Arrays.hashCode(columnBlockSizes);
+    result = 31 * result + Arrays.deepHashCode(blocks);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "BlockSparseMatrix[rows=" + Arrays.toString(rowBlockSizes) +
+        ", columns=" + Arrays.toString(columnBlockSizes) + "]";
+  }
+
+}
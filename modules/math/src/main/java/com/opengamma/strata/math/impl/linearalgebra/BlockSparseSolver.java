@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * Solver for linear systems defined by a {@link BlockSparseMatrix}.
+ * <p>
+ * If the matrix is block lower or upper triangular, only the diagonal blocks are decomposed,
+ * and the system is solved by block forward or backward substitution, skipping zero blocks.
+ * This takes order $\sum n_i^3$ operations for the decompositions where $n_i$ are the block sizes,
+ * as opposed to order $n^3$ for the general problem.
+ * Otherwise, the matrix is treated as dense.
+ * <p>
+ * By default, each block is decomposed using the Commons singular value decomposition.
+ * For a dense matrix, the result is therefore the same pseudo-inverse as {@code CommonsMatrixAlgebra}.
+ * For a block triangular matrix, each diagonal block is pseudo-inverted separately, so singular and
+ * near-singular blocks produce bounded results rather than large ill-conditioned values.
+ * <p>
+ * A different decomposition, such as LU, can be specified where the matrices are known to be well-conditioned.
+ */
+public final class BlockSparseSolver {
+
+  /**
+   * The default decomposition, the singular value decomposition.
+   */
+  private static final Decomposition<?> SVD = new SVDecompositionCommons();
+
+  // restricted constructor
+  private BlockSparseSolver() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the inverse of the matrix, using the singular value decomposition.
+   *
+   * @param matrix  the matrix, which must have a square block partition unless it is to be treated as dense
+   * @return the inverse
+   */
+  public static DoubleMatrix inverse(BlockSparseMatrix matrix) {
+    return inverse(matrix, SVD);
+  }
+
+  /**
+   * Calculates the inverse of the matrix, using the specified decomposition.
+   * <p>
+   * The decomposition is applied to each diagonal block, or to the whole matrix if it is treated as dense.
+   *
+   * @param matrix  the matrix, which must have a square block partition unless it is to be treated as dense
+   * @param decomposition  the decomposition
+   * @return the inverse
+   */
+  public static DoubleMatrix inverse(BlockSparseMatrix matrix, Decomposition<?> decomposition) {
+    ArgChecker.notNull(matrix, "matrix");
+    ArgChecker.notNull(decomposition, "decomposition");
+    if (matrix.isBlockLowerTriangular()) {
+      return inverseLower(matrix, decomposition);
+    }
+    if (matrix.isBlockUpperTriangular()) {
+      // the inverse of the transpose is the transpose of the inverse
+      return inverseLower(matrix.transpose(), decomposition).transpose();
+    }
+    DoubleMatrix dense = matrix.toDoubleMatrix();
+    return decomposition.apply(dense).solve(DoubleMatrix.identity(dense.rowCount()));
+  }
+
+  /**
+   * Solves the system {@code Ax = b} for the unknown vector {@code x}, using the singular value decomposition.
+   *
+   * @param matrix  the matrix
+   * @param b  the known vector
+   * @return the solution
+   */
+  public static DoubleArray solve(BlockSparseMatrix matrix, DoubleArray b) {
+    return solve(matrix, b, SVD);
+  }
+
+  /**
+   * Solves the system {@code Ax = b} for the unknown vector {@code x}, using the specified decomposition.
+   * <p>
+   * The decomposition is applied to each diagonal block, or to the whole matrix if it is treated as dense.
+   *
+   * @param matrix  the matrix
+   * @param b  the known vector
+   * @param decomposition  the decomposition
+   * @return the solution
+   */
+  public static DoubleArray solve(BlockSparseMatrix matrix, DoubleArray b, Decomposition<?> decomposition) {
+    ArgChecker.notNull(matrix, "matrix");
+    ArgChecker.notNull(b, "b");
+    ArgChecker.notNull(decomposition, "decomposition");
+    ArgChecker.isTrue(b.size() == matrix.rowCount(), "Vector b has incorrect size");
+    boolean lower = matrix.isBlockLowerTriangular();
+    if (!lower && !matrix.isBlockUpperTriangular()) {
+      return decomposition.apply(matrix.toDoubleMatrix()).solve(b);
+    }
+    int blockCount = matrix.blockRowCount();
+    double[] x = new double[b.size()];
+    int[] starts = new int[blockCount];
+    for (int i = 1; i < blockCount; i++) {
+      starts[i] = starts[i - 1] + matrix.rowBlockSize(i - 1);
+    }
+    // forward substitution if lower, backward substitution if upper
+    for (int n = 0; n < blockCount; n++) {
+      int i = lower ? n : blockCount - 1 - n;
+      int size = matrix.rowBlockSize(i);
+      double[] rhs = b.subArray(starts[i], starts[i] + size).toArray();
+      for (int k = 0; k < blockCount; k++) {
+        if (k != i && !matrix.isZeroBlock(i, k)) {
+          double[][] block = matrix.getBlock(i, k).toArrayUnsafe();
+          for (int r = 0; r < size; r++) {
+            double[] row = block[r];
+            double sum = 0d;
+            for (int c = 0; c < row.length; c++) {
+              sum += row[c] * x[starts[k] + c];
+            }
+            rhs[r] -= sum;
+          }
+        }
+      }
+      double[] xi = decomposition.apply(matrix.getBlock(i, i)).solve(DoubleArray.ofUnsafe(rhs)).toArrayUnsafe();
+      System.arraycopy(xi, 0, x, starts[i], size);
+    }
+    return DoubleArray.ofUnsafe(x);
+  }
+
+  //-------------------------------------------------------------------------
+  // inverse of a block lower triangular matrix by block forward substitution
+  // X_ii = L_ii^-1 and X_ij = -L_ii^-1 sum_{k=j}^{i-1} L_ik X_kj for i > j
+  private static DoubleMatrix inverseLower(BlockSparseMatrix matrix, Decomposition<?> decomposition) {
+    int blockCount = matrix.blockRowCount();
+    double[][][][] inverseBlocks = new double[blockCount][blockCount][][];
+    DoubleMatrix[] diagonalInverses = new DoubleMatrix[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      DoubleMatrix diagonal = matrix.getBlock(i, i);
+      diagonalInverses[i] = decomposition.apply(diagonal).solve(DoubleMatrix.identity(diagonal.rowCount()));
+      inverseBlocks[i][i] = diagonalInverses[i].toArrayUnsafe();
+    }
+    for (int i = 1; i < blockCount; i++) {
+      int rowSize = matrix.rowBlockSize(i);
+      for (int j = 0; j < i; j++) {
+        double[][] sum = null;
+        for (int k = j; k < i; k++) {
+          if (!matrix.isZeroBlock(i, k) && inverseBlocks[k][j] != null) {
+            if (sum == null) {
+              sum = new double[rowSize][matrix.columnBlockSize(j)];
+            }
+            multiplyAdd(matrix.getBlock(i, k).toArrayUnsafe(), inverseBlocks[k][j], sum);
+          }
+        }
+        if (sum != null) {
+          double[][] result = new double[rowSize][matrix.columnBlockSize(j)];
+          multiplyAdd(inverseBlocks[i][i], sum, result);
+          for (double[] row : result) {
+            for (int c = 0; c < row.length; c++) {
+              row[c] = -row[c];
+            }
+          }
+          inverseBlocks[i][j] = result;
+        }
+      }
+    }
+    // assemble the result
+    int size = matrix.rowCount();
+    double[][] result = new double[size][size];
+    int rowStart = 0;
+    for (int i = 0; i < blockCount; i++) {
+      int columnStart = 0;
+      for (int j = 0; j <= i; j++) {
+        double[][] block = inverseBlocks[i][j];
+        if (block != null) {
+          for (int r = 0; r < block.length; r++) {
+            System.arraycopy(block[r], 0, result[rowStart + r], columnStart, block[r].length);
+          }
+        }
+        columnStart += matrix.columnBlockSize(j);
+      }
+      rowStart += matrix.rowBlockSize(i);
+    }
+    return DoubleMatrix.ofUnsafe(result);
+  }
+
+  // result += a * b
+  private static void multiplyAdd(double[][] a, double[][] b, double[][] result) {
+    for (int r = 0; r < a.length; r++) {
+      double[] aRow = a[r];
+      double[] resultRow = result[r];
+      for (int k = 0; k < aRow.length; k++) {
+        double aValue = aRow[k];
+        if (aValue != 0d) {
+          double[] bRow = b[k];
+          for (int c = 0; c < resultRow.length; c++) {
+            resultRow[c] += aValue * bRow[c];
+          }
+        }
+      }
+    }
+  }
+
+}
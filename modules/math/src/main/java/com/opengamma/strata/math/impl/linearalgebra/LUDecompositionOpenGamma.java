@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * OpenGamma implementation of LU decomposition with partial pivoting.
+ * <p>
+ * The decomposition works directly on a copy of the matrix data, avoiding conversion to another matrix library.
+ * Rows are exchanged by swapping the row arrays, and the elimination proceeds row by row
+ * so that the inner loop accesses memory sequentially.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class LUDecompositionOpenGamma implements Decomposition<LUDecompositionResult> {
+
+  /**
+   * The default threshold below which a pivot is considered to be zero, and the matrix singular.
+   * This matches the default of the Commons implementation.
+   */
+  public static final double DEFAULT_SINGULARITY_THRESHOLD = 1.0E-11;
+
+  @Override
+  public LUDecompositionResult apply(DoubleMatrix x) {
+    return evaluate(x, DEFAULT_SINGULARITY_THRESHOLD);
+  }
+
+  /**
+   * Performs the decomposition with a given singularity threshold.
+   *
+   * @param matrix  the matrix to decompose
+   * @param singularityThreshold  the threshold below which a pivot is considered to be zero
+   * @return the LU decomposition
+   * @throws IllegalArgumentException if the matrix is not square or is singular
+   */
+  public LUDecompositionResult evaluate(DoubleMatrix matrix, double singularityThreshold) {
+    ArgChecker.notNull(matrix, "x");
+    ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+    int n = matrix.rowCount();
+    double[][] lu = matrix.toArray();
+    int[] pivot = new int[n];
+    for (int i = 0; i < n; i++) {
+      pivot[i] = i;
+    }
+    boolean even = true;
+    for (int k = 0; k < n; k++) {
+      // find the pivot
+      int max = k;
+      double largest = Math.abs(lu[k][k]);
+      for (int i = k + 1; i < n; i++) {
+        double value = Math.abs(lu[i][k]);
+        if (value > largest) {
+          largest = value;
+          max = i;
+        }
+      }
+      ArgChecker.isTrue(largest >= singularityThreshold, "Matrix is singular; could not perform LU decomposition");
+      if (max != k) {
+        double[] tmpRow = lu[max];
+        lu[max] = lu[k];
+        lu[k] = tmpRow;
+        int tmpPivot = pivot[max];
+        pivot[max] = pivot[k];
+        pivot[k] = tmpPivot;
+        even = !even;
+      }
+      // eliminate below the pivot
+      double[] rowK = lu[k];
+      double pivotInverse = 1d / rowK[k];
+      for (int i = k + 1; i < n; i++) {
+        double[] rowI = lu[i];
+        double factor = rowI[k] * pivotInverse;
+        rowI[k] = factor;
+        if (factor != 0d) {
+          for (int j = k + 1; j < n; j++) {
+            rowI[j] -= factor * rowK[j];
+          }
+        }
+      }
+    }
+    return new LUDecompositionOpenGammaResult(lu, pivot, even);
+  }
+
+}
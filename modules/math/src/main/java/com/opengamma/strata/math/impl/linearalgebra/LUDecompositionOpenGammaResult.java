@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of LU decomposition ({@link LUDecompositionOpenGamma}).
+ * <p>
+ * The L and U matrices are stored packed in a single array, with the unit diagonal of L implied.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class LUDecompositionOpenGammaResult implements LUDecompositionResult {
+
+  /**
+   * The packed L and U matrices, with the rows permuted.
+   */
+  private final double[][] _lu;
+  /**
+   * The pivot permutation vector.
+   */
+  private final int[] _pivot;
+  /**
+   * The determinant of the original matrix.
+   */
+  private final double _determinant;
+
+  /**
+   * Creates an instance.
+   *
+   * @param lu  the packed L and U matrices, not copied
+   * @param pivot  the pivot permutation vector, not copied
+   * @param even  true if the pivot permutation is even
+   */
+  public LUDecompositionOpenGammaResult(double[][] lu, int[] pivot, boolean even) {
+    ArgChecker.notNull(lu, "lu");
+    ArgChecker.notNull(pivot, "pivot");
+    _lu = lu;
+    _pivot = pivot;
+    double determinant = even ? 1d : -1d;
+    for (int i = 0; i < lu.length; i++) {
+      determinant *= lu[i][i];
+    }
+    _determinant = determinant;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double getDeterminant() {
+    return _determinant;
+  }
+
+  @Override
+  public DoubleMatrix getL() {
+    int n = _lu.length;
+    return DoubleMatrix.of(n, n, (i, j) -> i > j ? _lu[i][j] : (i == j ? 1d : 0d));
+  }
+
+  @Override
+  public DoubleMatrix getU() {
+    int n = _lu.length;
+    return DoubleMatrix.of(n, n, (i, j) -> i <= j ? _lu[i][j] : 0d);
+  }
+
+  @Override
+  public DoubleMatrix getP() {
+    int n = _lu.length;
+    return DoubleMatrix.of(n, n, (i, j) -> _pivot[i] == j ? 1d : 0d);
+  }
+
+  @Override
+  public int[] getPivot() {
+    return _pivot.clone();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    int n = _lu.length;
+    ArgChecker.isTrue(b.length == n, "b array of incorrect size");
+    double[] x = new double[n];
+    for (int i = 0; i < n; i++) {
+      x[i] = b[_pivot[i]];
+    }
+    // L y = P b
+    for (int i = 1; i < n; i++) {
+      double[] row = _lu[i];
+      double sum = x[i];
+      for (int j = 0; j < i; j++) {
+        sum -= row[j] * x[j];
+      }
+      x[i] = sum;
+    }
+    // U x = y
+    for (int i = n - 1; i >= 0; i--) {
+      double[] row = _lu[i];
+      double sum = x[i];
+      for (int j = i + 1; j < n; j++) {
+        sum -= row[j] * x[j];
+      }
+      x[i] = sum / row[i];
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    int n = _lu.length;
+    ArgChecker.isTrue(b.rowCount() == n, "b matrix of incorrect size");
+    int nbCol = b.columnCount();
+    double[][] bArray = b.toArrayUnsafe();
+    double[][] x = new double[n][];
+    for (int i = 0; i < n; i++) {
+      x[i] = bArray[_pivot[i]].clone();
+    }
+    // L Y = P B, operating on whole rows
+    for (int k = 0; k < n; k++) {
+      double[] rowK = x[k];
+      for (int i = k + 1; i < n; i++) {
+        double factor = _lu[i][k];
+        if (factor != 0d) {
+          double[] rowI = x[i];
+          for (int j = 0; j < nbCol; j++) {
+            rowI[j] -= factor * rowK[j];
+          }
+        }
+      }
+    }
+    // U X = Y, operating on whole rows
+    for (int k = n - 1; k >= 0; k--) {
+      double[] rowK = x[k];
+      double diagInverse = 1d / _lu[k][k];
+      for (int j = 0; j < nbCol; j++) {
+        rowK[j] *= diagInverse;
+      }
+      for (int i = 0; i < k; i++) {
+        double factor = _lu[i][k];
+        if (factor != 0d) {
+          double[] rowI = x[i];
+          for (int j = 0; j < nbCol; j++) {
+            rowI[j] -= factor * rowK[j];
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(x);
+  }
+
+}
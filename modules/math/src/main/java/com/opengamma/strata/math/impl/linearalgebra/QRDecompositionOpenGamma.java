@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * OpenGamma implementation of QR decomposition using Householder reflections.
+ * <p>
+ * The decomposition works directly on the matrix data, avoiding conversion to another matrix library.
+ * The transpose of the matrix is held, so that each Householder vector and each column
+ * being reflected is a contiguous array.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class QRDecompositionOpenGamma implements Decomposition<QRDecompositionResult> {
+
+  @Override
+  public QRDecompositionResult apply(DoubleMatrix x) {
+    ArgChecker.notNull(x, "x");
+    int m = x.rowCount();
+    int n = x.columnCount();
+    double[][] data = x.toArrayUnsafe();
+    double[][] qrt = new double[n][m];
+    for (int i = 0; i < m; i++) {
+      for (int j = 0; j < n; j++) {
+        qrt[j][i] = data[i][j];
+      }
+    }
+    double[] rDiag = new double[Math.min(m, n)];
+    for (int minor = 0; minor < rDiag.length; minor++) {
+      double[] qrtMinor = qrt[minor];
+      double xNormSqr = 0d;
+      for (int row = minor; row < m; row++) {
+        xNormSqr += qrtMinor[row] * qrtMinor[row];
+      }
+      double a = qrtMinor[minor] > 0 ? -Math.sqrt(xNormSqr) : Math.sqrt(xNormSqr);
+      rDiag[minor] = a;
+      if (a != 0d) {
+        // the Householder vector v is stored in place of the column, with |v|^2 = -2 a v[minor]
+        qrtMinor[minor] -= a;
+        double scale = a * qrtMinor[minor];
+        for (int col = minor + 1; col < n; col++) {
+          double[] qrtCol = qrt[col];
+          double alpha = 0d;
+          for (int row = minor; row < m; row++) {
+            alpha += qrtCol[row] * qrtMinor[row];
+          }
+          alpha /= scale;
+          for (int row = minor; row < m; row++) {
+            qrtCol[row] += alpha * qrtMinor[row];
+          }
+        }
+      }
+    }
+    return new QRDecompositionOpenGammaResult(qrt, rDiag, m);
+  }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of QR decomposition ({@link QRDecompositionOpenGamma}).
+ * <p>
+ * The Householder vectors and the upper part of R are stored packed in the transposed matrix.
+ * The matrices Q and R are created on demand.
+ * Solving finds the least squares solution, which is exact if the matrix is square.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class QRDecompositionOpenGammaResult implements QRDecompositionResult {
+
+  /**
+   * The packed transposed decomposition, one row for each column of the original matrix.
+   */
+  private final double[][] _qrt;
+  /**
+   * The diagonal elements of R.
+   */
+  private final double[] _rDiag;
+  /**
+   * The number of rows in the original matrix.
+   */
+  private final int _rowCount;
+
+  /**
+   * Creates an instance.
+   *
+   * @param qrt  the packed transposed decomposition, not copied
+   * @param rDiag  the diagonal elements of R, not copied
+   * @param rowCount  the number of rows in the original matrix
+   */
+  public QRDecompositionOpenGammaResult(double[][] qrt, double[] rDiag, int rowCount) {
+    ArgChecker.notNull(qrt, "qrt");
+    ArgChecker.notNull(rDiag, "rDiag");
+    _qrt = qrt;
+    _rDiag = rDiag;
+    _rowCount = rowCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleMatrix getR() {
+    int m = _rowCount;
+    int n = _qrt.length;
+    double[][] r = new double[m][n];
+    for (int row = _rDiag.length - 1; row >= 0; row--) {
+      r[row][row] = _rDiag[row];
+      for (int col = row + 1; col < n; col++) {
+        r[row][col] = _qrt[col][row];
+      }
+    }
+    return DoubleMatrix.ofUnsafe(r);
+  }
+
+  @Override
+  public DoubleMatrix getQ() {
+    return getQT().transpose();
+  }
+
+  @Override
+  public DoubleMatrix getQT() {
+    int m = _rowCount;
+    double[][] qt = new double[m][m];
+    for (int minor = m - 1; minor >= _rDiag.length; minor--) {
+      qt[minor][minor] = 1d;
+    }
+    for (int minor = _rDiag.length - 1; minor >= 0; minor--) {
+      double[] qrtMinor = _qrt[minor];
+      qt[minor][minor] = 1d;
+      if (qrtMinor[minor] != 0d) {
+        double scale = _rDiag[minor] * qrtMinor[minor];
+        for (int col = minor; col < m; col++) {
+          double[] qtCol = qt[col];
+          double alpha = 0d;
+          for (int row = minor; row < m; row++) {
+            alpha -= qtCol[row] * qrtMinor[row];
+          }
+          alpha /= scale;
+          for (int row = minor; row < m; row++) {
+            qtCol[row] -= alpha * qrtMinor[row];
+          }
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(qt);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(b.length == _rowCount, "b array of incorrect size");
+    checkNonSingular();
+    double[] y = b.clone();
+    double[] x = new double[_qrt.length];
+    applyQT(y);
+    // back substitution on R x = Q^T b
+    for (int row = _rDiag.length - 1; row >= 0; row--) {
+      y[row] /= _rDiag[row];
+      double yRow = y[row];
+      double[] qrtRow = _qrt[row];
+      x[row] = yRow;
+      for (int i = 0; i < row; i++) {
+        y[i] -= yRow * qrtRow[i];
+      }
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    ArgChecker.isTrue(b.rowCount() == _rowCount, "b matrix of incorrect size");
+    // solve for each column of b, held as a contiguous array
+    int nbCol = b.columnCount();
+    double[][] bt = b.transpose().toArrayUnsafe();
+    double[][] x = new double[_qrt.length][nbCol];
+    for (int col = 0; col < nbCol; col++) {
+      double[] xCol = solve(bt[col]);
+      for (int row = 0; row < xCol.length; row++) {
+        x[row][col] = xCol[row];
+      }
+    }
+    return DoubleMatrix.ofUnsafe(x);
+  }
+
+  // applies the Householder reflections to the vector, in place
+  private void applyQT(double[] y) {
+    for (int minor = 0; minor < _rDiag.length; minor++) {
+      double[] qrtMinor = _qrt[minor];
+      double dotProduct = 0d;
+      for (int row = minor; row < _rowCount; row++) {
+        dotProduct += y[row] * qrtMinor[row];
+      }
+      dotProduct /= _rDiag[minor] * qrtMinor[minor];
+      for (int row = minor; row < _rowCount; row++) {
+        y[row] += dotProduct * qrtMinor[row];
+      }
+    }
+  }
+
+  // checks that R has no zero on the diagonal
+  private void checkNonSingular() {
+    ArgChecker.isTrue(_rowCount >= _qrt.length, "Matrix has fewer rows than columns; cannot solve");
+    for (double diag : _rDiag) {
+      ArgChecker.isTrue(diag != 0d, "Matrix is singular");
+    }
+  }
+
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * OpenGamma implementation of singular value decomposition.
+ * <p>
+ * This uses the Golub-Kahan-Reinsch algorithm, reducing the matrix to bidiagonal form using
+ * Householder reflections and then applying implicitly shifted QR steps.
+ * The decomposition works directly on a copy of the matrix data, avoiding conversion to another matrix library.
+ * <p>
+ * As with the Commons implementation, the compact form of the decomposition is returned.
+ * If the matrix is $m \times n$ and $p = \min(m, n)$, then $\mathbf{U}$ is $m \times p$,
+ * $\mathbf{\Sigma}$ is $p \times p$ and $\mathbf{V}$ is $n \times p$.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class SVDecompositionOpenGamma implements Decomposition<SVDecompositionResult> {
+
+  /** Relative machine precision. */
+  private static final double EPS = Math.ulp(1d);
+  /** Smallest value used to avoid underflow when testing for negligible values. */
+  private static final double TINY = Math.pow(2d, -966d);
+
+  @Override
+  public SVDecompositionResult apply(DoubleMatrix x) {
+    ArgChecker.notNull(x, "x");
+    MatrixValidate.notNaNOrInfinite(x);
+    if (x.rowCount() < x.columnCount()) {
+      // decompose the transpose, and then swap U and V
+      double[][][] usv = decompose(x.transpose().toArray());
+      return new SVDecompositionOpenGammaResult(usv[2], usv[1][0], usv[0]);
+    }
+    double[][][] usv = decompose(x.toArray());
+    return new SVDecompositionOpenGammaResult(usv[0], usv[1][0], usv[2]);
+  }
+
+  // decomposes the matrix in place, which must have at least as many rows as columns
+  // returns U, the singular values and V
+  private static double[][][] decompose(double[][] a) {
+    int m = a.length;
+    int n = m == 0 ? 0 : a[0].length;
+    double[] s = new double[n];
+    double[][] u = new double[m][n];
+    double[][] v = new double[n][n];
+    double[] e = new double[n];
+    double[] work = new double[m];
+
+    // reduce to bidiagonal form, storing the diagonal in s and the super-diagonal in e
+    int nct = Math.min(m - 1, n);
+    int nrt = Math.max(0, Math.min(n - 2, m));
+    for (int k = 0; k < Math.max(nct, nrt); k++) {
+      if (k < nct) {
+        // compute the transformation for the k-th column
+        s[k] = 0;
+        for (int i = k; i < m; i++) {
+          s[k] = hypot(s[k], a[i][k]);
+        }
+        if (s[k] != 0d) {
+          if (a[k][k] < 0d) {
+            s[k] = -s[k];
+          }
+          for (int i = k; i < m; i++) {
+            a[i][k] /= s[k];
+          }
+          a[k][k] += 1d;
+        }
+        s[k] = -s[k];
+      }
+      for (int j = k + 1; j < n; j++) {
+        if (k < nct && s[k] != 0d) {
+          // apply the transformation
+          double t = 0;
+          for (int i = k; i < m; i++) {
+            t += a[i][k] * a[i][j];
+          }
+          t = -t / a[k][k];
+          for (int i = k; i < m; i++) {
+            a[i][j] += t * a[i][k];
+          }
+        }
+        e[j] = a[k][j];
+      }
+      if (k < nct) {
+        for (int i = k; i < m; i++) {
+          u[i][k] = a[i][k];
+        }
+      }
+      if (k < nrt) {
+        // compute the transformation for the k-th row
+        e[k] = 0;
+        for (int i = k + 1; i < n; i++) {
+          e[k] = hypot(e[k], e[i]);
+        }
+        if (e[k] != 0d) {
+          if (e[k + 1] < 0d) {
+            e[k] = -e[k];
+          }
+          for (int i = k + 1; i < n; i++) {
+            e[i] /= e[k];
+          }
+          e[k + 1] += 1d;
+        }
+        e[k] = -e[k];
+        if (k + 1 < m && e[k] != 0d) {
+          // apply the transformation
+          for (int i = k + 1; i < m; i++) {
+            double[] row = a[i];
+            double sum = 0d;
+            for (int j = k + 1; j < n; j++) {
+              sum += e[j] * row[j];
+            }
+            work[i] = sum;
+          }
+          for (int i = k + 1; i < m; i++) {
+            double[] row = a[i];
+            double w = work[i] / e[k + 1];
+            for (int j = k + 1; j < n; j++) {
+              row[j] -= e[j] * w;
+            }
+          }
+        }
+        for (int i = k + 1; i < n; i++) {
+          v[i][k] = e[i];
+        }
+      }
+    }
+
+    // set up the final bidiagonal matrix of order p
+    int p = n;
+    if (nct < n) {
+      s[nct] = a[nct][nct];
+    }
+    if (m < p) {
+      s[p - 1] = 0d;
+    }
+    if (nrt + 1 < p) {
+      e[nrt] = a[nrt][p - 1];
+    }
+    if (p > 0) {
+      e[p - 1] = 0d;
+    }
+
+    // generate U
+    for (int j = nct; j < n; j++) {
+      for (int i = 0; i < m; i++) {
+        u[i][j] = 0d;
+      }
+      u[j][j] = 1d;
+    }
+    for (int k = nct - 1; k >= 0; k--) {
+      if (s[k] != 0d) {
+        for (int j = k + 1; j < n; j++) {
+          double t = 0;
+          for (int i = k; i < m; i++) {
+            t += u[i][k] * u[i][j];
+          }
+          t = -t / u[k][k];
+          for (int i = k; i < m; i++) {
+            u[i][j] += t * u[i][k];
+          }
+        }
+        for (int i = k; i < m; i++) {
+          u[i][k] = -u[i][k];
+        }
+        u[k][k] = 1d + u[k][k];
+        for (int i = 0; i < k; i++) {
+          u[i][k] = 0d;
+        }
+      } else {
+        for (int i = 0; i < m; i++) {
+          u[i][k] = 0d;
+        }
+        u[k][k] = 1d;
+      }
+    }
+
+    // generate V
+    for (int k = n - 1; k >= 0; k--) {
+      if (k < nrt && e[k] != 0d) {
+        for (int j = k + 1; j < n; j++) {
+          double t = 0;
+          for (int i = k + 1; i < n; i++) {
+            t += v[i][k] * v[i][j];
+          }
+          t = -t / v[k + 1][k];
+          for (int i = k + 1; i < n; i++) {
+            v[i][j] += t * v[i][k];
+          }
+        }
+      }
+      for (int i = 0; i < n; i++) {
+        v[i][k] = 0d;
+      }
+      v[k][k] = 1d;
+    }
+
+    // main iteration loop for the singular values
+    int pp = p - 1;
+    while (p > 0) {
+      int k;
+      int kase;
+      // find the largest k such that e[k] is negligible, -1 if none
+      for (k = p - 2; k >= 0; k--) {
+        if (Math.abs(e[k]) <= TINY + EPS * (Math.abs(s[k]) + Math.abs(s[k + 1]))) {
+          e[k] = 0d;
+          break;
+        }
+      }
+      if (k == p - 2) {
+        // s[p-1] has converged
+        kase = 4;
+      } else {
+        int ks;
+        for (ks = p - 1; ks > k; ks--) {
+          double t = (ks != p ? Math.abs(e[ks]) : 0d) + (ks != k + 1 ? Math.abs(e[ks - 1]) : 0d);
+          if (Math.abs(s[ks]) <= TINY + EPS * t) {
+            s[ks] = 0d;
+            break;
+          }
+        }
+        if (ks == k) {
+          // perform a QR step
+          kase = 3;
+        } else if (ks == p - 1) {
+          // deflate negligible s[p-1]
+          kase = 1;
+        } else {
+          // split at negligible s[ks]
+          kase = 2;
+          k = ks;
+        }
+      }
+      k++;
+
+      switch (kase) {
+        case 1: {
+          double f = e[p - 2];
+          e[p - 2] = 0d;
+          for (int j = p - 2; j >= k; j--) {
+            double t = hypot(s[j], f);
+            double cs = s[j] / t;
+            double sn = f / t;
+            s[j] = t;
+            if (j != k) {
+              f = -sn * e[j - 1];
+              e[j - 1] = cs * e[j - 1];
+            }
+            rotateColumns(v, j, p - 1, cs, sn);
+          }
+          break;
+        }
+        case 2: {
+          double f = e[k - 1];
+          e[k - 1] = 0d;
+          for (int j = k; j < p; j++) {
+            double t = hypot(s[j], f);
+            double cs = s[j] / t;
+            double sn = f / t;
+            s[j] = t;
+            f = -sn * e[j];
+            e[j] = cs * e[j];
+            rotateColumns(u, j, k - 1, cs, sn);
+          }
+          break;
+        }
+        case 3: {
+          // calculate the shift
+          double scale = Math.max(Math.max(Math.max(Math.max(
+              Math.abs(s[p - 1]), Math.abs(s[p - 2])), Math.abs(e[p - 2])), Math.abs(s[k])), Math.abs(e[k]));
+          double sp = s[p - 1] / scale;
+          double spm1 = s[p - 2] / scale;
+          double epm1 = e[p - 2] / scale;
+          double sk = s[k] / scale;
+          double ek = e[k] / scale;
+          double b = ((spm1 + sp) * (spm1 - sp) + epm1 * epm1) / 2d;
+          double c = (sp * epm1) * (sp * epm1);
+          double shift = 0d;
+          if (b != 0d || c != 0d) {
+            shift = Math.sqrt(b * b + c);
+            if (b < 0d) {
+              shift = -shift;
+            }
+            shift = c / (b + shift);
+          }
+          double f = (sk + sp) * (sk - sp) + shift;
+          double g = sk * ek;
+          // chase zeros
+          for (int j = k; j < p - 1; j++) {
+            double t = hypot(f, g);
+            double cs = f / t;
+            double sn = g / t;
+            if (j != k) {
+              e[j - 1] = t;
+            }
+            f = cs * s[j] + sn * e[j];
+            e[j] = cs * e[j] - sn * s[j];
+            g = sn * s[j + 1];
+            s[j + 1] = cs * s[j + 1];
+            rotateColumns(v, j, j + 1, cs, sn);
+            t = hypot(f, g);
+            cs = f / t;
+            sn = g / t;
+            s[j] = t;
+            f = cs * e[j] + sn * s[j + 1];
+            s[j + 1] = -sn * e[j] + cs * s[j + 1];
+            g = sn * e[j + 1];
+            e[j + 1] = cs * e[j + 1];
+            if (j < m - 1) {
+              rotateColumns(u, j, j + 1, cs, sn);
+            }
+          }
+          e[p - 2] = f;
+          break;
+        }
+        default: {
+          // make the singular value positive
+          if (s[k] <= 0d) {
+            s[k] = s[k] < 0d ? -s[k] : 0d;
+            for (int i = 0; i <= pp; i++) {
+              v[i][k] = -v[i][k];
+            }
+          }
+          // order the singular values
+          while (k < pp && s[k] < s[k + 1]) {
+            double t = s[k];
+            s[k] = s[k + 1];
+            s[k + 1] = t;
+            swapColumns(v, k, k + 1);
+            if (k < m - 1) {
+              swapColumns(u, k, k + 1);
+            }
+            k++;
+          }
+          p--;
+          break;
+        }
+      }
+    }
+    return new double[][][] {u, {s}, v};
+  }
+
+  // applies a Givens rotation to two columns
+  private static void rotateColumns(double[][] matrix, int col1, int col2, double cs, double sn) {
+    for (double[] row : matrix) {
+      double t = cs * row[col1] + sn * row[col2];
+      row[col2] = -sn * row[col1] + cs * row[col2];
+      row[col1] = t;
+    }
+  }
+
+  // sqrt(a^2 + b^2) without under or overflow, faster than Math.hypot
+  private static double hypot(double a, double b) {
+    double absA = Math.abs(a);
+    double absB = Math.abs(b);
+    if (absA > absB) {
+      double r = b / a;
+      return absA * Math.sqrt(1d + r * r);
+    } else if (absB != 0d) {
+      double r = a / b;
+      return absB * Math.sqrt(1d + r * r);
+    }
+    return 0d;
+  }
+
+  // swaps two columns
+  private static void swapColumns(double[][] matrix, int col1, int col2) {
+    for (double[] row : matrix) {
+      double t = row[col1];
+      row[col1] = row[col2];
+      row[col2] = t;
+    }
+  }
+
+}
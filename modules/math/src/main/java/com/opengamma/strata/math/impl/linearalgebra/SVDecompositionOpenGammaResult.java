@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Results of the OpenGamma implementation of singular value decomposition ({@link SVDecompositionOpenGamma}).
+ * <p>
+ * Solving uses the pseudo-inverse, treating singular values below a tolerance as zero.
+ * The tolerance, rank, norm and condition number are defined as in the Commons implementation.
+ */
+// CSOFF: AbbreviationAsWordInName
+public class SVDecompositionOpenGammaResult implements SVDecompositionResult {
+
+  /** Relative machine precision. */
+  private static final double EPS = Math.ulp(1d);
+  /** Minimum tolerance, the square root of the smallest normal double. */
+  private static final double MIN_TOLERANCE = Math.sqrt(Double.MIN_NORMAL);
+
+  private final double[][] _uArray;
+  private final double[] _singularValues;
+  private final double[][] _vArray;
+  private final DoubleMatrix _u;
+  private final DoubleMatrix _v;
+  private final double _tolerance;
+
+  /**
+   * Creates an instance.
+   *
+   * @param u  the matrix U, not copied
+   * @param singularValues  the singular values in non-increasing order, not copied
+   * @param v  the matrix V, not copied
+   */
+  public SVDecompositionOpenGammaResult(double[][] u, double[] singularValues, double[][] v) {
+    ArgChecker.notNull(u, "u");
+    ArgChecker.notNull(singularValues, "singularValues");
+    ArgChecker.notNull(v, "v");
+    _uArray = u;
+    _singularValues = singularValues;
+    _vArray = v;
+    _u = DoubleMatrix.ofUnsafe(u);
+    _v = DoubleMatrix.ofUnsafe(v);
+    double largest = singularValues.length == 0 ? 0d : singularValues[0];
+    _tolerance = Math.max(Math.max(u.length, v.length) * largest * EPS, MIN_TOLERANCE);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double getConditionNumber() {
+    return _singularValues[0] / _singularValues[_singularValues.length - 1];
+  }
+
+  @Override
+  public double getNorm() {
+    return _singularValues[0];
+  }
+
+  @Override
+  public int getRank() {
+    int rank = 0;
+    for (double singularValue : _singularValues) {
+      if (singularValue > _tolerance) {
+        rank++;
+      }
+    }
+    return rank;
+  }
+
+  @Override
+  public DoubleMatrix getS() {
+    return DoubleMatrix.diagonal(DoubleArray.copyOf(_singularValues));
+  }
+
+  @Override
+  public double[] getSingularValues() {
+    return _singularValues.clone();
+  }
+
+  @Override
+  public DoubleMatrix getU() {
+    return _u;
+  }
+
+  @Override
+  public DoubleMatrix getUT() {
+    return _u.transpose();
+  }
+
+  @Override
+  public DoubleMatrix getV() {
+    return _v;
+  }
+
+  @Override
+  public DoubleMatrix getVT() {
+    return _v.transpose();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray solve(DoubleArray b) {
+    ArgChecker.notNull(b, "b");
+    return DoubleArray.ofUnsafe(solve(b.toArrayUnsafe()));
+  }
+
+  @Override
+  public double[] solve(double[] b) {
+    ArgChecker.notNull(b, "b");
+    int m = _uArray.length;
+    int n = _vArray.length;
+    int p = _singularValues.length;
+    ArgChecker.isTrue(b.length == m, "b array of incorrect size");
+    // w = S^+ U^T b
+    double[] w = new double[p];
+    for (int i = 0; i < m; i++) {
+      double[] uRow = _uArray[i];
+      double bi = b[i];
+      for (int k = 0; k < p; k++) {
+        w[k] += uRow[k] * bi;
+      }
+    }
+    for (int k = 0; k < p; k++) {
+      w[k] = _singularValues[k] > _tolerance ? w[k] / _singularValues[k] : 0d;
+    }
+    // x = V w
+    double[] x = new double[n];
+    for (int i = 0; i < n; i++) {
+      double[] vRow = _vArray[i];
+      double sum = 0d;
+      for (int k = 0; k < p; k++) {
+        sum += vRow[k] * w[k];
+      }
+      x[i] = sum;
+    }
+    return x;
+  }
+
+  @Override
+  public DoubleMatrix solve(DoubleMatrix b) {
+    ArgChecker.notNull(b, "b");
+    int m = _uArray.length;
+    int n = _vArray.length;
+    int p = _singularValues.length;
+    ArgChecker.isTrue(b.rowCount() == m, "b matrix of incorrect size");
+    int nbCol = b.columnCount();
+    double[][] bArray = b.toArrayUnsafe();
+    // W = S^+ U^T B, operating on whole rows
+    double[][] w = new double[p][nbCol];
+    for (int i = 0; i < m; i++) {
+      double[] uRow = _uArray[i];
+      double[] bRow = bArray[i];
+      for (int k = 0; k < p; k++) {
+        double uik = uRow[k];
+        double[] wRow = w[k];
+        for (int j = 0; j < nbCol; j++) {
+          wRow[j] += uik * bRow[j];
+        }
+      }
+    }
+    for (int k = 0; k < p; k++) {
+      double factor = _singularValues[k] > _tolerance ? 1d / _singularValues[k] : 0d;
+      double[] wRow = w[k];
+      for (int j = 0; j < nbCol; j++) {
+        wRow[j] *= factor;
+      }
+    }
+    // X = V W, operating on whole rows
+    double[][] x = new double[n][nbCol];
+    for (int i = 0; i < n; i++) {
+      double[] vRow = _vArray[i];
+      double[] xRow = x[i];
+      for (int k = 0; k < p; k++) {
+        double vik = vRow[k];
+        double[] wRow = w[k];
+        for (int j = 0; j < nbCol; j++) {
+          xRow[j] += vik * wRow[j];
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(x);
+  }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.Matrix;
+import com.opengamma.strata.math.impl.linearalgebra.LUDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.linearalgebra.LUDecompositionResult;
+import com.opengamma.strata.math.impl.linearalgebra.SVDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.linearalgebra.SVDecompositionResult;
+
+/**
+ * Matrix algebra implemented directly on {@link DoubleMatrix} and {@link DoubleArray}.
+ * <p>
+ * This extends {@link OGMatrixAlgebra} with the operations that require a decomposition,
+ * using the OpenGamma LU and singular value decompositions rather than converting to Commons Math.
+ * The results are consistent with {@link CommonsMatrixAlgebra}.
+ * In particular, the inverse of a singular or non-square matrix is the pseudo-inverse.
+ */
+public class DirectMatrixAlgebra extends OGMatrixAlgebra {
+
+  /**
+   * The LU decomposition.
+   */
+  private static final LUDecompositionOpenGamma LU = new LUDecompositionOpenGamma();
+  /**
+   * The singular value decomposition.
+   */
+  private static final SVDecompositionOpenGamma SVD = new SVDecompositionOpenGamma();
+
+  @Override
+  public double getCondition(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      return SVD.apply((DoubleMatrix) m).getConditionNumber();
+    }
+    throw new IllegalArgumentException("Can only find condition number of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public double getDeterminant(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+      try {
+        return LU.apply(matrix).getDeterminant();
+      } catch (IllegalArgumentException ex) {
+        // singular
+        return 0d;
+      }
+    }
+    throw new IllegalArgumentException("Can only find determinant of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The inverse of a non-singular square matrix is found by LU decomposition.
+   * Otherwise the pseudo-inverse is found by singular value decomposition.
+   */
+  @Override
+  public DoubleMatrix getInverse(Matrix m) {
+    ArgChecker.notNull(m, "matrix was null");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      if (matrix.isSquare()) {
+        LUDecompositionResult lu = null;
+        try {
+          lu = LU.apply(matrix);
+        } catch (IllegalArgumentException ex) {
+          // singular, use the pseudo-inverse
+        }
+        if (lu != null) {
+          return lu.solve(DoubleMatrix.identity(matrix.rowCount()));
+        }
+      }
+      SVDecompositionResult svd = SVD.apply(matrix);
+      return svd.solve(DoubleMatrix.identity(matrix.rowCount()));
+    }
+    throw new IllegalArgumentException("Can only find inverse of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public double getNorm1(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleArray) {
+      return ((DoubleArray) m).reduce(0d, (r, v) -> r + Math.abs(v));
+    } else if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      double[] columnSums = new double[matrix.columnCount()];
+      for (double[] row : matrix.toArrayUnsafe()) {
+        for (int j = 0; j < row.length; j++) {
+          columnSums[j] += Math.abs(row[j]);
+        }
+      }
+      double max = 0d;
+      for (double sum : columnSums) {
+        max = Math.max(max, sum);
+      }
+      return max;
+    }
+    throw new IllegalArgumentException("Can only find norm1 of DoubleMatrix; have " + m.getClass());
+  }
+
+  @Override
+  public double getNorm2(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleMatrix) {
+      return SVD.apply((DoubleMatrix) m).getNorm();
+    }
+    return super.getNorm2(m);
+  }
+
+  @Override
+  public double getNormInfinity(Matrix m) {
+    ArgChecker.notNull(m, "m");
+    if (m instanceof DoubleArray) {
+      return ((DoubleArray) m).reduce(0d, (r, v) -> Math.max(r, Math.abs(v)));
+    } else if (m instanceof DoubleMatrix) {
+      double max = 0d;
+      for (double[] row : ((DoubleMatrix) m).toArrayUnsafe()) {
+        double sum = 0d;
+        for (double value : row) {
+          sum += Math.abs(value);
+        }
+        max = Math.max(max, sum);
+      }
+      return max;
+    }
+    throw new IllegalArgumentException("Can only find normInfinity of DoubleMatrix; have " + m.getClass());
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The power is calculated by repeated squaring.
+   */
+  @Override
+  public DoubleMatrix getPower(Matrix m, int p) {
+    ArgChecker.notNull(m, "m");
+    ArgChecker.notNegative(p, "p");
+    if (m instanceof DoubleMatrix) {
+      DoubleMatrix matrix = (DoubleMatrix) m;
+      ArgChecker.isTrue(matrix.isSquare(), "Matrix not square");
+      DoubleMatrix result = DoubleMatrix.identity(matrix.rowCount());
+      DoubleMatrix square = matrix;
+      int remaining = p;
+      while (remaining > 0) {
+        if ((remaining & 1) == 1) {
+          result = (DoubleMatrix) multiply(result, square);
+        }
+        remaining >>= 1;
+        if (remaining > 0) {
+          square = (DoubleMatrix) multiply(square, square);
+        }
+      }
+      return result;
+    }
+    throw new IllegalArgumentException("Can only find powers of DoubleMatrix; have " + m.getClass());
+  }
+
+}
@@ -18,10 +18,14 @@ public final class MatrixAlgebraFactory {
   public static final String COMMONS = "Commons";
   /** Label for OpenGamma matrix algebra */
   public static final String OG = "OG";
+  /** Label for direct OpenGamma matrix algebra */
+  public static final String DIRECT = "Direct";
   /** {@link CommonsMatrixAlgebra} */
   public static final CommonsMatrixAlgebra COMMONS_ALGEBRA = new CommonsMatrixAlgebra();
   /** {@link OGMatrixAlgebra} */
   public static final OGMatrixAlgebra OG_ALGEBRA = new OGMatrixAlgebra();
+  /** {@link DirectMatrixAlgebra} */
+  public static final DirectMatrixAlgebra DIRECT_ALGEBRA = new DirectMatrixAlgebra();
   private static final Map<String, MatrixAlgebra> STATIC_INSTANCES;
   private static final Map<Class<?>, String> INSTANCE_NAMES;
 
@@ -32,6 +36,8 @@ public final class MatrixAlgebraFactory {
     INSTANCE_NAMES.put(CommonsMatrixAlgebra.class, COMMONS);
     STATIC_INSTANCES.put(OG, OG_ALGEBRA);
     INSTANCE_NAMES.put(OGMatrixAlgebra.class, OG);
+    STATIC_INSTANCES.put(DIRECT, DIRECT_ALGEBRA);
+    INSTANCE_NAMES.put(DirectMatrixAlgebra.class, DIRECT);
   }
 
   private MatrixAlgebraFactory() {
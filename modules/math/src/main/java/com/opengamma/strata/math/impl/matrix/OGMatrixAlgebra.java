@@ -20,6 +20,11 @@ import com.opengamma.strata.math.impl.linearalgebra.TridiagonalMatrix;
 // CSOFF: AbbreviationAsWordInName
 public class OGMatrixAlgebra extends MatrixAlgebra {
 
+  /**
+   * The size of the blocks used in matrix multiplication, chosen so that blocks fit in the L1/L2 cache.
+   */
+  private static final int BLOCK_SIZE = 64;
+
   /**
    * {@inheritDoc}
    * @throws UnsupportedOperationException always
@@ -200,28 +205,48 @@ public class OGMatrixAlgebra extends MatrixAlgebra {
         m1.columnCount() == p,
         "Matrix size mismatch. m1 is " + m1.rowCount() + " by " + m1.columnCount() +
             ", but m2 is " + m2.rowCount() + " by " + m2.columnCount());
-    return DoubleMatrix.of(
-        m1.rowCount(),
-        m2.columnCount(),
-        (i, j) -> {
-          double sum = 0d;
-          for (int k = 0; k < p; k++) {
-            sum += m1.get(i, k) * m2.get(k, j);
+    int n = m1.rowCount();
+    int m = m2.columnCount();
+    double[][] a = m1.toArrayUnsafe();
+    double[][] b = m2.toArrayUnsafe();
+    double[][] c = new double[n][m];
+    // blocked i-k-j loop, the inner loop runs along contiguous rows of b and c
+    // the blocks are taken in order of k, so the summation order matches the naive algorithm
+    for (int kk = 0; kk < p; kk += BLOCK_SIZE) {
+      int kEnd = Math.min(kk + BLOCK_SIZE, p);
+      for (int jj = 0; jj < m; jj += BLOCK_SIZE) {
+        int jEnd = Math.min(jj + BLOCK_SIZE, m);
+        for (int i = 0; i < n; i++) {
+          double[] aRow = a[i];
+          double[] cRow = c[i];
+          for (int k = kk; k < kEnd; k++) {
+            double aik = aRow[k];
+            double[] bRow = b[k];
+            for (int j = jj; j < jEnd; j++) {
+              cRow[j] += aik * bRow[j];
+            }
           }
-          return sum;
-        });
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(c);
   }
 
   private DoubleArray multiply(DoubleMatrix matrix, DoubleArray vector) {
     int n = vector.size();
     ArgChecker.isTrue(matrix.columnCount() == n, "Matrix/vector size mismatch");
-    return DoubleArray.of(matrix.rowCount(), i -> {
+    double[][] a = matrix.toArrayUnsafe();
+    double[] x = vector.toArrayUnsafe();
+    double[] res = new double[a.length];
+    for (int i = 0; i < a.length; i++) {
+      double[] row = a[i];
       double sum = 0;
       for (int j = 0; j < n; j++) {
-        sum += matrix.get(i, j) * vector.get(j);
+        sum += row[j] * x[j];
       }
-      return sum;
-    });
+      res[i] = sum;
+    }
+    return DoubleArray.ofUnsafe(res);
   }
 
   private DoubleArray multiply(TridiagonalMatrix matrix, DoubleArray vector) {
@@ -244,13 +269,17 @@ public class OGMatrixAlgebra extends MatrixAlgebra {
   private DoubleArray multiply(DoubleArray vector, DoubleMatrix matrix) {
     int n = vector.size();
     ArgChecker.isTrue(matrix.rowCount() == n, "Matrix/vector size mismatch");
-    return DoubleArray.of(matrix.columnCount(), i -> {
-      double sum = 0;
-      for (int j = 0; j < n; j++) {
-        sum += vector.get(j) * matrix.get(j, i);
+    double[][] a = matrix.toArrayUnsafe();
+    double[] x = vector.toArrayUnsafe();
+    double[] res = new double[matrix.columnCount()];
+    for (int j = 0; j < n; j++) {
+      double[] row = a[j];
+      double xj = x[j];
+      for (int i = 0; i < res.length; i++) {
+        res[i] += xj * row[i];
       }
-      return sum;
-    });
+    }
+    return DoubleArray.ofUnsafe(res);
   }
 
   private DoubleArray multiply(DoubleArray vector, TridiagonalMatrix matrix) {
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Brownian bridge construction of Brownian motion paths.
+ * <p>
+ * The first normal random number determines the value at the last time, the second the value at the
+ * middle time, and so on by recursive bisection. When the normal random numbers come from a
+ * low-discrepancy sequence, this assigns the best distributed dimensions to the large scale
+ * structure of the path, which greatly reduces the effective dimension of path-dependent problems.
+ * <p>
+ * This class is immutable and thread-safe; all the weights are computed on construction.
+ */
+public final class BrownianBridge {
+
+  /**
+   * The times, strictly increasing and positive.
+   */
+  private final double[] times;
+  /**
+   * The index of the time populated at each step.
+   */
+  private final int[] bridgeIndex;
+  /**
+   * The index after the left time used at each step, zero if the left time is zero.
+   */
+  private final int[] leftIndex;
+  /**
+   * The index of the right time used at each step.
+   */
+  private final int[] rightIndex;
+  /**
+   * The weight of the left value at each step.
+   */
+  private final double[] leftWeight;
+  /**
+   * The weight of the right value at each step.
+   */
+  private final double[] rightWeight;
+  /**
+   * The standard deviation at each step.
+   */
+  private final double[] stdDev;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance with equally spaced unit time steps.
+   * <p>
+   * The times are 1, 2, ..., steps, so the increments of the resulting path are standard normal.
+   *
+   * @param steps  the number of steps
+   * @return the Brownian bridge
+   */
+  public static BrownianBridge ofSteps(int steps) {
+    ArgChecker.notNegativeOrZero(steps, "steps");
+    double[] times = new double[steps];
+    for (int i = 0; i < steps; i++) {
+      times[i] = i + 1;
+    }
+    return new BrownianBridge(times);
+  }
+
+  /**
+   * Obtains an instance for the specified times.
+   * <p>
+   * The path starts at zero at time zero.
+   *
+   * @param times  the times, strictly increasing and positive
+   * @return the Brownian bridge
+   */
+  public static BrownianBridge ofTimes(double[] times) {
+    ArgChecker.notEmpty(times, "times");
+    ArgChecker.isTrue(times[0] > 0, "Times must be positive");
+    for (int i = 1; i < times.length; i++) {
+      ArgChecker.isTrue(times[i] > times[i - 1], "Times must be strictly increasing");
+    }
+    return new BrownianBridge(times.clone());
+  }
+
+  // restricted constructor
+  private BrownianBridge(double[] times) {
+    int n = times.length;
+    this.times = times;
+    this.bridgeIndex = new int[n];
+    this.leftIndex = new int[n];
+    this.rightIndex = new int[n];
+    this.leftWeight = new double[n];
+    this.rightWeight = new double[n];
+    this.stdDev = new double[n];
+    // map holds the step at which each time is populated, plus one, zero if not yet populated
+    int[] map = new int[n];
+    map[n - 1] = 1;
+    bridgeIndex[0] = n - 1;
+    stdDev[0] = Math.sqrt(times[n - 1]);
+    int j = 0;
+    for (int i = 1; i < n; i++) {
+      // find the next unpopulated range [j, k)
+      while (map[j] != 0) {
+        j++;
+      }
+      int k = j;
+      while (map[k] == 0) {
+        k++;
+      }
+      int l = j + ((k - 1 - j) >> 1);
+      map[l] = i;
+      bridgeIndex[i] = l;
+      leftIndex[i] = j;
+      rightIndex[i] = k;
+      double leftTime = j == 0 ? 0d : times[j - 1];
+      double range = times[k] - leftTime;
+      leftWeight[i] = (times[k] - times[l]) / range;
+      rightWeight[i] = (times[l] - leftTime) / range;
+      stdDev[i] = Math.sqrt((times[l] - leftTime) * (times[k] - times[l]) / range);
+      j = k + 1;
+      if (j >= n) {
+        j = 0;
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of steps, which is the number of normal random numbers required for each path.
+   *
+   * @return the number of steps
+   */
+  public int getStepCount() {
+    return times.length;
+  }
+
+  /**
+   * Gets the times.
+   *
+   * @return the times
+   */
+  public double[] getTimes() {
+    return times.clone();
+  }
+
+  /**
+   * Builds the path of Brownian motion values at each time.
+   * <p>
+   * The output array may be the same as the input array.
+   *
+   * @param normals  the standard normal random numbers, one for each step
+   * @param path  the array to populate with the Brownian motion value at each time
+   */
+  public void buildPath(double[] normals, double[] path) {
+    ArgChecker.isTrue(
+        normals.length == times.length, "Expected {} normals but received {}", times.length, normals.length);
+    ArgChecker.isTrue(
+        path.length == times.length, "Expected path of size {} but was {}", times.length, path.length);
+    int n = times.length;
+    if (normals == path) {
+      // the normals are read in a different order to the path being written
+      double[] copy = normals.clone();
+      buildPath(copy, path);
+      return;
+    }
+    path[n - 1] = stdDev[0] * normals[0];
+    for (int i = 1; i < n; i++) {
+      int j = leftIndex[i];
+      int k = rightIndex[i];
+      int l = bridgeIndex[i];
+      if (j != 0) {
+        path[l] = leftWeight[i] * path[j - 1] + rightWeight[i] * path[k] + stdDev[i] * normals[i];
+      } else {
+        path[l] = rightWeight[i] * path[k] + stdDev[i] * normals[i];
+      }
+    }
+  }
+
+  /**
+   * Builds the increments of Brownian motion between each time.
+   * <p>
+   * The first increment is from time zero to the first time.
+   * The output array may be the same as the input array.
+   *
+   * @param normals  the standard normal random numbers, one for each step
+   * @param increments  the array to populate with the Brownian motion increments
+   */
+  public void buildIncrements(double[] normals, double[] increments) {
+    buildPath(normals, increments);
+    for (int i = increments.length - 1; i > 0; i--) {
+      increments[i] -= increments[i - 1];
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.math.impl.cern.Probability;
+
+/**
+ * Bulk transformation of uniform random numbers to standard normal random numbers.
+ * <p>
+ * The transformation uses the inverse of the standard normal cumulative distribution function.
+ * Unlike rejection methods, this maps each uniform to exactly one normal, which preserves the
+ * structure of low-discrepancy sequences and keeps parallel streams reproducible.
+ */
+public final class NormalTransform {
+
+  // restricted constructor
+  private NormalTransform() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Transforms an array of uniform random numbers to standard normal random numbers.
+   *
+   * @param uniforms  the uniform random numbers, each strictly between 0 and 1
+   * @return the standard normal random numbers
+   */
+  public static double[] inverseNormal(double[] uniforms) {
+    ArgChecker.notNull(uniforms, "uniforms");
+    double[] normals = new double[uniforms.length];
+    inverseNormal(uniforms, normals);
+    return normals;
+  }
+
+  /**
+   * Transforms an array of uniform random numbers to standard normal random numbers, in place if desired.
+   * <p>
+   * The output array may be the same as the input array.
+   *
+   * @param uniforms  the uniform random numbers, each strictly between 0 and 1
+   * @param normals  the array to populate with the standard normal random numbers, at least as long as the input
+   */
+  public static void inverseNormal(double[] uniforms, double[] normals) {
+    ArgChecker.notNull(uniforms, "uniforms");
+    ArgChecker.notNull(normals, "normals");
+    ArgChecker.isTrue(normals.length >= uniforms.length, "Output array is too short");
+    for (int i = 0; i < uniforms.length; i++) {
+      normals[i] = Probability.normalInverse(uniforms[i]);
+    }
+  }
+
+}
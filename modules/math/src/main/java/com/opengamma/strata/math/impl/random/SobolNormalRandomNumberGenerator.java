@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.random.SobolSequenceGenerator;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Quasi-random generator of standard normal vectors based on a Sobol low-discrepancy sequence.
+ * <p>
+ * Each vector is one point of the Sobol sequence, using the Joe-Kuo direction numbers
+ * supplied with Commons Math, transformed to normals by the inverse cumulative distribution.
+ * The point at index zero, which is the origin, is skipped.
+ * <p>
+ * If a Brownian bridge is used, the normals are returned as the standardized increments of a
+ * path built by {@link BrownianBridge}. They remain independent standard normals, but the first
+ * dimensions of the sequence determine the large scale structure of the path.
+ * <p>
+ * Each vector can only be obtained by a single thread.
+ * For parallel simulation, use {@link #startingAt(int)} to create a generator for each block
+ * of points; the results are then reproducible regardless of the number of threads.
+ */
+public final class SobolNormalRandomNumberGenerator implements RandomNumberGenerator {
+
+  /**
+   * The dimension of the sequence.
+   */
+  private final int dimension;
+  /**
+   * The Brownian bridge, null if not used.
+   */
+  private final BrownianBridge bridge;
+  /**
+   * The underlying uniform sequence.
+   */
+  private final SobolSequenceGenerator sobol;
+  /**
+   * The index of the next point.
+   */
+  private int nextIndex;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param dimension  the dimension, from 1 to 1000
+   * @return the generator
+   */
+  public static SobolNormalRandomNumberGenerator of(int dimension) {
+    return new SobolNormalRandomNumberGenerator(dimension, null, 1);
+  }
+
+  /**
+   * Obtains an instance that uses a Brownian bridge with unit time steps.
+   *
+   * @param dimension  the dimension, which is the number of time steps, from 1 to 1000
+   * @return the generator
+   */
+  public static SobolNormalRandomNumberGenerator withBrownianBridge(int dimension) {
+    ArgChecker.notNegativeOrZero(dimension, "dimension");
+    return new SobolNormalRandomNumberGenerator(dimension, BrownianBridge.ofSteps(dimension), 1);
+  }
+
+  // restricted constructor
+  private SobolNormalRandomNumberGenerator(int dimension, BrownianBridge bridge, int startIndex) {
+    ArgChecker.inRangeInclusive(dimension, 1, 1000, "dimension");
+    ArgChecker.notNegativeOrZero(startIndex, "startIndex");
+    this.dimension = dimension;
+    this.bridge = bridge;
+    this.sobol = new SobolSequenceGenerator(dimension);
+    // skipping returns the point at the index, so the next point is the one after
+    this.sobol.skipTo(startIndex - 1);
+    this.nextIndex = startIndex;
+  }
+
+  /**
+   * Returns a new generator with the same settings, starting at the specified point of the sequence.
+   * <p>
+   * This is used to split the sequence into blocks that are simulated in parallel.
+   *
+   * @param index  the index of the first point, one or greater
+   * @return the generator
+   */
+  public SobolNormalRandomNumberGenerator startingAt(int index) {
+    return new SobolNormalRandomNumberGenerator(dimension, bridge, index);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the dimension.
+   *
+   * @return the dimension
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * Gets the index of the next point in the sequence.
+   *
+   * @return the index of the next point
+   */
+  public int getNextIndex() {
+    return nextIndex;
+  }
+
+  /**
+   * Populates the array with the next vector of normals.
+   *
+   * @param normals  the array to populate, of size equal to the dimension
+   */
+  public void nextVector(double[] normals) {
+    ArgChecker.isTrue(
+        normals.length == dimension, "Expected array of size {} but was {}", dimension, normals.length);
+    double[] uniforms = sobol.nextVector();
+    nextIndex++;
+    NormalTransform.inverseNormal(uniforms, uniforms);
+    if (bridge != null) {
+      bridge.buildIncrements(uniforms, normals);
+    } else {
+      System.arraycopy(uniforms, 0, normals, 0, dimension);
+    }
+  }
+
+  @Override
+  public double[] getVector(int size) {
+    ArgChecker.isTrue(size == dimension, "Size must equal the dimension {} but was {}", dimension, size);
+    double[] result = new double[size];
+    nextVector(result);
+    return result;
+  }
+
+  @Override
+  public List<double[]> getVectors(int arraySize, int listSize) {
+    ArgChecker.isTrue(
+        arraySize == dimension, "Array size must equal the dimension {} but was {}", dimension, arraySize);
+    ArgChecker.notNegative(listSize, "listSize");
+    List<double[]> result = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      result.add(getVector(arraySize));
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Pseudo-random generator of standard normal numbers that can be split into independent streams.
+ * <p>
+ * This is based on {@link SplittableRandom}, with uniforms transformed to normals by the
+ * inverse cumulative distribution, so that each uniform produces exactly one normal.
+ * Splitting is deterministic, thus creating the streams for parallel simulation in a fixed
+ * order from a single seed gives reproducible results regardless of thread scheduling.
+ * <p>
+ * Each instance must only be used by a single thread.
+ */
+public final class SplittableNormalRandomNumberGenerator implements RandomNumberGenerator {
+
+  /**
+   * The scale to convert 53 random bits to a double.
+   */
+  private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+  /**
+   * The underlying generator.
+   */
+  private final SplittableRandom random;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a seed.
+   *
+   * @param seed  the seed
+   * @return the generator
+   */
+  public static SplittableNormalRandomNumberGenerator of(long seed) {
+    return new SplittableNormalRandomNumberGenerator(new SplittableRandom(seed));
+  }
+
+  // restricted constructor
+  private SplittableNormalRandomNumberGenerator(SplittableRandom random) {
+    this.random = random;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Splits off a new generator, which produces a stream independent of this one.
+   * <p>
+   * This generator is advanced by the split.
+   *
+   * @return the new generator
+   */
+  public SplittableNormalRandomNumberGenerator split() {
+    return new SplittableNormalRandomNumberGenerator(random.split());
+  }
+
+  /**
+   * Splits off a number of new generators, which produce independent streams.
+   * <p>
+   * This is typically used to create one generator for each block of paths in a parallel simulation.
+   *
+   * @param count  the number of generators
+   * @return the new generators
+   */
+  public List<SplittableNormalRandomNumberGenerator> split(int count) {
+    ArgChecker.notNegative(count, "count");
+    List<SplittableNormalRandomNumberGenerator> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(split());
+    }
+    return result;
+  }
+
+  /**
+   * Populates the array with standard normal random numbers.
+   *
+   * @param normals  the array to populate
+   */
+  public void nextVector(double[] normals) {
+    ArgChecker.notNull(normals, "normals");
+    for (int i = 0; i < normals.length; i++) {
+      // uniform in the open interval (0, 1)
+      normals[i] = ((random.nextLong() >>> 11) + 0.5d) * DOUBLE_UNIT;
+    }
+    NormalTransform.inverseNormal(normals, normals);
+  }
+
+  @Override
+  public double[] getVector(int size) {
+    ArgChecker.notNegative(size, "size");
+    double[] result = new double[size];
+    nextVector(result);
+    return result;
+  }
+
+  @Override
+  public List<double[]> getVectors(int arraySize, int listSize) {
+    ArgChecker.notNegative(arraySize, "arraySize");
+    ArgChecker.notNegative(listSize, "listSize");
+    List<double[]> result = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      result.add(getVector(arraySize));
+    }
+    return result;
+  }
+
+}
@@ -10,7 +10,6 @@ import java.util.Date;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.math.impl.cern.MersenneTwister64;
 import com.opengamma.strata.math.impl.cern.Normal;
-import com.opengamma.strata.math.impl.cern.Probability;
 import com.opengamma.strata.math.impl.cern.RandomEngine;
 
 /**
@@ -25,7 +24,52 @@ import com.opengamma.strata.math.impl.cern.RandomEngine;
  */
 public class NormalDistribution implements ProbabilityDistribution<Double> {
 
-  private static final double ROOT2 = Math.sqrt(2);
+  private static final double INV_ROOT_2PI = 1d / Math.sqrt(2d * Math.PI);
+
+  // coefficients for the Cody approximation of the cumulative distribution function
+  private static final double CODY_SPLIT1 = 0.67448975;
+  private static final double CODY_SPLIT2 = Math.sqrt(32d);
+  private static final double CODY_MAX = 38.5;
+  private static final double CODY_EPS = Math.ulp(1d) * 0.5;
+  private static final double[] CODY_A = {
+      2.2352520354606839287, 161.02823106855587881, 1067.6894854603709582, 18154.981253343561249, 0.065682337918207449113};
+  private static final double[] CODY_B = {
+      47.20258190468824187, 976.09855173777669322, 10260.932208618978205, 45507.789335026729956};
+  private static final double[] CODY_C = {
+      0.39894151208813466764, 8.8831497943883759412, 93.506656132177855979, 597.27027639480026226, 2494.5375852903726711,
+      6848.1904505362823326, 11602.651437647350124, 9842.7148383839780218, 1.0765576773720192317e-8};
+  private static final double[] CODY_D = {
+      22.266688044328115691, 235.38790178262499861, 1519.377599407554805, 6485.558298266760755, 18615.571640885098091,
+      34900.952721145977266, 38912.003286093271411, 19685.429676859990727};
+  private static final double[] CODY_P = {
+      0.21589853405795699, 0.1274011611602473639, 0.022235277870649807, 0.001421619193227893466, 2.9112874951168792e-5,
+      0.02307344176494017303};
+  private static final double[] CODY_Q = {
+      1.28426009614491121, 0.468238212480865118, 0.0659881378689285515, 0.00378239633202758244, 7.29751555083966205e-5};
+
+  // coefficients for the Wichura approximation of the inverse cumulative distribution function, increasing powers
+  private static final double WICHURA_SPLIT1 = 0.425;
+  private static final double WICHURA_SPLIT2 = 5d;
+  private static final double WICHURA_CONST1 = 0.180625;
+  private static final double WICHURA_CONST2 = 1.6;
+  private static final double[] WICHURA_A = {
+      3.3871328727963666080e0, 1.3314166789178437745e+2, 1.9715909503065514427e+3, 1.3731693765509461125e+4,
+      4.5921953931549871457e+4, 6.7265770927008700853e+4, 3.3430575583588128105e+4, 2.5090809287301226727e+3};
+  private static final double[] WICHURA_B = {
+      1d, 4.2313330701600911252e+1, 6.8718700749205790830e+2, 5.3941960214247511077e+3,
+      2.1213794301586595867e+4, 3.9307895800092710610e+4, 2.8729085735721942674e+4, 5.2264952788528545610e+3};
+  private static final double[] WICHURA_C = {
+      1.42343711074968357734e0, 4.63033784615654529590e0, 5.76949722146069140550e0, 3.64784832476320460504e0,
+      1.27045825245236838258e0, 2.41780725177450611770e-1, 2.27238449892691845833e-2, 7.74545014278341407640e-4};
+  private static final double[] WICHURA_D = {
+      1d, 2.05319162663775882187e0, 1.67638483018380384940e0, 6.89767334985100004550e-1,
+      1.48103976427480074590e-1, 1.51986665636164571966e-2, 5.47593808499534494600e-4, 1.05075007164441684324e-9};
+  private static final double[] WICHURA_E = {
+      6.65790464350110377720e0, 5.46378491116411436990e0, 1.78482653991729133580e0, 2.96560571828504891230e-1,
+      2.65321895265761230930e-2, 1.24266094738807843860e-3, 2.71155556874348757815e-5, 2.01033439929228813265e-7};
+  private static final double[] WICHURA_F = {
+      1d, 5.99832206555887937690e-1, 1.36929880922735805310e-1, 1.48753612908506148525e-2,
+      7.86869131145613259100e-4, 1.84631831751005468180e-5, 1.42151175831644588870e-7, 2.04426310338993978564e-15};
 
   // TODO need a better seed
   private final double _mean;
@@ -59,7 +103,37 @@ public class NormalDistribution implements ProbabilityDistribution<Double> {
   @Override
   public double getCDF(Double x) {
     ArgChecker.notNull(x, "x");
-    return DERFC.getErfc(-x / ROOT2) / 2;
+    return getCDF(x.doubleValue());
+  }
+
+  /**
+   * Gets the cumulative distribution function of the standard normal distribution.
+   * <p>
+   * This is the primitive equivalent of {@link #getCDF(Double)}, avoiding boxing.
+   * The rational Chebyshev approximations of Cody are used, which have a relative accuracy close to machine precision.
+   * Values in the far tails underflow to zero or round to one as appropriate.
+   *
+   * @param x  the value
+   * @return the cumulative probability
+   */
+  public double getCDF(double x) {
+    return cdf(x);
+  }
+
+  /**
+   * Gets the cumulative distribution function of the standard normal distribution for an array of values.
+   * <p>
+   * This is the bulk equivalent of {@link #getCDF(double)}.
+   * The result array may be the same as the input array.
+   *
+   * @param x  the values
+   * @param result  the array to populate with the cumulative probabilities, the same length as the values
+   */
+  public void getCDF(double[] x, double[] result) {
+    checkArrays(x, result);
+    for (int i = 0; i < x.length; i++) {
+      result[i] = cdf(x[i]);
+    }
   }
 
   /**
@@ -68,7 +142,36 @@ public class NormalDistribution implements ProbabilityDistribution<Double> {
   @Override
   public double getPDF(Double x) {
     ArgChecker.notNull(x, "x");
-    return _normal.pdf(x);
+    return getPDF(x.doubleValue());
+  }
+
+  /**
+   * Gets the probability density function.
+   * <p>
+   * This is the primitive equivalent of {@link #getPDF(Double)}, avoiding boxing.
+   *
+   * @param x  the value
+   * @return the probability density
+   */
+  public double getPDF(double x) {
+    double z = (x - _mean) / _standardDeviation;
+    return Math.exp(-0.5 * z * z) * INV_ROOT_2PI / _standardDeviation;
+  }
+
+  /**
+   * Gets the probability density function for an array of values.
+   * <p>
+   * This is the bulk equivalent of {@link #getPDF(double)}.
+   * The result array may be the same as the input array.
+   *
+   * @param x  the values
+   * @param result  the array to populate with the probability densities, the same length as the values
+   */
+  public void getPDF(double[] x, double[] result) {
+    checkArrays(x, result);
+    for (int i = 0; i < x.length; i++) {
+      result[i] = getPDF(x[i]);
+    }
   }
 
   /**
@@ -85,8 +188,133 @@ public class NormalDistribution implements ProbabilityDistribution<Double> {
   @Override
   public double getInverseCDF(Double p) {
     ArgChecker.notNull(p, "p");
-    ArgChecker.isTrue(p >= 0 && p <= 1, "Probability must be >= 0 and <= 1");
-    return Probability.normalInverse(p);
+    return getInverseCDF(p.doubleValue());
+  }
+
+  /**
+   * Gets the inverse cumulative distribution function of the standard normal distribution.
+   * <p>
+   * This is the primitive equivalent of {@link #getInverseCDF(Double)}, avoiding boxing.
+   * Algorithm AS 241 of Wichura is used, which has a relative accuracy of about 1e-16.
+   * A probability of zero returns negative infinity and a probability of one returns positive infinity.
+   *
+   * @param p  the probability, from zero to one inclusive
+   * @return the value with the specified cumulative probability
+   */
+  public double getInverseCDF(double p) {
+    ArgChecker.isTrue(p >= 0 && p <= 1, "Probability must be >= 0 and <= 1, but was {}", p);
+    return inverseCdf(p);
+  }
+
+  /**
+   * Gets the inverse cumulative distribution function of the standard normal distribution for an array of probabilities.
+   * <p>
+   * This is the bulk equivalent of {@link #getInverseCDF(double)}.
+   * The result array may be the same as the input array.
+   *
+   * @param p  the probabilities, each from zero to one inclusive
+   * @param result  the array to populate with the values, the same length as the probabilities
+   */
+  public void getInverseCDF(double[] p, double[] result) {
+    checkArrays(p, result);
+    for (int i = 0; i < p.length; i++) {
+      double probability = p[i];
+      ArgChecker.isTrue(probability >= 0 && probability <= 1, "Probability must be >= 0 and <= 1, but was {}", probability);
+      result[i] = inverseCdf(probability);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the input and result arrays
+  private static void checkArrays(double[] input, double[] result) {
+    ArgChecker.notNull(input, "input");
+    ArgChecker.notNull(result, "result");
+    ArgChecker.isTrue(input.length == result.length, "Arrays must have the same length, {} and {}", input.length, result.length);
+  }
+
+  // the standard normal cumulative distribution function, W. J. Cody, Math. Comp. 23 (1969) 631-637
+  // three rational approximations are used, depending on the magnitude of the argument
+  private static double cdf(double x) {
+    double y = Math.abs(x);
+    if (y <= CODY_SPLIT1) {
+      // |x| <= 0.67448975, approximate around zero
+      double xsq = y > CODY_EPS ? x * x : 0d;
+      double num = CODY_A[4] * xsq;
+      double den = xsq;
+      for (int i = 0; i < 3; i++) {
+        num = (num + CODY_A[i]) * xsq;
+        den = (den + CODY_B[i]) * xsq;
+      }
+      return 0.5 + x * (num + CODY_A[3]) / (den + CODY_B[3]);
+    }
+    double tail;
+    if (y <= CODY_SPLIT2) {
+      // |x| <= sqrt(32), approximate the complementary function
+      double num = CODY_C[8] * y;
+      double den = y;
+      for (int i = 0; i < 7; i++) {
+        num = (num + CODY_C[i]) * y;
+        den = (den + CODY_D[i]) * y;
+      }
+      tail = (num + CODY_C[7]) / (den + CODY_D[7]) * expSquare(y);
+    } else if (y < CODY_MAX) {
+      // asymptotic expansion
+      double xsq = 1d / (x * x);
+      double num = CODY_P[5] * xsq;
+      double den = xsq;
+      for (int i = 0; i < 4; i++) {
+        num = (num + CODY_P[i]) * xsq;
+        den = (den + CODY_Q[i]) * xsq;
+      }
+      tail = (INV_ROOT_2PI - xsq * (num + CODY_P[4]) / (den + CODY_Q[4])) / y * expSquare(y);
+    } else if (y >= CODY_MAX) {
+      tail = 0d;
+    } else {
+      // NaN
+      return x;
+    }
+    return x > 0 ? 1d - tail : tail;
+  }
+
+  // exp(-y^2 / 2), splitting y to avoid cancellation errors in the square
+  private static double expSquare(double y) {
+    double ysq = Math.floor(y * 16d) / 16d;
+    double del = (y - ysq) * (y + ysq);
+    return Math.exp(-ysq * ysq * 0.5) * Math.exp(-del * 0.5);
+  }
+
+  // the standard normal inverse cumulative distribution function, M. J. Wichura, Appl. Statist. 37 (1988) 477-484
+  private static double inverseCdf(double p) {
+    double q = p - 0.5;
+    if (Math.abs(q) <= WICHURA_SPLIT1) {
+      double r = WICHURA_CONST1 - q * q;
+      return q * poly(WICHURA_A, r) / poly(WICHURA_B, r);
+    }
+    if (p == 0d) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    if (p == 1d) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double r = Math.sqrt(-Math.log(q < 0 ? p : 1d - p));
+    double value;
+    if (r <= WICHURA_SPLIT2) {
+      r -= WICHURA_CONST2;
+      value = poly(WICHURA_C, r) / poly(WICHURA_D, r);
+    } else {
+      r -= WICHURA_SPLIT2;
+      value = poly(WICHURA_E, r) / poly(WICHURA_F, r);
+    }
+    return q < 0 ? -value : value;
+  }
+
+  // evaluates a polynomial by Horner's method, coefficients in increasing order of power
+  private static double poly(double[] coefficients, double x) {
+    double result = coefficients[coefficients.length - 1];
+    for (int i = coefficients.length - 2; i >= 0; i--) {
+      result = result * x + coefficients[i];
+    }
+    return result;
   }
 
   /**
@@ -0,0 +1,458 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.statistics.leastsquare;
+
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.MathException;
+import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+import com.opengamma.strata.math.linearalgebra.DecompositionResult;
+
+/**
+ * Non linear least square calculator using the Levenberg-Marquardt algorithm with an analytic Jacobian.
+ * <p>
+ * This is intended for the repeated solution of small problems, such as smile calibrations.
+ * The iterations follow {@link NonLinearLeastSquare}, but operate on arrays that are allocated once per thread
+ * and reused across iterations and calls. The damped normal equations are solved by Cholesky decomposition in place,
+ * falling back to the supplied decomposition if the matrix is not numerically positive definite.
+ * <p>
+ * The parameters passed to the model, Jacobian and constraint functions are views of the reused arrays,
+ * so the functions must not retain them beyond the call.
+ * <p>
+ * The Jacobian must be supplied, no finite difference approximation is used.
+ * Unlike {@link NonLinearLeastSquare}, the solution is not checked for saddle points using second order
+ * derivatives, the iterations stop when the chi-square no longer improves.
+ * The covariance and inverse Jacobian of the result are computed at the solution using the supplied decomposition.
+ * <p>
+ * Instances are safe for use by multiple threads.
+ */
+public class LevenbergMarquardtLeastSquare {
+
+  /**
+   * The maximum number of attempts.
+   */
+  private static final int MAX_ATTEMPTS = 10000;
+  /**
+   * The relative size of the smallest pivot accepted by the Cholesky decomposition.
+   */
+  private static final double PIVOT_TOLERANCE = 1e-14;
+  private static final Function<DoubleArray, Boolean> UNCONSTRAINED = x -> true;
+
+  /**
+   * The relative tolerance on the chi-square.
+   */
+  private final double _eps;
+  /**
+   * The decomposition used when Cholesky fails and at the solution.
+   */
+  private final Decomposition<?> _decomposition;
+  /**
+   * The workspace, one per thread.
+   */
+  private final ThreadLocal<Workspace> _workspace = ThreadLocal.withInitial(Workspace::new);
+
+  /**
+   * Creates an instance with a singular value decomposition and a tolerance of 1e-8.
+   */
+  public LevenbergMarquardtLeastSquare() {
+    this(DecompositionFactory.SV_COMMONS, 1e-8);
+  }
+
+  /**
+   * Creates an instance.
+   *
+   * @param decomposition  the decomposition used when Cholesky fails and to compute the results at the solution
+   * @param eps  the relative tolerance on the chi-square
+   */
+  public LevenbergMarquardtLeastSquare(Decomposition<?> decomposition, double eps) {
+    _decomposition = ArgChecker.notNull(decomposition, "decomposition");
+    _eps = eps;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Use this when the model is given as a function of its parameters only (i.e. a function that takes a set of
+   * parameters and return a set of model values, so the measurement points are already known to the function),
+   * and analytic parameter sensitivity is available.
+   *
+   * @param observedValues  the set of measurement values
+   * @param sigma  the set of measurement errors
+   * @param func  the model as a function of its parameters only
+   * @param jac  the model sensitivity to its parameters (i.e. the Jacobian matrix) as a function of its parameters only
+   * @param startPos  the initial value of the parameters
+   * @param maxJumps  the maximum absolute allowed step in each direction in each iteration, null for no limit
+   * @return the fitted parameters
+   */
+  public LeastSquareResults solve(
+      DoubleArray observedValues,
+      DoubleArray sigma,
+      Function<DoubleArray, DoubleArray> func,
+      Function<DoubleArray, DoubleMatrix> jac,
+      DoubleArray startPos,
+      DoubleArray maxJumps) {
+
+    return solve(observedValues, sigma, func, jac, startPos, UNCONSTRAINED, maxJumps);
+  }
+
+  /**
+   * Use this when the model is given as a function of its parameters only (i.e. a function that takes a set of
+   * parameters and return a set of model values, so the measurement points are already known to the function),
+   * and analytic parameter sensitivity is available.
+   *
+   * @param observedValues  the set of measurement values
+   * @param sigma  the set of measurement errors
+   * @param func  the model as a function of its parameters only
+   * @param jac  the model sensitivity to its parameters (i.e. the Jacobian matrix) as a function of its parameters only
+   * @param startPos  the initial value of the parameters
+   * @param constraints  the function that returns true if the trial point is within the constraints of the model
+   * @param maxJumps  the maximum absolute allowed step in each direction in each iteration, null for no limit
+   * @return the fitted parameters
+   */
+  public LeastSquareResults solve(
+      DoubleArray observedValues,
+      DoubleArray sigma,
+      Function<DoubleArray, DoubleArray> func,
+      Function<DoubleArray, DoubleMatrix> jac,
+      DoubleArray startPos,
+      Function<DoubleArray, Boolean> constraints,
+      DoubleArray maxJumps) {
+
+    ArgChecker.notNull(observedValues, "observedValues");
+    ArgChecker.notNull(sigma, "sigma");
+    ArgChecker.notNull(func, "func");
+    ArgChecker.notNull(jac, "jac");
+    ArgChecker.notNull(startPos, "startPos");
+    ArgChecker.notNull(constraints, "constraints");
+    int nObs = observedValues.size();
+    int nParms = startPos.size();
+    ArgChecker.isTrue(nObs == sigma.size(), "observedValues and sigma must be same length");
+    ArgChecker.isTrue(nObs >= nParms,
+        "must have data points greater or equal to number of parameters. #date points = {}, #parameters = {}", nObs, nParms);
+    ArgChecker.isTrue(constraints.apply(startPos),
+        "The inital value of the parameters (startPos) is {} - this is not an allowed value", startPos);
+    ArgChecker.isTrue(maxJumps == null || maxJumps.size() == nParms, "maxJumps must have the same size as startPos");
+
+    Workspace ws = _workspace.get();
+    if (ws.inUse) {
+      // nested call on the same thread
+      ws = new Workspace();
+    }
+    ws.ensureSize(nObs, nParms);
+    ws.inUse = true;
+    try {
+      return solve(ws, observedValues, sigma, func, jac, startPos, constraints, maxJumps);
+    } finally {
+      ws.inUse = false;
+    }
+  }
+
+  // the iterations, using the workspace
+  private LeastSquareResults solve(
+      Workspace ws,
+      DoubleArray observedValues,
+      DoubleArray sigma,
+      Function<DoubleArray, DoubleArray> func,
+      Function<DoubleArray, DoubleMatrix> jac,
+      DoubleArray startPos,
+      Function<DoubleArray, Boolean> constraints,
+      DoubleArray maxJumps) {
+
+    int nObs = observedValues.size();
+    int nParms = startPos.size();
+    double[] observed = observedValues.toArrayUnsafe();
+    double[] sigmas = sigma.toArrayUnsafe();
+    double oldChiSqr = error(func, observed, sigmas, startPos, ws.error);
+    jacobian(jac, sigmas, startPos, ws.jacobian);
+    // If we start at the solution we are done
+    if (oldChiSqr == 0d) {
+      return finish(ws, oldChiSqr, startPos, sigmas, nObs, nParms);
+    }
+    // the current and trial parameters are views of workspace arrays, copied when returned
+    System.arraycopy(startPos.toArrayUnsafe(), 0, ws.theta, 0, nParms);
+    gradientAndCurvature(ws, nObs, nParms);
+    double lambda = 0d;
+    for (int count = 0; count < MAX_ATTEMPTS; count++) {
+      // the damped normal equations
+      for (int i = 0; i < nParms; i++) {
+        System.arraycopy(ws.curvature[i], 0, ws.alpha[i], 0, nParms);
+        ws.alpha[i][i] *= 1d + lambda;
+      }
+      if (!choleskySolve(ws.alpha, ws.beta, ws.delta, nParms)) {
+        decompositionSolve(ws, nParms, lambda);
+      }
+      for (int i = 0; i < nParms; i++) {
+        ws.trial[i] = ws.theta[i] + ws.delta[i];
+      }
+      DoubleArray trialTheta = ws.trialView;
+      // acceptable step is found
+      if (!constraints.apply(trialTheta) || !allowJump(ws.delta, maxJumps)) {
+        lambda = increaseLambda(lambda);
+        continue;
+      }
+      double newChiSqr = error(func, observed, sigmas, trialTheta, ws.trialError);
+      // Check for convergence when no improvement in chiSqr occurs
+      if (Math.abs(newChiSqr - oldChiSqr) / (1 + oldChiSqr) < _eps) {
+        jacobian(jac, sigmas, trialTheta, ws.jacobian);
+        return finish(ws, newChiSqr, DoubleArray.copyOf(ws.trial), sigmas, nObs, nParms);
+      }
+      if (newChiSqr < oldChiSqr) {
+        lambda = decreaseLambda(lambda);
+        ws.acceptTrial();
+        jacobian(jac, sigmas, ws.thetaView, ws.jacobian);
+        gradientAndCurvature(ws, nObs, nParms);
+        oldChiSqr = newChiSqr;
+      } else {
+        lambda = increaseLambda(lambda);
+      }
+    }
+    throw new MathException("Could not converge in " + MAX_ATTEMPTS + " attempts");
+  }
+
+  //-------------------------------------------------------------------------
+  private double decreaseLambda(double lambda) {
+    return lambda / 10;
+  }
+
+  private double increaseLambda(double lambda) {
+    if (lambda == 0d) { // this will happen the first time a full quadratic step fails
+      return 0.1;
+    }
+    return lambda * 10;
+  }
+
+  private boolean allowJump(double[] deltaTheta, DoubleArray maxJumps) {
+    if (maxJumps == null) {
+      return true;
+    }
+    for (int i = 0; i < deltaTheta.length; i++) {
+      if (Math.abs(deltaTheta[i]) > maxJumps.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // the weighted errors (observed - model) / sigma, returning the chi-square
+  private double error(
+      Function<DoubleArray, DoubleArray> func,
+      double[] observed,
+      double[] sigma,
+      DoubleArray theta,
+      double[] error) {
+
+    DoubleArray modelValues = func.apply(theta);
+    int n = observed.length;
+    ArgChecker.isTrue(n == modelValues.size(),
+        "Number of data points different between model ({}) and observed ({})", modelValues.size(), n);
+    double[] model = modelValues.toArrayUnsafe();
+    double chiSqr = 0d;
+    for (int i = 0; i < n; i++) {
+      double e = (observed[i] - model[i]) / sigma[i];
+      error[i] = e;
+      chiSqr += e * e;
+    }
+    return chiSqr;
+  }
+
+  // the Jacobian with rows weighted by 1 / sigma
+  private void jacobian(
+      Function<DoubleArray, DoubleMatrix> jac,
+      double[] sigma,
+      DoubleArray theta,
+      double[][] jacobian) {
+
+    DoubleMatrix res = jac.apply(theta);
+    int n = res.rowCount();
+    int m = res.columnCount();
+    ArgChecker.isTrue(theta.size() == m, "Jacobian is wrong size");
+    ArgChecker.isTrue(sigma.length == n, "Jacobian is wrong size");
+    double[][] data = res.toArrayUnsafe();
+    for (int i = 0; i < n; i++) {
+      double sigmaInv = 1d / sigma[i];
+      double[] row = data[i];
+      double[] target = jacobian[i];
+      for (int j = 0; j < m; j++) {
+        target[j] = row[j] * sigmaInv;
+      }
+    }
+  }
+
+  // the chi-square gradient J^T e and the curvature J^T J, using the symmetry of the latter
+  private void gradientAndCurvature(Workspace ws, int nObs, int nParms) {
+    double[][] jacobian = ws.jacobian;
+    for (int j = 0; j < nParms; j++) {
+      double sum = 0d;
+      for (int i = 0; i < nObs; i++) {
+        sum += ws.error[i] * jacobian[i][j];
+      }
+      ws.beta[j] = sum;
+      for (int k = 0; k <= j; k++) {
+        double product = 0d;
+        for (int i = 0; i < nObs; i++) {
+          product += jacobian[i][j] * jacobian[i][k];
+        }
+        ws.curvature[j][k] = product;
+        ws.curvature[k][j] = product;
+      }
+    }
+  }
+
+  // solves a x = b by Cholesky decomposition, overwriting a, returning false if a is not positive definite
+  private static boolean choleskySolve(double[][] a, double[] b, double[] x, int n) {
+    double maxDiagonal = 0d;
+    for (int i = 0; i < n; i++) {
+      maxDiagonal = Math.max(maxDiagonal, a[i][i]);
+    }
+    double minPivot = PIVOT_TOLERANCE * maxDiagonal;
+    // lower triangle overwritten by L, with a = L L^T
+    for (int j = 0; j < n; j++) {
+      double[] rowJ = a[j];
+      double diagonal = rowJ[j];
+      for (int k = 0; k < j; k++) {
+        diagonal -= rowJ[k] * rowJ[k];
+      }
+      if (!(diagonal > minPivot)) {
+        return false;
+      }
+      double pivot = Math.sqrt(diagonal);
+      rowJ[j] = pivot;
+      for (int i = j + 1; i < n; i++) {
+        double[] rowI = a[i];
+        double sum = rowI[j];
+        for (int k = 0; k < j; k++) {
+          sum -= rowI[k] * rowJ[k];
+        }
+        rowI[j] = sum / pivot;
+      }
+    }
+    // forward substitution L y = b, then backward substitution L^T x = y
+    for (int i = 0; i < n; i++) {
+      double sum = b[i];
+      for (int k = 0; k < i; k++) {
+        sum -= a[i][k] * x[k];
+      }
+      x[i] = sum / a[i][i];
+    }
+    for (int i = n - 1; i >= 0; i--) {
+      double sum = x[i];
+      for (int k = i + 1; k < n; k++) {
+        sum -= a[k][i] * x[k];
+      }
+      x[i] = sum / a[i][i];
+    }
+    return true;
+  }
+
+  // solves the damped normal equations with the supplied decomposition, restoring alpha overwritten by Cholesky
+  private void decompositionSolve(Workspace ws, int nParms, double lambda) {
+    for (int i = 0; i < nParms; i++) {
+      System.arraycopy(ws.curvature[i], 0, ws.alpha[i], 0, nParms);
+      ws.alpha[i][i] *= 1d + lambda;
+    }
+    try {
+      DecompositionResult decmp = _decomposition.apply(ws.alphaView);
+      double[] delta = decmp.solve(ws.betaView).toArrayUnsafe();
+      System.arraycopy(delta, 0, ws.delta, 0, nParms);
+    } catch (Exception e) {
+      throw new MathException(e);
+    }
+  }
+
+  // the results at the solution, using the weighted Jacobian
+  private LeastSquareResults finish(
+      Workspace ws,
+      double chiSqr,
+      DoubleArray theta,
+      double[] sigma,
+      int nObs,
+      int nParms) {
+
+    double[][] jacobian = ws.jacobian;
+    double[][] alpha = ws.alpha;
+    double[][] bT = ws.inverseJacobianInput;
+    for (int j = 0; j < nParms; j++) {
+      for (int k = 0; k <= j; k++) {
+        double product = 0d;
+        for (int i = 0; i < nObs; i++) {
+          product += jacobian[i][j] * jacobian[i][k];
+        }
+        alpha[j][k] = product;
+        alpha[k][j] = product;
+      }
+      for (int i = 0; i < nObs; i++) {
+        bT[j][i] = jacobian[i][j] / sigma[i];
+      }
+    }
+    DecompositionResult decmp = _decomposition.apply(ws.alphaView);
+    DoubleMatrix covariance = decmp.solve(DoubleMatrix.identity(nParms));
+    DoubleMatrix inverseJacobian = decmp.solve(ws.inverseJacobianInputView);
+    return new LeastSquareResults(chiSqr, theta, covariance, inverseJacobian);
+  }
+
+  //-------------------------------------------------------------------------
+  // the arrays reused across iterations and calls
+  // the views wrap the arrays without copying, and are only passed to the functions and decomposition being called
+  private static final class Workspace {
+    private boolean inUse;
+    private int nObs = -1;
+    private int nParms = -1;
+    private double[] error;
+    private double[] trialError;
+    private double[] theta;
+    private DoubleArray thetaView;
+    private double[] trial;
+    private DoubleArray trialView;
+    private double[][] jacobian;
+    private double[] beta;
+    private DoubleArray betaView;
+    private double[][] curvature;
+    private double[][] alpha;
+    private DoubleMatrix alphaView;
+    private double[] delta;
+    private double[][] inverseJacobianInput;
+    private DoubleMatrix inverseJacobianInputView;
+
+    private void ensureSize(int nObs, int nParms) {
+      if (nObs != this.nObs || nParms != this.nParms) {
+        this.nObs = nObs;
+        this.nParms = nParms;
+        error = new double[nObs];
+        trialError = new double[nObs];
+        theta = new double[nParms];
+        thetaView = DoubleArray.ofUnsafe(theta);
+        trial = new double[nParms];
+        trialView = DoubleArray.ofUnsafe(trial);
+        jacobian = new double[nObs][nParms];
+        beta = new double[nParms];
+        betaView = DoubleArray.ofUnsafe(beta);
+        curvature = new double[nParms][nParms];
+        alpha = new double[nParms][nParms];
+        alphaView = DoubleMatrix.ofUnsafe(alpha);
+        delta = new double[nParms];
+        inverseJacobianInput = new double[nParms][nObs];
+        inverseJacobianInputView = DoubleMatrix.ofUnsafe(inverseJacobianInput);
+      }
+    }
+
+    // the trial parameters and errors become the current ones, by swapping the arrays
+    private void acceptTrial() {
+      double[] swapError = error;
+      error = trialError;
+      trialError = swapError;
+      double[] swapTheta = theta;
+      theta = trial;
+      trial = swapTheta;
+      DoubleArray swapView = thetaView;
+      thetaView = trialView;
+      trialView = swapView;
+    }
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
+import com.opengamma.strata.math.impl.util.AssertMatrix;
+
+/**
+ * Test {@link BlockSparseMatrix}.
+ */
+@Test
+public class BlockSparseMatrixTest {
+
+  private static final MatrixAlgebra ALGEBRA = new OGMatrixAlgebra();
+  private static final int[] SIZES = {2, 1, 2};
+  private static final DoubleMatrix LOWER = DoubleMatrix.copyOf(new double[][] {
+      {4, 1, 0, 0, 0},
+      {1, 3, 0, 0, 0},
+      {1, 2, 5, 0, 0},
+      {0, 0, 0, 2, 1},
+      {0, 0, 1, 1, 3}});
+  private static final DoubleMatrix DENSE = DoubleMatrix.copyOf(new double[][] {
+      {1, 2, 3},
+      {4, 5, 6},
+      {7, 8, 9},
+      {1, 0, 1},
+      {0, 1, 0}});
+
+  public void test_of() {
+    BlockSparseMatrix test = BlockSparseMatrix.of(LOWER, SIZES);
+    assertThat(test.dimensions()).isEqualTo(2);
+    assertThat(test.size()).isEqualTo(25);
+    assertThat(test.rowCount()).isEqualTo(5);
+    assertThat(test.columnCount()).isEqualTo(5);
+    assertThat(test.blockRowCount()).isEqualTo(3);
+    assertThat(test.blockColumnCount()).isEqualTo(3);
+    assertThat(test.rowBlockSize(2)).isEqualTo(2);
+    assertThat(test.columnBlockSize(1)).isEqualTo(1);
+    assertThat(test.isBlockSquare()).isTrue();
+    assertThat(test.isZeroBlock(0, 1)).isTrue();
+    assertThat(test.isZeroBlock(2, 0)).isTrue();
+    assertThat(test.isZeroBlock(2, 1)).isFalse();
+    assertThat(test.getBlock(0, 2)).isEqualTo(DoubleMatrix.filled(2, 2));
+    assertThat(test.getBlock(1, 0)).isEqualTo(DoubleMatrix.of(1, 2, 1d, 2d));
+    assertThat(test.isBlockLowerTriangular()).isTrue();
+    assertThat(test.isBlockUpperTriangular()).isFalse();
+    assertThat(test.transpose().isBlockUpperTriangular()).isTrue();
+    assertThat(test.toDoubleMatrix()).isEqualTo(LOWER);
+    assertThat(test.transpose().toDoubleMatrix()).isEqualTo(LOWER.transpose());
+  }
+
+  public void test_of_badSizes() {
+    assertThatIllegalArgumentException().isThrownBy(() -> BlockSparseMatrix.of(LOWER, new int[] {2, 2}));
+    assertThatIllegalArgumentException().isThrownBy(() -> BlockSparseMatrix.of(LOWER, new int[] {2, -1, 4}));
+  }
+
+  public void test_ofBlocks() {
+    DoubleMatrix[][] blocks = new DoubleMatrix[][] {
+        {DoubleMatrix.of(1, 1, 2d), null},
+        {DoubleMatrix.of(1, 1, 3d), DoubleMatrix.filled(1, 2)}};
+    BlockSparseMatrix test = BlockSparseMatrix.ofBlocks(new int[] {1, 1}, new int[] {1, 2}, blocks);
+    assertThat(test.isBlockSquare()).isFalse();
+    assertThat(test.isBlockLowerTriangular()).isFalse();
+    assertThat(test.isZeroBlock(1, 1)).isTrue();
+    assertThat(test.toDoubleMatrix()).isEqualTo(DoubleMatrix.of(2, 3, 2d, 0d, 0d, 3d, 0d, 0d));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> BlockSparseMatrix.ofBlocks(new int[] {1, 1}, new int[] {2, 1}, blocks));
+  }
+
+  public void test_multiply() {
+    BlockSparseMatrix test = BlockSparseMatrix.of(LOWER, SIZES);
+    AssertMatrix.assertEqualsMatrix((DoubleMatrix) ALGEBRA.multiply(LOWER, DENSE), test.multiply(DENSE), 1e-14);
+    DoubleMatrix left = DENSE.transpose();
+    AssertMatrix.assertEqualsMatrix((DoubleMatrix) ALGEBRA.multiply(left, LOWER), test.preMultiply(left), 1e-14);
+    assertThatIllegalArgumentException().isThrownBy(() -> test.multiply(left));
+    assertThatIllegalArgumentException().isThrownBy(() -> test.preMultiply(DENSE));
+  }
+
+  public void test_equalsHashCode() {
+    BlockSparseMatrix test = BlockSparseMatrix.of(LOWER, SIZES);
+    BlockSparseMatrix test2 = BlockSparseMatrix.of(LOWER, new int[] {3, 2});
+    assertThat(test).isEqualTo(test);
+    assertThat(test).isEqualTo(BlockSparseMatrix.of(LOWER, SIZES));
+    assertThat(test).hasSameHashCodeAs(BlockSparseMatrix.of(LOWER, SIZES));
+    assertThat(test).isNotEqualTo(test2);
+    assertThat(test).isNotEqualTo("");
+    assertThat(test.toString()).contains("BlockSparseMatrix");
+  }
+
+}
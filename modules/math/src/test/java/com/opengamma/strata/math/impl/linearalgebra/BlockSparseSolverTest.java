@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
+import com.opengamma.strata.math.impl.util.AssertMatrix;
+
+/**
+ * Test {@link BlockSparseSolver}.
+ */
+@Test
+public class BlockSparseSolverTest {
+
+  private static final MatrixAlgebra COMMONS = new CommonsMatrixAlgebra();
+  private static final MatrixAlgebra OG = new OGMatrixAlgebra();
+  private static final int[] SIZES = {3, 1, 4, 2};
+  private static final double TOL = 1e-10;
+
+  public void test_lower() {
+    DoubleMatrix matrix = randomBlockMatrix(true, false, 1);
+    checkInverseAndSolve(matrix);
+  }
+
+  public void test_upper() {
+    DoubleMatrix matrix = randomBlockMatrix(false, true, 2);
+    checkInverseAndSolve(matrix);
+  }
+
+  public void test_diagonal() {
+    DoubleMatrix matrix = randomBlockMatrix(false, false, 3);
+    checkInverseAndSolve(matrix);
+  }
+
+  public void test_dense() {
+    DoubleMatrix matrix = randomBlockMatrix(true, true, 4);
+    checkInverseAndSolve(matrix);
+  }
+
+  public void test_singularBlock() {
+    DoubleMatrix matrix = DoubleMatrix.copyOf(new double[][] {
+        {1, 2, 0},
+        {2, 4, 0},
+        {1, 1, 1}});
+    BlockSparseMatrix block = BlockSparseMatrix.of(matrix, new int[] {2, 1});
+    // the singular diagonal block uses the pseudo-inverse
+    DoubleMatrix inverse = BlockSparseSolver.inverse(block);
+    AssertMatrix.assertEqualsMatrix(
+        COMMONS.getInverse(DoubleMatrix.of(2, 2, 1d, 2d, 2d, 4d)),
+        DoubleMatrix.of(2, 2, (i, j) -> inverse.get(i, j)),
+        TOL);
+  }
+
+  // regression test, a near-singular Jacobian must give a bounded pseudo-inverse, not a huge LU inverse
+  // the entries are scaled up, as in a calibration Jacobian, so that LU does not reject the matrix as singular
+  public void test_nearSingularBlock() {
+    double scale = 1e6;
+    double eps = 1e-15;
+    DoubleMatrix nearSingular = DoubleMatrix.of(2, 2, scale, scale, scale, scale * (1 + eps));
+    DoubleMatrix matrix = DoubleMatrix.copyOf(new double[][] {
+        {scale, scale, 0},
+        {scale, scale * (1 + eps), 0},
+        {0.5, 0.5, 2}});
+    BlockSparseMatrix block = BlockSparseMatrix.of(matrix, new int[] {2, 1});
+    DoubleMatrix inverse = BlockSparseSolver.inverse(block);
+    AssertMatrix.assertEqualsMatrix(
+        COMMONS.getInverse(nearSingular),
+        DoubleMatrix.of(2, 2, (i, j) -> inverse.get(i, j)),
+        TOL);
+    assertTrue(maxAbs(inverse) < 1d);
+    DoubleArray solved = BlockSparseSolver.solve(block, DoubleArray.of(1d, 1d, 1d));
+    assertTrue(solved.stream().allMatch(v -> Math.abs(v) < 1d));
+    // the dense case matches the previous Commons inversion
+    BlockSparseMatrix dense = BlockSparseMatrix.of(nearSingular, new int[] {2});
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(nearSingular), BlockSparseSolver.inverse(dense), TOL);
+    // LU is opt-in, and does not bound the result
+    DoubleMatrix luInverse = BlockSparseSolver.inverse(dense, new LUDecompositionOpenGamma());
+    assertTrue(maxAbs(luInverse) > 1e5);
+  }
+
+  public void test_decomposition_lu() {
+    DoubleMatrix matrix = randomBlockMatrix(true, false, 5);
+    BlockSparseMatrix block = BlockSparseMatrix.of(matrix, SIZES);
+    LUDecompositionOpenGamma lu = new LUDecompositionOpenGamma();
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(matrix), BlockSparseSolver.inverse(block, lu), TOL);
+    DoubleArray b = DoubleArray.of(matrix.rowCount(), i -> i + 1d);
+    DoubleArray expected = (DoubleArray) OG.multiply(COMMONS.getInverse(matrix), b);
+    AssertMatrix.assertEqualsVectors(expected, BlockSparseSolver.solve(block, b, lu), TOL);
+  }
+
+  //-------------------------------------------------------------------------
+  private static void checkInverseAndSolve(DoubleMatrix matrix) {
+    BlockSparseMatrix block = BlockSparseMatrix.of(matrix, SIZES);
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(matrix), BlockSparseSolver.inverse(block), TOL);
+    DoubleArray b = DoubleArray.of(matrix.rowCount(), i -> i + 1d);
+    DoubleArray expected = (DoubleArray) OG.multiply(COMMONS.getInverse(matrix), b);
+    AssertMatrix.assertEqualsVectors(expected, BlockSparseSolver.solve(block, b), TOL);
+  }
+
+  private static double maxAbs(DoubleMatrix matrix) {
+    return Arrays.stream(matrix.toArrayUnsafe()).flatMapToDouble(Arrays::stream).map(Math::abs).max().getAsDouble();
+  }
+
+  private static DoubleMatrix randomBlockMatrix(boolean lower, boolean upper, long seed) {
+    Random random = new Random(seed);
+    int[] blockIndex = new int[10];
+    int index = 0;
+    for (int i = 0; i < SIZES.length; i++) {
+      for (int j = 0; j < SIZES[i]; j++) {
+        blockIndex[index++] = i;
+      }
+    }
+    return DoubleMatrix.of(10, 10, (i, j) -> {
+      int bi = blockIndex[i];
+      int bj = blockIndex[j];
+      if (bi == bj) {
+        return (i == j ? 5d : 0d) + random.nextDouble();
+      }
+      if ((bi > bj && lower) || (bi < bj && upper)) {
+        return random.nextDouble() - 0.5;
+      }
+      return 0d;
+    });
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
+import com.opengamma.strata.math.impl.util.AssertMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * Tests the LU decomposition OpenGamma implementation.
+ */
+@Test
+public class LUDecompositionOpenGammaTest {
+
+  private static final MatrixAlgebra ALGEBRA = new OGMatrixAlgebra();
+  private static final Decomposition<LUDecompositionResult> LU = new LUDecompositionOpenGamma();
+  private static final Decomposition<LUDecompositionResult> LU_COMMONS = new LUDecompositionCommons();
+  private static final DoubleMatrix A = DoubleMatrix.copyOf(
+      new double[][] { {1, 2, -1}, {4, 3, 1}, {2, 2, 3}});
+  private static final double EPS = 1e-9;
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNullObjectMatrix() {
+    LU.apply((DoubleMatrix) null);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNotSquare() {
+    LU.apply(DoubleMatrix.copyOf(new double[][] { {1, 2, 3}, {4, 5, 6}}));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testSingular() {
+    LU.apply(DoubleMatrix.copyOf(new double[][] { {1, 2, 3}, {4, 5, 6}, {7, 8, 9}}));
+  }
+
+  public void testRecoverOrginal() {
+    LUDecompositionResult lu = LU.apply(A);
+    DoubleMatrix a = (DoubleMatrix) ALGEBRA.multiply(lu.getL(), lu.getU());
+    AssertMatrix.assertEqualsMatrix((DoubleMatrix) ALGEBRA.multiply(lu.getP(), A), a, EPS);
+  }
+
+  public void compareCommons() {
+    Random random = new Random(12345);
+    for (int n : new int[] {1, 2, 5, 20, 57}) {
+      DoubleMatrix a = DoubleMatrix.of(n, n, (i, j) -> random.nextGaussian());
+      DoubleArray b = DoubleArray.of(n, i -> random.nextGaussian());
+      DoubleMatrix bMatrix = DoubleMatrix.of(n, 3, (i, j) -> random.nextGaussian());
+      LUDecompositionResult og = LU.apply(a);
+      LUDecompositionResult commons = LU_COMMONS.apply(a);
+      assertEquals(commons.getDeterminant(), og.getDeterminant(), EPS * Math.abs(commons.getDeterminant()));
+      AssertMatrix.assertEqualsMatrix(commons.getL(), og.getL(), EPS);
+      AssertMatrix.assertEqualsMatrix(commons.getU(), og.getU(), EPS);
+      AssertMatrix.assertEqualsMatrix(commons.getP(), og.getP(), 0d);
+      AssertMatrix.assertEqualsVectors(commons.solve(b), og.solve(b), EPS);
+      AssertMatrix.assertEqualsMatrix(commons.solve(bMatrix), og.solve(bMatrix), EPS);
+    }
+  }
+
+}
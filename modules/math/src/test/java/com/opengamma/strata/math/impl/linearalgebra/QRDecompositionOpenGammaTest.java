@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
+import com.opengamma.strata.math.impl.util.AssertMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * Tests the QR decomposition OpenGamma implementation.
+ */
+@Test
+public class QRDecompositionOpenGammaTest {
+
+  private static final MatrixAlgebra ALGEBRA = new OGMatrixAlgebra();
+  private static final Decomposition<QRDecompositionResult> QR = new QRDecompositionOpenGamma();
+  private static final Decomposition<QRDecompositionResult> QR_COMMONS = new QRDecompositionCommons();
+  private static final DoubleMatrix A = DoubleMatrix.copyOf(
+      new double[][] { {1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+  private static final double EPS = 1e-9;
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNullObjectMatrix() {
+    QR.apply((DoubleMatrix) null);
+  }
+
+  public void testRecoverOrginal() {
+    QRDecompositionResult qr = QR.apply(A);
+    AssertMatrix.assertEqualsMatrix(A, (DoubleMatrix) ALGEBRA.multiply(qr.getQ(), qr.getR()), EPS);
+  }
+
+  public void compareCommons() {
+    Random random = new Random(12345);
+    int[][] sizes = {{1, 1}, {3, 3}, {20, 20}, {40, 25}, {25, 40}};
+    for (int[] size : sizes) {
+      int m = size[0];
+      int n = size[1];
+      DoubleMatrix a = DoubleMatrix.of(m, n, (i, j) -> random.nextGaussian());
+      QRDecompositionResult og = QR.apply(a);
+      QRDecompositionResult commons = QR_COMMONS.apply(a);
+      AssertMatrix.assertEqualsMatrix(commons.getQ(), og.getQ(), EPS);
+      AssertMatrix.assertEqualsMatrix(commons.getQT(), og.getQT(), EPS);
+      AssertMatrix.assertEqualsMatrix(commons.getR(), og.getR(), EPS);
+      AssertMatrix.assertEqualsMatrix(a, (DoubleMatrix) ALGEBRA.multiply(og.getQ(), og.getR()), EPS);
+      if (m >= n) {
+        DoubleArray b = DoubleArray.of(m, i -> random.nextGaussian());
+        DoubleMatrix bMatrix = DoubleMatrix.of(m, 3, (i, j) -> random.nextGaussian());
+        AssertMatrix.assertEqualsVectors(commons.solve(b), og.solve(b), EPS);
+        AssertMatrix.assertEqualsMatrix(commons.solve(bMatrix), og.solve(bMatrix), EPS);
+      }
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testSolveSingular() {
+    QR.apply(DoubleMatrix.copyOf(new double[][] { {1, 0}, {0, 0}})).solve(DoubleArray.of(1, 1));
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.linearalgebra;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
+import com.opengamma.strata.math.impl.util.AssertMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * Test.
+ */
+@Test
+public class SVDecompositionOpenGammaTest extends SVDecompositionCalculationTestCase {
+  private static final MatrixAlgebra ALGEBRA = new OGMatrixAlgebra();
+  private static final Decomposition<SVDecompositionResult> SVD = new SVDecompositionOpenGamma();
+  private static final Decomposition<SVDecompositionResult> SVD_COMMONS = new SVDecompositionCommons();
+  private static final double TOL = 1e-9;
+
+  @Override
+  protected MatrixAlgebra getAlgebra() {
+    return ALGEBRA;
+  }
+
+  @Override
+  protected Decomposition<SVDecompositionResult> getSVD() {
+    return SVD;
+  }
+
+  public void compareCommons() {
+    Random random = new Random(12345);
+    int[][] sizes = {{1, 1}, {3, 3}, {20, 20}, {40, 25}, {25, 40}};
+    for (int[] size : sizes) {
+      int m = size[0];
+      int n = size[1];
+      DoubleMatrix a = DoubleMatrix.of(m, n, (i, j) -> random.nextGaussian());
+      SVDecompositionResult og = SVD.apply(a);
+      SVDecompositionResult commons = SVD_COMMONS.apply(a);
+      AssertMatrix.assertEqualsVectors(
+          DoubleArray.ofUnsafe(commons.getSingularValues()), DoubleArray.ofUnsafe(og.getSingularValues()), TOL);
+      assertEquals(commons.getRank(), og.getRank());
+      assertEquals(commons.getNorm(), og.getNorm(), TOL);
+      assertEquals(commons.getConditionNumber(), og.getConditionNumber(), TOL * commons.getConditionNumber());
+      DoubleMatrix usvt = (DoubleMatrix) ALGEBRA.multiply(ALGEBRA.multiply(og.getU(), og.getS()), og.getVT());
+      AssertMatrix.assertEqualsMatrix(a, usvt, TOL);
+      DoubleArray b = DoubleArray.of(m, i -> random.nextGaussian());
+      DoubleMatrix bMatrix = DoubleMatrix.of(m, 3, (i, j) -> random.nextGaussian());
+      AssertMatrix.assertEqualsVectors(commons.solve(b), og.solve(b), TOL);
+      AssertMatrix.assertEqualsMatrix(commons.solve(bMatrix), og.solve(bMatrix), TOL);
+    }
+  }
+
+  public void rankDeficient() {
+    DoubleMatrix a = DoubleMatrix.copyOf(new double[][] { {1, 2, 3}, {4, 5, 6}, {7, 8, 9}, {1, 1, 1}});
+    SVDecompositionResult og = SVD.apply(a);
+    SVDecompositionResult commons = SVD_COMMONS.apply(a);
+    assertEquals(2, og.getRank());
+    DoubleArray b = DoubleArray.of(1, 2, 3, 4);
+    AssertMatrix.assertEqualsVectors(commons.solve(b), og.solve(b), TOL);
+  }
+
+}
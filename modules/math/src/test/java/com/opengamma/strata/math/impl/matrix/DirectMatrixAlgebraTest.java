@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.matrix;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.linearalgebra.LUDecompositionCommons;
+import com.opengamma.strata.math.impl.linearalgebra.LUDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.linearalgebra.QRDecompositionCommons;
+import com.opengamma.strata.math.impl.linearalgebra.QRDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.linearalgebra.SVDecompositionCommons;
+import com.opengamma.strata.math.impl.linearalgebra.SVDecompositionOpenGamma;
+import com.opengamma.strata.math.impl.util.AssertMatrix;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+
+/**
+ * Test {@link DirectMatrixAlgebra}.
+ */
+@Test
+public class DirectMatrixAlgebraTest {
+
+  private static final MatrixAlgebra DIRECT = MatrixAlgebraFactory.DIRECT_ALGEBRA;
+  private static final MatrixAlgebra COMMONS = MatrixAlgebraFactory.COMMONS_ALGEBRA;
+  private static final DoubleArray V = DoubleArray.of(1, -2, 3);
+  private static final DoubleMatrix A = DoubleMatrix.copyOf(
+      new double[][] { {1., 2., 3.}, {-1., 1., 0.}, {-2., 1., -2.}});
+  private static final DoubleMatrix SINGULAR = DoubleMatrix.copyOf(
+      new double[][] { {1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+  private static final DoubleMatrix RECTANGULAR = DoubleMatrix.copyOf(
+      new double[][] { {1, 2}, {3, 4}, {5, 7}});
+  private static final double TOL = 1e-10;
+
+  public void test_determinant() {
+    assertEquals(COMMONS.getDeterminant(A), DIRECT.getDeterminant(A), TOL);
+    assertEquals(0d, DIRECT.getDeterminant(SINGULAR), TOL);
+  }
+
+  public void test_inverse() {
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(A), DIRECT.getInverse(A), TOL);
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(SINGULAR), DIRECT.getInverse(SINGULAR), TOL);
+    AssertMatrix.assertEqualsMatrix(COMMONS.getInverse(RECTANGULAR), DIRECT.getInverse(RECTANGULAR), TOL);
+  }
+
+  public void test_condition_norms() {
+    assertEquals(COMMONS.getCondition(A), DIRECT.getCondition(A), TOL);
+    assertEquals(COMMONS.getNorm1(A), DIRECT.getNorm1(A), TOL);
+    assertEquals(COMMONS.getNorm2(A), DIRECT.getNorm2(A), TOL);
+    assertEquals(COMMONS.getNormInfinity(A), DIRECT.getNormInfinity(A), TOL);
+    assertEquals(COMMONS.getNorm1(V), DIRECT.getNorm1(V), TOL);
+    assertEquals(COMMONS.getNorm2(V), DIRECT.getNorm2(V), TOL);
+    assertEquals(COMMONS.getNormInfinity(V), DIRECT.getNormInfinity(V), TOL);
+  }
+
+  public void test_power() {
+    for (int p = 0; p < 6; p++) {
+      AssertMatrix.assertEqualsMatrix(COMMONS.getPower(A, p), DIRECT.getPower(A, p), TOL);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void test_power_negative() {
+    DIRECT.getPower(A, -1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void test_determinant_vector() {
+    DIRECT.getDeterminant(V);
+  }
+
+  //-------------------------------------------------------------------------
+  @Test(enabled = false)
+  public void performance() {
+    Random random = new Random(12345);
+    for (int n : new int[] {20, 50, 100, 200}) {
+      DoubleMatrix a = DoubleMatrix.of(n, n, (i, j) -> random.nextGaussian());
+      DoubleMatrix b = DoubleMatrix.of(n, n, (i, j) -> random.nextGaussian());
+      int loops = 2_000_000 / (n * n);
+      for (int k = 0; k < 5; k++) {
+        time("multiply commons", n, loops, () -> COMMONS.multiply(a, b));
+        time("multiply direct ", n, loops, () -> DIRECT.multiply(a, b));
+        time("LU commons      ", n, loops, new LUDecompositionCommons(), a);
+        time("LU direct       ", n, loops, new LUDecompositionOpenGamma(), a);
+        time("QR commons      ", n, loops, new QRDecompositionCommons(), a);
+        time("QR direct       ", n, loops, new QRDecompositionOpenGamma(), a);
+        time("SVD commons     ", n, loops / 10, new SVDecompositionCommons(), a);
+        time("SVD direct      ", n, loops / 10, new SVDecompositionOpenGamma(), a);
+        time("inverse commons ", n, loops / 10, () -> COMMONS.getInverse(a));
+        time("inverse direct  ", n, loops / 10, () -> DIRECT.getInverse(a));
+      }
+    }
+  }
+
+  private static void time(String name, int n, int loops, Runnable task) {
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < loops; i++) {
+      task.run();
+    }
+    long end = System.currentTimeMillis();
+    System.out.println(name + " n=" + n + ": " + loops + " loops in " + (end - start) + "ms");
+  }
+
+  private static void time(String name, int n, int loops, Decomposition<?> decomposition, DoubleMatrix a) {
+    time(name, n, loops, () -> decomposition.apply(a));
+  }
+
+}
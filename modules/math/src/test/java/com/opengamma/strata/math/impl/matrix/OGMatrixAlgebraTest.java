@@ -76,6 +76,27 @@ public class OGMatrixAlgebraTest {
     assertEquals(-3, d.get(2), 1e-15);
   }
 
+  @Test
+  public void testMultiplyLarge() {
+    // larger than the block size, and not a multiple of it
+    DoubleMatrix a = DoubleMatrix.of(83, 150, (i, j) -> RANDOM.nextRandom());
+    DoubleMatrix b = DoubleMatrix.of(150, 71, (i, j) -> RANDOM.nextRandom());
+    DoubleMatrix expected = DoubleMatrix.of(83, 71, (i, j) -> {
+      double sum = 0d;
+      for (int k = 0; k < 150; k++) {
+        sum += a.get(i, k) * b.get(k, j);
+      }
+      return sum;
+    });
+    AssertMatrix.assertEqualsMatrix(expected, (DoubleMatrix) ALGEBRA.multiply(a, b), 1e-12);
+    DoubleArray x = DoubleArray.of(150, i -> RANDOM.nextRandom());
+    DoubleArray y = DoubleArray.of(83, i -> RANDOM.nextRandom());
+    DoubleMatrix ax = (DoubleMatrix) ALGEBRA.multiply(a, DoubleMatrix.of(150, 1, (i, j) -> x.get(i)));
+    DoubleMatrix ya = (DoubleMatrix) ALGEBRA.multiply(DoubleMatrix.of(1, 83, (i, j) -> y.get(j)), a);
+    AssertMatrix.assertEqualsVectors(ax.column(0), (DoubleArray) ALGEBRA.multiply(a, x), 1e-12);
+    AssertMatrix.assertEqualsVectors(ya.row(0), (DoubleArray) ALGEBRA.multiply(y, a), 1e-12);
+  }
+
   @Test
   public void testTridiagonalMultiply() {
     final int n = 37;
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link BrownianBridge}.
+ */
+@Test
+public class BrownianBridgeTest {
+
+  private static final double TOL = 1e-12;
+
+  public void test_ofSteps() {
+    BrownianBridge test = BrownianBridge.ofSteps(4);
+    assertEquals(4, test.getStepCount());
+    assertEquals(4d, test.getTimes()[3], 0d);
+    // first normal gives the final value, second the middle value
+    double[] path = new double[4];
+    test.buildPath(new double[] {1, 0, 0, 0}, path);
+    assertEquals(2d, path[3], TOL);
+    assertEquals(1d, path[1], TOL);
+    assertEquals(0.5d, path[0], TOL);
+    assertEquals(1.5d, path[2], TOL);
+  }
+
+  public void test_increments_consistentWithPath() {
+    BrownianBridge test = BrownianBridge.ofTimes(new double[] {0.25, 0.5, 1, 2, 3.5});
+    double[] normals = {0.3, -1.2, 0.7, 2.1, -0.4};
+    double[] path = new double[5];
+    double[] increments = normals.clone();
+    test.buildPath(normals, path);
+    test.buildIncrements(increments, increments);
+    double sum = 0;
+    for (int i = 0; i < 5; i++) {
+      sum += increments[i];
+      assertEquals(path[i], sum, TOL);
+    }
+  }
+
+  public void test_covariance() {
+    // the covariance of W(s) and W(t) is min(s, t)
+    double[] times = {0.5, 1, 1.5, 3};
+    BrownianBridge test = BrownianBridge.ofTimes(times);
+    Random random = new Random(1);
+    int nbPaths = 200_000;
+    double[][] sum = new double[4][4];
+    double[] normals = new double[4];
+    double[] path = new double[4];
+    for (int p = 0; p < nbPaths; p++) {
+      for (int i = 0; i < 4; i++) {
+        normals[i] = random.nextGaussian();
+      }
+      test.buildPath(normals, path);
+      for (int i = 0; i < 4; i++) {
+        for (int j = 0; j < 4; j++) {
+          sum[i][j] += path[i] * path[j];
+        }
+      }
+    }
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 4; j++) {
+        assertEquals(Math.min(times[i], times[j]), sum[i][j] / nbPaths, 0.03);
+      }
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> BrownianBridge.ofSteps(0));
+    assertThrowsIllegalArg(() -> BrownianBridge.ofTimes(new double[] {1, 1}));
+    assertThrowsIllegalArg(() -> BrownianBridge.ofTimes(new double[] {0, 1}));
+    assertThrowsIllegalArg(() -> BrownianBridge.ofSteps(2).buildPath(new double[3], new double[2]));
+  }
+
+}
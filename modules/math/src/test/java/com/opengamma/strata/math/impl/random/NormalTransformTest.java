@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+
+/**
+ * Test {@link NormalTransform}.
+ */
+@Test
+public class NormalTransformTest {
+
+  private static final NormalDistribution NORMAL = new NormalDistribution(0, 1);
+
+  public void test_inverseNormal() {
+    double[] uniforms = {1e-10, 0.01, 0.3, 0.5, 0.7, 0.99, 1 - 1e-10};
+    double[] normals = NormalTransform.inverseNormal(uniforms);
+    for (int i = 0; i < uniforms.length; i++) {
+      assertEquals(NORMAL.getInverseCDF(uniforms[i]), normals[i], 1e-14);
+      assertEquals(uniforms[i], NORMAL.getCDF(normals[i]), 1e-12);
+    }
+    // in place
+    NormalTransform.inverseNormal(uniforms, uniforms);
+    for (int i = 0; i < uniforms.length; i++) {
+      assertEquals(normals[i], uniforms[i], 0d);
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> NormalTransform.inverseNormal(new double[2], new double[1]));
+    assertThrowsIllegalArg(() -> NormalTransform.inverseNormal(new double[] {0d}));
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link SobolNormalRandomNumberGenerator}.
+ */
+@Test
+public class SobolNormalRandomNumberGeneratorTest {
+
+  public void test_firstPoints() {
+    SobolNormalRandomNumberGenerator test = SobolNormalRandomNumberGenerator.of(2);
+    assertEquals(2, test.getDimension());
+    assertEquals(1, test.getNextIndex());
+    // the first point after the origin is (0.5, 0.5)
+    assertArrayEquals(new double[] {0d, 0d}, test.getVector(2), 1e-15);
+    assertEquals(2, test.getNextIndex());
+    List<double[]> vectors = test.getVectors(2, 3);
+    assertEquals(3, vectors.size());
+    assertEquals(5, test.getNextIndex());
+  }
+
+  public void test_moments() {
+    SobolNormalRandomNumberGenerator test = SobolNormalRandomNumberGenerator.of(5);
+    int nbPoints = (1 << 14) - 1;
+    double[] sum = new double[5];
+    double[] sumSq = new double[5];
+    double[] point = new double[5];
+    for (int p = 0; p < nbPoints; p++) {
+      test.nextVector(point);
+      for (int i = 0; i < 5; i++) {
+        sum[i] += point[i];
+        sumSq[i] += point[i] * point[i];
+      }
+    }
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0d, sum[i] / nbPoints, 1e-3);
+      assertEquals(1d, sumSq[i] / nbPoints, 1e-2);
+    }
+  }
+
+  public void test_brownianBridge() {
+    SobolNormalRandomNumberGenerator test = SobolNormalRandomNumberGenerator.withBrownianBridge(8);
+    SobolNormalRandomNumberGenerator plain = SobolNormalRandomNumberGenerator.of(8);
+    BrownianBridge bridge = BrownianBridge.ofSteps(8);
+    for (int p = 0; p < 10; p++) {
+      double[] expected = new double[8];
+      bridge.buildIncrements(plain.getVector(8), expected);
+      assertArrayEquals(expected, test.getVector(8), 1e-14);
+    }
+  }
+
+  public void test_startingAt() {
+    SobolNormalRandomNumberGenerator base = SobolNormalRandomNumberGenerator.of(3);
+    List<double[]> all = base.getVectors(3, 20);
+    SobolNormalRandomNumberGenerator block = base.startingAt(11);
+    assertEquals(11, block.getNextIndex());
+    for (int p = 10; p < 20; p++) {
+      assertArrayEquals(all.get(p), block.getVector(3), 0d);
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> SobolNormalRandomNumberGenerator.of(0));
+    assertThrowsIllegalArg(() -> SobolNormalRandomNumberGenerator.of(1001));
+    assertThrowsIllegalArg(() -> SobolNormalRandomNumberGenerator.of(2).getVector(3));
+    assertThrowsIllegalArg(() -> SobolNormalRandomNumberGenerator.of(2).getVectors(3, 1));
+    assertThrowsIllegalArg(() -> SobolNormalRandomNumberGenerator.of(2).startingAt(0));
+  }
+
+}
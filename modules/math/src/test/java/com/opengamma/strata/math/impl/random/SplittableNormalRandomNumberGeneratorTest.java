@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link SplittableNormalRandomNumberGenerator}.
+ */
+@Test
+public class SplittableNormalRandomNumberGeneratorTest {
+
+  public void test_reproducible() {
+    double[] first = SplittableNormalRandomNumberGenerator.of(42).getVector(100);
+    double[] second = SplittableNormalRandomNumberGenerator.of(42).getVector(100);
+    assertArrayEquals(first, second, 0d);
+    List<double[]> vectors = SplittableNormalRandomNumberGenerator.of(42).getVectors(10, 3);
+    assertEquals(3, vectors.size());
+    assertArrayEquals(Arrays.copyOf(first, 10), vectors.get(0), 0d);
+  }
+
+  public void test_split() {
+    List<SplittableNormalRandomNumberGenerator> streams1 = SplittableNormalRandomNumberGenerator.of(7).split(4);
+    List<SplittableNormalRandomNumberGenerator> streams2 = SplittableNormalRandomNumberGenerator.of(7).split(4);
+    assertEquals(4, streams1.size());
+    // the streams are reproducible, even if used in a different order
+    double[] last = streams2.get(3).getVector(50);
+    double[] firstStream = streams1.get(0).getVector(50);
+    assertArrayEquals(last, streams1.get(3).getVector(50), 0d);
+    assertArrayEquals(firstStream, streams2.get(0).getVector(50), 0d);
+    assertEquals(false, firstStream[0] == last[0]);
+  }
+
+  public void test_moments() {
+    double[] normals = SplittableNormalRandomNumberGenerator.of(1).getVector(200_000);
+    double sum = 0;
+    double sumSq = 0;
+    for (double value : normals) {
+      sum += value;
+      sumSq += value * value;
+    }
+    assertEquals(0d, sum / normals.length, 1e-2);
+    assertEquals(1d, sumSq / normals.length, 1e-2);
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> SplittableNormalRandomNumberGenerator.of(1).getVector(-1));
+    assertThrowsIllegalArg(() -> SplittableNormalRandomNumberGenerator.of(1).getVectors(-1, 4));
+    assertThrowsIllegalArg(() -> SplittableNormalRandomNumberGenerator.of(1).split(-1));
+  }
+
+}
@@ -7,9 +7,13 @@ package com.opengamma.strata.math.impl.statistics.distribution;
 
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
 
 import org.testng.annotations.Test;
 
+import com.opengamma.strata.math.impl.cern.Normal;
+import com.opengamma.strata.math.impl.cern.Probability;
+
 /**
  * Test.
  */
@@ -58,4 +62,95 @@ public class NormalDistributionTest extends ProbabilityDistributionTestCase {
     other = new NormalDistribution(0, 1.1, ENGINE);
     assertFalse(NORMAL.equals(other));
   }
+
+  //-------------------------------------------------------------------------
+  public void testPrimitiveCdf() {
+    NormalDistribution normal = new NormalDistribution(0, 1, ENGINE);
+    for (int i = 0; i <= 800; i++) {
+      double x = -40d + 0.1 * i;
+      double expected = DERFC.getErfc(-x / Math.sqrt(2)) / 2;
+      double computed = normal.getCDF(x);
+      // the relative error grows with the square of x in the tails, as exp(-x^2/2) is ill-conditioned
+      double relativeTolerance = 1e-15 * Math.max(10d, x * x);
+      assertEquals(expected, computed, Math.max(expected * relativeTolerance, 1e-300));
+      assertEquals(computed, normal.getCDF(Double.valueOf(x)), 0d);
+    }
+    assertEquals(0d, normal.getCDF(Double.NEGATIVE_INFINITY), 0d);
+    assertEquals(1d, normal.getCDF(Double.POSITIVE_INFINITY), 0d);
+    assertTrue(Double.isNaN(normal.getCDF(Double.NaN)));
+  }
+
+  public void testPrimitivePdf() {
+    NormalDistribution normal = new NormalDistribution(0.5, 1.5, ENGINE);
+    Normal reference = new Normal(0.5, 1.5, ENGINE);
+    for (int i = 0; i <= 200; i++) {
+      double x = -10d + 0.1 * i;
+      assertEquals(reference.pdf(x), normal.getPDF(x), 1e-15);
+      assertEquals(normal.getPDF(x), normal.getPDF(Double.valueOf(x)), 0d);
+    }
+  }
+
+  public void testPrimitiveInverseCdf() {
+    NormalDistribution normal = new NormalDistribution(0, 1, ENGINE);
+    double[] probabilities = {1e-300, 1e-100, 1e-20, 1e-10, 1e-5, 0.01, 0.1, 0.3, 0.5, 0.7, 0.9, 0.99, 1 - 1e-5, 1 - 1e-10};
+    for (double p : probabilities) {
+      double expected = Probability.normalInverse(p);
+      double computed = normal.getInverseCDF(p);
+      assertEquals(expected, computed, Math.max(Math.abs(expected) * 1e-14, 1e-15));
+      assertEquals(computed, normal.getInverseCDF(Double.valueOf(p)), 0d);
+      assertEquals(p, normal.getCDF(computed), p * 1e-12);
+    }
+  }
+
+  public void testInverseCdfLimits() {
+    NormalDistribution normal = new NormalDistribution(0, 1, ENGINE);
+    assertEquals(Double.NEGATIVE_INFINITY, normal.getInverseCDF(0d), 0d);
+    assertEquals(Double.POSITIVE_INFINITY, normal.getInverseCDF(1d), 0d);
+    assertEquals(Double.NEGATIVE_INFINITY, normal.getInverseCDF(Double.valueOf(0d)), 0d);
+    assertEquals(Double.POSITIVE_INFINITY, normal.getInverseCDF(Double.valueOf(1d)), 0d);
+    double[] result = new double[2];
+    normal.getInverseCDF(new double[] {0d, 1d}, result);
+    assertEquals(Double.NEGATIVE_INFINITY, result[0], 0d);
+    assertEquals(Double.POSITIVE_INFINITY, result[1], 0d);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testPrimitiveInverseCdfNegative() {
+    new NormalDistribution(0, 1, ENGINE).getInverseCDF(-1e-16);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testPrimitiveInverseCdfAboveOne() {
+    new NormalDistribution(0, 1, ENGINE).getInverseCDF(1.0000000000000002);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testPrimitiveInverseCdfNaN() {
+    new NormalDistribution(0, 1, ENGINE).getInverseCDF(Double.NaN);
+  }
+
+  public void testBulk() {
+    NormalDistribution normal = new NormalDistribution(0, 1, ENGINE);
+    double[] cdf = new double[X.length];
+    double[] pdf = new double[X.length];
+    double[] inverse = new double[X.length];
+    normal.getCDF(X, cdf);
+    normal.getPDF(X, pdf);
+    normal.getInverseCDF(cdf, inverse);
+    for (int i = 0; i < X.length; i++) {
+      assertEquals(normal.getCDF(X[i]), cdf[i], 0d);
+      assertEquals(normal.getPDF(X[i]), pdf[i], 0d);
+      assertEquals(normal.getInverseCDF(cdf[i]), inverse[i], 0d);
+    }
+    // in place
+    double[] values = X.clone();
+    normal.getCDF(values, values);
+    assertEquals(cdf[3], values[3], 0d);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testBulkWrongLength() {
+    new NormalDistribution(0, 1, ENGINE).getCDF(new double[2], new double[3]);
+  }
+
 }
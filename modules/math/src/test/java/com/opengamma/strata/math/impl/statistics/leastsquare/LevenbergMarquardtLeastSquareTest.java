@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.statistics.leastsquare;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.function.Function;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Test {@link LevenbergMarquardtLeastSquare}.
+ */
+@Test
+public class LevenbergMarquardtLeastSquareTest {
+
+  private static final DoubleArray X = DoubleArray.of(20, i -> -Math.PI + i * Math.PI / 10);
+  private static final DoubleArray Y = X.map(Math::sin);
+  private static final DoubleArray Y_NOISY = DoubleArray.of(20, i -> Y.get(i) + 0.05 * Math.cos(7d * i));
+  private static final DoubleArray SIGMA = X.map(x -> 0.1 * Math.exp(Math.abs(x) / Math.PI));
+  private static final Function<DoubleArray, DoubleArray> FUNCTION = a -> X.map(
+      x -> a.get(0) * Math.sin(a.get(1) * x + a.get(2)) + a.get(3));
+  private static final Function<DoubleArray, DoubleMatrix> GRAD = a -> DoubleMatrix.of(X.size(), 4, (i, j) -> {
+    double x = X.get(i);
+    switch (j) {
+      case 0:
+        return Math.sin(a.get(1) * x + a.get(2));
+      case 1:
+        return a.get(0) * x * Math.cos(a.get(1) * x + a.get(2));
+      case 2:
+        return a.get(0) * Math.cos(a.get(1) * x + a.get(2));
+      default:
+        return 1d;
+    }
+  });
+  private static final DoubleArray START = DoubleArray.of(1.2, 0.8, -0.2, -0.3);
+
+  private static final LevenbergMarquardtLeastSquare LM = new LevenbergMarquardtLeastSquare();
+  private static final NonLinearLeastSquare NLLS = new NonLinearLeastSquare();
+
+  public void test_exact() {
+    LeastSquareResults result = LM.solve(Y, SIGMA, FUNCTION, GRAD, START, null);
+    assertEquals(0d, result.getChiSq(), 1e-8);
+    assertEquals(1d, result.getFitParameters().get(0), 1e-8);
+    assertEquals(1d, result.getFitParameters().get(1), 1e-8);
+    assertEquals(0d, result.getFitParameters().get(2), 1e-8);
+    assertEquals(0d, result.getFitParameters().get(3), 1e-8);
+  }
+
+  public void test_consistentWithNonLinearLeastSquare() {
+    LeastSquareResults expected = NLLS.solve(Y_NOISY, SIGMA, FUNCTION, GRAD, START, null);
+    // repeated calls reuse the workspace
+    for (int i = 0; i < 3; i++) {
+      LeastSquareResults result = LM.solve(Y_NOISY, SIGMA, FUNCTION, GRAD, START, null);
+      assertEquals(expected.getChiSq(), result.getChiSq(), 1e-8);
+      for (int j = 0; j < 4; j++) {
+        assertEquals(expected.getFitParameters().get(j), result.getFitParameters().get(j), 1e-6);
+        for (int k = 0; k < 4; k++) {
+          assertEquals(expected.getCovariance().get(j, k), result.getCovariance().get(j, k), 1e-6);
+        }
+        for (int k = 0; k < X.size(); k++) {
+          assertEquals(
+              expected.getFittingParameterSensitivityToData().get(j, k),
+              result.getFittingParameterSensitivityToData().get(j, k),
+              1e-6);
+        }
+      }
+    }
+  }
+
+  public void test_constraintsAndMaxJumps() {
+    Function<DoubleArray, Boolean> constraints = a -> a.get(0) > 0d;
+    DoubleArray maxJumps = DoubleArray.filled(4, 0.1);
+    LeastSquareResults result = LM.solve(Y, SIGMA, FUNCTION, GRAD, START, constraints, maxJumps);
+    assertEquals(0d, result.getChiSq(), 1e-8);
+    assertEquals(1d, result.getFitParameters().get(0), 1e-8);
+    assertThrowsIllegalArg(() -> LM.solve(Y, SIGMA, FUNCTION, GRAD, START.multipliedBy(-1d), constraints, maxJumps));
+  }
+
+  public void test_differentSizes() {
+    // a linear fit, with a different number of data points and parameters
+    DoubleArray x = DoubleArray.of(1d, 2d, 3d);
+    DoubleArray y = DoubleArray.of(3d, 5d, 7d);
+    Function<DoubleArray, DoubleArray> line = a -> x.map(v -> a.get(0) + a.get(1) * v);
+    Function<DoubleArray, DoubleMatrix> lineGrad = a -> DoubleMatrix.of(3, 2, (i, j) -> j == 0 ? 1d : x.get(i));
+    LeastSquareResults result = LM.solve(y, DoubleArray.filled(3, 1d), line, lineGrad, DoubleArray.of(0d, 0d), null);
+    assertEquals(1d, result.getFitParameters().get(0), 1e-10);
+    assertEquals(2d, result.getFitParameters().get(1), 1e-10);
+    // back to the original size
+    assertEquals(0d, LM.solve(Y, SIGMA, FUNCTION, GRAD, START, null).getChiSq(), 1e-8);
+  }
+
+  public void test_nested() {
+    // the model itself calls the solver on the same thread
+    Function<DoubleArray, DoubleArray> nested = a -> {
+      LeastSquareResults inner = LM.solve(Y, SIGMA, FUNCTION, GRAD, START, null);
+      assertTrue(inner.getChiSq() < 1e-8);
+      return FUNCTION.apply(a);
+    };
+    LeastSquareResults result = LM.solve(Y, SIGMA, nested, GRAD, START, null);
+    assertEquals(1d, result.getFitParameters().get(0), 1e-8);
+  }
+
+  public void test_wrongSize() {
+    assertThrowsIllegalArg(() -> LM.solve(Y, SIGMA.subArray(1), FUNCTION, GRAD, START, null));
+    assertThrowsIllegalArg(() -> LM.solve(Y, SIGMA, FUNCTION, GRAD, START, DoubleArray.filled(3, 1d)));
+  }
+
+}
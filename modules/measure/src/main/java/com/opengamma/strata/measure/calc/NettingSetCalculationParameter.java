@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.calc;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.calc.runner.CalculationParameter;
+
+/**
+ * A calculation parameter identifying the netting set of a trade.
+ * <p>
+ * Exposure calculations aggregate the values of the trades of a netting set before taking the positive part.
+ * The netting set of each trade is typically selected using {@link TradeCounterpartyCalculationParameter},
+ * mapping each counterparty to its netting set.
+ */
+@BeanDefinition(style = "light")
+public final class NettingSetCalculationParameter
+    implements CalculationParameter, ImmutableBean, Serializable {
+
+  /**
+   * The netting set identifier.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final StandardId nettingSetId;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the netting set identifier.
+   * 
+   * @param nettingSetId  the netting set identifier
+   * @return the netting set parameter
+   */
+  public static NettingSetCalculationParameter of(StandardId nettingSetId) {
+    return new NettingSetCalculationParameter(nettingSetId);
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code NettingSetCalculationParameter}.
+   */
+  private static final TypedMetaBean<NettingSetCalculationParameter> META_BEAN =
+      LightMetaBean.of(
+          NettingSetCalculationParameter.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "nettingSetId"},
+          new Object[0]);
+
+  /**
+   * The meta-bean for {@code NettingSetCalculationParameter}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<NettingSetCalculationParameter> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private NettingSetCalculationParameter(
+      StandardId nettingSetId) {
+    JodaBeanUtils.notNull(nettingSetId, "nettingSetId");
+    this.nettingSetId = nettingSetId;
+  }
+
+  @Override
+  public TypedMetaBean<NettingSetCalculationParameter> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the netting set identifier.
+   * @return the value of the property, not null
+   */
+  public StandardId getNettingSetId() {
+    return nettingSetId;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      NettingSetCalculationParameter other = (NettingSetCalculationParameter) obj;
+      return JodaBeanUtils.equal(nettingSetId, other.nettingSetId);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(nettingSetId);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(64);
+    buf.append("NettingSetCalculationParameter{");
+    buf.append("nettingSetId").append('=').append(JodaBeanUtils.toString(nettingSetId));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
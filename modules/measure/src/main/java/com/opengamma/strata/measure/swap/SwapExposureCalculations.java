@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.swap;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.runner.CalculationParameter;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.statistics.descriptive.IndexAboveQuantileMethod;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.calc.NettingSetCalculationParameter;
+import com.opengamma.strata.measure.calc.TradeCounterpartyCalculationParameter;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorMonteCarloEngine;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPaths;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.swap.SwapTrade;
+
+/**
+ * Calculates exposure profiles for netting sets of swap trades.
+ * <p>
+ * The curves are simulated forward on a grid of dates with the Hull-White one factor model,
+ * calibrated to the discount curve of the trade currency. Each swap is compiled once into cash flows
+ * and revalued on each path and grid date, consistently with {@link DiscountingSwapProductPricer}
+ * at the valuation date.
+ * <p>
+ * The trades are grouped in netting sets using a {@link CalculationParameter} that resolves to a
+ * {@link NettingSetCalculationParameter} for each trade, typically a {@link TradeCounterpartyCalculationParameter}.
+ * The paths are processed in parallel by block, and the value of each trade is added to its netting set
+ * as soon as it is computed. Only the netting set values are kept, so memory grows with the number of
+ * netting sets, dates and paths, but not with the number of trades.
+ */
+public class SwapExposureCalculations {
+
+  /**
+   * Default implementation.
+   */
+  public static final SwapExposureCalculations DEFAULT = new SwapExposureCalculations(
+      DiscountingSwapProductPricer.DEFAULT);
+
+  /**
+   * Pricer for {@link com.opengamma.strata.product.swap.ResolvedSwap}.
+   */
+  private final DiscountingSwapProductPricer productPricer;
+
+  /**
+   * Creates an instance.
+   * <p>
+   * In most cases, applications should use the {@link #DEFAULT} instance.
+   *
+   * @param productPricer  the pricer for {@link com.opengamma.strata.product.swap.ResolvedSwap}
+   */
+  public SwapExposureCalculations(DiscountingSwapProductPricer productPricer) {
+    this.productPricer = ArgChecker.notNull(productPricer, "productPricer");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the exposure profile of each netting set.
+   * <p>
+   * All the cash flows of the trades must be in the same currency.
+   * The grid dates must be after the valuation date and in increasing order.
+   * The Monte Carlo engine defines the model parameters, the number of paths and the block size.
+   * <p>
+   * The expected exposure is measured under the forward measure of each grid date, while the
+   * potential future exposure is the quantile of the positive value across the simulated paths.
+   *
+   * @param trades  the swap trades
+   * @param nettingSets  the parameter selecting the netting set of each trade
+   * @param gridDates  the grid dates
+   * @param engine  the Monte Carlo engine
+   * @param ratesProvider  the rates provider
+   * @param confidenceLevel  the confidence level of the potential future exposure, such as 0.95
+   * @param refData  the reference data used to resolve the trades
+   * @return the exposure profiles, keyed by netting set identifier
+   */
+  public ImmutableMap<StandardId, SwapExposureProfile> exposureProfiles(
+      List<SwapTrade> trades,
+      CalculationParameter nettingSets,
+      List<LocalDate> gridDates,
+      HullWhiteOneFactorMonteCarloEngine engine,
+      RatesProvider ratesProvider,
+      double confidenceLevel,
+      ReferenceData refData) {
+
+    ArgChecker.notEmpty(trades, "trades");
+    ArgChecker.notEmpty(gridDates, "gridDates");
+    ArgChecker.inRangeExclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+    LocalDate previous = ratesProvider.getValuationDate();
+    for (LocalDate date : gridDates) {
+      ArgChecker.isTrue(date.isAfter(previous), "Grid dates must be after the valuation date and increasing");
+      previous = date;
+    }
+    // compile the trades and resolve their netting sets
+    Currency currency = trades.get(0).getProduct().getLegs().get(0).getCurrency();
+    int tradeCount = trades.size();
+    SwapExposureCashFlows[] cashFlows = new SwapExposureCashFlows[tradeCount];
+    int[] nettingSetIndices = new int[tradeCount];
+    Map<StandardId, Integer> nettingSetIds = new LinkedHashMap<>();
+    for (int i = 0; i < tradeCount; i++) {
+      SwapTrade trade = trades.get(i);
+      cashFlows[i] = SwapExposureCashFlows.of(
+          trade.resolve(refData).getProduct(), currency, ratesProvider, productPricer.getLegPricer());
+      StandardId nettingSetId = nettingSetId(trade, nettingSets);
+      nettingSetIndices[i] = nettingSetIds.computeIfAbsent(nettingSetId, id -> nettingSetIds.size());
+    }
+    // simulate and add the trade values to their netting set, block by block
+    DiscountFactors discountFactors = ratesProvider.discountFactors(currency);
+    int dateCount = gridDates.size();
+    DoubleArray times = DoubleArray.of(dateCount, k -> discountFactors.relativeYearFraction(gridDates.get(k)));
+    HullWhiteOneFactorPaths paths = engine.simulate(times, discountFactors::discountFactor);
+    int pathCount = engine.getPathCount();
+    int blockSize = engine.getBlockSize();
+    int blockCount = (pathCount + blockSize - 1) / blockSize;
+    double[][][] values = new double[nettingSetIds.size()][dateCount][pathCount];
+    IntStream.range(0, blockCount).parallel().forEach(block -> {
+      int firstPath = block * blockSize;
+      int blockPathCount = Math.min(pathCount, firstPath + blockSize) - firstPath;
+      for (int i = 0; i < tradeCount; i++) {
+        cashFlows[i].addValues(paths, gridDates, firstPath, blockPathCount, values[nettingSetIndices[i]]);
+      }
+    });
+    // reduce the netting set values to exposures
+    double[][] expectedExposures = new double[nettingSetIds.size()][dateCount];
+    double[][] potentialFutureExposures = new double[nettingSetIds.size()][dateCount];
+    double[] deflators = new double[pathCount];
+    for (int k = 0; k < dateCount; k++) {
+      paths.deflators(k, deflators);
+      double discountFactor = discountFactors.discountFactor(times.get(k));
+      for (int n = 0; n < nettingSetIds.size(); n++) {
+        double[] exposures = new double[pathCount];
+        double sum = 0d;
+        for (int p = 0; p < pathCount; p++) {
+          exposures[p] = Math.max(values[n][k][p], 0d);
+          sum += exposures[p] * deflators[p];
+        }
+        expectedExposures[n][k] = sum / (pathCount * discountFactor);
+        potentialFutureExposures[n][k] =
+            IndexAboveQuantileMethod.DEFAULT.quantileFromUnsorted(confidenceLevel, DoubleArray.ofUnsafe(exposures));
+      }
+    }
+    ImmutableMap.Builder<StandardId, SwapExposureProfile> builder = ImmutableMap.builder();
+    for (Map.Entry<StandardId, Integer> entry : nettingSetIds.entrySet()) {
+      int n = entry.getValue();
+      builder.put(entry.getKey(), SwapExposureProfile.of(
+          currency,
+          gridDates,
+          DoubleArray.ofUnsafe(expectedExposures[n]),
+          DoubleArray.ofUnsafe(potentialFutureExposures[n])));
+    }
+    return builder.build();
+  }
+
+  // resolves the netting set of a trade
+  private static StandardId nettingSetId(SwapTrade trade, CalculationParameter nettingSets) {
+    CalculationParameter parameter = nettingSets.filter(trade, Measures.PRESENT_VALUE)
+        .orElseThrow(() -> new IllegalArgumentException("No netting set for trade " + trade.getInfo()));
+    ArgChecker.isTrue(parameter instanceof NettingSetCalculationParameter,
+        "Netting set parameter must be a NettingSetCalculationParameter but was {}", parameter);
+    return ((NettingSetCalculationParameter) parameter).getNettingSetId();
+  }
+
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.swap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPaths;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapLegPricer;
+import com.opengamma.strata.product.rate.FixedRateComputation;
+import com.opengamma.strata.product.rate.IborRateComputation;
+import com.opengamma.strata.product.rate.RateComputation;
+import com.opengamma.strata.product.swap.KnownAmountSwapPaymentPeriod;
+import com.opengamma.strata.product.swap.NegativeRateMethod;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * The cash flows of a swap, compiled for valuation on Monte Carlo paths.
+ * <p>
+ * Each accrual period of a simple rate payment period is compiled into a cash flow whose amount is
+ * {@code fixedAmount + floatingFactor * rate}, where the rate is the Ibor rate if any.
+ * Before its fixing date, the Ibor rate is implied on each path from the simulated bonds,
+ * with the spread between the forward and discount curves kept deterministic.
+ * After its fixing date, the rate is the one implied at the last grid date on or before the fixing date.
+ * <p>
+ * Only the amounts that do not depend on the simulated curves are compiled into fixed amounts, using the
+ * forecast value of the leg pricer. These are known amounts, fixed rates, Ibor rates already fixed at the
+ * valuation date, and notional exchanges. Any other payment period or event, such as overnight rates,
+ * compounding, FX resets or floored Ibor rates, cannot be simulated and is rejected.
+ * At the valuation date, the value of the compiled cash flows is the present value of the swap.
+ */
+final class SwapExposureCashFlows {
+
+  /**
+   * The payment dates.
+   */
+  private final LocalDate[] paymentDates;
+  /**
+   * The payment times.
+   */
+  private final double[] paymentTimes;
+  /**
+   * The fixed part of the amounts.
+   */
+  private final double[] fixedAmounts;
+  /**
+   * The factors applied to the floating rates, zero for fixed amounts.
+   */
+  private final double[] floatingFactors;
+  /**
+   * The fixing dates of the floating rates, null for fixed amounts.
+   */
+  private final LocalDate[] fixingDates;
+  /**
+   * The effective times of the floating rates.
+   */
+  private final double[] effectiveTimes;
+  /**
+   * The maturity times of the floating rates.
+   */
+  private final double[] maturityTimes;
+  /**
+   * The year fractions of the floating rates.
+   */
+  private final double[] rateYearFractions;
+  /**
+   * The initial floating rates.
+   */
+  private final double[] initialRates;
+  /**
+   * The ratio of the forward and discount compounding factors of the floating rates.
+   */
+  private final double[] spreadFactors;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Compiles the cash flows of a swap.
+   * <p>
+   * All the cash flows must be in the specified currency.
+   * Cash flows paid before the valuation date are ignored.
+   * The payment periods must only use fixed and Ibor rates, without compounding, FX reset or
+   * negative rate floor, unless their amount is already known at the valuation date.
+   * The payment events must be notional exchanges.
+   *
+   * @param swap  the swap
+   * @param currency  the currency
+   * @param provider  the rates provider
+   * @param legPricer  the leg pricer, used for the amounts that are not simulated
+   * @return the compiled cash flows
+   * @throws IllegalArgumentException if a cash flow is in a different currency or cannot be simulated
+   */
+  static SwapExposureCashFlows of(
+      ResolvedSwap swap,
+      Currency currency,
+      RatesProvider provider,
+      DiscountingSwapLegPricer legPricer) {
+
+    Builder builder = new Builder(currency, provider);
+    for (ResolvedSwapLeg leg : swap.getLegs()) {
+      for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+        builder.checkPayment(period.getCurrency(), period.getPaymentDate());
+        if (period.getPaymentDate().isBefore(provider.getValuationDate())) {
+          continue;
+        }
+        if (builder.isKnown(period)) {
+          builder.addFixed(period.getPaymentDate(), legPricer.getPeriodPricer().forecastValue(period, provider));
+        } else if (!(period instanceof RatePaymentPeriod) || !builder.addPeriod((RatePaymentPeriod) period)) {
+          throw new IllegalArgumentException(Messages.format(
+              "Swap exposure only supports fixed and Ibor rates, without compounding, FX reset or negative rate " +
+                  "floor, but the payment period paid on {} was not supported: {}",
+              period.getPaymentDate(),
+              period));
+        }
+      }
+      for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+        builder.checkPayment(event.getCurrency(), event.getPaymentDate());
+        if (event.getPaymentDate().isBefore(provider.getValuationDate())) {
+          continue;
+        }
+        if (!(event instanceof NotionalExchange)) {
+          throw new IllegalArgumentException(Messages.format(
+              "Swap exposure only supports notional exchanges, but the payment event paid on {} was a {}",
+              event.getPaymentDate(),
+              event.getClass().getSimpleName()));
+        }
+        builder.addFixed(event.getPaymentDate(), legPricer.getEventPricer().forecastValue(event, provider));
+      }
+    }
+    return builder.build();
+  }
+
+  // restricted constructor
+  private SwapExposureCashFlows(Builder builder) {
+    int size = builder.paymentDates.size();
+    this.paymentDates = builder.paymentDates.toArray(new LocalDate[size]);
+    this.fixingDates = builder.fixingDates.toArray(new LocalDate[size]);
+    this.paymentTimes = new double[size];
+    this.fixedAmounts = new double[size];
+    this.floatingFactors = new double[size];
+    this.effectiveTimes = new double[size];
+    this.maturityTimes = new double[size];
+    this.rateYearFractions = new double[size];
+    this.initialRates = new double[size];
+    this.spreadFactors = new double[size];
+    for (int i = 0; i < size; i++) {
+      double[] values = builder.values.get(i);
+      paymentTimes[i] = values[0];
+      fixedAmounts[i] = values[1];
+      floatingFactors[i] = values[2];
+      effectiveTimes[i] = values[3];
+      maturityTimes[i] = values[4];
+      rateYearFractions[i] = values[5];
+      initialRates[i] = values[6];
+      spreadFactors[i] = values[7];
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the present value of the cash flows at the valuation date.
+   *
+   * @param discountFactors  the discount factors
+   * @return the present value
+   */
+  double presentValue(DiscountFactors discountFactors) {
+    double pv = 0d;
+    for (int i = 0; i < paymentDates.length; i++) {
+      double amount = fixedAmounts[i] + floatingFactors[i] * initialRates[i];
+      pv += amount * discountFactors.discountFactor(paymentTimes[i]);
+    }
+    return pv;
+  }
+
+  /**
+   * Adds the values of the cash flows on a range of paths to the specified values.
+   * <p>
+   * The values are indexed by grid date then path, and the cash flows paid on or before a grid date
+   * do not contribute to the value at that date.
+   *
+   * @param paths  the paths, simulated at the times of the grid dates
+   * @param gridDates  the grid dates
+   * @param firstPath  the index of the first path of the range
+   * @param pathCount  the number of paths in the range
+   * @param values  the values, indexed by grid date then path
+   */
+  void addValues(
+      HullWhiteOneFactorPaths paths,
+      List<LocalDate> gridDates,
+      int firstPath,
+      int pathCount,
+      double[][] values) {
+
+    double[] bonds = new double[pathCount];
+    double[] effectiveBonds = new double[pathCount];
+    double[] maturityBonds = new double[pathCount];
+    double[] rates = new double[pathCount];
+    for (int i = 0; i < paymentDates.length; i++) {
+      boolean floating = fixingDates[i] != null;
+      if (floating) {
+        Arrays.fill(rates, initialRates[i]);
+      }
+      for (int k = 0; k < gridDates.size(); k++) {
+        LocalDate gridDate = gridDates.get(k);
+        if (!gridDate.isBefore(paymentDates[i])) {
+          break;
+        }
+        if (floating && !fixingDates[i].isBefore(gridDate)) {
+          // the rate is not fixed yet, it is implied from the bonds on the path
+          paths.bondPrices(k, effectiveTimes[i], firstPath, effectiveBonds);
+          paths.bondPrices(k, maturityTimes[i], firstPath, maturityBonds);
+          for (int p = 0; p < pathCount; p++) {
+            rates[p] = (spreadFactors[i] * effectiveBonds[p] / maturityBonds[p] - 1d) / rateYearFractions[i];
+          }
+        }
+        paths.bondPrices(k, paymentTimes[i], firstPath, bonds);
+        double[] value = values[k];
+        if (floating) {
+          for (int p = 0; p < pathCount; p++) {
+            value[firstPath + p] += (fixedAmounts[i] + floatingFactors[i] * rates[p]) * bonds[p];
+          }
+        } else {
+          for (int p = 0; p < pathCount; p++) {
+            value[firstPath + p] += fixedAmounts[i] * bonds[p];
+          }
+        }
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // collects the cash flows
+  private static final class Builder {
+    private final Currency currency;
+    private final RatesProvider provider;
+    private final DiscountFactors discountFactors;
+    private final List<LocalDate> paymentDates = new ArrayList<>();
+    private final List<LocalDate> fixingDates = new ArrayList<>();
+    private final List<double[]> values = new ArrayList<>();
+
+    private Builder(Currency currency, RatesProvider provider) {
+      this.currency = currency;
+      this.provider = provider;
+      this.discountFactors = provider.discountFactors(currency);
+    }
+
+    private void checkPayment(Currency paymentCurrency, LocalDate paymentDate) {
+      ArgChecker.isTrue(paymentCurrency.equals(currency),
+          "Cash flow on {} must be in {} but was in {}", paymentDate, currency, paymentCurrency);
+    }
+
+    private void addFixed(LocalDate paymentDate, double amount) {
+      paymentDates.add(paymentDate);
+      fixingDates.add(null);
+      values.add(new double[] {discountFactors.relativeYearFraction(paymentDate), amount, 0d, 0d, 0d, 0d, 0d, 0d});
+    }
+
+    // checks if the amount of a period is known at the valuation date, so that it can be forecast as a whole
+    private boolean isKnown(SwapPaymentPeriod period) {
+      if (period instanceof KnownAmountSwapPaymentPeriod) {
+        return true;
+      }
+      if (!(period instanceof RatePaymentPeriod) || ((RatePaymentPeriod) period).getFxReset().isPresent()) {
+        return false;
+      }
+      for (RateAccrualPeriod accrual : ((RatePaymentPeriod) period).getAccrualPeriods()) {
+        if (!isFixed(accrual.getRateComputation())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    // checks if a rate is fixed at the valuation date
+    private boolean isFixed(RateComputation computation) {
+      return computation instanceof FixedRateComputation ||
+          (computation instanceof IborRateComputation &&
+              ((IborRateComputation) computation).getFixingDate().isBefore(provider.getValuationDate()));
+    }
+
+    // adds the accrual periods of a simple rate period, false if the period cannot be simulated
+    private boolean addPeriod(RatePaymentPeriod period) {
+      if (period.isCompoundingApplicable() || period.getFxReset().isPresent()) {
+        return false;
+      }
+      for (RateAccrualPeriod accrual : period.getAccrualPeriods()) {
+        RateComputation computation = accrual.getRateComputation();
+        boolean isIbor = computation instanceof IborRateComputation &&
+            accrual.getNegativeRateMethod() == NegativeRateMethod.ALLOW_NEGATIVE;
+        if (!isFixed(computation) && !isIbor) {
+          return false;
+        }
+      }
+      double paymentTime = discountFactors.relativeYearFraction(period.getPaymentDate());
+      for (RateAccrualPeriod accrual : period.getAccrualPeriods()) {
+        double factor = period.getNotional() * accrual.getYearFraction();
+        RateComputation computation = accrual.getRateComputation();
+        if (isFixed(computation)) {
+          // the rate is fixed or known, the negative rate method applies to the gearing and spread
+          double rawRate = computation instanceof FixedRateComputation ?
+              ((FixedRateComputation) computation).getRate() :
+              provider.iborIndexRates(((IborRateComputation) computation).getIndex())
+                  .rate(((IborRateComputation) computation).getObservation());
+          double rate = accrual.getNegativeRateMethod().adjust(accrual.getGearing() * rawRate + accrual.getSpread());
+          paymentDates.add(period.getPaymentDate());
+          fixingDates.add(null);
+          values.add(new double[] {paymentTime, factor * rate, 0d, 0d, 0d, 0d, 0d, 0d});
+        } else {
+          IborIndexObservation observation = ((IborRateComputation) computation).getObservation();
+          double rate = provider.iborIndexRates(observation.getIndex()).rate(observation);
+          double effectiveTime = discountFactors.relativeYearFraction(observation.getEffectiveDate());
+          double maturityTime = discountFactors.relativeYearFraction(observation.getMaturityDate());
+          double rateYearFraction = observation.getYearFraction();
+          double spreadFactor = (1d + rateYearFraction * rate) *
+              discountFactors.discountFactor(maturityTime) / discountFactors.discountFactor(effectiveTime);
+          paymentDates.add(period.getPaymentDate());
+          fixingDates.add(observation.getFixingDate());
+          values.add(new double[] {
+              paymentTime,
+              factor * accrual.getSpread(),
+              factor * accrual.getGearing(),
+              effectiveTime,
+              maturityTime,
+              rateYearFraction,
+              rate,
+              spreadFactor});
+        }
+      }
+      return true;
+    }
+
+    private SwapExposureCashFlows build() {
+      return new SwapExposureCashFlows(this);
+    }
+  }
+
+}
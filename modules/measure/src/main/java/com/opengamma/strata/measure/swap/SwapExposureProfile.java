@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.swap;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableValidator;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * The exposure profile of a netting set.
+ * <p>
+ * The expected exposure and the potential future exposure are given for each date of the exposure grid,
+ * in the currency of the trades of the netting set.
+ */
+@BeanDefinition(style = "light")
+public final class SwapExposureProfile
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The currency of the exposures.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Currency currency;
+  /**
+   * The dates of the exposure grid.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<LocalDate> dates;
+  /**
+   * The expected exposure at each date.
+   * <p>
+   * This is the expectation of the positive part of the netting set value,
+   * measured under the forward measure associated with the date.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray expectedExposure;
+  /**
+   * The potential future exposure at each date.
+   * <p>
+   * This is the quantile of the positive part of the netting set value across the simulated paths.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray potentialFutureExposure;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   * 
+   * @param currency  the currency of the exposures
+   * @param dates  the dates of the exposure grid
+   * @param expectedExposure  the expected exposure at each date
+   * @param potentialFutureExposure  the potential future exposure at each date
+   * @return the profile
+   */
+  public static SwapExposureProfile of(
+      Currency currency,
+      List<LocalDate> dates,
+      DoubleArray expectedExposure,
+      DoubleArray potentialFutureExposure) {
+
+    return new SwapExposureProfile(currency, dates, expectedExposure, potentialFutureExposure);
+  }
+
+  @ImmutableValidator
+  private void validate() {
+    ArgChecker.isTrue(dates.size() == expectedExposure.size(), "expectedExposure must have one element per date");
+    ArgChecker.isTrue(
+        dates.size() == potentialFutureExposure.size(), "potentialFutureExposure must have one element per date");
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code SwapExposureProfile}.
+   */
+  private static final TypedMetaBean<SwapExposureProfile> META_BEAN =
+      LightMetaBean.of(
+          SwapExposureProfile.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "currency",
+              "dates",
+              "expectedExposure",
+              "potentialFutureExposure"},
+          null,
+          ImmutableList.of(),
+          null,
+          null);
+
+  /**
+   * The meta-bean for {@code SwapExposureProfile}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<SwapExposureProfile> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private SwapExposureProfile(
+      Currency currency,
+      List<LocalDate> dates,
+      DoubleArray expectedExposure,
+      DoubleArray potentialFutureExposure) {
+    JodaBeanUtils.notNull(currency, "currency");
+    JodaBeanUtils.notNull(dates, "dates");
+    JodaBeanUtils.notNull(expectedExposure, "expectedExposure");
+    JodaBeanUtils.notNull(potentialFutureExposure, "potentialFutureExposure");
+    this.currency = currency;
+    this.dates = ImmutableList.copyOf(dates);
+    this.expectedExposure = expectedExposure;
+    this.potentialFutureExposure = potentialFutureExposure;
+    validate();
+  }
+
+  @Override
+  public TypedMetaBean<SwapExposureProfile> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the currency of the exposures.
+   * @return the value of the property, not null
+   */
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the dates of the exposure grid.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<LocalDate> getDates() {
+    return dates;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the expected exposure at each date.
+   * <p>
+   * This is the expectation of the positive part of the netting set value,
+   * measured under the forward measure associated with the date.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getExpectedExposure() {
+    return expectedExposure;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the potential future exposure at each date.
+   * <p>
+   * This is the quantile of the positive part of the netting set value across the simulated paths.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getPotentialFutureExposure() {
+    return potentialFutureExposure;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      SwapExposureProfile other = (SwapExposureProfile) obj;
+      return JodaBeanUtils.equal(currency, other.currency) &&
+          JodaBeanUtils.equal(dates, other.dates) &&
+          JodaBeanUtils.equal(expectedExposure, other.expectedExposure) &&
+          JodaBeanUtils.equal(potentialFutureExposure, other.potentialFutureExposure);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(currency);
+    hash = hash * 31 + JodaBeanUtils.hashCode(dates);
+    hash = hash * 31 + JodaBeanUtils.hashCode(expectedExposure);
+    hash = hash * 31 + JodaBeanUtils.hashCode(potentialFutureExposure);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(160);
+    buf.append("SwapExposureProfile{");
+    buf.append("currency").append('=').append(currency).append(',').append(' ');
+    buf.append("dates").append('=').append(dates).append(',').append(' ');
+    buf.append("expectedExposure").append('=').append(expectedExposure).append(',').append(' ');
+    buf.append("potentialFutureExposure").append('=').append(JodaBeanUtils.toString(potentialFutureExposure));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.calc;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.product.GenericSecurity;
+import com.opengamma.strata.product.GenericSecurityTrade;
+import com.opengamma.strata.product.SecurityId;
+import com.opengamma.strata.product.SecurityInfo;
+import com.opengamma.strata.product.TradeInfo;
+
+/**
+ * Test {@link NettingSetCalculationParameter}.
+ */
+@Test
+public class NettingSetCalculationParameterTest {
+
+  private static final StandardId NETTING_SET_1 = StandardId.of("test", "ns1");
+  private static final StandardId NETTING_SET_2 = StandardId.of("test", "ns2");
+  private static final StandardId CPTY = StandardId.of("test", "cpty1");
+  private static final GenericSecurity SECURITY = GenericSecurity.of(
+      SecurityInfo.of(SecurityId.of("test", "sec1"), 1d, CurrencyAmount.of(Currency.EUR, 1d)));
+  private static final GenericSecurityTrade TRADE =
+      GenericSecurityTrade.of(TradeInfo.builder().counterparty(CPTY).build(), SECURITY, 1, 1d);
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    NettingSetCalculationParameter test = NettingSetCalculationParameter.of(NETTING_SET_1);
+    assertEquals(test.getNettingSetId(), NETTING_SET_1);
+    assertEquals(test.queryType(), NettingSetCalculationParameter.class);
+    assertEquals(test.filter(TRADE, TestingMeasures.PRESENT_VALUE), Optional.of(test));
+  }
+
+  public void test_byCounterparty() {
+    NettingSetCalculationParameter ns1 = NettingSetCalculationParameter.of(NETTING_SET_1);
+    NettingSetCalculationParameter ns2 = NettingSetCalculationParameter.of(NETTING_SET_2);
+    TradeCounterpartyCalculationParameter test = TradeCounterpartyCalculationParameter.of(ImmutableMap.of(CPTY, ns1), ns2);
+    assertEquals(test.filter(TRADE, TestingMeasures.PRESENT_VALUE), Optional.of(ns1));
+    GenericSecurityTrade other = GenericSecurityTrade.of(TradeInfo.empty(), SECURITY, 1, 1d);
+    assertEquals(test.filter(other, TestingMeasures.PRESENT_VALUE), Optional.of(ns2));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    NettingSetCalculationParameter test = NettingSetCalculationParameter.of(NETTING_SET_1);
+    coverImmutableBean(test);
+    NettingSetCalculationParameter test2 = NettingSetCalculationParameter.of(NETTING_SET_2);
+    coverBeanEquals(test, test2);
+  }
+
+  public void test_serialization() {
+    assertSerialization(NettingSetCalculationParameter.of(NETTING_SET_1));
+  }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.swap;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.measure.calc.NettingSetCalculationParameter;
+import com.opengamma.strata.measure.calc.TradeCounterpartyCalculationParameter;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorMonteCarloEngine;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPaths;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.TradeInfo;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.swap.IborRateCalculation;
+import com.opengamma.strata.product.swap.NegativeRateMethod;
+import com.opengamma.strata.product.swap.RateCalculationSwapLeg;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+import com.opengamma.strata.product.swap.Swap;
+import com.opengamma.strata.product.swap.SwapTrade;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+import com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions;
+
+/**
+ * Test {@link SwapExposureCalculations}.
+ */
+@Test
+public class SwapExposureCalculationsTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2016, 6, 23);
+  private static final Curve DISCOUNT_CURVE = InterpolatedNodalCurve.of(
+      Curves.zeroRates("USD-Discount", ACT_365F),
+      DoubleArray.of(0.5, 2d, 5d, 10d),
+      DoubleArray.of(0.010, 0.012, 0.015, 0.020),
+      CurveInterpolators.LINEAR);
+  private static final Curve FORWARD_CURVE = InterpolatedNodalCurve.of(
+      Curves.zeroRates("USD-Libor3M", ACT_365F),
+      DoubleArray.of(0.5, 2d, 5d, 10d),
+      DoubleArray.of(0.012, 0.015, 0.018, 0.022),
+      CurveInterpolators.LINEAR);
+  private static final ImmutableRatesProvider PROVIDER = ImmutableRatesProvider.builder(VAL_DATE)
+      .discountCurve(USD, DISCOUNT_CURVE)
+      .iborIndexCurve(USD_LIBOR_3M, FORWARD_CURVE)
+      .build();
+
+  private static final StandardId CPTY_A = StandardId.of("test", "A");
+  private static final StandardId CPTY_B = StandardId.of("test", "B");
+  private static final NettingSetCalculationParameter NETTING_SET_A =
+      NettingSetCalculationParameter.of(StandardId.of("test", "NS-A"));
+  private static final NettingSetCalculationParameter NETTING_SET_B =
+      NettingSetCalculationParameter.of(StandardId.of("test", "NS-B"));
+  private static final TradeCounterpartyCalculationParameter NETTING_SETS = TradeCounterpartyCalculationParameter.of(
+      ImmutableMap.of(CPTY_A, NETTING_SET_A, CPTY_B, NETTING_SET_B), NETTING_SET_A);
+
+  private static final SwapTrade PAYER_A = swap(BuySell.BUY, 0.017, CPTY_A);
+  private static final SwapTrade RECEIVER_A = swap(BuySell.SELL, 0.017, CPTY_A);
+  private static final SwapTrade PAYER_B = swap(BuySell.BUY, 0.016, CPTY_B);
+
+  private static final List<LocalDate> GRID_DATES = IntStream.rangeClosed(1, 24)
+      .mapToObj(i -> VAL_DATE.plusMonths(3 * i))
+      .collect(Collectors.toList());
+  private static final int NB_PATHS = 4000;
+  private static final HullWhiteOneFactorMonteCarloEngine ENGINE = HullWhiteOneFactorMonteCarloEngine.of(
+      HullWhiteOneFactorPiecewiseConstantParameters.of(0.03, DoubleArray.of(0.008, 0.01), DoubleArray.of(2d)),
+      NB_PATHS,
+      500,
+      42L);
+  private static final SwapExposureCalculations CALCULATIONS = SwapExposureCalculations.DEFAULT;
+
+  //-------------------------------------------------------------------------
+  public void test_presentValueAtValuationDate() {
+    ResolvedSwap swap = PAYER_B.resolve(REF_DATA).getProduct();
+    SwapExposureCashFlows cashFlows =
+        SwapExposureCashFlows.of(swap, USD, PROVIDER, DiscountingSwapProductPricer.DEFAULT.getLegPricer());
+    double expected = DiscountingSwapProductPricer.DEFAULT.presentValue(swap, USD, PROVIDER).getAmount();
+    assertEquals(cashFlows.presentValue(PROVIDER.discountFactors(USD)), expected, 1e-6);
+  }
+
+  public void test_presentValueAtValuationDate_seasoned() {
+    // the current Ibor period was fixed before the valuation date
+    LocalDateDoubleTimeSeriesBuilder fixings = LocalDateDoubleTimeSeries.builder();
+    for (LocalDate date = VAL_DATE.minusMonths(2); date.isBefore(VAL_DATE); date = date.plusDays(1)) {
+      fixings.put(date, 0.0065);
+    }
+    ImmutableRatesProvider provider = PROVIDER.toBuilder()
+        .timeSeries(USD_LIBOR_3M, fixings.build())
+        .build();
+    ResolvedSwap swap = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+        .toTrade(VAL_DATE.minusMonths(1), VAL_DATE.minusMonths(1), VAL_DATE.plusYears(2), BuySell.BUY, 1_000_000, 0.016)
+        .resolve(REF_DATA)
+        .getProduct();
+    SwapExposureCashFlows cashFlows =
+        SwapExposureCashFlows.of(swap, USD, provider, DiscountingSwapProductPricer.DEFAULT.getLegPricer());
+    double expected = DiscountingSwapProductPricer.DEFAULT.presentValue(swap, USD, provider).getAmount();
+    assertEquals(cashFlows.presentValue(provider.discountFactors(USD)), expected, 1e-6);
+  }
+
+  public void test_overnightNotSupported() {
+    ResolvedSwap swap = FixedOvernightSwapConventions.USD_FIXED_1Y_FED_FUND_OIS
+        .createTrade(VAL_DATE, Tenor.TENOR_2Y, BuySell.BUY, 1_000_000, 0.01, REF_DATA)
+        .resolve(REF_DATA)
+        .getProduct();
+    assertThrowsIllegalArg(
+        () -> SwapExposureCashFlows.of(swap, USD, PROVIDER, DiscountingSwapProductPricer.DEFAULT.getLegPricer()),
+        "Swap exposure only supports fixed and Ibor rates.*");
+  }
+
+  public void test_flooredIborNotSupported() {
+    SwapTrade trade = PAYER_A;
+    RateCalculationSwapLeg iborLeg = (RateCalculationSwapLeg) trade.getProduct().getLegs().get(1);
+    RateCalculationSwapLeg flooredLeg = iborLeg.toBuilder()
+        .calculation(((IborRateCalculation) iborLeg.getCalculation()).toBuilder()
+            .negativeRateMethod(NegativeRateMethod.NOT_NEGATIVE)
+            .build())
+        .build();
+    ResolvedSwap swap = Swap.of(trade.getProduct().getLegs().get(0), flooredLeg).resolve(REF_DATA);
+    assertThrowsIllegalArg(
+        () -> SwapExposureCashFlows.of(swap, USD, PROVIDER, DiscountingSwapProductPricer.DEFAULT.getLegPricer()),
+        "Swap exposure only supports fixed and Ibor rates.*");
+  }
+
+  public void test_martingale() {
+    // the deflated value on the paths is, on average, the present value of the remaining cash flows
+    ResolvedSwap swap = PAYER_B.resolve(REF_DATA).getProduct();
+    SwapExposureCashFlows cashFlows =
+        SwapExposureCashFlows.of(swap, USD, PROVIDER, DiscountingSwapProductPricer.DEFAULT.getLegPricer());
+    DiscountFactors discountFactors = PROVIDER.discountFactors(USD);
+    DoubleArray times = DoubleArray.of(GRID_DATES.size(), k -> discountFactors.relativeYearFraction(GRID_DATES.get(k)));
+    HullWhiteOneFactorPaths paths = ENGINE.simulate(times, discountFactors::discountFactor);
+    double[][] values = new double[GRID_DATES.size()][NB_PATHS];
+    cashFlows.addValues(paths, GRID_DATES, 0, NB_PATHS, values);
+    double[] deflators = new double[NB_PATHS];
+    for (int k = 0; k < GRID_DATES.size(); k++) {
+      paths.deflators(k, deflators);
+      double sum = 0d;
+      double sum2 = 0d;
+      for (int p = 0; p < NB_PATHS; p++) {
+        double deflated = values[k][p] * deflators[p];
+        sum += deflated;
+        sum2 += deflated * deflated;
+      }
+      double mean = sum / NB_PATHS;
+      double error = Math.sqrt((sum2 / NB_PATHS - mean * mean) / NB_PATHS);
+      assertEquals(mean, remainingPresentValue(swap, GRID_DATES.get(k)), 4d * error + 1d);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_exposureProfiles() {
+    ImmutableMap<StandardId, SwapExposureProfile> test = CALCULATIONS.exposureProfiles(
+        ImmutableList.of(PAYER_A, PAYER_B, RECEIVER_A), NETTING_SETS, GRID_DATES, ENGINE, PROVIDER, 0.95, REF_DATA);
+    assertEquals(test.keySet().asList(), ImmutableList.of(NETTING_SET_A.getNettingSetId(), NETTING_SET_B.getNettingSetId()));
+    // the trades of netting set A offset each other
+    SwapExposureProfile profileA = test.get(NETTING_SET_A.getNettingSetId());
+    assertEquals(profileA.getCurrency(), USD);
+    assertEquals(profileA.getDates(), GRID_DATES);
+    for (int k = 0; k < GRID_DATES.size(); k++) {
+      assertEquals(profileA.getExpectedExposure().get(k), 0d, 1e-6);
+      assertEquals(profileA.getPotentialFutureExposure().get(k), 0d, 1e-6);
+    }
+    // netting set B is not affected by the other trades
+    SwapExposureProfile profileB = test.get(NETTING_SET_B.getNettingSetId());
+    SwapExposureProfile expectedB = CALCULATIONS.exposureProfiles(
+        ImmutableList.of(PAYER_B), NETTING_SETS, GRID_DATES, ENGINE, PROVIDER, 0.95, REF_DATA)
+        .get(NETTING_SET_B.getNettingSetId());
+    assertEquals(profileB, expectedB);
+    for (int k = 0; k < 19; k++) {
+      assertTrue(profileB.getExpectedExposure().get(k) > 0d);
+      assertTrue(profileB.getPotentialFutureExposure().get(k) > profileB.getExpectedExposure().get(k));
+    }
+    // no exposure after the maturity
+    assertEquals(profileB.getExpectedExposure().get(23), 0d);
+    assertEquals(profileB.getPotentialFutureExposure().get(23), 0d);
+  }
+
+  public void test_exposureProfiles_singleNettingSet() {
+    ImmutableMap<StandardId, SwapExposureProfile> test = CALCULATIONS.exposureProfiles(
+        ImmutableList.of(PAYER_A, RECEIVER_A), NETTING_SET_B, GRID_DATES, ENGINE, PROVIDER, 0.95, REF_DATA);
+    assertEquals(test.keySet().asList(), ImmutableList.of(NETTING_SET_B.getNettingSetId()));
+  }
+
+  public void test_exposureProfiles_invalid() {
+    List<SwapTrade> trades = ImmutableList.of(PAYER_A);
+    assertThrowsIllegalArg(() -> CALCULATIONS.exposureProfiles(
+        trades, NETTING_SETS, ImmutableList.of(VAL_DATE), ENGINE, PROVIDER, 0.95, REF_DATA));
+    assertThrowsIllegalArg(() -> CALCULATIONS.exposureProfiles(
+        trades, NETTING_SETS, ImmutableList.of(date(2017, 1, 3), date(2017, 1, 3)), ENGINE, PROVIDER, 0.95, REF_DATA));
+    assertThrowsIllegalArg(() -> CALCULATIONS.exposureProfiles(
+        trades, NETTING_SETS, GRID_DATES, ENGINE, PROVIDER, 1d, REF_DATA));
+    SwapTrade gbpSwap = FixedIborSwapConventions.GBP_FIXED_6M_LIBOR_6M
+        .createTrade(VAL_DATE, Tenor.TENOR_2Y, BuySell.BUY, 1_000_000, 0.01, REF_DATA);
+    assertThrowsIllegalArg(() -> CALCULATIONS.exposureProfiles(
+        ImmutableList.of(PAYER_A, gbpSwap), NETTING_SETS, GRID_DATES, ENGINE, PROVIDER, 0.95, REF_DATA));
+  }
+
+  //-------------------------------------------------------------------------
+  private static SwapTrade swap(BuySell buySell, double rate, StandardId counterparty) {
+    SwapTrade trade = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+        .createTrade(VAL_DATE, Tenor.TENOR_5Y, buySell, 1_000_000, rate, REF_DATA);
+    return trade.toBuilder()
+        .info(TradeInfo.builder().tradeDate(VAL_DATE).counterparty(counterparty).build())
+        .build();
+  }
+
+  // the present value of the cash flows paid after the date
+  private static double remainingPresentValue(ResolvedSwap swap, LocalDate date) {
+    DiscountingSwapProductPricer pricer = DiscountingSwapProductPricer.DEFAULT;
+    double pv = 0d;
+    for (ResolvedSwapLeg leg : swap.getLegs()) {
+      for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+        if (period.getPaymentDate().isAfter(date)) {
+          pv += pricer.getLegPricer().getPeriodPricer().presentValue(period, PROVIDER);
+        }
+      }
+      for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+        if (event.getPaymentDate().isAfter(date)) {
+          pv += pricer.getLegPricer().getEventPricer().presentValue(event, PROVIDER);
+        }
+      }
+    }
+    return pv;
+  }
+
+}
@@ -38,6 +38,8 @@ import com.opengamma.strata.calc.CalculationRunner;
 import com.opengamma.strata.calc.Column;
 import com.opengamma.strata.calc.Results;
 import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.collect.io.BinaryBeanReader;
+import com.opengamma.strata.collect.io.BinaryBeanWriter;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.MarketData;
@@ -148,6 +150,9 @@ public class SwapPricingTest {
 
     CurrencyAmount pv = (CurrencyAmount) result.getValue();
     assertThat(pv.getAmount()).isCloseTo(-1003684.8402, offset(TOLERANCE_PV));
+
+    // results can be written and read in the compact binary format
+    assertThat(BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(results), Results.class)).isEqualTo(results);
   }
 
   private static SwapLeg fixedLeg(
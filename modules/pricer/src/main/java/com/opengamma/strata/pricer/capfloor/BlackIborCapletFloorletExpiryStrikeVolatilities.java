@@ -29,6 +29,7 @@ import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.index.IborIndex;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
@@ -232,6 +233,39 @@ public final class BlackIborCapletFloorletExpiryStrikeVolatilities
     return BlackFormulaRepository.vega(forward, strike, expiry, volatility);
   }
 
+  @Override
+  public DoubleArray price(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    return BlackFormulaRepository.price(forwards, strikes, expiries, volatilities, putCall.isCall());
+  }
+
+  @Override
+  public DoubleArray priceDelta(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    return BlackFormulaRepository.delta(forwards, strikes, expiries, volatilities, putCall.isCall());
+  }
+
+  @Override
+  public DoubleArray priceVega(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    return BlackFormulaRepository.vega(forwards, strikes, expiries, volatilities);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public double relativeTime(ZonedDateTime dateTime) {
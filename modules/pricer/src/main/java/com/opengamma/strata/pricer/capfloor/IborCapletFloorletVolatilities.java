@@ -9,6 +9,8 @@ import java.time.LocalDate;
 import java.time.ZonedDateTime;
 
 import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.MarketDataView;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
@@ -240,6 +242,97 @@ public interface IborCapletFloorletVolatilities
       double forward,
       double volatility);
 
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the price for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #price(double, PutCall, double, double, double)} for each option.
+   * Implementations based on a closed-form formula override this to evaluate the options in a single batch.
+   * 
+   * @param expiries  the times to expiry as year fractions
+   * @param putCall  whether the options are put or call
+   * @param strikes  the option strike rates
+   * @param forwards  the forward rates
+   * @param volatilities  the volatilities
+   * @return the prices
+   * @throws RuntimeException if the values cannot be obtained
+   */
+  public default DoubleArray price(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    ArgChecker.isTrue(
+        strikes.size() == expiries.size() && forwards.size() == expiries.size() && volatilities.size() == expiries.size(),
+        "Arrays must have the same size");
+    return DoubleArray.of(
+        expiries.size(),
+        i -> price(expiries.get(i), putCall, strikes.get(i), forwards.get(i), volatilities.get(i)));
+  }
+
+  /**
+   * Calculates the price delta for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #priceDelta(double, PutCall, double, double, double)} for each option.
+   * Implementations based on a closed-form formula override this to evaluate the options in a single batch.
+   * 
+   * @param expiries  the times to expiry as year fractions
+   * @param putCall  whether the options are put or call
+   * @param strikes  the option strike rates
+   * @param forwards  the forward rates
+   * @param volatilities  the volatilities
+   * @return the deltas
+   * @throws RuntimeException if the values cannot be obtained
+   */
+  public default DoubleArray priceDelta(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    ArgChecker.isTrue(
+        strikes.size() == expiries.size() && forwards.size() == expiries.size() && volatilities.size() == expiries.size(),
+        "Arrays must have the same size");
+    return DoubleArray.of(
+        expiries.size(),
+        i -> priceDelta(expiries.get(i), putCall, strikes.get(i), forwards.get(i), volatilities.get(i)));
+  }
+
+  /**
+   * Calculates the price vega for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #priceVega(double, PutCall, double, double, double)} for each option.
+   * Implementations based on a closed-form formula override this to evaluate the options in a single batch.
+   * 
+   * @param expiries  the times to expiry as year fractions
+   * @param putCall  whether the options are put or call
+   * @param strikes  the option strike rates
+   * @param forwards  the forward rates
+   * @param volatilities  the volatilities
+   * @return the vegas
+   * @throws RuntimeException if the values cannot be obtained
+   */
+  public default DoubleArray priceVega(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    ArgChecker.isTrue(
+        strikes.size() == expiries.size() && forwards.size() == expiries.size() && volatilities.size() == expiries.size(),
+        "Arrays must have the same size");
+    return DoubleArray.of(
+        expiries.size(),
+        i -> priceVega(expiries.get(i), putCall, strikes.get(i), forwards.get(i), volatilities.get(i)));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Converts a time and date to a relative year fraction.
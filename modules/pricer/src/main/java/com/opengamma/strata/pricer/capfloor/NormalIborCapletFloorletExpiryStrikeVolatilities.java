@@ -29,6 +29,7 @@ import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.index.IborIndex;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
@@ -232,6 +233,39 @@ public final class NormalIborCapletFloorletExpiryStrikeVolatilities
     return NormalFormulaRepository.vega(forward, strike, expiry, volatility, putCall);
   }
 
+  @Override
+  public DoubleArray price(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    return NormalFormulaRepository.price(forwards, strikes, expiries, volatilities, putCall);
+  }
+
+  @Override
+  public DoubleArray priceDelta(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    return NormalFormulaRepository.delta(forwards, strikes, expiries, volatilities, putCall);
+  }
+
+  @Override
+  public DoubleArray priceVega(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    return NormalFormulaRepository.vega(forwards, strikes, expiries, volatilities, putCall);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public double relativeTime(ZonedDateTime dateTime) {
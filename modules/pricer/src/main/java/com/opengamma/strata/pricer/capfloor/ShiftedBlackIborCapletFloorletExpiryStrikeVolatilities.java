@@ -29,6 +29,7 @@ import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.index.IborIndex;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.curve.Curve;
@@ -268,6 +269,42 @@ public final class ShiftedBlackIborCapletFloorletExpiryStrikeVolatilities
     return BlackFormulaRepository.vega(forward + shift, strike + shift, expiry, volatility);
   }
 
+  @Override
+  public DoubleArray price(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    DoubleArray shifts = expiries.map(shiftCurve::yValue);
+    return BlackFormulaRepository.price(forwards.plus(shifts), strikes.plus(shifts), expiries, volatilities, putCall.isCall());
+  }
+
+  @Override
+  public DoubleArray priceDelta(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    DoubleArray shifts = expiries.map(shiftCurve::yValue);
+    return BlackFormulaRepository.delta(forwards.plus(shifts), strikes.plus(shifts), expiries, volatilities, putCall.isCall());
+  }
+
+  @Override
+  public DoubleArray priceVega(
+      DoubleArray expiries,
+      PutCall putCall,
+      DoubleArray strikes,
+      DoubleArray forwards,
+      DoubleArray volatilities) {
+
+    DoubleArray shifts = expiries.map(shiftCurve::yValue);
+    return BlackFormulaRepository.vega(forwards.plus(shifts), strikes.plus(shifts), expiries, volatilities);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public double relativeTime(ZonedDateTime dateTime) {
@@ -60,6 +60,9 @@ public class VolatilityIborCapFloorLegPricer {
    * <p>
    * The present value of the leg is the value on the valuation date.
    * The result is returned using the payment currency of the leg.
+   * <p>
+   * The caplets/floorlets are priced together by the period pricer, which allows the
+   * volatilities to price those that have not expired in a single batch.
    * 
    * @param capFloorLeg  the Ibor cap/floor leg
    * @param ratesProvider  the rates provider 
@@ -72,11 +75,7 @@ public class VolatilityIborCapFloorLegPricer {
       IborCapletFloorletVolatilities volatilities) {
 
     validate(ratesProvider, volatilities);
-    return capFloorLeg.getCapletFloorletPeriods()
-        .stream()
-        .map(period -> periodPricer.presentValue(period, ratesProvider, volatilities))
-        .reduce((c1, c2) -> c1.plus(c2))
-        .get();
+    return periodPricer.presentValueSum(capFloorLeg.getCapletFloorletPeriods(), ratesProvider, volatilities);
   }
 
   //-------------------------------------------------------------------------
@@ -85,6 +84,9 @@ public class VolatilityIborCapFloorLegPricer {
    * <p>
    * The present value delta of the leg is the sensitivity value on the valuation date.
    * The result is returned using the payment currency of the leg.
+   * <p>
+   * The caplets/floorlets are priced together by the period pricer, which allows the
+   * volatilities to price those that have not expired in a single batch.
    * 
    * @param capFloorLeg  the Ibor cap/floor leg
    * @param ratesProvider  the rates provider 
@@ -97,11 +99,7 @@ public class VolatilityIborCapFloorLegPricer {
       IborCapletFloorletVolatilities volatilities) {
 
     validate(ratesProvider, volatilities);
-    return capFloorLeg.getCapletFloorletPeriods()
-        .stream()
-        .map(period -> periodPricer.presentValueDelta(period, ratesProvider, volatilities))
-        .reduce((c1, c2) -> c1.plus(c2))
-        .get();
+    return periodPricer.presentValueDeltaSum(capFloorLeg.getCapletFloorletPeriods(), ratesProvider, volatilities);
   }
 
   //-------------------------------------------------------------------------
@@ -5,9 +5,13 @@
  */
 package com.opengamma.strata.pricer.capfloor;
 
+import java.util.Arrays;
+import java.util.List;
+
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.product.capfloor.IborCapletFloorletPeriod;
@@ -30,6 +34,15 @@ public class VolatilityIborCapletFloorletPeriodPricer {
    * Default implementation.
    */
   public static final VolatilityIborCapletFloorletPeriodPricer DEFAULT = new VolatilityIborCapletFloorletPeriodPricer();
+  /**
+   * Whether each pricer class inherits the single period present value and delta, so that periods can be batched.
+   */
+  private static final ClassValue<Boolean> BATCHABLE = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      return isInherited(type, "presentValue") && isInherited(type, "presentValueDelta");
+    }
+  };
 
   //-------------------------------------------------------------------------
   /**
@@ -121,6 +134,148 @@ public class VolatilityIborCapletFloorletPeriodPricer {
     return CurrencyAmount.of(currency, priceDelta * period.getNotional());
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the sum of the present values of a list of Ibor caplet/floorlet periods.
+   * <p>
+   * This is used to price a cap/floor leg, and returns the same result as summing
+   * {@link #presentValue(IborCapletFloorletPeriod, RatesProvider, IborCapletFloorletVolatilities)}.
+   * The periods that have not expired are priced in a single batch by the volatilities.
+   * If a subclass overrides the single period method, each period is priced by that method instead.
+   * <p>
+   * The periods must all have the same currency, which is the currency of the result.
+   * 
+   * @param periods  the Ibor caplet/floorlet periods, not empty
+   * @param ratesProvider  the rates provider
+   * @param volatilities  the volatilities
+   * @return the present value
+   */
+  public CurrencyAmount presentValueSum(
+      List<IborCapletFloorletPeriod> periods,
+      RatesProvider ratesProvider,
+      IborCapletFloorletVolatilities volatilities) {
+
+    return batchSum(periods, ratesProvider, volatilities, false);
+  }
+
+  /**
+   * Calculates the sum of the present value deltas of a list of Ibor caplet/floorlet periods.
+   * <p>
+   * This is used to price a cap/floor leg, and returns the same result as summing
+   * {@link #presentValueDelta(IborCapletFloorletPeriod, RatesProvider, IborCapletFloorletVolatilities)}.
+   * The periods that have not expired are priced in a single batch by the volatilities.
+   * If a subclass overrides the single period method, each period is priced by that method instead.
+   * <p>
+   * The periods must all have the same currency, which is the currency of the result.
+   * 
+   * @param periods  the Ibor caplet/floorlet periods, not empty
+   * @param ratesProvider  the rates provider
+   * @param volatilities  the volatilities
+   * @return the present value delta
+   */
+  public CurrencyAmount presentValueDeltaSum(
+      List<IborCapletFloorletPeriod> periods,
+      RatesProvider ratesProvider,
+      IborCapletFloorletVolatilities volatilities) {
+
+    return batchSum(periods, ratesProvider, volatilities, true);
+  }
+
+  // calculates the present value or present value delta, matching the single period methods
+  // periods before expiry with the put/call of the first period are priced in one batch
+  // the remaining periods, such as those that have expired, are priced individually
+  private CurrencyAmount batchSum(
+      List<IborCapletFloorletPeriod> periods,
+      RatesProvider ratesProvider,
+      IborCapletFloorletVolatilities volatilities,
+      boolean delta) {
+
+    ArgChecker.notEmpty(periods, "periods");
+    if (!BATCHABLE.get(getClass())) {
+      return periodSum(periods, ratesProvider, volatilities, delta);
+    }
+    validate(volatilities);
+    int size = periods.size();
+    PutCall putCall = periods.get(0).getPutCall();
+    boolean[] batched = new boolean[size];
+    double[] discountFactors = new double[size];
+    double[] expiries = new double[size];
+    double[] strikes = new double[size];
+    double[] forwards = new double[size];
+    double[] vols = new double[size];
+    int batchSize = 0;
+    for (int i = 0; i < size; i++) {
+      IborCapletFloorletPeriod period = periods.get(i);
+      if (period.getPutCall() != putCall ||
+          (!delta && ratesProvider.getValuationDate().isAfter(period.getPaymentDate()))) {
+        continue;
+      }
+      double expiry = volatilities.relativeTime(period.getFixingDateTime());
+      if (expiry < 0d) {
+        continue;
+      }
+      double forward = ratesProvider.iborIndexRates(period.getIndex()).rate(period.getIborRate().getObservation());
+      batched[i] = true;
+      discountFactors[i] = ratesProvider.discountFactor(period.getCurrency(), period.getPaymentDate());
+      expiries[batchSize] = expiry;
+      strikes[batchSize] = period.getStrike();
+      forwards[batchSize] = forward;
+      vols[batchSize] = volatilities.volatility(expiry, period.getStrike(), forward);
+      batchSize++;
+    }
+    DoubleArray expiryArray = DoubleArray.ofUnsafe(Arrays.copyOf(expiries, batchSize));
+    DoubleArray strikeArray = DoubleArray.ofUnsafe(Arrays.copyOf(strikes, batchSize));
+    DoubleArray forwardArray = DoubleArray.ofUnsafe(Arrays.copyOf(forwards, batchSize));
+    DoubleArray volArray = DoubleArray.ofUnsafe(Arrays.copyOf(vols, batchSize));
+    DoubleArray values = delta ?
+        volatilities.priceDelta(expiryArray, putCall, strikeArray, forwardArray, volArray) :
+        volatilities.price(expiryArray, putCall, strikeArray, forwardArray, volArray);
+    // sum in period order, as for the individual pricing
+    double total = 0d;
+    int batchIndex = 0;
+    for (int i = 0; i < size; i++) {
+      IborCapletFloorletPeriod period = periods.get(i);
+      if (batched[i]) {
+        double price = discountFactors[i] * period.getYearFraction() * values.get(batchIndex++);
+        total += price * period.getNotional();
+      } else {
+        CurrencyAmount amount = delta ?
+            presentValueDelta(period, ratesProvider, volatilities) :
+            presentValue(period, ratesProvider, volatilities);
+        total += amount.getAmount();
+      }
+    }
+    return CurrencyAmount.of(periods.get(0).getCurrency(), total);
+  }
+
+  // calculates the present value or present value delta by summing the single period methods
+  private CurrencyAmount periodSum(
+      List<IborCapletFloorletPeriod> periods,
+      RatesProvider ratesProvider,
+      IborCapletFloorletVolatilities volatilities,
+      boolean delta) {
+
+    double total = 0d;
+    for (IborCapletFloorletPeriod period : periods) {
+      CurrencyAmount amount = delta ?
+          presentValueDelta(period, ratesProvider, volatilities) :
+          presentValue(period, ratesProvider, volatilities);
+      total += amount.getAmount();
+    }
+    return CurrencyAmount.of(periods.get(0).getCurrency(), total);
+  }
+
+  // checks if the single period method is inherited from this class
+  private static boolean isInherited(Class<?> type, String methodName) {
+    try {
+      return type.getMethod(
+          methodName, IborCapletFloorletPeriod.class, RatesProvider.class, IborCapletFloorletVolatilities.class)
+          .getDeclaringClass() == VolatilityIborCapletFloorletPeriodPricer.class;
+    } catch (NoSuchMethodException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calculates the present value gamma of the Ibor caplet/floorlet period.
@@ -9,6 +9,7 @@ import static com.opengamma.strata.collect.Guavate.filtering;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -31,6 +32,8 @@ import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
 import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
 import com.opengamma.strata.market.observable.IndexQuoteId;
+import com.opengamma.strata.math.impl.linearalgebra.BlockSparseMatrix;
+import com.opengamma.strata.math.impl.linearalgebra.BlockSparseSolver;
 import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
 import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
 import com.opengamma.strata.math.rootfind.NewtonVectorRootFinder;
@@ -61,7 +64,7 @@ public final class RatesCurveCalibrator {
   private static final RatesCurveCalibrator STANDARD =
       RatesCurveCalibrator.of(1e-9, 1e-9, 1000, CalibrationMeasures.PAR_SPREAD, CalibrationMeasures.PRESENT_VALUE);
   /**
-   * The matrix algebra used for matrix inversion.
+   * The matrix algebra used for dense matrix multiplication.
    */
   private static final MatrixAlgebra MATRIX_ALGEBRA = new CommonsMatrixAlgebra();
 
@@ -337,7 +340,7 @@ public final class RatesCurveCalibrator {
     int nbTrades = trades.size();
     int totalParamsGroup = orderGroup.stream().mapToInt(e -> e.getParameterCount()).sum();
     int totalParamsPrevious = totalParamsAll - totalParamsGroup;
-    DoubleMatrix pDmCurrentMatrix = jacobianDirect(res, nbTrades, totalParamsGroup, totalParamsPrevious);
+    DoubleMatrix pDmCurrentMatrix = jacobianDirect(res, nbTrades, totalParamsGroup, totalParamsPrevious, orderGroup);
 
     // jacobian indirect: when totalParamsPrevious > 0
     DoubleMatrix pDmPrevious = jacobianIndirect(
@@ -402,17 +405,21 @@ public final class RatesCurveCalibrator {
   }
 
   // jacobian direct, for the current group
+  // the matrix is partitioned by curve, as it is often block triangular when curves in a group are independent
+  // the blocks are pseudo-inverted using SVD, so near-singular blocks stay bounded as with a dense pseudo-inverse
   private static DoubleMatrix jacobianDirect(
       DoubleMatrix res,
       int nbTrades,
       int totalParamsGroup,
-      int totalParamsPrevious) {
+      int totalParamsPrevious,
+      ImmutableList<CurveParameterSize> orderGroup) {
 
     double[][] direct = new double[totalParamsGroup][totalParamsGroup];
     for (int i = 0; i < nbTrades; i++) {
       System.arraycopy(res.rowArray(i), totalParamsPrevious, direct[i], 0, totalParamsGroup);
     }
-    return MATRIX_ALGEBRA.getInverse(DoubleMatrix.copyOf(direct));
+    int[] blockSizes = orderGroup.stream().mapToInt(e -> e.getParameterCount()).toArray();
+    return BlockSparseSolver.inverse(BlockSparseMatrix.of(DoubleMatrix.ofUnsafe(direct), blockSizes));
   }
 
   // jacobian indirect, merging groups
@@ -433,36 +440,30 @@ public final class RatesCurveCalibrator {
       System.arraycopy(res.rowArray(i), 0, nonDirect[i], 0, totalParamsPrevious);
     }
     DoubleMatrix pDpPreviousMatrix = (DoubleMatrix) MATRIX_ALGEBRA.scale(
-        MATRIX_ALGEBRA.multiply(pDmCurrentMatrix, DoubleMatrix.copyOf(nonDirect)), -1d);
-    // all curves: order and size
-    int[] startIndexBefore = new int[orderPrevious.size()];
-    for (int i = 1; i < orderPrevious.size(); i++) {
-      startIndexBefore[i] = startIndexBefore[i - 1] + orderPrevious.get(i - 1).getParameterCount();
-    }
-    // transition Matrix: all curves from previous groups
-    double[][] transition = new double[totalParamsPrevious][totalParamsPrevious];
+        MATRIX_ALGEBRA.multiply(pDmCurrentMatrix, DoubleMatrix.ofUnsafe(nonDirect)), -1d);
+    // transition Matrix: all curves from previous groups, one block for each pair of curves
+    // curves only depend on curves in the same or earlier groups, so many blocks are zero and are skipped
+    int[] blockSizes = orderPrevious.stream().mapToInt(e -> e.getParameterCount()).toArray();
+    DoubleMatrix[][] transition = new DoubleMatrix[orderPrevious.size()][orderPrevious.size()];
     for (int i = 0; i < orderPrevious.size(); i++) {
       int paramCountOuter = orderPrevious.get(i).getParameterCount();
       JacobianCalibrationMatrix thisInfo = jacobiansPrevious.get(orderPrevious.get(i).getName());
-      DoubleMatrix thisMatrix = thisInfo.getJacobianMatrix();
+      double[][] thisArray = thisInfo.getJacobianMatrix().toArrayUnsafe();
       int startIndexInner = 0;
       for (int j = 0; j < orderPrevious.size(); j++) {
         int paramCountInner = orderPrevious.get(j).getParameterCount();
-        if (thisInfo.containsCurve(orderPrevious.get(j).getName())) { // If not, the matrix stay with 0
-          for (int k = 0; k < paramCountOuter; k++) {
-            System.arraycopy(
-                thisMatrix.rowArray(k),
-                startIndexInner,
-                transition[startIndexBefore[i] + k],
-                startIndexBefore[j],
-                paramCountInner);
-          }
+        if (thisInfo.containsCurve(orderPrevious.get(j).getName())) { // If not, the block stays as zero
+          int start = startIndexInner;
+          transition[i][j] = DoubleMatrix.ofArrays(
+              paramCountOuter,
+              paramCountInner,
+              k -> Arrays.copyOfRange(thisArray[k], start, start + paramCountInner));
         }
         startIndexInner += paramCountInner;
       }
     }
-    DoubleMatrix transitionMatrix = DoubleMatrix.copyOf(transition);
-    return (DoubleMatrix) MATRIX_ALGEBRA.multiply(pDpPreviousMatrix, transitionMatrix);
+    BlockSparseMatrix transitionMatrix = BlockSparseMatrix.ofBlocks(blockSizes, blockSizes, transition);
+    return transitionMatrix.preMultiply(pDpPreviousMatrix);
   }
 
   //-------------------------------------------------------------------------
@@ -10,7 +10,6 @@ import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
-import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
 import com.opengamma.strata.product.option.SimpleConstantContinuousBarrier;
 
 /**
@@ -22,7 +21,7 @@ public class BlackBarrierPriceFormulaRepository {
   /**
    * The normal distribution implementation used in the pricing.
    */
-  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  private static final NormalDistribution NORMAL = new NormalDistribution(0, 1);
 
   /**
    * Small parameter.
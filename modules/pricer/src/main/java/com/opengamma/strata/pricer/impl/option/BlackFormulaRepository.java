@@ -16,7 +16,6 @@ import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.math.impl.rootfinding.NewtonRaphsonSingleRootFinder;
 import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
-import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
 
 /**
  * The primary repository for Black formulas, including the price, common greeks and implied volatility.
@@ -30,7 +29,7 @@ public final class BlackFormulaRepository {
 
   private static final Logger log = LoggerFactory.getLogger(BlackFormulaRepository.class);
 
-  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  private static final NormalDistribution NORMAL = new NormalDistribution(0, 1);
   private static final double LARGE = 1e13;
   private static final double SMALL = 1e-13;
   /** The comparison value used to determine near-zero. */
@@ -62,10 +61,50 @@ public final class BlackFormulaRepository {
       double lognormalVol,
       boolean isCall) {
 
-    ArgChecker.isTrue(forward >= 0d, "negative/NaN forward; have {}", forward);
-    ArgChecker.isTrue(strike >= 0d, "negative/NaN strike; have {}", strike);
-    ArgChecker.isTrue(timeToExpiry >= 0d, "negative/NaN timeToExpiry; have {}", timeToExpiry);
-    ArgChecker.isTrue(lognormalVol >= 0d, "negative/NaN lognormalVol; have {}", lognormalVol);
+    checkInputs(forward, strike, timeToExpiry, lognormalVol);
+    return priceKernel(forward, strike, timeToExpiry, lognormalVol, isCall);
+  }
+
+  /**
+   * Computes the forward price for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #price(double, double, double, double, boolean)} for each option,
+   * but the inputs are validated once and the loop does not allocate.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param isCall  true for call, false for put
+   * @return the forward prices
+   */
+  public static DoubleArray price(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray lognormalVols,
+      boolean isCall) {
+
+    int size = checkInputs(forwards, strikes, timesToExpiry, lognormalVols);
+    double[] forwardArray = forwards.toArrayUnsafe();
+    double[] strikeArray = strikes.toArrayUnsafe();
+    double[] timeArray = timesToExpiry.toArrayUnsafe();
+    double[] volArray = lognormalVols.toArrayUnsafe();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = priceKernel(forwardArray[i], strikeArray[i], timeArray[i], volArray[i], isCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  // computes the price, the inputs having been validated
+  private static double priceKernel(
+      double forward,
+      double strike,
+      double timeToExpiry,
+      double lognormalVol,
+      boolean isCall) {
 
     double sigmaRootT = lognormalVol * Math.sqrt(timeToExpiry);
     if (Double.isNaN(sigmaRootT)) {
@@ -323,10 +362,49 @@ public final class BlackFormulaRepository {
       double lognormalVol,
       boolean isCall) {
 
-    ArgChecker.isTrue(forward >= 0d, "negative/NaN forward; have {}", forward);
-    ArgChecker.isTrue(strike >= 0d, "negative/NaN strike; have {}", strike);
-    ArgChecker.isTrue(timeToExpiry >= 0d, "negative/NaN timeToExpiry; have {}", timeToExpiry);
-    ArgChecker.isTrue(lognormalVol >= 0d, "negative/NaN lognormalVol; have {}", lognormalVol);
+    checkInputs(forward, strike, timeToExpiry, lognormalVol);
+    return deltaKernel(forward, strike, timeToExpiry, lognormalVol, isCall);
+  }
+
+  /**
+   * Computes the forward driftless delta for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #delta(double, double, double, double, boolean)} for each option.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param isCall  true for call, false for put
+   * @return the forward driftless deltas
+   */
+  public static DoubleArray delta(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray lognormalVols,
+      boolean isCall) {
+
+    int size = checkInputs(forwards, strikes, timesToExpiry, lognormalVols);
+    double[] forwardArray = forwards.toArrayUnsafe();
+    double[] strikeArray = strikes.toArrayUnsafe();
+    double[] timeArray = timesToExpiry.toArrayUnsafe();
+    double[] volArray = lognormalVols.toArrayUnsafe();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = deltaKernel(forwardArray[i], strikeArray[i], timeArray[i], volArray[i], isCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  // computes the delta, the inputs having been validated
+  private static double deltaKernel(
+      double forward,
+      double strike,
+      double timeToExpiry,
+      double lognormalVol,
+      boolean isCall) {
 
     double sigmaRootT = lognormalVol * Math.sqrt(timeToExpiry);
     if (Double.isNaN(sigmaRootT)) {
@@ -895,11 +973,42 @@ public final class BlackFormulaRepository {
    * @return the forward vega
    */
   public static double vega(double forward, double strike, double timeToExpiry, double lognormalVol) {
-    ArgChecker.isTrue(forward >= 0d, "negative/NaN forward; have {}", forward);
-    ArgChecker.isTrue(strike >= 0d, "negative/NaN strike; have {}", strike);
-    ArgChecker.isTrue(timeToExpiry >= 0d, "negative/NaN timeToExpiry; have {}", timeToExpiry);
-    ArgChecker.isTrue(lognormalVol >= 0d, "negative/NaN lognormalVol; have {}", lognormalVol);
+    checkInputs(forward, strike, timeToExpiry, lognormalVol);
+    return vegaKernel(forward, strike, timeToExpiry, lognormalVol);
+  }
+
+  /**
+   * Computes the forward vega for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #vega(double, double, double, double)} for each option.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @return the forward vegas
+   */
+  public static DoubleArray vega(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray lognormalVols) {
+
+    int size = checkInputs(forwards, strikes, timesToExpiry, lognormalVols);
+    double[] forwardArray = forwards.toArrayUnsafe();
+    double[] strikeArray = strikes.toArrayUnsafe();
+    double[] timeArray = timesToExpiry.toArrayUnsafe();
+    double[] volArray = lognormalVols.toArrayUnsafe();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = vegaKernel(forwardArray[i], strikeArray[i], timeArray[i], volArray[i]);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
 
+  // computes the vega, the inputs having been validated
+  private static double vegaKernel(double forward, double strike, double timeToExpiry, double lognormalVol) {
     double rootT = Math.sqrt(timeToExpiry);
     double sigmaRootT = lognormalVol * rootT;
     if (Double.isNaN(sigmaRootT)) {
@@ -1154,6 +1263,30 @@ public final class BlackFormulaRepository {
     return impliedVolatility(targetPrice, forward, strike, timeToExpiry, sigmaGuess);
   }
 
+  /**
+   * Computes the log-normal implied volatility for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The volatilities are computed by {@link RationalImpliedVolatilityFormula}, which does not need
+   * a volatility guess and is accurate to close to machine precision.
+   * 
+   * @param prices  the forward prices, which are the market prices divided by the numeraire
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param isCall  true for call, false for put
+   * @return the log-normal (Black) implied volatilities
+   */
+  public static DoubleArray impliedVolatility(
+      DoubleArray prices,
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      boolean isCall) {
+
+    return RationalImpliedVolatilityFormula.blackImpliedVolatility(prices, forwards, strikes, timesToExpiry, isCall);
+  }
+
   /**
    * Computes the log-normal implied volatility and its derivative with respect to price.
    * 
@@ -1450,4 +1583,29 @@ public final class BlackFormulaRepository {
     return normalVolatility * factor1 * factor2;
   }
 
+  //-------------------------------------------------------------------------
+  // validates the inputs, only creating the messages if the validation fails
+  private static void checkInputs(double forward, double strike, double timeToExpiry, double lognormalVol) {
+    if (!(forward >= 0d && strike >= 0d && timeToExpiry >= 0d && lognormalVol >= 0d)) {
+      ArgChecker.isTrue(forward >= 0d, "negative/NaN forward; have {}", forward);
+      ArgChecker.isTrue(strike >= 0d, "negative/NaN strike; have {}", strike);
+      ArgChecker.isTrue(timeToExpiry >= 0d, "negative/NaN timeToExpiry; have {}", timeToExpiry);
+      ArgChecker.isTrue(lognormalVol >= 0d, "negative/NaN lognormalVol; have {}", lognormalVol);
+    }
+  }
+
+  // validates the array inputs, returning the common size
+  private static int checkInputs(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray lognormalVols) {
+
+    int size = OptionFormulaArrays.checkSizes(forwards, strikes, timesToExpiry, lognormalVols);
+    for (int i = 0; i < size; i++) {
+      checkInputs(forwards.get(i), strikes.get(i), timesToExpiry.get(i), lognormalVols.get(i));
+    }
+    return size;
+  }
+
 }
@@ -7,7 +7,6 @@ package com.opengamma.strata.pricer.impl.option;
 
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
-import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
 
 /**
  * The primary repository for Black-Scholes formulas, including the price and greeks.
@@ -18,7 +17,7 @@ import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistrib
  */
 public final class BlackScholesFormulaRepository {
 
-  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  private static final NormalDistribution NORMAL = new NormalDistribution(0, 1);
   private static final double SMALL = 1e-13;
   private static final double LARGE = 1e13;
 
@@ -14,7 +14,6 @@ import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.math.impl.rootfinding.BisectionSingleRootFinder;
 import com.opengamma.strata.math.impl.rootfinding.BracketRoot;
 import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
-import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
 import com.opengamma.strata.product.common.PutCall;
 
 /**
@@ -25,7 +24,7 @@ public final class NormalFormulaRepository {
   /**
    * The normal distribution implementation.
    */
-  private static final ProbabilityDistribution<Double> DISTRIBUTION = new NormalDistribution(0, 1);
+  private static final NormalDistribution DISTRIBUTION = new NormalDistribution(0, 1);
   /**
    * The comparison value used to determine near-zero.
    */
@@ -72,6 +71,39 @@ public final class NormalFormulaRepository {
     return sign * (forward - strike) * cdf + sigmaRootT * pdf;
   }
 
+  /**
+   * Computes the forward price for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #price(double, double, double, double, PutCall)} for each option,
+   * but the loop does not allocate.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether it is put or call
+   * @return the forward prices
+   */
+  public static DoubleArray price(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray normalVols,
+      PutCall putCall) {
+
+    int size = OptionFormulaArrays.checkSizes(forwards, strikes, timesToExpiry, normalVols);
+    double[] forwardArray = forwards.toArrayUnsafe();
+    double[] strikeArray = strikes.toArrayUnsafe();
+    double[] timeArray = timesToExpiry.toArrayUnsafe();
+    double[] volArray = normalVols.toArrayUnsafe();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = price(forwardArray[i], strikeArray[i], timeArray[i], volArray[i], putCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes the price and first order derivatives.
@@ -167,6 +199,38 @@ public final class NormalFormulaRepository {
     return sign * cdf;
   }
 
+  /**
+   * Computes the delta for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #delta(double, double, double, double, PutCall)} for each option.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether it is put or call
+   * @return the deltas
+   */
+  public static DoubleArray delta(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray normalVols,
+      PutCall putCall) {
+
+    int size = OptionFormulaArrays.checkSizes(forwards, strikes, timesToExpiry, normalVols);
+    double[] forwardArray = forwards.toArrayUnsafe();
+    double[] strikeArray = strikes.toArrayUnsafe();
+    double[] timeArray = timesToExpiry.toArrayUnsafe();
+    double[] volArray = normalVols.toArrayUnsafe();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = delta(forwardArray[i], strikeArray[i], timeArray[i], volArray[i], putCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes the gamma.
@@ -247,6 +311,38 @@ public final class NormalFormulaRepository {
     return pdf * rootT;
   }
 
+  /**
+   * Computes the vega for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #vega(double, double, double, double, PutCall)} for each option.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether it is put or call
+   * @return the vegas
+   */
+  public static DoubleArray vega(
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray normalVols,
+      PutCall putCall) {
+
+    int size = OptionFormulaArrays.checkSizes(forwards, strikes, timesToExpiry, normalVols);
+    double[] forwardArray = forwards.toArrayUnsafe();
+    double[] strikeArray = strikes.toArrayUnsafe();
+    double[] timeArray = timesToExpiry.toArrayUnsafe();
+    double[] volArray = normalVols.toArrayUnsafe();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = vega(forwardArray[i], strikeArray[i], timeArray[i], volArray[i], putCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes the implied volatility.
@@ -316,6 +412,40 @@ public final class NormalFormulaRepository {
     return sigma;
   }
 
+  /**
+   * Computes the implied volatility for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #impliedVolatility(double, double, double, double, double, double, PutCall)}
+   * for each option.
+   * 
+   * @param optionPrices  the prices of the options
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param initialNormalVols  the normal volatilities used to start the search
+   * @param numeraire  the numeraire
+   * @param putCall  whether it is put or call
+   * @return the implied volatilities
+   */
+  public static DoubleArray impliedVolatility(
+      DoubleArray optionPrices,
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      DoubleArray initialNormalVols,
+      double numeraire,
+      PutCall putCall) {
+
+    int size = OptionFormulaArrays.checkSizes(optionPrices, forwards, strikes, timesToExpiry, initialNormalVols);
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = impliedVolatility(
+          optionPrices.get(i), forwards.get(i), strikes.get(i), timesToExpiry.get(i), initialNormalVols.get(i), numeraire, putCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
   /**
    * Compute the implied volatility using an approximate explicit transformation formula.
    * <p>
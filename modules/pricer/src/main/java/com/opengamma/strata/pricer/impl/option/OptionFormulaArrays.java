@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Checks on the arrays passed to the bulk methods of the option formulas.
+ */
+final class OptionFormulaArrays {
+
+  /**
+   * Restricted constructor.
+   */
+  private OptionFormulaArrays() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks that the arrays are not null and have the same size.
+   *
+   * @param first  the first array
+   * @param others  the other arrays
+   * @return the size of the arrays
+   * @throws IllegalArgumentException if an array is null or the sizes differ
+   */
+  static int checkSizes(DoubleArray first, DoubleArray... others) {
+    ArgChecker.notNull(first, "first");
+    int size = first.size();
+    for (DoubleArray other : others) {
+      ArgChecker.notNull(other, "other");
+      ArgChecker.isTrue(other.size() == size, "Arrays must have the same size, {} and {}", size, other.size());
+    }
+    return size;
+  }
+
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.product.common.PutCall;
+
+/**
+ * Implied volatility formulas for the Black and Bachelier (normal) models.
+ * <p>
+ * Unlike {@link GenericImpliedVolatiltySolver}, these do not require a volatility guess and do not bracket the root.
+ * An explicit approximation provides a starting point that is already close to the solution,
+ * and a small fixed number of high order iterations then gives an accuracy close to machine precision.
+ * <p>
+ * The Black implied volatility follows the ideas of P. Jäckel, "Let's be rational", Wilmott (2015).
+ * The price is normalised, and the problem is split into three regions around the inflection point of the
+ * normalised price as a function of the total volatility. In each region an objective function that is close
+ * to linear is solved by Householder iterations of order three, starting from the asymptotic expansion of the price.
+ * <p>
+ * The Bachelier implied volatility uses the rational approximation of J. Choi, K. Kim and M. Kwak,
+ * "Numerical approximation of the implied volatility under arithmetic Brownian motion",
+ * Applied Mathematical Finance (2009), followed by a Halley iteration.
+ * <p>
+ * As with the other formula repositories, all prices are <b>forward</b> prices, i.e. (spot price)/numeraire.
+ */
+public final class RationalImpliedVolatilityFormula {
+
+  /**
+   * The normal distribution.
+   */
+  private static final NormalDistribution NORMAL = new NormalDistribution(0, 1);
+  /**
+   * The relative accuracy at which the iterations stop.
+   */
+  private static final double EPS = 2d * Math.ulp(1d);
+  /**
+   * The maximum number of iterations.
+   */
+  private static final int MAX_ITERATIONS = 10;
+  private static final double ONE_OVER_SQRT_TWO_PI = 1d / Math.sqrt(2d * Math.PI);
+  private static final double SQRT_THREE = Math.sqrt(3d);
+  private static final double SQRT_HALF_PI = Math.sqrt(0.5 * Math.PI);
+  // coefficients for the rational approximation of Choi, Kim and Kwak, increasing powers
+  private static final double[] BACHELIER_A = {
+      3.994961687345134e-1, 2.100960795068497e+1, 4.980340217855084e+1, 5.988761102690991e+2,
+      1.848489695437094e+3, 6.106322407867059e+3, 2.493415285349361e+4, 1.266458051348246e+4};
+  private static final double[] BACHELIER_B = {
+      1.000000000000000e+0, 4.990534153589422e+1, 3.093573936743112e+1, 1.495105008310999e+3,
+      1.323614537899738e+3, 1.598919697679745e+4, 2.392008891720782e+4, 3.608817108375034e+3,
+      -2.067719486400926e+2, 1.174240599306013e+1};
+
+  // restricted constructor
+  private RationalImpliedVolatilityFormula() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the log-normal (Black) implied volatility.
+   * <p>
+   * The price must be at least the intrinsic value and less than the upper bound of the Black price,
+   * which is the forward for a call and the strike for a put.
+   * A price equal to the intrinsic value has an implied volatility of zero.
+   *
+   * @param price  the forward price, which is the market price divided by the numeraire
+   * @param forward  the forward value of the underlying
+   * @param strike  the strike
+   * @param timeToExpiry  the time to expiry
+   * @param isCall  true for call, false for put
+   * @return the log-normal (Black) implied volatility
+   */
+  public static double blackImpliedVolatility(
+      double price,
+      double forward,
+      double strike,
+      double timeToExpiry,
+      boolean isCall) {
+
+    if (!(price >= 0d && forward > 0d && strike >= 0d && timeToExpiry >= 0d) ||
+        Double.isInfinite(price) || Double.isInfinite(forward) || Double.isInfinite(strike)) {
+      ArgChecker.isTrue(price >= 0d, "negative/NaN price; have {}", price);
+      ArgChecker.isTrue(forward > 0d, "negative/NaN forward; have {}", forward);
+      ArgChecker.isTrue(strike >= 0d, "negative/NaN strike; have {}", strike);
+      ArgChecker.isTrue(timeToExpiry >= 0d, "negative/NaN timeToExpiry; have {}", timeToExpiry);
+      ArgChecker.isFalse(Double.isInfinite(price), "price is Infinity");
+      ArgChecker.isFalse(Double.isInfinite(forward), "forward is Infinity");
+      ArgChecker.isFalse(Double.isInfinite(strike), "strike is Infinity");
+    }
+    double intrinsic = Math.max(isCall ? forward - strike : strike - forward, 0d);
+    double timeValue = price - intrinsic;
+    ArgChecker.isTrue(timeValue >= 0d, "price {} is below the intrinsic value {}", price, intrinsic);
+    if (timeValue == 0d) {
+      return 0d;
+    }
+    ArgChecker.isTrue(timeToExpiry > 0d && strike > 0d, "price {} has no implied volatility", price);
+    // normalise, using put-call parity to convert to an out-of-the-money call with x <= 0
+    double rootFK = Math.sqrt(forward * strike);
+    double x = -Math.abs(Math.log(forward / strike));
+    double beta = timeValue / rootFK;
+    ArgChecker.isTrue(beta < Math.exp(0.5 * x), "price {} exceeds the upper bound of the Black price", price);
+    return normalisedBlackImpliedVolatility(beta, x) / Math.sqrt(timeToExpiry);
+  }
+
+  /**
+   * Computes the log-normal (Black) implied volatility for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #blackImpliedVolatility(double, double, double, double, boolean)}
+   * for each option.
+   *
+   * @param prices  the forward prices, which are the market prices divided by the numeraire
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param isCall  true for call, false for put
+   * @return the log-normal (Black) implied volatilities
+   */
+  public static DoubleArray blackImpliedVolatility(
+      DoubleArray prices,
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      boolean isCall) {
+
+    int size = OptionFormulaArrays.checkSizes(prices, forwards, strikes, timesToExpiry);
+    double[] priceArray = prices.toArrayUnsafe();
+    double[] forwardArray = forwards.toArrayUnsafe();
+    double[] strikeArray = strikes.toArrayUnsafe();
+    double[] timeArray = timesToExpiry.toArrayUnsafe();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = blackImpliedVolatility(priceArray[i], forwardArray[i], strikeArray[i], timeArray[i], isCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the normal (Bachelier) implied volatility.
+   * <p>
+   * The price must be at least the intrinsic value.
+   * A price equal to the intrinsic value has an implied volatility of zero.
+   *
+   * @param price  the forward price, which is the market price divided by the numeraire
+   * @param forward  the forward value of the underlying
+   * @param strike  the strike
+   * @param timeToExpiry  the time to expiry
+   * @param putCall  whether it is put or call
+   * @return the normal (Bachelier) implied volatility
+   */
+  public static double normalImpliedVolatility(
+      double price,
+      double forward,
+      double strike,
+      double timeToExpiry,
+      PutCall putCall) {
+
+    if (!(price >= 0d && timeToExpiry >= 0d) || Double.isInfinite(price) || Double.isNaN(forward) || Double.isNaN(strike)) {
+      ArgChecker.isTrue(price >= 0d, "negative/NaN price; have {}", price);
+      ArgChecker.isTrue(timeToExpiry >= 0d, "negative/NaN timeToExpiry; have {}", timeToExpiry);
+      ArgChecker.isFalse(Double.isInfinite(price), "price is Infinity");
+      ArgChecker.isFalse(Double.isNaN(forward), "forward is NaN");
+      ArgChecker.isFalse(Double.isNaN(strike), "strike is NaN");
+    }
+    double sign = putCall.isCall() ? 1d : -1d;
+    double moneyness = forward - strike;
+    double intrinsic = Math.max(sign * moneyness, 0d);
+    double timeValue = price - intrinsic;
+    ArgChecker.isTrue(timeValue >= 0d, "price {} is below the intrinsic value {}", price, intrinsic);
+    if (timeValue == 0d) {
+      return 0d;
+    }
+    ArgChecker.isTrue(timeToExpiry > 0d, "price {} has no implied volatility", price);
+    double distance = Math.abs(moneyness);
+    if (distance == 0d) {
+      // at-the-money, the price is proportional to the volatility
+      return timeValue / (ONE_OVER_SQRT_TWO_PI * Math.sqrt(timeToExpiry));
+    }
+    // the time value is the price of the out-of-the-money option
+    double sigmaRootT = timeValue < 1e-8 * distance ?
+        normalLowerGuess(timeValue / distance) * distance :
+        normalRationalGuess(timeValue, distance);
+    // Halley iterations on the logarithm of the out-of-the-money price
+    double target = Math.log(timeValue);
+    for (int i = 0; i < MAX_ITERATIONS; i++) {
+      double d = distance / sigmaRootT;
+      double otmPrice = normalOtmPrice(distance, sigmaRootT);
+      double vega = NORMAL.getPDF(d);
+      if (!(otmPrice > 0d) || vega == 0d) {
+        break;
+      }
+      double q = vega / otmPrice;
+      double nu = (target - Math.log(otmPrice)) / q;
+      double step = nu / (1d + 0.5 * (d * d / sigmaRootT - q) * nu);
+      double next = sigmaRootT + step;
+      sigmaRootT = next > 0d ? next : 0.5 * sigmaRootT;
+      if (Math.abs(step) <= EPS * sigmaRootT) {
+        break;
+      }
+    }
+    return sigmaRootT / Math.sqrt(timeToExpiry);
+  }
+
+  /**
+   * Computes the normal (Bachelier) implied volatility for arrays of options.
+   * <p>
+   * The arrays must all have the same size, with each index defining one option.
+   * The result is the same as calling {@link #normalImpliedVolatility(double, double, double, double, PutCall)}
+   * for each option.
+   *
+   * @param prices  the forward prices, which are the market prices divided by the numeraire
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param putCall  whether it is put or call
+   * @return the normal (Bachelier) implied volatilities
+   */
+  public static DoubleArray normalImpliedVolatility(
+      DoubleArray prices,
+      DoubleArray forwards,
+      DoubleArray strikes,
+      DoubleArray timesToExpiry,
+      PutCall putCall) {
+
+    int size = OptionFormulaArrays.checkSizes(prices, forwards, strikes, timesToExpiry);
+    double[] priceArray = prices.toArrayUnsafe();
+    double[] forwardArray = forwards.toArrayUnsafe();
+    double[] strikeArray = strikes.toArrayUnsafe();
+    double[] timeArray = timesToExpiry.toArrayUnsafe();
+    double[] result = new double[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = normalImpliedVolatility(priceArray[i], forwardArray[i], strikeArray[i], timeArray[i], putCall);
+    }
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  //-------------------------------------------------------------------------
+  // the total volatility s from the normalised out-of-the-money call price beta, with x = ln(F/K) <= 0
+  // the normalised price is b(x, s) = exp(x/2) N(x/s + s/2) - exp(-x/2) N(x/s - s/2)
+  private static double normalisedBlackImpliedVolatility(double beta, double x) {
+    if (x == 0d) {
+      // at-the-money, b = 1 - 2 N(-s/2) is inverted exactly
+      return -2d * NORMAL.getInverseCDF(0.5 * (1d - beta));
+    }
+    double bMax = Math.exp(0.5 * x);
+    // the inflection point, and the points where its tangent crosses zero and the maximum
+    double sC = Math.sqrt(-2d * x);
+    double bC = normalisedBlack(x, sC);
+    double vegaC = bMax * ONE_OVER_SQRT_TWO_PI;
+    double sL = sC - bC / vegaC;
+    double bL = sL > 0d ? normalisedBlack(x, sL) : 0d;
+    double sU = sC + (bMax - bC) / vegaC;
+    double bU = normalisedBlack(x, sU);
+    if (beta < bL) {
+      // lower region, objective 1/ln(b) - 1/ln(beta), start from the small volatility asymptotic
+      double s = lowerGuess(beta, x, sL);
+      double target = 1d / Math.log(beta);
+      for (int i = 0; i < MAX_ITERATIONS; i++) {
+        double b = normalisedBlack(x, s);
+        double vega = normalisedVega(x, s);
+        if (!(b > 0d) || vega == 0d) {
+          break;
+        }
+        double ln = Math.log(b);
+        double r2 = x * x / (s * s * s) - 0.25 * s;
+        double r3 = r2 * r2 - 3d * x * x / (s * s * s * s) - 0.25;
+        double q = vega / b;
+        double l1 = q;
+        double l2 = q * r2 - q * q;
+        double l3 = q * r3 - 3d * q * q * r2 + 2d * q * q * q;
+        double f1 = -l1 / (ln * ln);
+        double f2 = -l2 / (ln * ln) + 2d * l1 * l1 / (ln * ln * ln);
+        double f3 = -l3 / (ln * ln) + 6d * l1 * l2 / (ln * ln * ln) - 6d * l1 * l1 * l1 / (ln * ln * ln * ln);
+        double nu = -(1d / ln - target) / f1;
+        double next = s + nu * householderFactor(nu, f2 / f1, f3 / f1);
+        double step = next - s;
+        s = next > 0d ? next : 0.5 * s;
+        if (Math.abs(step) <= EPS * s) {
+          break;
+        }
+      }
+      return s;
+    }
+    if (beta <= bU) {
+      // central region, objective b - beta, start from the tangent at the inflection point
+      double s = sC + (beta - bC) / vegaC;
+      for (int i = 0; i < MAX_ITERATIONS; i++) {
+        double b = normalisedBlack(x, s);
+        double vega = normalisedVega(x, s);
+        double r2 = x * x / (s * s * s) - 0.25 * s;
+        double r3 = r2 * r2 - 3d * x * x / (s * s * s * s) - 0.25;
+        double nu = (beta - b) / vega;
+        double next = s + nu * householderFactor(nu, r2, r3);
+        double step = next - s;
+        s = next > 0d ? next : 0.5 * s;
+        if (Math.abs(step) <= EPS * s) {
+          break;
+        }
+      }
+      return s;
+    }
+    // upper region, objective ln(bMax - beta) - ln(bMax - b), start from the large volatility asymptotic
+    double s = upperGuess(beta, x, bMax, sU);
+    double target = Math.log(bMax - beta);
+    for (int i = 0; i < MAX_ITERATIONS; i++) {
+      double complement = normalisedBlackComplement(x, s);
+      double vega = normalisedVega(x, s);
+      if (!(complement > 0d) || vega == 0d) {
+        break;
+      }
+      double r2 = x * x / (s * s * s) - 0.25 * s;
+      double r3 = r2 * r2 - 3d * x * x / (s * s * s * s) - 0.25;
+      double p = vega / complement;
+      double nu = (target - Math.log(complement)) / -p;
+      double next = s + nu * householderFactor(nu, r2 + p, r3 + 3d * r2 * p + 2d * p * p);
+      double step = next - s;
+      s = next > 0d ? next : 0.5 * s;
+      if (Math.abs(step) <= EPS * s) {
+        break;
+      }
+    }
+    return s;
+  }
+
+  // the inverse of the small volatility asymptotic 2 pi |x| / (3 sqrt(3)) N(-|x| / (sqrt(3) s))^3
+  private static double lowerGuess(double beta, double x, double sL) {
+    double p = Math.cbrt(3d * SQRT_THREE * beta / (-2d * Math.PI * x));
+    if (!(p > 0d && p < 0.5)) {
+      return sL;
+    }
+    return x / (SQRT_THREE * NORMAL.getInverseCDF(p));
+  }
+
+  // the inverse of the large volatility asymptotic bMax - b = (exp(x/2) + exp(-x/2)) N(-s/2)
+  private static double upperGuess(double beta, double x, double bMax, double sU) {
+    double p = (bMax - beta) / (bMax + 1d / bMax);
+    if (!(p > 0d && p < 0.5)) {
+      return sU;
+    }
+    return Math.max(-2d * NORMAL.getInverseCDF(p), sU);
+  }
+
+  // the rational approximation of Choi, Kim and Kwak for the total normal volatility, based on the straddle price
+  private static double normalRationalGuess(double timeValue, double distance) {
+    double straddle = 2d * timeValue + distance;
+    double nu = distance / straddle;
+    double eta = nu < 1e-8 ? 1d : nu / atanh(nu);
+    return SQRT_HALF_PI * straddle * Math.sqrt(eta) * poly(BACHELIER_A, eta) / poly(BACHELIER_B, eta);
+  }
+
+  // the inverse of the asymptotic out-of-the-money price u = N'(d) / d^3 relative to the distance, returns 1/d
+  private static double normalLowerGuess(double u) {
+    double logU = Math.log(u / ONE_OVER_SQRT_TWO_PI);
+    double d = Math.sqrt(-2d * logU);
+    for (int i = 0; i < 3; i++) {
+      d = Math.sqrt(-2d * (logU + 3d * Math.log(d)));
+    }
+    return 1d / d;
+  }
+
+  // the out-of-the-money normal price, using the asymptotic expansion to avoid cancellation far from the money
+  private static double normalOtmPrice(double distance, double sigmaRootT) {
+    double d = distance / sigmaRootT;
+    if (d < 10d) {
+      return sigmaRootT * NORMAL.getPDF(d) - distance * NORMAL.getCDF(-d);
+    }
+    // 1 - d N(-d) / N'(d) = 1/d^2 - 3/d^4 + 15/d^6 - ...
+    double inverseSquare = 1d / (d * d);
+    double term = inverseSquare;
+    double sum = 0d;
+    for (int k = 1; Math.abs(term) > EPS * Math.abs(sum); k++) {
+      sum += term;
+      term *= -(2 * k + 1) * inverseSquare;
+    }
+    return sigmaRootT * NORMAL.getPDF(d) * sum;
+  }
+
+  // the normalised Black price of an out-of-the-money call
+  private static double normalisedBlack(double x, double s) {
+    double h = x / s;
+    double t = 0.5 * s;
+    return Math.exp(0.5 * x) * NORMAL.getCDF(h + t) - Math.exp(-0.5 * x) * NORMAL.getCDF(h - t);
+  }
+
+  // the difference between the maximum and the normalised Black price, without cancellation
+  private static double normalisedBlackComplement(double x, double s) {
+    double h = x / s;
+    double t = 0.5 * s;
+    return Math.exp(0.5 * x) * NORMAL.getCDF(-h - t) + Math.exp(-0.5 * x) * NORMAL.getCDF(h - t);
+  }
+
+  // the derivative of the normalised Black price with respect to the total volatility
+  private static double normalisedVega(double x, double s) {
+    double h = x / s;
+    double t = 0.5 * s;
+    return ONE_OVER_SQRT_TWO_PI * Math.exp(-0.5 * (h * h + t * t));
+  }
+
+  // the Householder factor for a third order step, given the Newton step and the ratios of the derivatives
+  private static double householderFactor(double newton, double halley, double hh3) {
+    return (1d + 0.5 * halley * newton) / (1d + newton * (halley + hh3 * newton / 6d));
+  }
+
+  private static double atanh(double x) {
+    return 0.5 * Math.log((1d + x) / (1d - x));
+  }
+
+  // evaluates a polynomial by Horner's method, coefficients in increasing order of power
+  private static double poly(double[] coefficients, double x) {
+    double result = coefficients[coefficients.length - 1];
+    for (int i = coefficients.length - 2; i >= 0; i--) {
+      result = result * x + coefficients[i];
+    }
+    return result;
+  }
+
+}
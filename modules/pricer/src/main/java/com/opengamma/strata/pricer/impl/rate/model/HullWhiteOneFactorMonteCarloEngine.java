@@ -0,0 +1,390 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
+import com.opengamma.strata.math.impl.random.SplittableNormalRandomNumberGenerator;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+import com.opengamma.strata.math.linearalgebra.DecompositionResult;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Monte Carlo engine for the Hull-White one factor model with piecewise constant volatility.
+ * <p>
+ * The short rate is written {@code r(t) = x(t) + phi(t)} with {@code dx = -a x dt + sigma(t) dW} and {@code x(0) = 0}.
+ * The state {@code x} and its integral are simulated jointly with the exact Gaussian transition between
+ * simulation times, so there is no discretization bias whatever the spacing of the times.
+ * The initial discount curve only enters through {@code phi} and is applied when the deflators
+ * and bond prices are computed from the paths, see {@link HullWhiteOneFactorPaths}.
+ * <p>
+ * The paths are split into blocks of fixed size. Each block draws its normal numbers from its own generator,
+ * split in a fixed order from the seed, and the blocks are simulated in parallel.
+ * The paths therefore only depend on the seed and the block size, not on the number of threads.
+ * <p>
+ * American and Bermudan options are priced by the regression method of Longstaff and Schwartz,
+ * with a polynomial basis in the state {@code x}.
+ */
+public final class HullWhiteOneFactorMonteCarloEngine {
+
+  /**
+   * The model.
+   */
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  /**
+   * The decomposition used to solve the regression normal equations.
+   */
+  private static final Decomposition<?> DECOMPOSITION = DecompositionFactory.SV_COMMONS;
+
+  /**
+   * The model parameters.
+   */
+  private final HullWhiteOneFactorPiecewiseConstantParameters parameters;
+  /**
+   * The number of paths.
+   */
+  private final int pathCount;
+  /**
+   * The number of paths in each block.
+   */
+  private final int blockSize;
+  /**
+   * The seed of the random number generators.
+   */
+  private final long seed;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   * <p>
+   * The paths are simulated in blocks of {@code blockSize}, the last block being possibly smaller.
+   * The same seed and block size always produce the same paths.
+   *
+   * @param parameters  the Hull-White model parameters
+   * @param pathCount  the number of paths
+   * @param blockSize  the number of paths in each block
+   * @param seed  the seed of the random number generators
+   * @return the engine
+   */
+  public static HullWhiteOneFactorMonteCarloEngine of(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      int pathCount,
+      int blockSize,
+      long seed) {
+
+    return new HullWhiteOneFactorMonteCarloEngine(parameters, pathCount, blockSize, seed);
+  }
+
+  // restricted constructor
+  private HullWhiteOneFactorMonteCarloEngine(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      int pathCount,
+      int blockSize,
+      long seed) {
+
+    ArgChecker.notNull(parameters, "parameters");
+    ArgChecker.isTrue(parameters.getMeanReversion() > 0d, "mean reversion must be positive");
+    ArgChecker.notNegativeOrZero(pathCount, "pathCount");
+    ArgChecker.notNegativeOrZero(blockSize, "blockSize");
+    this.parameters = parameters;
+    this.pathCount = pathCount;
+    this.blockSize = blockSize;
+    this.seed = seed;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the model parameters.
+   *
+   * @return the parameters
+   */
+  public HullWhiteOneFactorPiecewiseConstantParameters getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Gets the number of paths.
+   *
+   * @return the number of paths
+   */
+  public int getPathCount() {
+    return pathCount;
+  }
+
+  /**
+   * Gets the number of paths in each block.
+   *
+   * @return the block size
+   */
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Simulates the paths.
+   * <p>
+   * The discount factors are those of the initial curve, as a function of the time in the model.
+   *
+   * @param times  the simulation times, positive and strictly increasing
+   * @param discountFactors  the discount factors of the initial curve
+   * @return the paths
+   */
+  public HullWhiteOneFactorPaths simulate(DoubleArray times, DoubleUnaryOperator discountFactors) {
+    ArgChecker.notNull(discountFactors, "discountFactors");
+    int timeCount = times.size();
+    ArgChecker.isTrue(timeCount > 0, "at least one simulation time is required");
+    ArgChecker.isTrue(times.get(0) > 0d, "simulation times must be positive");
+    for (int i = 1; i < timeCount; i++) {
+      ArgChecker.isTrue(times.get(i - 1) < times.get(i), "simulation times must be strictly increasing");
+    }
+    // transition between consecutive times: x' = decay x + stateVol z1, I' = I + factor x + mixed z1 + integralVol z2
+    double a = parameters.getMeanReversion();
+    double[] decay = new double[timeCount];
+    double[] factor = new double[timeCount];
+    double[] stateVol = new double[timeCount];
+    double[] mixedVol = new double[timeCount];
+    double[] integralVol = new double[timeCount];
+    double[] integralVariances = new double[timeCount];
+    double start = 0d;
+    for (int k = 0; k < timeCount; k++) {
+      double end = times.get(k);
+      decay[k] = Math.exp(-a * (end - start));
+      factor[k] = (1d - decay[k]) / a;
+      double beta = MODEL.beta(parameters, start, end);
+      double stateVariance = beta * beta * Math.exp(-2d * a * end);
+      double covariance = (exponentialIntegral(parameters, start, end, end, 1) -
+          exponentialIntegral(parameters, start, end, end, 2)) / a;
+      double integralVariance = integralCovariance(parameters, start, end, end, end);
+      stateVol[k] = Math.sqrt(stateVariance);
+      mixedVol[k] = stateVol[k] > 0d ? covariance / stateVol[k] : 0d;
+      integralVol[k] = Math.sqrt(Math.max(integralVariance - mixedVol[k] * mixedVol[k], 0d));
+      integralVariances[k] = integralCovariance(parameters, 0d, end, end, end);
+      start = end;
+    }
+    // the generators are split sequentially so that each block always gets the same one
+    int blockCount = blockCount();
+    List<SplittableNormalRandomNumberGenerator> generators =
+        SplittableNormalRandomNumberGenerator.of(seed).split(blockCount);
+    double[][] states = new double[timeCount][pathCount];
+    double[][] integrals = new double[timeCount][pathCount];
+    IntStream.range(0, blockCount).parallel().forEach(block -> {
+      double[] normals = new double[2 * timeCount];
+      SplittableNormalRandomNumberGenerator generator = generators.get(block);
+      int blockEnd = Math.min(pathCount, (block + 1) * blockSize);
+      for (int p = block * blockSize; p < blockEnd; p++) {
+        generator.nextVector(normals);
+        double x = 0d;
+        double integral = 0d;
+        for (int k = 0; k < timeCount; k++) {
+          double z1 = normals[2 * k];
+          integral += factor[k] * x + mixedVol[k] * z1 + integralVol[k] * normals[2 * k + 1];
+          x = decay[k] * x + stateVol[k] * z1;
+          states[k][p] = x;
+          integrals[k][p] = integral;
+        }
+      }
+    });
+    return new HullWhiteOneFactorPaths(parameters, discountFactors, times, states, integrals, integralVariances);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the present value of a payment made at a simulation time.
+   * <p>
+   * The payment amount is given for each path, and the present value is the average of the deflated payments.
+   *
+   * @param paths  the simulated paths
+   * @param timeIndex  the index of the simulation time of the payment
+   * @param payments  the payment for each path
+   * @return the present value
+   */
+  public double presentValue(HullWhiteOneFactorPaths paths, int timeIndex, double[] payments) {
+    int nbPaths = paths.getPathCount();
+    ArgChecker.isTrue(payments.length == nbPaths, "payments must have one element per path");
+    double[] deflators = new double[nbPaths];
+    paths.deflators(timeIndex, deflators);
+    double sum = 0d;
+    for (int p = 0; p < nbPaths; p++) {
+      sum += payments[p] * deflators[p];
+    }
+    return sum / nbPaths;
+  }
+
+  /**
+   * Computes the present value of an option with several exercise dates by regression.
+   * <p>
+   * The exercise values are indexed by simulation time then path. A null array for a simulation time
+   * means that the option cannot be exercised at that time. The option is exercised at most once,
+   * and the holder receives the exercise value when positive.
+   * <p>
+   * At each exercise time but the last, the deflated value of continuation is regressed on the polynomials
+   * of the normalized state up to the given degree, using only the paths with a positive exercise value.
+   * The regression is computed in parallel by block and the blocks are combined in a fixed order.
+   * The present value is the average of the deflated cash flows following the regression exercise strategy,
+   * so it is biased low.
+   *
+   * @param paths  the simulated paths
+   * @param exerciseValues  the exercise values, indexed by simulation time then path
+   * @param degree  the degree of the regression polynomials
+   * @return the present value
+   */
+  public double americanPresentValue(HullWhiteOneFactorPaths paths, double[][] exerciseValues, int degree) {
+    int nbPaths = paths.getPathCount();
+    int timeCount = paths.getTimeCount();
+    ArgChecker.isTrue(exerciseValues.length == timeCount, "exerciseValues must have one element per simulation time");
+    ArgChecker.notNegativeOrZero(degree, "degree");
+    double[] cashFlows = new double[nbPaths];
+    double[] deflators = new double[nbPaths];
+    double a = parameters.getMeanReversion();
+    int nbBasis = degree + 1;
+    for (int k = timeCount - 1; k >= 0; k--) {
+      double[] exercise = exerciseValues[k];
+      if (exercise == null) {
+        continue;
+      }
+      ArgChecker.isTrue(exercise.length == nbPaths, "exercise values must have one element per path");
+      paths.deflators(k, deflators);
+      double[] state = paths.getState(k).toArrayUnsafe();
+      double time = paths.getTimes().get(k);
+      double scale = MODEL.beta(parameters, 0d, time) * Math.exp(-a * time);
+      double[] coefficients = regression(state, scale, exercise, cashFlows, nbBasis);
+      for (int p = 0; p < nbPaths; p++) {
+        if (exercise[p] > 0d) {
+          double deflatedExercise = exercise[p] * deflators[p];
+          if (coefficients == null || deflatedExercise > continuation(coefficients, state[p] / scale)) {
+            cashFlows[p] = deflatedExercise;
+          }
+        }
+      }
+    }
+    double sum = 0d;
+    for (int p = 0; p < nbPaths; p++) {
+      sum += cashFlows[p];
+    }
+    return sum / nbPaths;
+  }
+
+  // regression of the deflated cash flows on the basis, null if nothing to regress (at the last exercise)
+  private double[] regression(double[] state, double scale, double[] exercise, double[] cashFlows, int nbBasis) {
+    int nbPaths = state.length;
+    int blockCount = blockCount();
+    int size = nbBasis * nbBasis + nbBasis;
+    double[][] blockSums = new double[blockCount][size];
+    IntStream.range(0, blockCount).parallel().forEach(block -> {
+      double[] sums = blockSums[block];
+      double[] basis = new double[nbBasis];
+      int blockEnd = Math.min(nbPaths, (block + 1) * blockSize);
+      for (int p = block * blockSize; p < blockEnd; p++) {
+        if (exercise[p] > 0d) {
+          double z = state[p] / scale;
+          basis[0] = 1d;
+          for (int i = 1; i < nbBasis; i++) {
+            basis[i] = basis[i - 1] * z;
+          }
+          for (int i = 0; i < nbBasis; i++) {
+            for (int j = 0; j < nbBasis; j++) {
+              sums[i * nbBasis + j] += basis[i] * basis[j];
+            }
+            sums[nbBasis * nbBasis + i] += basis[i] * cashFlows[p];
+          }
+        }
+      }
+    });
+    double[] total = new double[size];
+    for (int block = 0; block < blockCount; block++) {
+      for (int i = 0; i < size; i++) {
+        total[i] += blockSums[block][i];
+      }
+    }
+    boolean hasCashFlow = false;
+    for (int i = 0; i < nbBasis; i++) {
+      hasCashFlow |= total[nbBasis * nbBasis + i] != 0d;
+    }
+    if (total[0] == 0d || !hasCashFlow) {
+      return null;
+    }
+    DoubleMatrix matrix = DoubleMatrix.of(nbBasis, nbBasis, (i, j) -> total[i * nbBasis + j]);
+    DoubleArray rhs = DoubleArray.ofUnsafe(total).subArray(nbBasis * nbBasis);
+    DecompositionResult decomposition = DECOMPOSITION.apply(matrix);
+    return decomposition.solve(rhs).toArrayUnsafe();
+  }
+
+  // the regressed continuation value
+  private static double continuation(double[] coefficients, double z) {
+    double value = 0d;
+    for (int i = coefficients.length - 1; i >= 0; i--) {
+      value = value * z + coefficients[i];
+    }
+    return value;
+  }
+
+  private int blockCount() {
+    return (pathCount + blockSize - 1) / blockSize;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the covariance of the integrated bond volatilities.
+   * <p>
+   * This is the integral between {@code start} and {@code end} of {@code sigma(s)^2 B(u1 - s) B(u2 - s)}
+   * with {@code B(u) = (1 - exp(-a u)) / a}.
+   *
+   * @param parameters  the model parameters
+   * @param start  the start of the integration
+   * @param end  the end of the integration
+   * @param maturity1  the first maturity, not before the end
+   * @param maturity2  the second maturity, not before the first maturity
+   * @return the covariance
+   */
+  static double integralCovariance(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      double start,
+      double end,
+      double maturity1,
+      double maturity2) {
+
+    double a = parameters.getMeanReversion();
+    double value = exponentialIntegral(parameters, start, end, maturity1, 0) -
+        exponentialIntegral(parameters, start, end, maturity1, 1) -
+        exponentialIntegral(parameters, start, end, maturity2, 1) +
+        Math.exp(-a * (maturity2 - maturity1)) * exponentialIntegral(parameters, start, end, maturity1, 2);
+    return value / (a * a);
+  }
+
+  // integral between start and end of sigma(s)^2 exp(-k a (u - s))
+  private static double exponentialIntegral(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      double start,
+      double end,
+      double u,
+      int k) {
+
+    double ka = k * parameters.getMeanReversion();
+    DoubleArray volatility = parameters.getVolatility();
+    DoubleArray volatilityTime = parameters.getVolatilityTime();
+    double sum = 0d;
+    for (int j = 0; j < volatility.size(); j++) {
+      double pieceStart = Math.max(volatilityTime.get(j), start);
+      double pieceEnd = j == volatility.size() - 1 ? end : Math.min(volatilityTime.get(j + 1), end);
+      if (pieceEnd > pieceStart) {
+        double sigma2 = volatility.get(j) * volatility.get(j);
+        sum += sigma2 * (k == 0 ?
+            pieceEnd - pieceStart :
+            (Math.exp(-ka * (u - pieceEnd)) - Math.exp(-ka * (u - pieceStart))) / ka);
+      }
+    }
+    return sum;
+  }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import java.util.function.DoubleUnaryOperator;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Monte Carlo paths of the Hull-White one factor model.
+ * <p>
+ * The short rate is represented as {@code r(t) = x(t) + phi(t)}, where {@code x} follows
+ * {@code dx = -a x dt + sigma(t) dW} with {@code x(0) = 0} under the risk neutral measure,
+ * and {@code phi} is the deterministic function fitting the initial discount curve.
+ * For each path and simulation time, the state {@code x(t)} and its integral {@code I(t)} from 0 to t are stored.
+ * <p>
+ * The deflator (the inverse of the bank account) and the zero-coupon bond prices are functions of these
+ * and of the initial discount curve. They are computed into primitive arrays on request.
+ * <p>
+ * Instances are created by {@link HullWhiteOneFactorMonteCarloEngine}.
+ */
+public final class HullWhiteOneFactorPaths {
+
+  /**
+   * The model parameters.
+   */
+  private final HullWhiteOneFactorPiecewiseConstantParameters parameters;
+  /**
+   * The discount factors of the initial curve, as a function of time.
+   */
+  private final DoubleUnaryOperator discountFactors;
+  /**
+   * The simulation times.
+   */
+  private final DoubleArray times;
+  /**
+   * The state x, indexed by time then path.
+   */
+  private final double[][] states;
+  /**
+   * The integral of the state, indexed by time then path.
+   */
+  private final double[][] integrals;
+  /**
+   * The variance of the integral of the state at each time.
+   */
+  private final double[] integralVariances;
+
+  // package-private constructor, arrays not copied
+  HullWhiteOneFactorPaths(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DoubleUnaryOperator discountFactors,
+      DoubleArray times,
+      double[][] states,
+      double[][] integrals,
+      double[] integralVariances) {
+
+    this.parameters = parameters;
+    this.discountFactors = discountFactors;
+    this.times = times;
+    this.states = states;
+    this.integrals = integrals;
+    this.integralVariances = integralVariances;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the model parameters.
+   *
+   * @return the parameters
+   */
+  public HullWhiteOneFactorPiecewiseConstantParameters getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Gets the simulation times.
+   *
+   * @return the times
+   */
+  public DoubleArray getTimes() {
+    return times;
+  }
+
+  /**
+   * Gets the number of simulation times.
+   *
+   * @return the number of times
+   */
+  public int getTimeCount() {
+    return times.size();
+  }
+
+  /**
+   * Gets the number of paths.
+   *
+   * @return the number of paths
+   */
+  public int getPathCount() {
+    return states.length == 0 ? 0 : states[0].length;
+  }
+
+  /**
+   * Gets the state {@code x(t)} of all the paths at a simulation time.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @return the state for each path
+   */
+  public DoubleArray getState(int timeIndex) {
+    return DoubleArray.ofUnsafe(states[timeIndex]);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the deflator of all the paths at a simulation time.
+   * <p>
+   * The deflator is the inverse of the bank account, {@code exp(-integral of r)},
+   * so that the present value of a payment is the average over the paths of the payment multiplied by the deflator.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param result  the array populated with the deflator for each path
+   */
+  public void deflators(int timeIndex, double[] result) {
+    ArgChecker.isTrue(result.length == getPathCount(), "result must have one element per path");
+    deflators(timeIndex, 0, result);
+  }
+
+  /**
+   * Computes the deflator of a range of paths at a simulation time.
+   * <p>
+   * The result is populated for the paths starting at {@code firstPath}, one per element of the array.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param firstPath  the index of the first path
+   * @param result  the array populated with the deflator for each path of the range
+   */
+  public void deflators(int timeIndex, int firstPath, double[] result) {
+    checkRange(firstPath, result);
+    double t = times.get(timeIndex);
+    double base = discountFactors.applyAsDouble(t) * Math.exp(-0.5 * integralVariances[timeIndex]);
+    double[] integral = integrals[timeIndex];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = base * Math.exp(-integral[firstPath + i]);
+    }
+  }
+
+  /**
+   * Computes the price of a zero-coupon bond for all the paths at a simulation time.
+   * <p>
+   * The bond pays 1 at the maturity, which must not be before the simulation time.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param maturity  the maturity of the bond
+   * @param result  the array populated with the bond price for each path
+   */
+  public void bondPrices(int timeIndex, double maturity, double[] result) {
+    ArgChecker.isTrue(result.length == getPathCount(), "result must have one element per path");
+    bondPrices(timeIndex, maturity, 0, result);
+  }
+
+  /**
+   * Computes the price of a zero-coupon bond for a range of paths at a simulation time.
+   * <p>
+   * The result is populated for the paths starting at {@code firstPath}, one per element of the array.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param maturity  the maturity of the bond
+   * @param firstPath  the index of the first path
+   * @param result  the array populated with the bond price for each path of the range
+   */
+  public void bondPrices(int timeIndex, double maturity, int firstPath, double[] result) {
+    checkRange(firstPath, result);
+    double t = times.get(timeIndex);
+    ArgChecker.isTrue(maturity >= t, "maturity {} must not be before the simulation time {}", maturity, t);
+    double a = parameters.getMeanReversion();
+    double b = (1d - Math.exp(-a * (maturity - t))) / a;
+    double convexity = 0.5 * (integralVariances[timeIndex] -
+        HullWhiteOneFactorMonteCarloEngine.integralCovariance(parameters, 0d, t, maturity, maturity));
+    double base = discountFactors.applyAsDouble(maturity) / discountFactors.applyAsDouble(t) * Math.exp(convexity);
+    double[] state = states[timeIndex];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = base * Math.exp(-b * state[firstPath + i]);
+    }
+  }
+
+  // checks the range of paths is valid
+  private void checkRange(int firstPath, double[] result) {
+    ArgChecker.isTrue(firstPath >= 0 && firstPath + result.length <= getPathCount(),
+        "paths {} to {} are not all simulated", firstPath, firstPath + result.length - 1);
+  }
+
+}
@@ -18,6 +18,7 @@ import com.opengamma.strata.math.impl.minimization.NonLinearParameterTransforms;
 import com.opengamma.strata.math.impl.minimization.NonLinearTransformFunction;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResults;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResultsWithTransform;
+import com.opengamma.strata.math.impl.statistics.leastsquare.LevenbergMarquardtLeastSquare;
 import com.opengamma.strata.math.impl.statistics.leastsquare.NonLinearLeastSquare;
 
 /**
@@ -27,6 +28,9 @@ import com.opengamma.strata.math.impl.statistics.leastsquare.NonLinearLeastSquar
  * squares between the market and model implied volatilities.
  * <p>
  * All the options must be for the same expiry and (implicitly) on the same underlying.
+ * <p>
+ * By default the fit uses {@link NonLinearLeastSquare}. A {@link LevenbergMarquardtLeastSquare} solver,
+ * which reuses its working arrays but does not check for saddle points, can be supplied instead.
  * 
  * @param <T>  the data of smile model to be calibrated
  */
@@ -84,7 +88,7 @@ public abstract class SmileModelFitter<T extends SmileModelData> {
         for (int i = 0; i < n; ++i) {
           res[i] = model.volatility(forward, strikes.get(i), timeToExpiry, data);
         }
-        return DoubleArray.copyOf(res);
+        return DoubleArray.ofUnsafe(res);
       }
     };
     this.volAdjointFunc = new Function<DoubleArray, DoubleMatrix>() {
@@ -96,7 +100,7 @@ public abstract class SmileModelFitter<T extends SmileModelData> {
           DoubleArray deriv = model.volatilityAdjoint(forward, strikes.get(i), timeToExpiry, data).getDerivatives();
           resAdj[i] = deriv.subArray(2).toArrayUnsafe();
         }
-        return DoubleMatrix.copyOf(resAdj);
+        return DoubleMatrix.ofUnsafe(resAdj);
       }
     };
   }
@@ -144,6 +148,31 @@ public abstract class SmileModelFitter<T extends SmileModelData> {
     return new LeastSquareResultsWithTransform(solRes, transform);
   }
 
+  /**
+   * Solve using the default NonLinearParameterTransforms and a user supplied Levenberg-Marquardt solver,
+   * with some parameters fixed to their initial values (indicated by fixed).
+   * <p>
+   * The solver uses the analytic derivatives of the model volatilities.
+   * Unlike the default solver, the solution is not checked for saddle points.
+   * 
+   * @param start  the first guess at the parameter values
+   * @param fixed  the parameters are fixed
+   * @param solver  the solver
+   * @return the calibration results
+   */
+  public LeastSquareResultsWithTransform solve(
+      DoubleArray start,
+      BitSet fixed,
+      LevenbergMarquardtLeastSquare solver) {
+
+    ArgChecker.notNull(solver, "solver");
+    NonLinearParameterTransforms transform = getTransform(start, fixed);
+    NonLinearTransformFunction transFunc = new NonLinearTransformFunction(volFunc, volAdjointFunc, transform);
+    LeastSquareResults solRes = solver.solve(marketValues, errors, transFunc.getFittingFunction(),
+        transFunc.getFittingJacobian(), transform.transform(start), getConstraintFunction(transform), getMaximumStep());
+    return new LeastSquareResultsWithTransform(solRes, transform);
+  }
+
   /**
    * Obtains volatility function of the smile model.
    * <p>
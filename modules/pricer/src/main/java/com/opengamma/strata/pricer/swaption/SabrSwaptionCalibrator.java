@@ -5,6 +5,8 @@
  */
 package com.opengamma.strata.pricer.swaption;
 
+import static java.util.stream.Collectors.toList;
+
 import java.time.LocalDate;
 import java.time.Period;
 import java.time.ZonedDateTime;
@@ -34,7 +36,9 @@ import com.opengamma.strata.market.surface.interpolator.SurfaceInterpolator;
 import com.opengamma.strata.math.MathException;
 import com.opengamma.strata.math.impl.rootfinding.NewtonRaphsonSingleRootFinder;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResultsWithTransform;
+import com.opengamma.strata.math.impl.statistics.leastsquare.LevenbergMarquardtLeastSquare;
 import com.opengamma.strata.pricer.impl.option.BlackFormulaRepository;
+import com.opengamma.strata.pricer.impl.option.RationalImpliedVolatilityFormula;
 import com.opengamma.strata.pricer.impl.volatility.smile.SabrFormulaData;
 import com.opengamma.strata.pricer.impl.volatility.smile.SabrModelFitter;
 import com.opengamma.strata.pricer.model.SabrInterestRateParameters;
@@ -67,6 +71,10 @@ public final class SabrSwaptionCalibrator {
    * The reference data.
    */
   private final ReferenceData refData;
+  /**
+   * The Levenberg-Marquardt solver used to fit the smiles, null to use the default solver of the fitter.
+   */
+  private final LevenbergMarquardtLeastSquare solver;
 
   /** The root-finder used in the Alpha calibration to ATM volatility. */
   private static final NewtonRaphsonSingleRootFinder ROOT_FINDER = new NewtonRaphsonSingleRootFinder();
@@ -76,7 +84,7 @@ public final class SabrSwaptionCalibrator {
    */
   public static final SabrSwaptionCalibrator DEFAULT =
       new SabrSwaptionCalibrator(
-          SabrVolatilityFormula.hagan(), DiscountingSwapProductPricer.DEFAULT, ReferenceData.standard());
+          SabrVolatilityFormula.hagan(), DiscountingSwapProductPricer.DEFAULT, ReferenceData.standard(), null);
 
   //-------------------------------------------------------------------------
   /**
@@ -92,7 +100,7 @@ public final class SabrSwaptionCalibrator {
       SabrVolatilityFormula sabrVolatilityFormula,
       DiscountingSwapProductPricer swapPricer) {
 
-    return new SabrSwaptionCalibrator(sabrVolatilityFormula, swapPricer, ReferenceData.standard());
+    return new SabrSwaptionCalibrator(sabrVolatilityFormula, swapPricer, ReferenceData.standard(), null);
   }
 
   /**
@@ -110,17 +118,34 @@ public final class SabrSwaptionCalibrator {
       DiscountingSwapProductPricer swapPricer,
       ReferenceData refData) {
 
-    return new SabrSwaptionCalibrator(sabrVolatilityFormula, swapPricer, refData);
+    return new SabrSwaptionCalibrator(sabrVolatilityFormula, swapPricer, refData, null);
   }
 
   private SabrSwaptionCalibrator(
       SabrVolatilityFormula sabrVolatilityFormula,
       DiscountingSwapProductPricer swapPricer,
-      ReferenceData refData) {
+      ReferenceData refData,
+      LevenbergMarquardtLeastSquare solver) {
 
     this.sabrVolatilityFormula = ArgChecker.notNull(sabrVolatilityFormula, "sabrVolatilityFormula");
     this.swapPricer = ArgChecker.notNull(swapPricer, "swapPricer");
     this.refData = ArgChecker.notNull(refData, "refData");
+    this.solver = solver;
+  }
+
+  /**
+   * Returns a copy of this calibrator that fits the smiles using a Levenberg-Marquardt solver.
+   * <p>
+   * By default, the smiles are fitted by {@link SabrModelFitter} using {@code NonLinearLeastSquare}.
+   * The Levenberg-Marquardt solver reuses its working arrays, which reduces allocation when calibrating
+   * many smiles, but does not check the solution for saddle points.
+   * 
+   * @param solver  the solver used to fit the smiles
+   * @return the calibrator
+   */
+  public SabrSwaptionCalibrator withLevenbergMarquardt(LevenbergMarquardtLeastSquare solver) {
+    return new SabrSwaptionCalibrator(
+        sabrVolatilityFormula, swapPricer, refData, ArgChecker.notNull(solver, "solver"));
   }
 
   //-------------------------------------------------------------------------
@@ -188,80 +213,135 @@ public final class SabrSwaptionCalibrator {
       Surface shiftSurface,
       boolean stopOnMathException) {
 
-    SwaptionVolatilitiesName name = definition.getName();
+    List<SmileCalibration> smiles = new ArrayList<>();
+    for (Tenor tenor : data.getTenors()) {
+      smiles.addAll(calibrateTenor(
+          definition, calibrationDateTime, tenor, data.getData(tenor), ratesProvider, betaSurface, shiftSurface,
+          stopOnMathException, false));
+    }
+    return volatilities(definition, calibrationDateTime, smiles, betaSurface, shiftSurface);
+  }
+
+  /**
+   * Calibrate SABR parameters to a set of raw swaption data, calibrating the tenors in parallel.
+   * <p>
+   * The SABR parameters are calibrated with fixed beta and fixed shift surfaces.
+   * The raw data can be (shifted) log-normal volatilities, normal volatilities or option prices
+   * <p>
+   * The smiles of the different tenors are calibrated concurrently.
+   * Within a tenor, the smiles are calibrated in order of expiry, and each calibration starts from
+   * the parameters calibrated for the previous expiry. The usual set of starting points is only tried
+   * if the fit from the previous parameters is poor, that is if its chi-square exceeds the number of data points.
+   * As the calibration is a least square fit, the parameters may differ slightly from
+   * {@link #calibrateWithFixedBetaAndShift(SabrSwaptionDefinition, ZonedDateTime, TenorRawOptionData,
+   * RatesProvider, Surface, Surface, boolean)}, but the result has the same nodes, metadata and sensitivity layout.
+   * 
+   * @param definition  the definition of the calibration to be performed
+   * @param calibrationDateTime  the data and time of the calibration
+   * @param data  the map of raw option data, keyed by tenor
+   * @param ratesProvider  the rate provider used to compute the swap forward rates
+   * @param betaSurface  the beta surface
+   * @param shiftSurface  the shift surface
+   * @param stopOnMathException  flag indicating if the calibration should stop on math exceptions or skip the 
+   *   expiries/tenors which throw MathException
+   * @return the SABR volatility object
+   */
+  public SabrParametersSwaptionVolatilities calibrateWithFixedBetaAndShiftParallel(
+      SabrSwaptionDefinition definition,
+      ZonedDateTime calibrationDateTime,
+      TenorRawOptionData data,
+      RatesProvider ratesProvider,
+      Surface betaSurface,
+      Surface shiftSurface,
+      boolean stopOnMathException) {
+
+    List<SmileCalibration> smiles = data.getTenors().parallelStream()
+        .flatMap(tenor -> calibrateTenor(
+            definition, calibrationDateTime, tenor, data.getData(tenor), ratesProvider, betaSurface, shiftSurface,
+            stopOnMathException, true).stream())
+        .collect(toList());
+    return volatilities(definition, calibrationDateTime, smiles, betaSurface, shiftSurface);
+  }
+
+  // calibrates the smiles of one tenor, in order of expiry
+  private List<SmileCalibration> calibrateTenor(
+      SabrSwaptionDefinition definition,
+      ZonedDateTime calibrationDateTime,
+      Tenor tenor,
+      RawOptionData tenorData,
+      RatesProvider ratesProvider,
+      Surface betaSurface,
+      Surface shiftSurface,
+      boolean stopOnMathException,
+      boolean warmStart) {
+
     FixedIborSwapConvention convention = definition.getConvention();
     DayCount dayCount = definition.getDayCount();
-    SurfaceInterpolator interpolator = definition.getInterpolator();
-
     BitSet fixed = new BitSet();
     fixed.set(1); // Beta fixed
     BusinessDayAdjustment bda = convention.getFloatingLeg().getStartDateBusinessDayAdjustment();
     LocalDate calibrationDate = calibrationDateTime.toLocalDate();
-    // Sorted maps to obtain the surfaces nodes in standard order
-    TreeMap<Double, TreeMap<Double, ParameterMetadata>> parameterMetadataTmp = new TreeMap<>();
-    TreeMap<Double, TreeMap<Double, DoubleArray>> dataSensitivityAlphaTmp = new TreeMap<>(); // Sensitivity to the calibrating data
-    TreeMap<Double, TreeMap<Double, DoubleArray>> dataSensitivityRhoTmp = new TreeMap<>();
-    TreeMap<Double, TreeMap<Double, DoubleArray>> dataSensitivityNuTmp = new TreeMap<>();
-    TreeMap<Double, TreeMap<Double, SabrFormulaData>> sabrPointTmp = new TreeMap<>();
-    for (Tenor tenor : data.getTenors()) {
-      RawOptionData tenorData = data.getData(tenor);
-      double timeTenor = tenor.getPeriod().getYears() + tenor.getPeriod().getMonths() / 12;
-      List<Period> expiries = tenorData.getExpiries();
-      int nbExpiries = expiries.size();
-      for (int loopexpiry = 0; loopexpiry < nbExpiries; loopexpiry++) {
-        Pair<DoubleArray, DoubleArray> availableSmile = tenorData.availableSmileAtExpiry(expiries.get(loopexpiry));
-        if (availableSmile.getFirst().size() == 0) { // If not data is available, no calibration possible
-          continue;
-        }
-        LocalDate exerciseDate = expirationDate(bda, calibrationDate, expiries.get(loopexpiry));
-        LocalDate effectiveDate = convention.calculateSpotDateFromTradeDate(exerciseDate, refData);
-        double timeToExpiry = dayCount.relativeYearFraction(calibrationDate, exerciseDate);
-        double beta = betaSurface.zValue(timeToExpiry, timeTenor);
-        double shift = shiftSurface.zValue(timeToExpiry, timeTenor);
-        LocalDate endDate = effectiveDate.plus(tenor);
-        SwapTrade swap0 = convention.toTrade(calibrationDate, effectiveDate, endDate, BuySell.BUY, 1.0, 0.0);
-        double forward = swapPricer.parRate(swap0.getProduct().resolve(refData), ratesProvider);
-        SabrFormulaData sabrPoint = null;
-        DoubleMatrix inverseJacobian = null;
-        boolean error = false;
-        try {
-          Pair<SabrFormulaData, DoubleMatrix> calibrationResult =
-              calibration(forward, shift, beta, fixed, bda, calibrationDateTime, dayCount,
-                  availableSmile.getFirst(), availableSmile.getSecond(), expiries.get(loopexpiry), tenorData);
-          sabrPoint = calibrationResult.getFirst();
-          inverseJacobian = calibrationResult.getSecond();
-        } catch (MathException e) {
-          error = true;
-          if (stopOnMathException) {
-            String message = Messages.format("{} at expiry {} and tenor {}", e.getMessage(),
-                expiries.get(loopexpiry), tenor);
-            throw new MathException(message, e);
-          }
-        }
-        if (!error) {
-          if (!parameterMetadataTmp.containsKey(timeToExpiry)) {
-            parameterMetadataTmp.put(timeToExpiry, new TreeMap<>());
-            dataSensitivityAlphaTmp.put(timeToExpiry, new TreeMap<>());
-            dataSensitivityRhoTmp.put(timeToExpiry, new TreeMap<>());
-            dataSensitivityNuTmp.put(timeToExpiry, new TreeMap<>());
-            sabrPointTmp.put(timeToExpiry, new TreeMap<>());
-          }
-          TreeMap<Double, ParameterMetadata> parameterMetadataExpiryMap = parameterMetadataTmp.get(timeToExpiry);
-          TreeMap<Double, DoubleArray> dataSensitivityAlphaExpiryMap = dataSensitivityAlphaTmp.get(timeToExpiry);
-          TreeMap<Double, DoubleArray> dataSensitivityRhoExpiryMap = dataSensitivityRhoTmp.get(timeToExpiry);
-          TreeMap<Double, DoubleArray> dataSensitivityNuExpiryMap = dataSensitivityNuTmp.get(timeToExpiry);
-          TreeMap<Double, SabrFormulaData> sabrPointExpiryMap = sabrPointTmp.get(timeToExpiry);
-          parameterMetadataExpiryMap.put(timeTenor, SwaptionSurfaceExpiryTenorParameterMetadata.of(
-              timeToExpiry,
-              timeTenor,
-              expiries.get(loopexpiry).toString() + "x" + tenor.toString()));
-          dataSensitivityAlphaExpiryMap.put(timeTenor, inverseJacobian.row(0));
-          dataSensitivityRhoExpiryMap.put(timeTenor, inverseJacobian.row(2));
-          dataSensitivityNuExpiryMap.put(timeTenor, inverseJacobian.row(3));
-          sabrPointExpiryMap.put(timeTenor, sabrPoint);
+    double timeTenor = tenor.getPeriod().getYears() + tenor.getPeriod().getMonths() / 12;
+    List<Period> expiries = tenorData.getExpiries();
+    int nbExpiries = expiries.size();
+    List<SmileCalibration> smiles = new ArrayList<>();
+    SabrFormulaData previous = null;
+    for (int loopexpiry = 0; loopexpiry < nbExpiries; loopexpiry++) {
+      Pair<DoubleArray, DoubleArray> availableSmile = tenorData.availableSmileAtExpiry(expiries.get(loopexpiry));
+      if (availableSmile.getFirst().size() == 0) { // If not data is available, no calibration possible
+        continue;
+      }
+      LocalDate exerciseDate = expirationDate(bda, calibrationDate, expiries.get(loopexpiry));
+      LocalDate effectiveDate = convention.calculateSpotDateFromTradeDate(exerciseDate, refData);
+      double timeToExpiry = dayCount.relativeYearFraction(calibrationDate, exerciseDate);
+      double beta = betaSurface.zValue(timeToExpiry, timeTenor);
+      double shift = shiftSurface.zValue(timeToExpiry, timeTenor);
+      LocalDate endDate = effectiveDate.plus(tenor);
+      SwapTrade swap0 = convention.toTrade(calibrationDate, effectiveDate, endDate, BuySell.BUY, 1.0, 0.0);
+      double forward = swapPricer.parRate(swap0.getProduct().resolve(refData), ratesProvider);
+      DoubleArray startParameters = warmStart && previous != null ?
+          DoubleArray.of(previous.getAlpha(), beta, previous.getRho(), previous.getNu()) :
+          null;
+      try {
+        Pair<SabrFormulaData, DoubleMatrix> calibrationResult =
+            calibration(forward, shift, beta, fixed, bda, calibrationDateTime, dayCount,
+                availableSmile.getFirst(), availableSmile.getSecond(), expiries.get(loopexpiry), tenorData,
+                startParameters);
+        previous = calibrationResult.getFirst();
+        ParameterMetadata metadata = SwaptionSurfaceExpiryTenorParameterMetadata.of(
+            timeToExpiry,
+            timeTenor,
+            expiries.get(loopexpiry).toString() + "x" + tenor.toString());
+        smiles.add(new SmileCalibration(
+            timeToExpiry, timeTenor, metadata, calibrationResult.getFirst(), calibrationResult.getSecond()));
+      } catch (MathException e) {
+        if (stopOnMathException) {
+          String message = Messages.format("{} at expiry {} and tenor {}", e.getMessage(),
+              expiries.get(loopexpiry), tenor);
+          throw new MathException(message, e);
         }
       }
     }
+    return smiles;
+  }
+
+  // creates the volatilities from the calibrated smiles, with the nodes sorted by expiry then tenor
+  private SabrParametersSwaptionVolatilities volatilities(
+      SabrSwaptionDefinition definition,
+      ZonedDateTime calibrationDateTime,
+      List<SmileCalibration> smiles,
+      Surface betaSurface,
+      Surface shiftSurface) {
+
+    SwaptionVolatilitiesName name = definition.getName();
+    FixedIborSwapConvention convention = definition.getConvention();
+    DayCount dayCount = definition.getDayCount();
+    SurfaceInterpolator interpolator = definition.getInterpolator();
+    // Sorted maps to obtain the surfaces nodes in standard order
+    TreeMap<Double, TreeMap<Double, SmileCalibration>> smilesTmp = new TreeMap<>();
+    for (SmileCalibration smile : smiles) {
+      smilesTmp.computeIfAbsent(smile.timeToExpiry, t -> new TreeMap<>()).put(smile.timeTenor, smile);
+    }
     DoubleArray timeToExpiryArray = DoubleArray.EMPTY;
     DoubleArray timeTenorArray = DoubleArray.EMPTY;
     DoubleArray alphaArray = DoubleArray.EMPTY;
@@ -271,23 +351,17 @@ public final class SabrSwaptionCalibrator {
     List<DoubleArray> dataSensitivityAlpha = new ArrayList<>(); // Sensitivity to the calibrating data
     List<DoubleArray> dataSensitivityRho = new ArrayList<>();
     List<DoubleArray> dataSensitivityNu = new ArrayList<>();
-    for (Double timeToExpiry : parameterMetadataTmp.keySet()) {
-      TreeMap<Double, ParameterMetadata> parameterMetadataExpiryMap = parameterMetadataTmp.get(timeToExpiry);
-      TreeMap<Double, DoubleArray> dataSensitivityAlphaExpiryMap = dataSensitivityAlphaTmp.get(timeToExpiry);
-      TreeMap<Double, DoubleArray> dataSensitivityRhoExpiryMap = dataSensitivityRhoTmp.get(timeToExpiry);
-      TreeMap<Double, DoubleArray> dataSensitivityNuExpiryMap = dataSensitivityNuTmp.get(timeToExpiry);
-      TreeMap<Double, SabrFormulaData> sabrPointExpiryMap = sabrPointTmp.get(timeToExpiry);
-      for (Double timeTenor : parameterMetadataExpiryMap.keySet()) {
-        parameterMetadata.add(parameterMetadataExpiryMap.get(timeTenor));
-        dataSensitivityAlpha.add(dataSensitivityAlphaExpiryMap.get(timeTenor));
-        dataSensitivityRho.add(dataSensitivityRhoExpiryMap.get(timeTenor));
-        dataSensitivityNu.add(dataSensitivityNuExpiryMap.get(timeTenor));
-        timeToExpiryArray = timeToExpiryArray.concat(timeToExpiry);
-        timeTenorArray = timeTenorArray.concat(timeTenor);
-        SabrFormulaData sabrPt = sabrPointExpiryMap.get(timeTenor);
-        alphaArray = alphaArray.concat(sabrPt.getAlpha());
-        rhoArray = rhoArray.concat(sabrPt.getRho());
-        nuArray = nuArray.concat(sabrPt.getNu());
+    for (TreeMap<Double, SmileCalibration> smilesExpiryMap : smilesTmp.values()) {
+      for (SmileCalibration smile : smilesExpiryMap.values()) {
+        parameterMetadata.add(smile.metadata);
+        dataSensitivityAlpha.add(smile.inverseJacobian.row(0));
+        dataSensitivityRho.add(smile.inverseJacobian.row(2));
+        dataSensitivityNu.add(smile.inverseJacobian.row(3));
+        timeToExpiryArray = timeToExpiryArray.concat(smile.timeToExpiry);
+        timeTenorArray = timeTenorArray.concat(smile.timeTenor);
+        alphaArray = alphaArray.concat(smile.sabrPoint.getAlpha());
+        rhoArray = rhoArray.concat(smile.sabrPoint.getRho());
+        nuArray = nuArray.concat(smile.sabrPoint.getNu());
       }
     }
     SurfaceMetadata metadataAlpha = Surfaces.sabrParameterByExpiryTenor(
@@ -319,6 +393,8 @@ public final class SabrSwaptionCalibrator {
 
   // The main part of the calibration. The calibration is done 4 times with different starting points: low and high
   // volatilities and high and low vol of vol. The best result (in term of chi^2) is returned.
+  // If warm start parameters are provided, they are tried first and the other starting points are only
+  // tried if the chi^2 is larger than the number of data points.
   private Pair<SabrFormulaData, DoubleMatrix> calibration(
       double forward,
       double shift,
@@ -330,7 +406,8 @@ public final class SabrSwaptionCalibrator {
       DoubleArray strike,
       DoubleArray data,
       Period expiry,
-      RawOptionData rawData) {
+      RawOptionData rawData,
+      DoubleArray warmStartParameters) {
 
     double rhoStart = -0.50 * beta + 0.50 * (1 - beta);
     // Correlation is usually positive for normal and negative for log-normal;.
@@ -346,31 +423,24 @@ public final class SabrSwaptionCalibrator {
     nuStart[3] = 0.50;
     double chi2 = 1.0E+12; // Large number
     Pair<LeastSquareResultsWithTransform, DoubleArray> sabrCalibrationResult = null;
-    for (int i = 0; i < 4; i++) { // Try different starting points and take the best
-      DoubleArray startParameters = DoubleArray.of(alphaStart[i], beta, rhoStart, nuStart[i]);
-      Pair<LeastSquareResultsWithTransform, DoubleArray> r = null;
-      if (rawData.getDataType().equals(ValueType.NORMAL_VOLATILITY)) {
-        r = calibrateLsShiftedFromNormalVolatilities(bda, calibrationDateTime, dayCount,
-            expiry, forward, strike, rawData.getStrikeType(),
-            data, startParameters, fixed, shift);
-      } else {
-        if (rawData.getDataType().equals(ValueType.PRICE)) {
-          r = calibrateLsShiftedFromPrices(bda, calibrationDateTime, dayCount,
-              expiry, forward, strike, rawData.getStrikeType(),
-              data, startParameters, fixed, shift);
-        } else {
-          if (rawData.getDataType().equals(ValueType.BLACK_VOLATILITY)) {
-            r = calibrateLsShiftedFromBlackVolatilities(bda, calibrationDateTime, dayCount,
-                expiry, forward, strike, rawData.getStrikeType(),
-                data, rawData.getShift().orElse(0d), startParameters, fixed, shift);
-          } else {
-            throw new IllegalArgumentException("Data type not supported");
-          }
-        }
+    if (warmStartParameters != null) {
+      try {
+        sabrCalibrationResult = calibrateLs(bda, calibrationDateTime, dayCount,
+            expiry, forward, strike, data, rawData, warmStartParameters, fixed, shift);
+        chi2 = sabrCalibrationResult.getFirst().getChiSq();
+      } catch (MathException e) {
+        // the standard starting points are used
       }
-      if (r.getFirst().getChiSq() < chi2) { // Keep best calibration
-        sabrCalibrationResult = r;
-        chi2 = r.getFirst().getChiSq();
+    }
+    if (chi2 > data.size()) {
+      for (int i = 0; i < 4; i++) { // Try different starting points and take the best
+        DoubleArray startParameters = DoubleArray.of(alphaStart[i], beta, rhoStart, nuStart[i]);
+        Pair<LeastSquareResultsWithTransform, DoubleArray> r = calibrateLs(bda, calibrationDateTime, dayCount,
+            expiry, forward, strike, data, rawData, startParameters, fixed, shift);
+        if (r.getFirst().getChiSq() < chi2) { // Keep best calibration
+          sabrCalibrationResult = r;
+          chi2 = r.getFirst().getChiSq();
+        }
       }
     }
     @SuppressWarnings("null")
@@ -391,6 +461,38 @@ public final class SabrSwaptionCalibrator {
     return Pair.of(sabrParameters, parameterSensitivityToData);
   }
 
+  // calibrates from one starting point, according to the data type
+  private Pair<LeastSquareResultsWithTransform, DoubleArray> calibrateLs(
+      BusinessDayAdjustment bda,
+      ZonedDateTime calibrationDateTime,
+      DayCount dayCount,
+      Period expiry,
+      double forward,
+      DoubleArray strike,
+      DoubleArray data,
+      RawOptionData rawData,
+      DoubleArray startParameters,
+      BitSet fixed,
+      double shift) {
+
+    if (rawData.getDataType().equals(ValueType.NORMAL_VOLATILITY)) {
+      return calibrateLsShiftedFromNormalVolatilities(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, startParameters, fixed, shift);
+    }
+    if (rawData.getDataType().equals(ValueType.PRICE)) {
+      return calibrateLsShiftedFromPrices(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, startParameters, fixed, shift);
+    }
+    if (rawData.getDataType().equals(ValueType.BLACK_VOLATILITY)) {
+      return calibrateLsShiftedFromBlackVolatilities(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, rawData.getShift().orElse(0d), startParameters, fixed, shift);
+    }
+    throw new IllegalArgumentException("Data type not supported");
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calibrate SABR alpha parameters to a set of ATM swaption volatilities.
@@ -557,7 +659,7 @@ public final class SabrSwaptionCalibrator {
         blackVolatilitiesTransformed,
         errors,
         sabrVolatilityFormula);
-    LeastSquareResultsWithTransform result = fitter.solve(startParameters, fixedParameters);
+    LeastSquareResultsWithTransform result = solve(fitter, startParameters, fixedParameters);
     return Pair.of(result, volAndDerivatives.getSecond());
   }
 
@@ -631,17 +733,14 @@ public final class SabrSwaptionCalibrator {
       // No change required if shifts are the same
     }
     int nbStrikes = strikes.size();
-    double[] impliedVolatility = new double[nbStrikes];
-    double[] impliedVolatilityDerivatives = new double[nbStrikes];
-    for (int i = 0; i < nbStrikes; i++) {
-      ValueDerivatives price = BlackFormulaRepository.priceAdjoint(
-          forward + shiftInput, strikes.get(i) + shiftInput, timeToExpiry, blackVolatilities.get(i), true); // vega-[3]
-      ValueDerivatives iv = BlackFormulaRepository.impliedVolatilityAdjoint(
-          price.getValue(), forward + shiftOutput, strikes.get(i) + shiftOutput, timeToExpiry, true);
-      impliedVolatility[i] = iv.getValue();
-      impliedVolatilityDerivatives[i] = iv.getDerivative(0) * price.getDerivative(3);
-    }
-    return Pair.of(DoubleArray.ofUnsafe(impliedVolatility), DoubleArray.ofUnsafe(impliedVolatilityDerivatives));
+    DoubleArray times = DoubleArray.filled(nbStrikes, timeToExpiry);
+    DoubleArray prices = BlackFormulaRepository.price(
+        DoubleArray.filled(nbStrikes, forward + shiftInput), strikes.plus(shiftInput), times, blackVolatilities, true);
+    DoubleArray vegasInput = BlackFormulaRepository.vega(
+        DoubleArray.filled(nbStrikes, forward + shiftInput), strikes.plus(shiftInput), times, blackVolatilities);
+    Pair<DoubleArray, DoubleArray> volAndDerivatives =
+        blackVolatilitiesShiftedFromPrices(forward, shiftOutput, timeToExpiry, strikes, prices);
+    return Pair.of(volAndDerivatives.getFirst(), volAndDerivatives.getSecond().multipliedBy(vegasInput));
   }
 
   //-------------------------------------------------------------------------
@@ -696,7 +795,7 @@ public final class SabrSwaptionCalibrator {
         blackVolatilitiesTransformed,
         errors,
         sabrVolatilityFormula);
-    return Pair.of(fitter.solve(startParameters, fixedParameters), volAndDerivatives.getSecond());
+    return Pair.of(solve(fitter, startParameters, fixedParameters), volAndDerivatives.getSecond());
   }
 
   //-------------------------------------------------------------------------
@@ -719,15 +818,14 @@ public final class SabrSwaptionCalibrator {
       DoubleArray prices) {
 
     int nbStrikes = strikes.size();
-    double[] impliedVolatility = new double[nbStrikes];
-    double[] impliedVolatilityDerivatives = new double[nbStrikes];
-    for (int i = 0; i < nbStrikes; i++) {
-      ValueDerivatives iv = BlackFormulaRepository.impliedVolatilityAdjoint(
-          prices.get(i), forward + shiftOutput, strikes.get(i) + shiftOutput, timeToExpiry, true);
-      impliedVolatility[i] = iv.getValue();
-      impliedVolatilityDerivatives[i] = iv.getDerivative(0);
-    }
-    return Pair.of(DoubleArray.ofUnsafe(impliedVolatility), DoubleArray.ofUnsafe(impliedVolatilityDerivatives));
+    DoubleArray forwards = DoubleArray.filled(nbStrikes, forward + shiftOutput);
+    DoubleArray strikesShifted = strikes.plus(shiftOutput);
+    DoubleArray times = DoubleArray.filled(nbStrikes, timeToExpiry);
+    DoubleArray impliedVolatility =
+        RationalImpliedVolatilityFormula.blackImpliedVolatility(prices, forwards, strikesShifted, times, true);
+    // the derivative of the implied volatility with respect to the price is the inverse of the vega
+    DoubleArray vegas = BlackFormulaRepository.vega(forwards, strikesShifted, times, impliedVolatility);
+    return Pair.of(impliedVolatility, vegas.map(vega -> 1d / vega));
   }
 
   //-------------------------------------------------------------------------
@@ -783,7 +881,7 @@ public final class SabrSwaptionCalibrator {
         blackVolatilitiesTransformed,
         errors,
         sabrVolatilityFormula);
-    LeastSquareResultsWithTransform result = fitter.solve(startParameters, fixedParameters);
+    LeastSquareResultsWithTransform result = solve(fitter, startParameters, fixedParameters);
     return Pair.of(result, volAndDerivatives.getSecond());
   }
 
@@ -895,8 +993,37 @@ public final class SabrSwaptionCalibrator {
    * @param expiry  the period to expiry
    * @return the date
    */
+  // fits the smile with the Levenberg-Marquardt solver if one has been specified
+  private LeastSquareResultsWithTransform solve(SabrModelFitter fitter, DoubleArray startParameters, BitSet fixed) {
+    return solver != null ? fitter.solve(startParameters, fixed, solver) : fitter.solve(startParameters, fixed);
+  }
+
   private LocalDate expirationDate(BusinessDayAdjustment bda, LocalDate calibrationDate, Period expiry) {
     return bda.adjust(calibrationDate.plus(expiry), refData);
   }
 
+  //-------------------------------------------------------------------------
+  // the calibrated parameters of one smile and their sensitivity to the data
+  private static final class SmileCalibration {
+    private final double timeToExpiry;
+    private final double timeTenor;
+    private final ParameterMetadata metadata;
+    private final SabrFormulaData sabrPoint;
+    private final DoubleMatrix inverseJacobian;
+
+    private SmileCalibration(
+        double timeToExpiry,
+        double timeTenor,
+        ParameterMetadata metadata,
+        SabrFormulaData sabrPoint,
+        DoubleMatrix inverseJacobian) {
+
+      this.timeToExpiry = timeToExpiry;
+      this.timeTenor = timeTenor;
+      this.metadata = metadata;
+      this.sabrPoint = sabrPoint;
+      this.inverseJacobian = inverseJacobian;
+    }
+  }
+
 }
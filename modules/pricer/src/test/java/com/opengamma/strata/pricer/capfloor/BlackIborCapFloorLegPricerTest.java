@@ -18,6 +18,7 @@ import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
@@ -29,6 +30,7 @@ import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.product.capfloor.IborCapletFloorletPeriod;
 import com.opengamma.strata.product.capfloor.ResolvedIborCapFloorLeg;
 
@@ -111,6 +113,57 @@ public class BlackIborCapFloorLegPricerTest {
     assertEquals(floorComputed.getAmount(), floorExpected, TOL * NOTIONAL_VALUE);
   }
 
+  // the leg pricer delegates to the period pricer, so a custom period pricer is used for all measures
+  public void test_presentValue_customPeriodPricer() {
+    BlackIborCapletFloorletPeriodPricer periodPricer = new BlackIborCapletFloorletPeriodPricer() {
+      @Override
+      public CurrencyAmount presentValueSum(
+          List<IborCapletFloorletPeriod> periods,
+          RatesProvider ratesProvider,
+          IborCapletFloorletVolatilities volatilities) {
+        return super.presentValueSum(periods, ratesProvider, volatilities).multipliedBy(2d);
+      }
+
+      @Override
+      public CurrencyAmount presentValueDeltaSum(
+          List<IborCapletFloorletPeriod> periods,
+          RatesProvider ratesProvider,
+          IborCapletFloorletVolatilities volatilities) {
+        return super.presentValueDeltaSum(periods, ratesProvider, volatilities).multipliedBy(3d);
+      }
+    };
+    BlackIborCapFloorLegPricer pricer = new BlackIborCapFloorLegPricer(periodPricer);
+    assertEquals(pricer.presentValue(CAP, RATES, VOLS), PRICER.presentValue(CAP, RATES, VOLS).multipliedBy(2d));
+    assertEquals(
+        pricer.presentValueDelta(CAP, RATES, VOLS), PRICER.presentValueDelta(CAP, RATES, VOLS).multipliedBy(3d));
+  }
+
+  // a period pricer that only overrides the single period methods is used by the batch methods
+  public void test_presentValue_customSinglePeriodPricer() {
+    BlackIborCapletFloorletPeriodPricer periodPricer = new BlackIborCapletFloorletPeriodPricer() {
+      @Override
+      public CurrencyAmount presentValue(
+          IborCapletFloorletPeriod period,
+          RatesProvider ratesProvider,
+          IborCapletFloorletVolatilities volatilities) {
+        return super.presentValue(period, ratesProvider, volatilities).multipliedBy(2d);
+      }
+
+      @Override
+      public CurrencyAmount presentValueDelta(
+          IborCapletFloorletPeriod period,
+          RatesProvider ratesProvider,
+          IborCapletFloorletVolatilities volatilities) {
+        return super.presentValueDelta(period, ratesProvider, volatilities).multipliedBy(3d);
+      }
+    };
+    BlackIborCapFloorLegPricer pricer = new BlackIborCapFloorLegPricer(periodPricer);
+    assertEquals(pricer.presentValue(CAP, RATES, VOLS).getAmount(),
+        PRICER.presentValue(CAP, RATES, VOLS).getAmount() * 2d, TOL * NOTIONAL_VALUE);
+    assertEquals(pricer.presentValueDelta(CAP, RATES, VOLS).getAmount(),
+        PRICER.presentValueDelta(CAP, RATES, VOLS).getAmount() * 3d, TOL * NOTIONAL_VALUE);
+  }
+
   //-------------------------------------------------------------------------
   public void test_presentValueDelta() {
     CurrencyAmount capComputed = PRICER.presentValueDelta(CAP, RATES, VOLS);
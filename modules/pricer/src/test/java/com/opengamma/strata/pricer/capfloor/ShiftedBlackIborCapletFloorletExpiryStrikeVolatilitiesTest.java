@@ -135,6 +135,32 @@ public class ShiftedBlackIborCapletFloorletExpiryStrikeVolatilitiesTest {
     }
   }
 
+  public void test_price_formula_batch() {
+    int size = NB_TEST * NB_TEST;
+    double[] expiries = new double[size];
+    double[] strikes = new double[size];
+    for (int i = 0; i < NB_TEST; i++) {
+      for (int j = 0; j < NB_TEST; j++) {
+        expiries[i * NB_TEST + j] = VOLS.relativeTime(TEST_OPTION_EXPIRY[i]);
+        strikes[i * NB_TEST + j] = TEST_STRIKE[j];
+      }
+    }
+    DoubleArray expiryArray = DoubleArray.ofUnsafe(expiries);
+    DoubleArray strikeArray = DoubleArray.ofUnsafe(strikes);
+    DoubleArray forwardArray = DoubleArray.filled(size, TEST_FORWARD);
+    DoubleArray volArray = DoubleArray.of(size, i -> 0.1 + 0.01 * i);
+    for (PutCall putCall : new PutCall[] {PutCall.CALL, PutCall.PUT}) {
+      DoubleArray prices = VOLS.price(expiryArray, putCall, strikeArray, forwardArray, volArray);
+      DoubleArray deltas = VOLS.priceDelta(expiryArray, putCall, strikeArray, forwardArray, volArray);
+      DoubleArray vegas = VOLS.priceVega(expiryArray, putCall, strikeArray, forwardArray, volArray);
+      for (int i = 0; i < size; i++) {
+        assertEquals(prices.get(i), VOLS.price(expiries[i], putCall, strikes[i], TEST_FORWARD, volArray.get(i)));
+        assertEquals(deltas.get(i), VOLS.priceDelta(expiries[i], putCall, strikes[i], TEST_FORWARD, volArray.get(i)));
+        assertEquals(vegas.get(i), VOLS.priceVega(expiries[i], putCall, strikes[i], TEST_FORWARD, volArray.get(i)));
+      }
+    }
+  }
+
   public void test_relativeTime() {
     double test1 = VOLS.relativeTime(VAL_DATE_TIME);
     assertEquals(test1, 0d);
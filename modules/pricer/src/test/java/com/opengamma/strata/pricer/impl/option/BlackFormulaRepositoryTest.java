@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.pricer.impl.option;
 
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.product.common.PutCall.CALL;
 import static com.opengamma.strata.product.common.PutCall.PUT;
 import static org.testng.Assert.assertEquals;
@@ -21,6 +22,7 @@ import com.opengamma.strata.math.impl.integration.RungeKuttaIntegrator1D;
 import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
 import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
 import com.opengamma.strata.product.common.PutCall;
+import com.opengamma.strata.collect.array.DoubleArray;
 
 /**
  * Test {@link BlackFormulaRepository}.
@@ -8845,4 +8847,54 @@ public class BlackFormulaRepositoryTest {
     assertEquals(bsD2[1][2], bsD2[2][1], TOLERANCE_1, "AD Second order: 2nd - str-vol");
   }
 
+  //-------------------------------------------------------------------------
+  public void batchTest() {
+    int nStrikes = STRIKES_INPUT.length;
+    int nVols = VOLS.length;
+    double[] forwards = new double[nStrikes * nVols];
+    double[] strikes = new double[nStrikes * nVols];
+    double[] times = new double[nStrikes * nVols];
+    double[] vols = new double[nStrikes * nVols];
+    for (int i = 0; i < nStrikes; i++) {
+      for (int j = 0; j < nVols; j++) {
+        int index = i * nVols + j;
+        forwards[index] = FORWARD;
+        strikes[index] = STRIKES_INPUT[i];
+        times[index] = TIME_TO_EXPIRY * (j + 1) / nVols;
+        vols[index] = VOLS[j];
+      }
+    }
+    DoubleArray forwardArray = DoubleArray.ofUnsafe(forwards);
+    DoubleArray strikeArray = DoubleArray.ofUnsafe(strikes);
+    DoubleArray timeArray = DoubleArray.ofUnsafe(times);
+    DoubleArray volArray = DoubleArray.ofUnsafe(vols);
+    for (boolean isCall : new boolean[] {true, false}) {
+      DoubleArray prices = BlackFormulaRepository.price(forwardArray, strikeArray, timeArray, volArray, isCall);
+      DoubleArray deltas = BlackFormulaRepository.delta(forwardArray, strikeArray, timeArray, volArray, isCall);
+      DoubleArray vegas = BlackFormulaRepository.vega(forwardArray, strikeArray, timeArray, volArray);
+      DoubleArray impliedVols = BlackFormulaRepository.impliedVolatility(prices, forwardArray, strikeArray, timeArray, isCall);
+      for (int i = 0; i < forwards.length; i++) {
+        assertEquals(prices.get(i), BlackFormulaRepository.price(forwards[i], strikes[i], times[i], vols[i], isCall));
+        assertEquals(deltas.get(i), BlackFormulaRepository.delta(forwards[i], strikes[i], times[i], vols[i], isCall));
+        assertEquals(vegas.get(i), BlackFormulaRepository.vega(forwards[i], strikes[i], times[i], vols[i]));
+        double timeValue = prices.get(i) - Math.max(isCall ? forwards[i] - strikes[i] : strikes[i] - forwards[i], 0d);
+        if (timeValue > 1e-10 * prices.get(i)) {
+          assertEquals(impliedVols.get(i), vols[i], 1e-10 * prices.get(i) / timeValue);
+        }
+      }
+    }
+  }
+
+  public void batchWrongSizeTest() {
+    DoubleArray two = DoubleArray.of(1d, 2d);
+    DoubleArray three = DoubleArray.of(1d, 2d, 3d);
+    assertThrowsIllegalArg(() -> BlackFormulaRepository.price(two, two, three, two, true));
+    assertThrowsIllegalArg(() -> BlackFormulaRepository.vega(two, two, two, three));
+  }
+
+  public void batchNegativeVolTest() {
+    DoubleArray two = DoubleArray.of(1d, 2d);
+    assertThrowsIllegalArg(() -> BlackFormulaRepository.price(two, two, two, DoubleArray.of(0.2, -0.2), true));
+  }
+
 }
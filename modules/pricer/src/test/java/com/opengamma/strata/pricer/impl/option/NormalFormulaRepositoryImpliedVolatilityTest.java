@@ -12,6 +12,7 @@ import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.product.common.PutCall;
+import com.opengamma.strata.collect.array.DoubleArray;
 
 /**
  * Test {@link NormalFormulaRepository} implied volatility.
@@ -124,4 +125,20 @@ public class NormalFormulaRepositoryImpliedVolatilityTest {
     }
   }
 
+  public void implied_volatility_batch() {
+    DoubleArray prices = DoubleArray.copyOf(PRICES);
+    DoubleArray forwards = DoubleArray.filled(N, FORWARD);
+    DoubleArray strikes = DoubleArray.copyOf(STRIKES);
+    DoubleArray times = DoubleArray.filled(N, T);
+    DoubleArray initialVols = DoubleArray.filled(N, 0d);
+    DoubleArray computed =
+        NormalFormulaRepository.impliedVolatility(prices, forwards, strikes, times, initialVols, DF, PutCall.CALL);
+    for (int i = 0; i < N; i++) {
+      double expected = NormalFormulaRepository.impliedVolatility(
+          prices.get(i), FORWARD, STRIKES[i], T, 0d, DF, PutCall.CALL);
+      assertEquals(computed.get(i), expected);
+      assertEquals(computed.get(i), SIGMA[i], TOLERANCE_VOL);
+    }
+  }
+
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.product.common.PutCall;
+
+/**
+ * Test {@link RationalImpliedVolatilityFormula}.
+ */
+@Test
+public class RationalImpliedVolatilityFormulaTest {
+
+  private static final double FORWARD = 0.05;
+  private static final double[] STRIKES = {0.005, 0.02, 0.04, 0.049, 0.05, 0.0501, 0.06, 0.1, 0.3};
+  private static final double[] TIMES = {0.01, 0.5, 2d, 10d};
+  private static final double[] BLACK_VOLS = {0.01, 0.1, 0.25, 0.5, 1d, 2d};
+  private static final double[] NORMAL_VOLS = {0.0001, 0.001, 0.01, 0.05};
+
+  //-------------------------------------------------------------------------
+  public void test_black_roundTrip() {
+    for (double strike : STRIKES) {
+      for (double time : TIMES) {
+        for (double vol : BLACK_VOLS) {
+          for (boolean isCall : new boolean[] {true, false}) {
+            double price = BlackFormulaRepository.price(FORWARD, strike, time, vol, isCall);
+            double intrinsic = Math.max(isCall ? FORWARD - strike : strike - FORWARD, 0d);
+            // only test where the time value is resolved by the price
+            if (price - intrinsic > 1e-12 * price && price - intrinsic > 1e-250) {
+              double computed = RationalImpliedVolatilityFormula.blackImpliedVolatility(
+                  price, FORWARD, strike, time, isCall);
+              double tolerance = 1e-12 * Math.max(1d, price / (price - intrinsic));
+              assertEquals(computed, vol, vol * tolerance, "strike=" + strike + ", time=" + time);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  public void test_black_consistentWithRepository() {
+    for (double strike : STRIKES) {
+      double price = BlackFormulaRepository.price(FORWARD, strike, 2d, 0.3, true);
+      double expected = BlackFormulaRepository.impliedVolatility(price, FORWARD, strike, 2d, true);
+      double computed = RationalImpliedVolatilityFormula.blackImpliedVolatility(price, FORWARD, strike, 2d, true);
+      assertEquals(computed, expected, 1e-8);
+    }
+  }
+
+  public void test_black_intrinsic() {
+    assertEquals(RationalImpliedVolatilityFormula.blackImpliedVolatility(0.5, 1.5, 1d, 1d, true), 0d);
+    assertEquals(RationalImpliedVolatilityFormula.blackImpliedVolatility(0d, 0.05, 0.06, 1d, true), 0d);
+    assertEquals(RationalImpliedVolatilityFormula.blackImpliedVolatility(0d, 1.5, 1d, 0d, false), 0d);
+  }
+
+  public void test_black_invalid() {
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.blackImpliedVolatility(-0.01, 0.05, 0.05, 1d, true));
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.blackImpliedVolatility(0.01, -0.05, 0.05, 1d, true));
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.blackImpliedVolatility(0.005, 0.05, 0.04, 1d, true));
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.blackImpliedVolatility(0.06, 0.05, 0.04, 1d, true));
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.blackImpliedVolatility(0.02, 0.05, 0.04, 0d, true));
+  }
+
+  public void test_black_batch() {
+    int n = STRIKES.length;
+    DoubleArray strikes = DoubleArray.copyOf(STRIKES);
+    DoubleArray forwards = DoubleArray.filled(n, FORWARD);
+    DoubleArray times = DoubleArray.of(n, i -> TIMES[i % TIMES.length]);
+    DoubleArray prices = DoubleArray.of(n, i -> BlackFormulaRepository.price(FORWARD, STRIKES[i], times.get(i), 0.4, false));
+    DoubleArray computed = RationalImpliedVolatilityFormula.blackImpliedVolatility(prices, forwards, strikes, times, false);
+    for (int i = 0; i < n; i++) {
+      assertEquals(
+          computed.get(i),
+          RationalImpliedVolatilityFormula.blackImpliedVolatility(prices.get(i), FORWARD, STRIKES[i], times.get(i), false));
+    }
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.blackImpliedVolatility(
+        prices, forwards, strikes, times.subArray(1), false));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_normal_roundTrip() {
+    for (double strike : STRIKES) {
+      for (double time : TIMES) {
+        for (double vol : NORMAL_VOLS) {
+          for (PutCall putCall : new PutCall[] {PutCall.CALL, PutCall.PUT}) {
+            double price = NormalFormulaRepository.price(FORWARD, strike, time, vol, putCall);
+            double intrinsic = Math.max(putCall.isCall() ? FORWARD - strike : strike - FORWARD, 0d);
+            if (price - intrinsic > 1e-10 * price && price - intrinsic > 1e-250) {
+              double computed = RationalImpliedVolatilityFormula.normalImpliedVolatility(
+                  price, FORWARD, strike, time, putCall);
+              double tolerance = 1e-12 * Math.max(1d, price / (price - intrinsic));
+              assertEquals(computed, vol, vol * tolerance, "strike=" + strike + ", time=" + time);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  public void test_normal_negativeRates() {
+    double price = NormalFormulaRepository.price(-0.002, -0.001, 1.5, 0.006, PutCall.CALL);
+    assertEquals(
+        RationalImpliedVolatilityFormula.normalImpliedVolatility(price, -0.002, -0.001, 1.5, PutCall.CALL), 0.006, 1e-15);
+  }
+
+  public void test_normal_intrinsic() {
+    assertEquals(RationalImpliedVolatilityFormula.normalImpliedVolatility(0.5, 1.5, 1d, 1d, PutCall.CALL), 0d);
+    assertEquals(RationalImpliedVolatilityFormula.normalImpliedVolatility(0d, 0.05, 0.04, 1d, PutCall.PUT), 0d);
+  }
+
+  public void test_normal_invalid() {
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.normalImpliedVolatility(
+        -0.01, 0.05, 0.05, 1d, PutCall.CALL));
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.normalImpliedVolatility(
+        0.005, 0.05, 0.04, 1d, PutCall.CALL));
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.normalImpliedVolatility(
+        0.02, 0.05, 0.04, 0d, PutCall.CALL));
+  }
+
+  public void test_normal_batch() {
+    int n = STRIKES.length;
+    DoubleArray strikes = DoubleArray.copyOf(STRIKES);
+    DoubleArray forwards = DoubleArray.filled(n, FORWARD);
+    DoubleArray times = DoubleArray.of(n, i -> TIMES[i % TIMES.length]);
+    DoubleArray prices = DoubleArray.of(
+        n, i -> NormalFormulaRepository.price(FORWARD, STRIKES[i], times.get(i), 0.01, PutCall.CALL));
+    DoubleArray computed =
+        RationalImpliedVolatilityFormula.normalImpliedVolatility(prices, forwards, strikes, times, PutCall.CALL);
+    for (int i = 0; i < n; i++) {
+      assertEquals(
+          computed.get(i),
+          RationalImpliedVolatilityFormula.normalImpliedVolatility(
+              prices.get(i), FORWARD, STRIKES[i], times.get(i), PutCall.CALL));
+    }
+    assertThrowsIllegalArg(() -> RationalImpliedVolatilityFormula.normalImpliedVolatility(
+        prices, forwards.subArray(1), strikes, times, PutCall.CALL));
+  }
+
+}
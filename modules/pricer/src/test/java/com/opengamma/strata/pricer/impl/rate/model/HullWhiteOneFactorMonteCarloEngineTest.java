@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2019 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.function.DoubleUnaryOperator;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.impl.option.BlackFormulaRepository;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Test {@link HullWhiteOneFactorMonteCarloEngine}.
+ */
+@Test
+public class HullWhiteOneFactorMonteCarloEngineTest {
+
+  private static final HullWhiteOneFactorPiecewiseConstantParameters PARAMETERS =
+      HullWhiteOneFactorPiecewiseConstantParameters.of(
+          0.05, DoubleArray.of(0.01, 0.011, 0.012, 0.013), DoubleArray.of(0.5, 1d, 2d));
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  private static final DoubleUnaryOperator DISCOUNT_FACTORS = t -> Math.exp(-0.02 * t - 0.001 * t * t);
+  private static final DoubleArray TIMES = DoubleArray.of(0.25, 0.75, 1d, 1.5, 2d, 3d);
+  private static final int NB_PATHS = 20000;
+  private static final HullWhiteOneFactorMonteCarloEngine ENGINE =
+      HullWhiteOneFactorMonteCarloEngine.of(PARAMETERS, NB_PATHS, 1000, 12345L);
+  private static final HullWhiteOneFactorPaths PATHS = ENGINE.simulate(TIMES, DISCOUNT_FACTORS);
+
+  //-------------------------------------------------------------------------
+  public void test_deflators() {
+    double[] deflators = new double[NB_PATHS];
+    for (int k = 0; k < TIMES.size(); k++) {
+      PATHS.deflators(k, deflators);
+      assertMean(deflators, DISCOUNT_FACTORS.applyAsDouble(TIMES.get(k)));
+    }
+  }
+
+  public void test_bondPrices() {
+    double[] deflators = new double[NB_PATHS];
+    double[] bonds = new double[NB_PATHS];
+    double maturity = 5d;
+    for (int k = 0; k < TIMES.size(); k++) {
+      PATHS.deflators(k, deflators);
+      PATHS.bondPrices(k, maturity, bonds);
+      for (int p = 0; p < NB_PATHS; p++) {
+        bonds[p] *= deflators[p];
+      }
+      assertMean(bonds, DISCOUNT_FACTORS.applyAsDouble(maturity));
+    }
+    PATHS.bondPrices(2, TIMES.get(2), bonds);
+    assertEquals(bonds[0], 1d, 1e-14);
+    assertThrowsIllegalArg(() -> PATHS.bondPrices(2, 0.5, new double[NB_PATHS]));
+  }
+
+  public void test_stateVariance() {
+    double a = PARAMETERS.getMeanReversion();
+    for (int k = 0; k < TIMES.size(); k++) {
+      double t = TIMES.get(k);
+      double beta = MODEL.beta(PARAMETERS, 0d, t);
+      double expected = beta * beta * Math.exp(-2d * a * t);
+      double[] state = PATHS.getState(k).toArray();
+      double sum2 = 0d;
+      for (double x : state) {
+        sum2 += x * x;
+      }
+      assertEquals(sum2 / NB_PATHS, expected, 4d * expected * Math.sqrt(2d / NB_PATHS));
+    }
+  }
+
+  public void test_bondOption() {
+    int expiryIndex = 4;
+    double expiry = TIMES.get(expiryIndex);
+    double maturity = 5d;
+    double dfExpiry = DISCOUNT_FACTORS.applyAsDouble(expiry);
+    double dfMaturity = DISCOUNT_FACTORS.applyAsDouble(maturity);
+    double strike = dfMaturity / dfExpiry;
+    double[] payoffs = new double[NB_PATHS];
+    PATHS.bondPrices(expiryIndex, maturity, payoffs);
+    for (int p = 0; p < NB_PATHS; p++) {
+      payoffs[p] = Math.max(payoffs[p] - strike, 0d);
+    }
+    double alpha = MODEL.alpha(PARAMETERS, 0d, expiry, expiry, maturity);
+    double expected = dfExpiry * BlackFormulaRepository.price(dfMaturity / dfExpiry, strike, 1d, alpha, true);
+    double computed = ENGINE.presentValue(PATHS, expiryIndex, payoffs);
+    assertEquals(computed, expected, 0.03 * expected);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_american() {
+    // put on a zero-coupon bond exercisable at each simulation time from the second
+    double maturity = 5d;
+    double strike = 0.93;
+    double[][] exercise = new double[TIMES.size()][];
+    for (int k = 1; k < TIMES.size(); k++) {
+      exercise[k] = new double[NB_PATHS];
+      PATHS.bondPrices(k, maturity, exercise[k]);
+      for (int p = 0; p < NB_PATHS; p++) {
+        exercise[k][p] = strike - exercise[k][p];
+      }
+    }
+    double american = ENGINE.americanPresentValue(PATHS, exercise, 3);
+    for (int k = 1; k < TIMES.size(); k++) {
+      double[] payoffs = new double[NB_PATHS];
+      for (int p = 0; p < NB_PATHS; p++) {
+        payoffs[p] = Math.max(exercise[k][p], 0d);
+      }
+      double european = ENGINE.presentValue(PATHS, k, payoffs);
+      assertTrue(american >= european);
+      // a single exercise date is a European option
+      double[][] single = new double[TIMES.size()][];
+      single[k] = exercise[k];
+      assertEquals(ENGINE.americanPresentValue(PATHS, single, 3), european, 1e-15);
+    }
+  }
+
+  public void test_reproducible() {
+    HullWhiteOneFactorPaths other = HullWhiteOneFactorMonteCarloEngine.of(PARAMETERS, NB_PATHS, 1000, 12345L)
+        .simulate(TIMES, DISCOUNT_FACTORS);
+    double[] deflators1 = new double[NB_PATHS];
+    double[] deflators2 = new double[NB_PATHS];
+    for (int k = 0; k < TIMES.size(); k++) {
+      assertEquals(other.getState(k), PATHS.getState(k));
+      PATHS.deflators(k, deflators1);
+      other.deflators(k, deflators2);
+      assertEquals(deflators2, deflators1);
+    }
+    HullWhiteOneFactorPaths otherSeed = HullWhiteOneFactorMonteCarloEngine.of(PARAMETERS, NB_PATHS, 1000, 54321L)
+        .simulate(TIMES, DISCOUNT_FACTORS);
+    assertTrue(otherSeed.getState(0).get(0) != PATHS.getState(0).get(0));
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorMonteCarloEngine.of(PARAMETERS, 0, 10, 1L));
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorMonteCarloEngine.of(PARAMETERS, 10, 0, 1L));
+    assertThrowsIllegalArg(() -> ENGINE.simulate(DoubleArray.of(0d, 1d), DISCOUNT_FACTORS));
+    assertThrowsIllegalArg(() -> ENGINE.simulate(DoubleArray.of(1d, 1d), DISCOUNT_FACTORS));
+    assertThrowsIllegalArg(() -> ENGINE.presentValue(PATHS, 0, new double[10]));
+    assertThrowsIllegalArg(() -> ENGINE.americanPresentValue(PATHS, new double[1][], 2));
+  }
+
+  //-------------------------------------------------------------------------
+  // the sample mean is within 4 standard errors of the expected value
+  private static void assertMean(double[] values, double expected) {
+    double sum = 0d;
+    double sum2 = 0d;
+    for (double value : values) {
+      sum += value;
+      sum2 += value * value;
+    }
+    double mean = sum / values.length;
+    double error = Math.sqrt((sum2 / values.length - mean * mean) / values.length);
+    assertEquals(mean, expected, 4d * error + 1e-14);
+  }
+
+}
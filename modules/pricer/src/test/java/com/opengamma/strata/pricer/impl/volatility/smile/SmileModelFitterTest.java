@@ -21,8 +21,10 @@ import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.math.impl.cern.MersenneTwister;
 import com.opengamma.strata.math.impl.cern.RandomEngine;
 import com.opengamma.strata.math.impl.differentiation.VectorFieldFirstOrderDifferentiator;
+import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResults;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResultsWithTransform;
+import com.opengamma.strata.math.impl.statistics.leastsquare.LevenbergMarquardtLeastSquare;
 
 /**
  * Test case for smile model fitters.
@@ -101,6 +103,25 @@ public abstract class SmileModelFitterTest<T extends SmileModelData> {
     }
   }
 
+  public void testExactFitLevenbergMarquardt() {
+    LevenbergMarquardtLeastSquare solver = new LevenbergMarquardtLeastSquare(DecompositionFactory.SV_COMMONS, 1e-12);
+    double[][] start = getStartValues();
+    BitSet[] fixed = getFixedValues();
+    int nStartPoints = start.length;
+    ArgChecker.isTrue(fixed.length == nStartPoints);
+    for (int trys = 0; trys < nStartPoints; trys++) {
+      LeastSquareResultsWithTransform results = _fitter.solve(DoubleArray.copyOf(start[trys]), fixed[trys], solver);
+      DoubleArray res = results.getModelParameters();
+      assertEquals(0.0, results.getChiSq(), _chiSqEps);
+      int n = res.size();
+      T data = getModelData();
+      assertEquals(data.getNumberOfParameters(), n);
+      for (int i = 0; i < n; i++) {
+        assertEquals(data.getParameter(i), res.get(i), _paramValueEps);
+      }
+    }
+  }
+
   public void testNoisyFit() {
     double[][] start = getStartValues();
     BitSet[] fixed = getFixedValues();
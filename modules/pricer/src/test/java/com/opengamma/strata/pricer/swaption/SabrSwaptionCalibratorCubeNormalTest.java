@@ -130,4 +130,55 @@ public class SabrSwaptionCalibratorCubeNormalTest {
     }
   }
 
+  @Test
+  public void normal_cube_parallel() {
+    Surface betaSurface = ConstantSurface.of("Beta", 0.50)
+        .withMetadata(DefaultSurfaceMetadata.builder()
+            .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION)
+            .zValueType(ValueType.SABR_BETA).surfaceName("Beta").build());
+    double shift = 0.0300;
+    Surface shiftSurface = ConstantSurface.of("Shift", shift)
+        .withMetadata(DefaultSurfaceMetadata.builder()
+            .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION).surfaceName("Shift").build());
+    SabrParametersSwaptionVolatilities expected = SABR_CALIBRATION.calibrateWithFixedBetaAndShift(
+        DEFINITION, CALIBRATION_TIME, DATA_SPARSE, MULTICURVE, betaSurface, shiftSurface);
+    SabrParametersSwaptionVolatilities calibrated = SABR_CALIBRATION.calibrateWithFixedBetaAndShiftParallel(
+        DEFINITION, CALIBRATION_TIME, DATA_SPARSE, MULTICURVE, betaSurface, shiftSurface, true);
+    // same nodes and sensitivity layout
+    assertEquals(
+        calibrated.getParameters().getAlphaSurface().getMetadata(),
+        expected.getParameters().getAlphaSurface().getMetadata());
+    assertEquals(calibrated.getDataSensitivityAlpha().get().size(), expected.getDataSensitivityAlpha().get().size());
+    for (int i = 0; i < expected.getDataSensitivityAlpha().get().size(); i++) {
+      assertEquals(
+          calibrated.getDataSensitivityNu().get().get(i).size(),
+          expected.getDataSensitivityNu().get().get(i).size());
+    }
+    // prices reproduced with the same accuracy
+    for (int looptenor = 0; looptenor < TENORS.size(); looptenor++) {
+      double tenor = TENORS.get(looptenor).get(ChronoUnit.YEARS);
+      for (int loopexpiry = 0; loopexpiry < EXPIRIES.size(); loopexpiry++) {
+        LocalDate expiry = EUR_FIXED_1Y_EURIBOR_6M.getFloatingLeg().getStartDateBusinessDayAdjustment()
+            .adjust(CALIBRATION_DATE.plus(EXPIRIES.get(loopexpiry)), REF_DATA);
+        LocalDate effectiveDate = EUR_FIXED_1Y_EURIBOR_6M.calculateSpotDateFromTradeDate(expiry, REF_DATA);
+        LocalDate endDate = effectiveDate.plus(TENORS.get(looptenor));
+        SwapTrade swap = EUR_FIXED_1Y_EURIBOR_6M
+            .toTrade(CALIBRATION_DATE, effectiveDate, endDate, BuySell.BUY, 1.0, 0.0);
+        double parRate = SWAP_PRICER.parRate(swap.resolve(REF_DATA).getProduct(), MULTICURVE);
+        ZonedDateTime expiryDateTime = expiry.atTime(11, 0).atZone(ZoneId.of("Europe/Berlin"));
+        double time = calibrated.relativeTime(expiryDateTime);
+        for (int loopmoney = 0; loopmoney < MONEYNESS.size(); loopmoney++) {
+          if (!Double.isNaN(DATA_ARRAY_SPARSE[looptenor][loopexpiry][loopmoney])) {
+            double strike = parRate + MONEYNESS.get(loopmoney);
+            double volBlack = calibrated.volatility(expiryDateTime, tenor, strike, parRate);
+            double priceComputed = BlackFormulaRepository.price(parRate + shift, strike + shift, time, volBlack, true);
+            double priceNormal = NormalFormulaRepository.price(parRate, strike,
+                time, DATA_ARRAY_SPARSE[looptenor][loopexpiry][loopmoney], PutCall.CALL);
+            assertEquals(priceComputed, priceNormal, TOLERANCE_PRICE_CALIBRATION_LS);
+          }
+        }
+      }
+    }
+  }
+
 }
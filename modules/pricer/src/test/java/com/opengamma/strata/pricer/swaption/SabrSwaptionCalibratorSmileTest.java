@@ -23,6 +23,7 @@ import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.math.impl.statistics.leastsquare.LeastSquareResultsWithTransform;
+import com.opengamma.strata.math.impl.statistics.leastsquare.LevenbergMarquardtLeastSquare;
 import com.opengamma.strata.pricer.impl.option.BlackFormulaRepository;
 import com.opengamma.strata.pricer.impl.option.NormalFormulaRepository;
 import com.opengamma.strata.pricer.impl.volatility.smile.SabrFormulaData;
@@ -42,6 +43,8 @@ public class SabrSwaptionCalibratorSmileTest {
 
   private static final SabrVolatilityFormula SABR_FORMULA = SabrVolatilityFormula.hagan();
   private static final SabrSwaptionCalibrator SABR_CALIBRATION = SabrSwaptionCalibrator.DEFAULT;
+  private static final SabrSwaptionCalibrator SABR_CALIBRATION_LM =
+      SabrSwaptionCalibrator.DEFAULT.withLevenbergMarquardt(new LevenbergMarquardtLeastSquare());
 
   private static final Period EXPIRY_PERIOD = Period.ofYears(5);
   private static final BusinessDayAdjustment BDA = USD_FIXED_6M_LIBOR_3M.getFloatingLeg().getStartDateBusinessDayAdjustment();
@@ -137,6 +140,45 @@ public class SabrSwaptionCalibratorSmileTest {
     checkCalibrationPrice(MONEYNESS_5, VOLATILITY_BLACK_5, startParameters, fixed, shift, TOLERANCE_PRICE_CALIBRATION_LS);
   }
 
+  public void calibrate_smile_levenbergMarquardt() {
+    DoubleArray startParameters = DoubleArray.of(0.05, 0.50, 0.0, 0.1);
+    BitSet fixed = new BitSet();
+    fixed.set(1); // Beta fixed
+    double shift = 0.0100;
+    Pair<LeastSquareResultsWithTransform, DoubleArray> normal = SABR_CALIBRATION
+        .calibrateLsShiftedFromNormalVolatilities(BDA, CALIBRATION_TIME, ACT_365F, EXPIRY_PERIOD, FORWARD,
+            MONEYNESS_5, ValueType.SIMPLE_MONEYNESS, VOLATILITY_NORMAL_5, startParameters, fixed, shift);
+    Pair<LeastSquareResultsWithTransform, DoubleArray> normalLm = SABR_CALIBRATION_LM
+        .calibrateLsShiftedFromNormalVolatilities(BDA, CALIBRATION_TIME, ACT_365F, EXPIRY_PERIOD, FORWARD,
+            MONEYNESS_5, ValueType.SIMPLE_MONEYNESS, VOLATILITY_NORMAL_5, startParameters, fixed, shift);
+    checkSameFit(normalLm.getFirst(), normal.getFirst());
+    Pair<LeastSquareResultsWithTransform, DoubleArray> black = SABR_CALIBRATION
+        .calibrateLsShiftedFromBlackVolatilities(BDA, CALIBRATION_TIME, ACT_365F, EXPIRY_PERIOD, FORWARD,
+            MONEYNESS_5, ValueType.SIMPLE_MONEYNESS, VOLATILITY_BLACK_5, 0.0, startParameters, fixed, shift);
+    Pair<LeastSquareResultsWithTransform, DoubleArray> blackLm = SABR_CALIBRATION_LM
+        .calibrateLsShiftedFromBlackVolatilities(BDA, CALIBRATION_TIME, ACT_365F, EXPIRY_PERIOD, FORWARD,
+            MONEYNESS_5, ValueType.SIMPLE_MONEYNESS, VOLATILITY_BLACK_5, 0.0, startParameters, fixed, shift);
+    checkSameFit(blackLm.getFirst(), black.getFirst());
+    DoubleArray prices = DoubleArray.of(MONEYNESS_5.size(), i -> BlackFormulaRepository.price(
+        FORWARD, FORWARD + MONEYNESS_5.get(i), TIME_EXPIRY, VOLATILITY_BLACK_5.get(i), true));
+    Pair<LeastSquareResultsWithTransform, DoubleArray> price = SABR_CALIBRATION
+        .calibrateLsShiftedFromPrices(BDA, CALIBRATION_TIME, ACT_365F, EXPIRY_PERIOD, FORWARD,
+            MONEYNESS_5, ValueType.SIMPLE_MONEYNESS, prices, startParameters, fixed, shift);
+    Pair<LeastSquareResultsWithTransform, DoubleArray> priceLm = SABR_CALIBRATION_LM
+        .calibrateLsShiftedFromPrices(BDA, CALIBRATION_TIME, ACT_365F, EXPIRY_PERIOD, FORWARD,
+            MONEYNESS_5, ValueType.SIMPLE_MONEYNESS, prices, startParameters, fixed, shift);
+    checkSameFit(priceLm.getFirst(), price.getFirst());
+  }
+
+  private void checkSameFit(LeastSquareResultsWithTransform computed, LeastSquareResultsWithTransform expected) {
+    assertEquals(computed.getChiSq(), expected.getChiSq(), 1e-6 * (1d + expected.getChiSq()));
+    DoubleArray computedParameters = computed.getModelParameters();
+    DoubleArray expectedParameters = expected.getModelParameters();
+    for (int i = 0; i < expectedParameters.size(); i++) {
+      assertEquals(computedParameters.get(i), expectedParameters.get(i), 1e-5);
+    }
+  }
+
   private void checkCalibrationNormal(
       DoubleArray moneyness,
       DoubleArray normalVol,
@@ -13,6 +13,8 @@ import static org.testng.Assert.assertEquals;
 
 import org.testng.annotations.Test;
 
+import com.opengamma.strata.collect.io.BinaryBeanReader;
+import com.opengamma.strata.collect.io.BinaryBeanWriter;
 import com.opengamma.strata.product.TradeInfo;
 
 /**
@@ -61,4 +63,12 @@ public class ResolvedSwapTradeTest {
     assertSerialization(test);
   }
 
+  public void test_binarySerialization() {
+    ResolvedSwapTrade test = ResolvedSwapTrade.builder()
+        .info(TradeInfo.of(date(2014, 6, 30)))
+        .product(SWAP1)
+        .build();
+    assertEquals(BinaryBeanReader.fromBytes(BinaryBeanWriter.toBytes(test), ResolvedSwapTrade.class), test);
+  }
+
 }
@@ -6,6 +6,7 @@
 package com.opengamma.strata.report.framework.format;
 
 import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.io.BufferedCsvOutput;
 
 /**
  * Formatter for currency amounts.
@@ -33,6 +34,11 @@ final class CurrencyAmountValueFormatter
     return doubleFormatter.formatForCsv(amount.getAmount());
   }
 
+  @Override
+  public void formatForCsv(CurrencyAmount amount, BufferedCsvOutput output) {
+    doubleFormatter.formatForCsv(amount.getAmount(), output);
+  }
+
   @Override
   public String formatForDisplay(CurrencyAmount amount) {
     return doubleFormatter.formatForDisplay(amount.getAmount(), amount.getCurrency().getMinorUnitDigits());
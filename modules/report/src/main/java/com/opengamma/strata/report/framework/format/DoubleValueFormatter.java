@@ -11,6 +11,8 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
+import com.opengamma.strata.collect.io.BufferedCsvOutput;
+
 /**
  * Formatter for double amounts.
  */
@@ -22,6 +24,10 @@ final class DoubleValueFormatter
    */
   static final DoubleValueFormatter INSTANCE = new DoubleValueFormatter();
 
+  /**
+   * The number of decimal places in the decimal format.
+   */
+  private static final int FULL_AMOUNT_DECIMAL_PLACES = 10;
   /**
    * The decimal format.
    */
@@ -42,6 +48,23 @@ final class DoubleValueFormatter
     return FULL_AMOUNT_FORMAT.format(amount.doubleValue());
   }
 
+  @Override
+  public void formatForCsv(Double amount, BufferedCsvOutput output) {
+    formatForCsv(amount.doubleValue(), output);
+  }
+
+  /**
+   * Formats a double value for use in a CSV file, writing it as a single cell.
+   * <p>
+   * The output matches {@link #formatForCsv(Double)}.
+   *
+   * @param amount  the amount
+   * @param output  the CSV output to write to
+   */
+  void formatForCsv(double amount, BufferedCsvOutput output) {
+    output.writeCell(amount, FULL_AMOUNT_DECIMAL_PLACES);
+  }
+
   @Override
   public String formatForDisplay(Double object) {
     return formatForDisplay(object, 2);
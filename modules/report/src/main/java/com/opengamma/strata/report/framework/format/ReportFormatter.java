@@ -16,10 +16,9 @@ import java.util.Optional;
 import java.util.stream.IntStream;
 
 import com.google.common.collect.ImmutableList;
-import com.opengamma.strata.collect.Unchecked;
 import com.opengamma.strata.collect.io.AsciiTable;
 import com.opengamma.strata.collect.io.AsciiTableAlignment;
-import com.opengamma.strata.collect.io.CsvOutput;
+import com.opengamma.strata.collect.io.BufferedCsvOutput;
 import com.opengamma.strata.report.Report;
 
 /**
@@ -50,19 +49,22 @@ public abstract class ReportFormatter<R extends Report> {
   //-------------------------------------------------------------------------
   /**
    * Outputs the report table in CSV format.
+   * <p>
+   * The output is encoded using UTF-8. The stream is flushed but not closed.
    * 
    * @param report  the report
    * @param out  the output stream to write to
    */
-  @SuppressWarnings("resource")
   public void writeCsv(R report, OutputStream out) {
-    OutputStreamWriter outputWriter = new OutputStreamWriter(out, StandardCharsets.UTF_8);
-    CsvOutput csvOut = CsvOutput.safe(outputWriter);
+    BufferedCsvOutput csvOut = BufferedCsvOutput.safe(out, System.lineSeparator());
     csvOut.writeLine(report.getColumnHeaders());
-    IntStream.range(0, report.getRowCount())
-        .mapToObj(rowIdx -> formatRow(report, rowIdx, ReportOutputFormat.CSV))
-        .forEach(csvOut::writeLine);
-    Unchecked.wrap(outputWriter::flush);
+    for (int rowIdx = 0; rowIdx < report.getRowCount(); rowIdx++) {
+      for (int colIdx = 0; colIdx < report.getColumnCount(); colIdx++) {
+        writeCsvData(report, rowIdx, colIdx, csvOut);
+      }
+      csvOut.writeNewLine();
+    }
+    csvOut.flush();
   }
 
   /**
@@ -132,6 +134,21 @@ public abstract class ReportFormatter<R extends Report> {
    */
   protected abstract String formatData(R report, int rowIdx, int colIdx, ReportOutputFormat format);
 
+  /**
+   * Writes a piece of data as a single CSV cell.
+   * <p>
+   * The default implementation writes the result of {@link #formatData} using the CSV format.
+   * Subclasses may override this to write values directly using {@link #writeCsvValue}.
+   * 
+   * @param report the report containing the data
+   * @param rowIdx  the row index of the data
+   * @param colIdx  the column index of the data
+   * @param output  the CSV output to write to
+   */
+  protected void writeCsvData(R report, int rowIdx, int colIdx, BufferedCsvOutput output) {
+    output.writeCell(formatData(report, rowIdx, colIdx, ReportOutputFormat.CSV));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Formats a value into a string.
@@ -155,4 +172,23 @@ public abstract class ReportFormatter<R extends Report> {
         formatter.formatForDisplay(formatValue);
   }
 
+  /**
+   * Writes a value as a single CSV cell.
+   * <p>
+   * The output matches {@link #formatValue} using the CSV format.
+   *
+   * @param value  the value
+   * @param output  the CSV output to write to
+   */
+  protected void writeCsvValue(Object value, BufferedCsvOutput output) {
+    Object formatValue = value instanceof Optional ? ((Optional<?>) value).orElse(null) : value;
+
+    if (formatValue == null) {
+      output.writeCell("");
+      return;
+    }
+    FormatSettings<Object> formatSettings = formatSettingsProvider.settings(formatValue.getClass(), defaultSettings);
+    formatSettings.getFormatter().formatForCsv(formatValue, output);
+  }
+
 }
@@ -5,6 +5,8 @@
  */
 package com.opengamma.strata.report.framework.format;
 
+import com.opengamma.strata.collect.io.BufferedCsvOutput;
+
 /**
  * Formats a value into a string.
  * <p>
@@ -24,6 +26,19 @@ public interface ValueFormatter<T> {
    */
   public abstract String formatForCsv(T object);
 
+  /**
+   * Formats a value for use in a CSV file, writing it as a single cell.
+   * <p>
+   * This allows numeric values to be written without creating a string.
+   * The default implementation writes the result of {@link #formatForCsv(Object)}.
+   * 
+   * @param object  the object to format
+   * @param output  the CSV output to write to
+   */
+  public default void formatForCsv(T object, BufferedCsvOutput output) {
+    output.writeCell(formatForCsv(object));
+  }
+
   /**
    * Formats a value for display.
    * <p>
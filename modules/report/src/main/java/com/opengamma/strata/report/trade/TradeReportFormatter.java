@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.stream.IntStream;
 
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.io.BufferedCsvOutput;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.report.framework.format.FormatCategory;
 import com.opengamma.strata.report.framework.format.FormatSettings;
@@ -76,4 +77,14 @@ public final class TradeReportFormatter
     return formatValue(value, format);
   }
 
+  @Override
+  protected void writeCsvData(TradeReport report, int rowIdx, int colIdx, BufferedCsvOutput output) {
+    Result<?> result = report.getData().get(rowIdx, colIdx);
+    if (result.isFailure()) {
+      output.writeCell(formatData(report, rowIdx, colIdx, ReportOutputFormat.CSV));
+    } else {
+      writeCsvValue(result.getValue(), output);
+    }
+  }
+
 }
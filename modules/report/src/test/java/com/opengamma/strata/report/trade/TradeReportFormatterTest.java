@@ -7,6 +7,8 @@ package com.opengamma.strata.report.trade;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
@@ -16,6 +18,8 @@ import org.testng.annotations.Test;
 
 import com.google.common.collect.ArrayTable;
 import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 
@@ -62,6 +66,22 @@ public class TradeReportFormatterTest {
     assertThat(columnTypes).isEqualTo(ImmutableList.of(Object.class, Object.class));
   }
 
+  public void writeCsv() {
+    ArrayTable<Integer, Integer, Result<?>> table = ArrayTable.create(INDICES, INDICES);
+    table.put(0, 0, Result.success(CurrencyAmount.of(Currency.GBP, -1234.56789)));
+    table.put(0, 1, Result.success("=abc"));
+    table.put(1, 0, Result.success(0.123456789012d));
+    table.put(1, 1, Result.failure(FailureReason.ERROR, "fail"));
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    TradeReportFormatter.INSTANCE.writeCsv(report(table), baos);
+    String newLine = System.lineSeparator();
+    assertThat(new String(baos.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(
+        "col0,col1" + newLine +
+            "-1234.56789,=\"=abc\"" + newLine +
+            "0.123456789,FAIL: fail" + newLine);
+  }
+
   private TradeReport report(ArrayTable<Integer, Integer, Result<?>> table) {
     return TradeReport.builder()
         .columns(